@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package androidx.collection.benchmark;
+
+import androidx.collection.ArrayMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates and clears maps small enough to use the array caches shared by all {@link ArrayMap}
+ * instances, which are guarded by a lock on the ArrayMap class, and compares them with
+ * {@link HashMap}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ArrayMapChurnBenchmark {
+    // the shared caches hold arrays for maps of 4 and 8 entries
+    private static final int MAP_SIZE = 4;
+
+    private final Integer[] mKeys = Keys.shuffledIntegers(MAP_SIZE, 0);
+
+    @Benchmark
+    @Threads(1)
+    public int arrayMapChurn() {
+        return churnArrayMap();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int arrayMapChurn4Threads() {
+        return churnArrayMap();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int hashMapChurn() {
+        return churnHashMap();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int hashMapChurn4Threads() {
+        return churnHashMap();
+    }
+
+    private int churnArrayMap() {
+        ArrayMap<Integer, Integer> map = new ArrayMap<>();
+        for (int i = 0; i < MAP_SIZE; i++) {
+            map.put(mKeys[i], i);
+        }
+        int result = map.size();
+        map.clear();
+        return result;
+    }
+
+    private int churnHashMap() {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < MAP_SIZE; i++) {
+            map.put(mKeys[i], i);
+        }
+        int result = map.size();
+        map.clear();
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package androidx.collection.benchmark;
+
+import androidx.collection.ArraySet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ArraySet} with {@link HashSet} as the number of values grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ArraySetBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private Integer[] mValues;
+    private Integer[] mMissingValues;
+    private ArraySet<Integer> mArraySet;
+    private HashSet<Integer> mHashSet;
+    private int mCursor;
+
+    @Setup
+    public void setup() {
+        mValues = Keys.shuffledIntegers(size, 0);
+        mMissingValues = Keys.shuffledIntegers(size, size);
+        mArraySet = new ArraySet<>();
+        mHashSet = new HashSet<>();
+        for (Integer value : mValues) {
+            mArraySet.add(value);
+            mHashSet.add(value);
+        }
+    }
+
+    private int nextIndex() {
+        int index = mCursor;
+        mCursor = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public boolean arraySetContains() {
+        return mArraySet.contains(mValues[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean hashSetContains() {
+        return mHashSet.contains(mValues[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean arraySetAddRemove() {
+        Integer value = mMissingValues[nextIndex()];
+        mArraySet.add(value);
+        return mArraySet.remove(value);
+    }
+
+    @Benchmark
+    public boolean hashSetAddRemove() {
+        Integer value = mMissingValues[nextIndex()];
+        mHashSet.add(value);
+        return mHashSet.remove(value);
+    }
+
+    @Benchmark
+    public ArraySet<Integer> arraySetFill() {
+        ArraySet<Integer> set = new ArraySet<>();
+        for (Integer value : mValues) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public HashSet<Integer> hashSetFill() {
+        HashSet<Integer> set = new HashSet<>();
+        for (Integer value : mValues) {
+            set.add(value);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package androidx.collection.benchmark;
+
+import androidx.collection.CircularArray;
+import androidx.collection.CircularIntArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CircularArray} and {@link CircularIntArray} with {@link ArrayDeque} when used as
+ * a queue of a steady size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CircularArrayBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private Integer[] mValues;
+    private CircularArray<Integer> mCircularArray;
+    private CircularIntArray mCircularIntArray;
+    private ArrayDeque<Integer> mArrayDeque;
+    private int mCursor;
+
+    @Setup
+    public void setup() {
+        mValues = Keys.shuffledIntegers(size, 0);
+        mCircularArray = new CircularArray<>();
+        mCircularIntArray = new CircularIntArray();
+        mArrayDeque = new ArrayDeque<>();
+        for (Integer value : mValues) {
+            mCircularArray.addLast(value);
+            mCircularIntArray.addLast(value);
+            mArrayDeque.addLast(value);
+        }
+    }
+
+    private int nextIndex() {
+        int index = mCursor;
+        mCursor = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public Integer circularArrayAddPop() {
+        mCircularArray.addLast(mValues[nextIndex()]);
+        return mCircularArray.popFirst();
+    }
+
+    @Benchmark
+    public int circularIntArrayAddPop() {
+        mCircularIntArray.addLast(mValues[nextIndex()]);
+        return mCircularIntArray.popFirst();
+    }
+
+    @Benchmark
+    public Integer arrayDequeAddPop() {
+        mArrayDeque.addLast(mValues[nextIndex()]);
+        return mArrayDeque.pollFirst();
+    }
+
+    @Benchmark
+    public Integer circularArrayGet() {
+        return mCircularArray.get(nextIndex());
+    }
+
+    @Benchmark
+    public CircularArray<Integer> circularArrayFill() {
+        CircularArray<Integer> array = new CircularArray<>();
+        for (Integer value : mValues) {
+            array.addLast(value);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public ArrayDeque<Integer> arrayDequeFill() {
+        ArrayDeque<Integer> deque = new ArrayDeque<>();
+        for (Integer value : mValues) {
+            deque.addLast(value);
+        }
+        return deque;
+    }
+}
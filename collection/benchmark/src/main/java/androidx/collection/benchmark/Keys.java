@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package androidx.collection.benchmark;
+
+import java.util.Random;
+
+/**
+ * Creates the keys used by the benchmarks. The keys are shuffled with a fixed seed so that
+ * lookups do not walk the collections in order, while every run uses the same sequence.
+ */
+final class Keys {
+    private static final long SEED = 42;
+
+    /**
+     * Returns the ints in {@code [start, start + count)} in a shuffled order.
+     */
+    static int[] shuffledInts(int count, int start) {
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = start + i;
+        }
+        Random random = new Random(SEED);
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the boxed ints in {@code [start, start + count)} in a shuffled order.
+     */
+    static Integer[] shuffledIntegers(int count, int start) {
+        int[] ints = shuffledInts(count, start);
+        Integer[] keys = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ints[i];
+        }
+        return keys;
+    }
+
+    private Keys() {
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package androidx.collection.benchmark;
+
+import androidx.collection.ConcurrentLruCache;
+import androidx.collection.LruCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link LruCache} with {@link ConcurrentLruCache} when one cache is shared by several
+ * threads. The requested keys span a quarter more entries than the cache holds, so most of the
+ * requests are hits and the rest create a value and evict another one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LruCacheBenchmark {
+    @Param({"100", "10000"})
+    public int size;
+
+    private Integer[] mKeys;
+    private LruCache<Integer, Integer> mLruCache;
+    private ConcurrentLruCache<Integer, Integer> mConcurrentLruCache;
+
+    @Setup
+    public void setup() {
+        mKeys = Keys.shuffledIntegers(size + size / 4, 0);
+        mLruCache = new LruCache<Integer, Integer>(size) {
+            @Override
+            protected Integer create(Integer key) {
+                return key;
+            }
+        };
+        mConcurrentLruCache = new ConcurrentLruCache<Integer, Integer>(size) {
+            @Override
+            protected Integer create(Integer key) {
+                return key;
+            }
+        };
+    }
+
+    /**
+     * The position of each thread in the key sequence.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int mIndex;
+
+        @Setup
+        public void setup(LruCacheBenchmark benchmark) {
+            // start the threads at different keys so that they do not move in lockstep.
+            mIndex = (int) (Thread.currentThread().getId() % benchmark.mKeys.length);
+        }
+
+        Integer next(Integer[] keys) {
+            int index = mIndex;
+            mIndex = index + 1 == keys.length ? 0 : index + 1;
+            return keys[index];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer lruCache(Cursor cursor) {
+        return mLruCache.get(cursor.next(mKeys));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer lruCache4Threads(Cursor cursor) {
+        return mLruCache.get(cursor.next(mKeys));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Integer lruCache8Threads(Cursor cursor) {
+        return mLruCache.get(cursor.next(mKeys));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer concurrentLruCache(Cursor cursor) {
+        return mConcurrentLruCache.get(cursor.next(mKeys));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer concurrentLruCache4Threads(Cursor cursor) {
+        return mConcurrentLruCache.get(cursor.next(mKeys));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Integer concurrentLruCache8Threads(Cursor cursor) {
+        return mConcurrentLruCache.get(cursor.next(mKeys));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package androidx.collection.benchmark;
+
+import androidx.collection.ArrayMap;
+import androidx.collection.SimpleArrayMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups, insertions and removals of {@link SimpleArrayMap} with {@link HashMap} as the
+ * number of entries grows. See {@link ArrayMapChurnBenchmark} for the small array caches shared by
+ * all {@link ArrayMap} instances.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SimpleArrayMapBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private Integer[] mKeys;
+    private Integer[] mMissingKeys;
+    private SimpleArrayMap<Integer, Integer> mSimpleArrayMap;
+    private HashMap<Integer, Integer> mHashMap;
+    private int mCursor;
+
+    @Setup
+    public void setup() {
+        mKeys = Keys.shuffledIntegers(size, 0);
+        mMissingKeys = Keys.shuffledIntegers(size, size);
+        mSimpleArrayMap = new SimpleArrayMap<>();
+        mHashMap = new HashMap<>();
+        for (Integer key : mKeys) {
+            mSimpleArrayMap.put(key, key);
+            mHashMap.put(key, key);
+        }
+    }
+
+    private int nextIndex() {
+        int index = mCursor;
+        mCursor = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public Integer simpleArrayMapGet() {
+        return mSimpleArrayMap.get(mKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer hashMapGet() {
+        return mHashMap.get(mKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer simpleArrayMapPutRemove() {
+        Integer key = mMissingKeys[nextIndex()];
+        mSimpleArrayMap.put(key, key);
+        return mSimpleArrayMap.remove(key);
+    }
+
+    @Benchmark
+    public Integer hashMapPutRemove() {
+        Integer key = mMissingKeys[nextIndex()];
+        mHashMap.put(key, key);
+        return mHashMap.remove(key);
+    }
+
+    @Benchmark
+    public SimpleArrayMap<Integer, Integer> simpleArrayMapFill() {
+        SimpleArrayMap<Integer, Integer> map = new SimpleArrayMap<>();
+        for (Integer key : mKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public HashMap<Integer, Integer> hashMapFill() {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (Integer key : mKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package androidx.collection.benchmark;
+
+import androidx.collection.IntIntMap;
+import androidx.collection.LongLongMap;
+import androidx.collection.LongSparseArray;
+import androidx.collection.SparseArrayCompat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the primitive keyed collections with each other and with a boxed {@link HashMap} as
+ * the number of entries grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SparseArrayBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private int[] mKeys;
+    private int[] mMissingKeys;
+    private SparseArrayCompat<Integer> mSparseArray;
+    private LongSparseArray<Integer> mLongSparseArray;
+    private IntIntMap mIntIntMap;
+    private LongLongMap mLongLongMap;
+    private HashMap<Integer, Integer> mHashMap;
+    private int mCursor;
+
+    @Setup
+    public void setup() {
+        mKeys = Keys.shuffledInts(size, 0);
+        mMissingKeys = Keys.shuffledInts(size, size);
+        mSparseArray = new SparseArrayCompat<>();
+        mLongSparseArray = new LongSparseArray<>();
+        mIntIntMap = new IntIntMap();
+        mLongLongMap = new LongLongMap();
+        mHashMap = new HashMap<>();
+        for (int key : mKeys) {
+            mSparseArray.put(key, key);
+            mLongSparseArray.put(key, key);
+            mIntIntMap.put(key, key);
+            mLongLongMap.put(key, key);
+            mHashMap.put(key, key);
+        }
+    }
+
+    private int nextIndex() {
+        int index = mCursor;
+        mCursor = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public Integer sparseArrayGet() {
+        return mSparseArray.get(mKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer longSparseArrayGet() {
+        return mLongSparseArray.get(mKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public int intIntMapGet() {
+        return mIntIntMap.get(mKeys[nextIndex()], -1);
+    }
+
+    @Benchmark
+    public long longLongMapGet() {
+        return mLongLongMap.get(mKeys[nextIndex()], -1);
+    }
+
+    @Benchmark
+    public Integer hashMapGet() {
+        return mHashMap.get(mKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public int sparseArrayPutRemove() {
+        int key = mMissingKeys[nextIndex()];
+        mSparseArray.put(key, key);
+        mSparseArray.remove(key);
+        return key;
+    }
+
+    @Benchmark
+    public int longSparseArrayPutRemove() {
+        int key = mMissingKeys[nextIndex()];
+        mLongSparseArray.put(key, key);
+        mLongSparseArray.remove(key);
+        return key;
+    }
+
+    @Benchmark
+    public boolean intIntMapPutRemove() {
+        int key = mMissingKeys[nextIndex()];
+        mIntIntMap.put(key, key);
+        return mIntIntMap.remove(key);
+    }
+
+    @Benchmark
+    public boolean longLongMapPutRemove() {
+        int key = mMissingKeys[nextIndex()];
+        mLongLongMap.put(key, key);
+        return mLongLongMap.remove(key);
+    }
+
+    @Benchmark
+    public Integer hashMapPutRemove() {
+        int key = mMissingKeys[nextIndex()];
+        mHashMap.put(key, key);
+        return mHashMap.remove(key);
+    }
+
+    @Benchmark
+    public SparseArrayCompat<Integer> sparseArrayFill() {
+        SparseArrayCompat<Integer> sparseArray = new SparseArrayCompat<>();
+        for (int key : mKeys) {
+            sparseArray.put(key, key);
+        }
+        return sparseArray;
+    }
+
+    @Benchmark
+    public IntIntMap intIntMapFill() {
+        IntIntMap map = new IntIntMap();
+        for (int key : mKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public HashMap<Integer, Integer> hashMapFill() {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int key : mKeys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,585 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache that holds strong references to a limited number of values and can be used from many
+ * threads at the same time.
+ *
+ * <p>This class has the same contract as {@link LruCache}: override {@link #sizeOf} to measure
+ * entries in custom units, {@link #create} to compute missing values and {@link #entryRemoved}
+ * to release evicted values. Unlike {@link LruCache}, which guards all of its state with a single
+ * lock, the entries are split into segments by the hash code of their keys and each segment has
+ * its own lock, its own least recently used order and an equal share of the maximum size. Threads
+ * that access keys in different segments never wait for each other.</p>
+ *
+ * <p>Since each segment evicts on its own, the cache approximates a least recently used order
+ * over all of its entries. An entry whose size is larger than the share of its segment is evicted
+ * right after it is added; caches with few, large entries should use a lower concurrency level.
+ * </p>
+ *
+ * <p>Entries can optionally expire a fixed duration after they are written or last read, see
+ * {@link #setExpireAfterWrite} and {@link #setExpireAfterAccess}. Expired entries are never
+ * returned. They are evicted when they are read, or when they are the least recently used entry
+ * of their segment and a value is added to that segment.</p>
+ *
+ * <p>The statistics of the cache are counted per segment and summed when they are read, so
+ * reading them does not block other threads either.</p>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class ConcurrentLruCache<K, V> {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 4;
+    private static final int MAX_SEGMENT_COUNT = 1 << 16;
+
+    private final Segment<K, V>[] mSegments;
+    private volatile int mMaxSize;
+    // 0 if entries do not expire.
+    private volatile long mExpireAfterWriteNanos;
+    private volatile long mExpireAfterAccessNanos;
+
+    /**
+     * @param maxSize for caches that do not override {@link #sizeOf}, this is
+     *     the maximum number of entries in the cache. For all other caches,
+     *     this is the maximum sum of the sizes of the entries in this cache.
+     */
+    public ConcurrentLruCache(int maxSize) {
+        this(maxSize, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * @param maxSize for caches that do not override {@link #sizeOf}, this is
+     *     the maximum number of entries in the cache. For all other caches,
+     *     this is the maximum sum of the sizes of the entries in this cache.
+     * @param concurrencyLevel the expected number of threads that access the cache at the same
+     *     time. It is rounded up to a power of two and limited to {@code maxSize}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ConcurrentLruCache(int maxSize, int concurrencyLevel) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("concurrencyLevel <= 0");
+        }
+        int segmentCount = 1;
+        while (segmentCount < concurrencyLevel && segmentCount * 2 <= maxSize
+                && segmentCount < MAX_SEGMENT_COUNT) {
+            segmentCount *= 2;
+        }
+        mMaxSize = maxSize;
+        mSegments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            mSegments[i] = new Segment<>();
+        }
+    }
+
+    /**
+     * Sets the size of the cache.
+     *
+     * <p>Each segment keeps room for at least one entry, so a cache that is shrunk below its
+     * number of segments may hold up to one entry per segment.</p>
+     *
+     * @param maxSize The new maximum size.
+     */
+    public void resize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        mMaxSize = maxSize;
+        for (int i = 0; i < mSegments.length; i++) {
+            trimSegment(i, segmentMaxSize(i));
+        }
+    }
+
+    /**
+     * Makes entries expire once the given duration passed since they were added or replaced.
+     *
+     * @param duration The duration after which entries expire, or 0 to never expire them.
+     * @param unit The unit of {@code duration}.
+     */
+    public void setExpireAfterWrite(long duration, @NonNull TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration < 0");
+        }
+        mExpireAfterWriteNanos = unit.toNanos(duration);
+    }
+
+    /**
+     * Makes entries expire once the given duration passed since they were last returned from
+     * {@link #get} or written.
+     *
+     * @param duration The duration after which entries expire, or 0 to never expire them.
+     * @param unit The unit of {@code duration}.
+     */
+    public void setExpireAfterAccess(long duration, @NonNull TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration < 0");
+        }
+        mExpireAfterAccessNanos = unit.toNanos(duration);
+    }
+
+    /**
+     * Returns the value for {@code key} if it exists in the cache or can be
+     * created by {@code #create}. If a value was returned, it is moved to the
+     * head of the queue of its segment. This returns null if a value is not
+     * cached and cannot be created.
+     */
+    @Nullable
+    public final V get(@NonNull K key) {
+        if (key == null) {
+            throw new NullPointerException("key == null");
+        }
+
+        final int index = segmentIndex(key);
+        final Segment<K, V> segment = mSegments[index];
+        final long now = nanoTime();
+        Entry<V> expired = null;
+        synchronized (segment) {
+            Entry<V> entry = segment.mMap.get(key);
+            if (entry != null) {
+                if (!isExpired(entry, now)) {
+                    entry.mAccessTime = now;
+                    segment.mHitCount++;
+                    return entry.mValue;
+                }
+                expired = segment.removeEntry(key);
+                segment.mEvictionCount++;
+            }
+            segment.mMissCount++;
+        }
+        if (expired != null) {
+            entryRemoved(true, key, expired.mValue, null);
+        }
+
+        /*
+         * Attempt to create a value. This may take a long time, and the segment
+         * may be different when create() returns. If a conflicting value was
+         * added to the segment while create() was working, we leave that value
+         * in the segment and release the created value.
+         */
+
+        V createdValue = create(key);
+        if (createdValue == null) {
+            return null;
+        }
+
+        final Entry<V> createdEntry = new Entry<>(createdValue, safeSizeOf(key, createdValue),
+                nanoTime());
+        Entry<V> conflict = null;
+        synchronized (segment) {
+            segment.mCreateCount++;
+            expired = null;
+            Entry<V> existing = segment.mMap.get(key);
+            if (existing != null && isExpired(existing, createdEntry.mWriteTime)) {
+                expired = segment.removeEntry(key);
+                segment.mEvictionCount++;
+                existing = null;
+            }
+            if (existing != null) {
+                conflict = existing;
+            } else {
+                segment.addEntry(key, createdEntry);
+            }
+        }
+        if (expired != null) {
+            entryRemoved(true, key, expired.mValue, null);
+        }
+
+        if (conflict != null) {
+            entryRemoved(false, key, createdValue, conflict.mValue);
+            return conflict.mValue;
+        } else {
+            trimSegment(index, segmentMaxSize(index));
+            return createdValue;
+        }
+    }
+
+    /**
+     * Caches {@code value} for {@code key}. The value is moved to the head of
+     * the queue of its segment.
+     *
+     * @return the previous value mapped by {@code key}.
+     */
+    @Nullable
+    public final V put(@NonNull K key, @NonNull V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("key == null || value == null");
+        }
+
+        final int index = segmentIndex(key);
+        final Segment<K, V> segment = mSegments[index];
+        final Entry<V> entry = new Entry<>(value, safeSizeOf(key, value), nanoTime());
+        Entry<V> previous;
+        boolean previousExpired = false;
+        synchronized (segment) {
+            segment.mPutCount++;
+            previous = segment.removeEntry(key);
+            if (previous != null && isExpired(previous, entry.mWriteTime)) {
+                previousExpired = true;
+                segment.mEvictionCount++;
+            }
+            segment.addEntry(key, entry);
+        }
+
+        V previousValue = null;
+        if (previous != null) {
+            if (previousExpired) {
+                entryRemoved(true, key, previous.mValue, null);
+            } else {
+                previousValue = previous.mValue;
+                entryRemoved(false, key, previousValue, value);
+            }
+        }
+
+        trimSegment(index, segmentMaxSize(index));
+        return previousValue;
+    }
+
+    /**
+     * Remove the eldest entries of each segment until the total of remaining
+     * entries is at or below the requested size.
+     *
+     * @param maxSize the maximum size of the cache before returning. May be -1
+     *            to evict even 0-sized elements.
+     */
+    public void trimToSize(int maxSize) {
+        for (int i = 0; i < mSegments.length; i++) {
+            trimSegment(i, segmentShare(i, maxSize));
+        }
+    }
+
+    /**
+     * Removes the entry for {@code key} if it exists.
+     *
+     * @return the previous value mapped by {@code key}.
+     */
+    @Nullable
+    public final V remove(@NonNull K key) {
+        if (key == null) {
+            throw new NullPointerException("key == null");
+        }
+
+        final Segment<K, V> segment = mSegments[segmentIndex(key)];
+        Entry<V> previous;
+        synchronized (segment) {
+            previous = segment.removeEntry(key);
+        }
+
+        if (previous != null) {
+            entryRemoved(false, key, previous.mValue, null);
+            return previous.mValue;
+        }
+        return null;
+    }
+
+    /**
+     * Called for entries that have been evicted or removed. This method is
+     * invoked when a value is evicted to make space or because it expired,
+     * removed by a call to {@link #remove}, or replaced by a call to
+     * {@link #put}. The default implementation does nothing.
+     *
+     * <p>The method is called without synchronization: other threads may
+     * access the cache while this method is executing.
+     *
+     * @param evicted true if the entry is being removed to make space or
+     *     because it expired, false if the removal was caused by a
+     *     {@link #put} or {@link #remove}.
+     * @param newValue the new value for {@code key}, if it exists. If non-null,
+     *     this removal was caused by a {@link #put}. Otherwise it was caused by
+     *     an eviction or a {@link #remove}.
+     */
+    protected void entryRemoved(boolean evicted, @NonNull K key, @NonNull V oldValue,
+            @Nullable V newValue) {
+    }
+
+    /**
+     * Called after a cache miss to compute a value for the corresponding key.
+     * Returns the computed value or null if no value can be computed. The
+     * default implementation returns null.
+     *
+     * <p>The method is called without synchronization: other threads may
+     * access the cache while this method is executing.
+     *
+     * <p>If a value for {@code key} exists in the cache when this method
+     * returns, the created value will be released with {@link #entryRemoved}
+     * and discarded. This can occur when multiple threads request the same key
+     * at the same time (causing multiple values to be created), or when one
+     * thread calls {@link #put} while another is creating a value for the same
+     * key.
+     */
+    @Nullable
+    protected V create(@NonNull K key) {
+        return null;
+    }
+
+    /**
+     * Returns the size of the entry for {@code key} and {@code value} in
+     * user-defined units.  The default implementation returns 1 so that size
+     * is the number of entries and max size is the maximum number of entries.
+     *
+     * <p>An entry's size must not change while it is in the cache.
+     */
+    protected int sizeOf(@NonNull K key, @NonNull V value) {
+        return 1;
+    }
+
+    /**
+     * Clear the cache, calling {@link #entryRemoved} on each removed entry.
+     */
+    public final void evictAll() {
+        trimToSize(-1); // -1 will evict 0-sized elements
+    }
+
+    /**
+     * For caches that do not override {@link #sizeOf}, this returns the number
+     * of entries in the cache. For all other caches, this returns the sum of
+     * the sizes of the entries in this cache.
+     */
+    public final int size() {
+        int size = 0;
+        for (Segment<K, V> segment : mSegments) {
+            size += segment.mSize;
+        }
+        return size;
+    }
+
+    /**
+     * For caches that do not override {@link #sizeOf}, this returns the maximum
+     * number of entries in the cache. For all other caches, this returns the
+     * maximum sum of the sizes of the entries in this cache.
+     */
+    public final int maxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * Returns the number of times {@link #get} returned a value that was
+     * already present in the cache.
+     */
+    public final int hitCount() {
+        int count = 0;
+        for (Segment<K, V> segment : mSegments) {
+            count += segment.mHitCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of times {@link #get} returned null or required a new
+     * value to be created.
+     */
+    public final int missCount() {
+        int count = 0;
+        for (Segment<K, V> segment : mSegments) {
+            count += segment.mMissCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of times {@link #create(Object)} returned a value.
+     */
+    public final int createCount() {
+        int count = 0;
+        for (Segment<K, V> segment : mSegments) {
+            count += segment.mCreateCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of times {@link #put} was called.
+     */
+    public final int putCount() {
+        int count = 0;
+        for (Segment<K, V> segment : mSegments) {
+            count += segment.mPutCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of values that have been evicted, including the ones
+     * that expired.
+     */
+    public final int evictionCount() {
+        int count = 0;
+        for (Segment<K, V> segment : mSegments) {
+            count += segment.mEvictionCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a copy of the current contents of the cache. The entries of each
+     * segment are ordered from least recently accessed to most recently
+     * accessed.
+     */
+    @NonNull
+    public final Map<K, V> snapshot() {
+        final LinkedHashMap<K, V> snapshot = new LinkedHashMap<>();
+        for (Segment<K, V> segment : mSegments) {
+            synchronized (segment) {
+                for (Map.Entry<K, Entry<V>> entry : segment.mMap.entrySet()) {
+                    snapshot.put(entry.getKey(), entry.getValue().mValue);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public final String toString() {
+        int hitCount = hitCount();
+        int missCount = missCount();
+        int accesses = hitCount + missCount;
+        int hitPercent = accesses != 0 ? (100 * hitCount / accesses) : 0;
+        return String.format(Locale.US,
+                "ConcurrentLruCache[maxSize=%d,hits=%d,misses=%d,hitRate=%d%%]",
+                mMaxSize, hitCount, missCount, hitPercent);
+    }
+
+    /**
+     * Returns the current time in nanoseconds. Overridden in tests.
+     */
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        final long expireAfterWrite = mExpireAfterWriteNanos;
+        if (expireAfterWrite != 0 && now - entry.mWriteTime >= expireAfterWrite) {
+            return true;
+        }
+        final long expireAfterAccess = mExpireAfterAccessNanos;
+        return expireAfterAccess != 0 && now - entry.mAccessTime >= expireAfterAccess;
+    }
+
+    private int segmentIndex(Object key) {
+        int hash = key.hashCode();
+        // spread the high bits since only the low bits pick the segment.
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        return hash & (mSegments.length - 1);
+    }
+
+    /**
+     * Returns the budget of a segment for the configured maximum size.
+     */
+    private int segmentMaxSize(int index) {
+        // a segment without budget would evict every entry right after adding it.
+        return Math.max(1, segmentShare(index, mMaxSize));
+    }
+
+    /**
+     * Returns the share of a segment when {@code maxSize} is split over all segments, so that
+     * the shares add up to exactly {@code maxSize}.
+     */
+    private int segmentShare(int index, int maxSize) {
+        if (maxSize < 0) {
+            return maxSize;
+        }
+        final int segmentCount = mSegments.length;
+        return maxSize / segmentCount + (index < maxSize % segmentCount ? 1 : 0);
+    }
+
+    private void trimSegment(int index, int maxSize) {
+        final Segment<K, V> segment = mSegments[index];
+        final long now = nanoTime();
+        while (true) {
+            K key;
+            Entry<V> entry;
+            synchronized (segment) {
+                if (segment.mSize < 0 || (segment.mMap.isEmpty() && segment.mSize != 0)) {
+                    throw new IllegalStateException(getClass().getName()
+                            + ".sizeOf() is reporting inconsistent results!");
+                }
+
+                if (segment.mMap.isEmpty()) {
+                    break;
+                }
+
+                Map.Entry<K, Entry<V>> eldest = segment.mMap.entrySet().iterator().next();
+                if (segment.mSize <= maxSize && !isExpired(eldest.getValue(), now)) {
+                    break;
+                }
+                key = eldest.getKey();
+                entry = segment.removeEntry(key);
+                segment.mEvictionCount++;
+            }
+
+            entryRemoved(true, key, entry.mValue, null);
+        }
+    }
+
+    private int safeSizeOf(K key, V value) {
+        int result = sizeOf(key, value);
+        if (result < 0) {
+            throw new IllegalStateException("Negative size: " + key + "=" + value);
+        }
+        return result;
+    }
+
+    private static final class Segment<K, V> {
+        // all fields are only written while holding the lock of the segment, the counters are
+        // volatile so that they can be read without it.
+        final LinkedHashMap<K, Entry<V>> mMap = new LinkedHashMap<>(0, 0.75f, true);
+        volatile int mSize;
+        volatile int mPutCount;
+        volatile int mCreateCount;
+        volatile int mEvictionCount;
+        volatile int mHitCount;
+        volatile int mMissCount;
+
+        void addEntry(K key, Entry<V> entry) {
+            mMap.put(key, entry);
+            mSize += entry.mSize;
+        }
+
+        Entry<V> removeEntry(K key) {
+            Entry<V> entry = mMap.remove(key);
+            if (entry != null) {
+                mSize -= entry.mSize;
+            }
+            return entry;
+        }
+    }
+
+    private static final class Entry<V> {
+        final V mValue;
+        final int mSize;
+        final long mWriteTime;
+        long mAccessTime;
+
+        Entry(V value, int size, long writeTime) {
+            mValue = value;
+            mSize = size;
+            mWriteTime = writeTime;
+            mAccessTime = writeTime;
+        }
+    }
+}
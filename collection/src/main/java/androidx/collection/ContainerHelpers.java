@@ -41,6 +41,31 @@ class ContainerHelpers {
         return a == b || (a != null && a.equals(b));
     }
 
+    // Smallest power of two hash table that can hold the given number of entries while staying
+    // at most 3/4 full.
+    static int hashTableSize(int capacity) {
+        int size = 4;
+        while (hashTableCapacity(size) < capacity) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    static int hashTableCapacity(int tableSize) {
+        return tableSize - (tableSize >> 2);
+    }
+
+    // Spreads the bits of the key so that the low bits of the result can index a hash table.
+    static int hash(int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
     // This is Arrays.binarySearch(), but doesn't do any argument validation.
     static int binarySearch(int[] array, int size, int value) {
         int lo = 0;
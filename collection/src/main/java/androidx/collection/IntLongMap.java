@@ -0,0 +1,290 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import java.util.Arrays;
+
+/**
+ * IntLongMap maps ints to longs without boxing either of them.
+ *
+ * <p>The mappings are kept in two compact arrays, one for the keys and one for the values, just
+ * like {@link SimpleArrayMap}. Instead of a binary search, keys are found through an open
+ * addressing hash table that stores the index of each mapping, so lookups, insertions and
+ * removals take constant time on average regardless of the size of the map.</p>
+ *
+ * <p>It is possible to iterate over the items in this container using
+ * {@link #keyAt(int)} and {@link #valueAt(int)} with indices from 0 to {@link #size()} - 1.
+ * The mappings are kept in insertion order, except that removing a mapping moves the last
+ * mapping into the index of the removed one.</p>
+ */
+public final class IntLongMap {
+    private int[] mKeys;
+    private long[] mValues;
+    // open addressing table of indices into mKeys, offset by one so that 0 marks a free slot.
+    private int[] mTable;
+    private int mSize;
+
+    /**
+     * Creates a new IntLongMap containing no mappings.
+     */
+    public IntLongMap() {
+        this(0);
+    }
+
+    /**
+     * Creates a new IntLongMap containing no mappings that will not require any additional memory
+     * allocation to store the specified number of mappings. If you supply an initial capacity of
+     * 0, the map will be initialized with a light-weight representation not requiring any
+     * additional array allocations.
+     */
+    public IntLongMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative");
+        }
+        if (initialCapacity == 0) {
+            mKeys = ContainerHelpers.EMPTY_INTS;
+            mValues = ContainerHelpers.EMPTY_LONGS;
+            mTable = ContainerHelpers.EMPTY_INTS;
+        } else {
+            allocArrays(ContainerHelpers.hashTableSize(initialCapacity));
+        }
+    }
+
+    /**
+     * Gets the long mapped from the specified key, or the specified value if no such mapping has
+     * been made.
+     */
+    public long get(int key, long valueIfKeyNotFound) {
+        final int index = indexOfKey(key);
+        return index < 0 ? valueIfKeyNotFound : mValues[index];
+    }
+
+    /**
+     * Returns true if the specified key is mapped.
+     */
+    public boolean containsKey(int key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Adds a mapping from the specified key to the specified value, replacing the previous
+     * mapping from the specified key if there was one.
+     */
+    public void put(int key, long value) {
+        final int index = indexOfKey(key);
+        if (index >= 0) {
+            mValues[index] = value;
+            return;
+        }
+        if (mSize == mKeys.length) {
+            resize(mTable.length == 0 ? ContainerHelpers.hashTableSize(mSize + 1)
+                    : mTable.length * 2);
+        }
+        mKeys[mSize] = key;
+        mValues[mSize] = value;
+        mSize++;
+        insertIntoTable(mSize - 1);
+    }
+
+    /**
+     * Removes the mapping from the specified key, if there was any.
+     *
+     * @return true if there was a mapping from the key.
+     */
+    public boolean remove(int key) {
+        final int index = indexOfKey(key);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Removes the mapping at the given index. The last mapping in the map takes its index.
+     */
+    public void removeAt(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        final int mask = mTable.length - 1;
+        deleteSlot(findSlot(index), mask);
+        final int last = mSize - 1;
+        if (index != last) {
+            mTable[findSlot(last)] = index + 1;
+            mKeys[index] = mKeys[last];
+            mValues[index] = mValues[last];
+        }
+        mSize = last;
+    }
+
+    /**
+     * Returns the number of key-value mappings that this IntLongMap currently stores.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Return true if size() is 0.
+     * @return true if size() is 0.
+     */
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * Given an index in the range <code>0...size()-1</code>, returns the key from the
+     * <code>index</code>th key-value mapping that this IntLongMap stores.
+     */
+    public int keyAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return mKeys[index];
+    }
+
+    /**
+     * Given an index in the range <code>0...size()-1</code>, returns the value from the
+     * <code>index</code>th key-value mapping that this IntLongMap stores.
+     */
+    public long valueAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return mValues[index];
+    }
+
+    /**
+     * Given an index in the range <code>0...size()-1</code>, sets a new value for the
+     * <code>index</code>th key-value mapping that this IntLongMap stores.
+     */
+    public void setValueAt(int index, long value) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        mValues[index] = value;
+    }
+
+    /**
+     * Returns the index for which {@link #keyAt} would return the specified key, or a negative
+     * number if the specified key is not mapped.
+     */
+    public int indexOfKey(int key) {
+        final int[] table = mTable;
+        if (table.length == 0) {
+            return -1;
+        }
+        final int mask = table.length - 1;
+        int slot = ContainerHelpers.hash(key) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (mKeys[entry - 1] == key) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes all key-value mappings from this IntLongMap.
+     */
+    public void clear() {
+        if (mSize > 0) {
+            Arrays.fill(mTable, 0);
+            mSize = 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation composes a string by iterating over its mappings.
+     */
+    @Override
+    public String toString() {
+        if (size() <= 0) {
+            return "{}";
+        }
+
+        StringBuilder buffer = new StringBuilder(mSize * 24);
+        buffer.append('{');
+        for (int i = 0; i < mSize; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(mKeys[i]);
+            buffer.append('=');
+            buffer.append(mValues[i]);
+        }
+        buffer.append('}');
+        return buffer.toString();
+    }
+
+    private void allocArrays(int tableSize) {
+        final int capacity = ContainerHelpers.hashTableCapacity(tableSize);
+        mKeys = new int[capacity];
+        mValues = new long[capacity];
+        mTable = new int[tableSize];
+    }
+
+    private void resize(int tableSize) {
+        final int[] keys = mKeys;
+        final long[] values = mValues;
+        allocArrays(tableSize);
+        System.arraycopy(keys, 0, mKeys, 0, mSize);
+        System.arraycopy(values, 0, mValues, 0, mSize);
+        for (int i = 0; i < mSize; i++) {
+            insertIntoTable(i);
+        }
+    }
+
+    private void insertIntoTable(int index) {
+        final int mask = mTable.length - 1;
+        int slot = ContainerHelpers.hash(mKeys[index]) & mask;
+        while (mTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        mTable[slot] = index + 1;
+    }
+
+    private int findSlot(int index) {
+        final int mask = mTable.length - 1;
+        int slot = ContainerHelpers.hash(mKeys[index]) & mask;
+        while (mTable[slot] != index + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void deleteSlot(int slot, int mask) {
+        // shift back the following entries of the probe sequence so that no tombstones are needed.
+        int free = slot;
+        int current = (slot + 1) & mask;
+        int entry;
+        while ((entry = mTable[current]) != 0) {
+            final int ideal = ContainerHelpers.hash(mKeys[entry - 1]) & mask;
+            if (((current - ideal) & mask) >= ((current - free) & mask)) {
+                mTable[free] = entry;
+                free = current;
+            }
+            current = (current + 1) & mask;
+        }
+        mTable[free] = 0;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import java.util.Arrays;
+
+/**
+ * IntSet is a set of ints that does not box its values.
+ *
+ * <p>The values are kept in a compact array, just like {@link ArraySet}. Instead of a binary
+ * search, values are found through an open addressing hash table that stores the index of each
+ * value, so lookups, insertions and removals take constant time on average regardless of the size
+ * of the set.</p>
+ *
+ * <p>It is possible to iterate over the values in this set using {@link #valueAt(int)} with
+ * indices from 0 to {@link #size()} - 1. The values are kept in insertion order, except that
+ * removing a value moves the last value into the index of the removed one.</p>
+ */
+public final class IntSet {
+    private int[] mValues;
+    // open addressing table of indices into mValues, offset by one so that 0 marks a free slot.
+    private int[] mTable;
+    private int mSize;
+
+    /**
+     * Creates a new empty IntSet.
+     */
+    public IntSet() {
+        this(0);
+    }
+
+    /**
+     * Creates a new empty IntSet that will not require any additional memory allocation to store
+     * the specified number of values. If you supply an initial capacity of 0, the set will be
+     * initialized with a light-weight representation not requiring any additional array
+     * allocations.
+     */
+    public IntSet(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative");
+        }
+        if (initialCapacity == 0) {
+            mValues = ContainerHelpers.EMPTY_INTS;
+            mTable = ContainerHelpers.EMPTY_INTS;
+        } else {
+            allocArrays(ContainerHelpers.hashTableSize(initialCapacity));
+        }
+    }
+
+    /**
+     * Returns true if the specified value is in the set.
+     */
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Adds the specified value to the set.
+     *
+     * @return true if the set did not contain the value.
+     */
+    public boolean add(int value) {
+        if (indexOf(value) >= 0) {
+            return false;
+        }
+        if (mSize == mValues.length) {
+            resize(mTable.length == 0 ? ContainerHelpers.hashTableSize(mSize + 1)
+                    : mTable.length * 2);
+        }
+        mValues[mSize] = value;
+        mSize++;
+        insertIntoTable(mSize - 1);
+        return true;
+    }
+
+    /**
+     * Removes the specified value from the set, if it is present.
+     *
+     * @return true if the set contained the value.
+     */
+    public boolean remove(int value) {
+        final int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Removes the value at the given index. The last value in the set takes its index.
+     */
+    public void removeAt(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        final int mask = mTable.length - 1;
+        deleteSlot(findSlot(index), mask);
+        final int last = mSize - 1;
+        if (index != last) {
+            mTable[findSlot(last)] = index + 1;
+            mValues[index] = mValues[last];
+        }
+        mSize = last;
+    }
+
+    /**
+     * Returns the number of values in this set.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Return true if size() is 0.
+     * @return true if size() is 0.
+     */
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * Given an index in the range <code>0...size()-1</code>, returns the <code>index</code>th
+     * value in this set.
+     */
+    public int valueAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return mValues[index];
+    }
+
+    /**
+     * Returns the index for which {@link #valueAt} would return the specified value, or a
+     * negative number if the value is not in the set.
+     */
+    public int indexOf(int value) {
+        final int[] table = mTable;
+        if (table.length == 0) {
+            return -1;
+        }
+        final int mask = table.length - 1;
+        int slot = ContainerHelpers.hash(value) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (mValues[entry - 1] == value) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes all values from this set.
+     */
+    public void clear() {
+        if (mSize > 0) {
+            Arrays.fill(mTable, 0);
+            mSize = 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation composes a string by iterating over its values.
+     */
+    @Override
+    public String toString() {
+        if (size() <= 0) {
+            return "{}";
+        }
+
+        StringBuilder buffer = new StringBuilder(mSize * 12);
+        buffer.append('{');
+        for (int i = 0; i < mSize; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(mValues[i]);
+        }
+        buffer.append('}');
+        return buffer.toString();
+    }
+
+    private void allocArrays(int tableSize) {
+        mValues = new int[ContainerHelpers.hashTableCapacity(tableSize)];
+        mTable = new int[tableSize];
+    }
+
+    private void resize(int tableSize) {
+        final int[] values = mValues;
+        allocArrays(tableSize);
+        System.arraycopy(values, 0, mValues, 0, mSize);
+        for (int i = 0; i < mSize; i++) {
+            insertIntoTable(i);
+        }
+    }
+
+    private void insertIntoTable(int index) {
+        final int mask = mTable.length - 1;
+        int slot = ContainerHelpers.hash(mValues[index]) & mask;
+        while (mTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        mTable[slot] = index + 1;
+    }
+
+    private int findSlot(int index) {
+        final int mask = mTable.length - 1;
+        int slot = ContainerHelpers.hash(mValues[index]) & mask;
+        while (mTable[slot] != index + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void deleteSlot(int slot, int mask) {
+        // shift back the following entries of the probe sequence so that no tombstones are needed.
+        int free = slot;
+        int current = (slot + 1) & mask;
+        int entry;
+        while ((entry = mTable[current]) != 0) {
+            final int ideal = ContainerHelpers.hash(mValues[entry - 1]) & mask;
+            if (((current - ideal) & mask) >= ((current - free) & mask)) {
+                mTable[free] = entry;
+                free = current;
+            }
+            current = (current + 1) & mask;
+        }
+        mTable[free] = 0;
+    }
+}
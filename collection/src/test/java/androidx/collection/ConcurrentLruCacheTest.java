@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentLruCacheTest {
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        List<String> evicted = new ArrayList<>();
+        ConcurrentLruCache<String, String> cache = new RecordingCache(3, 1, evicted);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.put("c", "C");
+        assertEquals("A", cache.get("a"));
+        cache.put("d", "D");
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.evictionCount());
+        assertEquals("[b=B]", evicted.toString());
+    }
+
+    @Test
+    public void createsMissingValues() {
+        ConcurrentLruCache<Integer, String> cache = new ConcurrentLruCache<Integer, String>(10) {
+            @Override
+            protected String create(Integer key) {
+                return key % 2 == 0 ? "v" + key : null;
+            }
+        };
+        assertEquals("v2", cache.get(2));
+        assertNull(cache.get(3));
+        assertEquals("v2", cache.get(2));
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+        assertEquals(1, cache.createCount());
+    }
+
+    @Test
+    public void boundsEverySegment() {
+        ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(64, 8);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 64);
+        }
+        assertEquals(cache.size(), cache.snapshot().size());
+        cache.evictAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void resizeBelowSegmentCount() {
+        ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(8, 8);
+        cache.resize(2);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+            // every segment keeps the entry that was just added.
+            assertEquals(Integer.valueOf(i), cache.get(i));
+            assertTrue(cache.size() <= 8);
+        }
+        cache.resize(16);
+        cache.resize(2);
+        assertTrue(cache.size() > 0);
+    }
+
+    @Test
+    public void trimToSizeZero() {
+        ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(8, 8);
+        for (int i = 0; i < 8; i++) {
+            cache.put(i, i);
+        }
+        cache.trimToSize(0);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.snapshot().size());
+    }
+
+    @Test
+    public void trimToSizeBelowSegmentCount() {
+        ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(64, 8);
+        for (int i = 0; i < 64; i++) {
+            cache.put(i, i);
+        }
+        cache.trimToSize(3);
+        assertTrue(cache.size() <= 3);
+        // the configured size still applies to later writes.
+        for (int i = 0; i < 64; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(64, cache.size());
+    }
+
+    @Test
+    public void expireAfterWrite() {
+        List<String> evicted = new ArrayList<>();
+        RecordingCache cache = new RecordingCache(10, 1, evicted);
+        cache.setExpireAfterWrite(10, TimeUnit.NANOSECONDS);
+        cache.put("a", "A");
+        cache.mTime = 9;
+        assertEquals("A", cache.get("a"));
+        cache.mTime = 10;
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals("[a=A]", evicted.toString());
+    }
+
+    @Test
+    public void expireAfterAccess() {
+        RecordingCache cache = new RecordingCache(10, 1, new ArrayList<String>());
+        cache.setExpireAfterAccess(10, TimeUnit.NANOSECONDS);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.mTime = 9;
+        assertEquals("A", cache.get("a"));
+        cache.mTime = 15;
+        // writing into the segment evicts the expired least recently used entries.
+        cache.put("c", "C");
+        assertEquals(2, cache.size());
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void concurrentAccess() throws InterruptedException {
+        final ConcurrentLruCache<Integer, Integer> cache =
+                new ConcurrentLruCache<Integer, Integer>(100, 4) {
+                    @Override
+                    protected Integer create(Integer key) {
+                        return key * 2;
+                    }
+                };
+        final int threadCount = 4;
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int t = 0; t < threadCount; t++) {
+            final int seed = t;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 10000; i++) {
+                            int key = (i * 31 + seed) % 300;
+                            assertEquals(key * 2, (int) cache.get(key));
+                        }
+                    } catch (Throwable throwable) {
+                        failure.set(throwable);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertNull(failure.get());
+        assertTrue(cache.size() <= 100);
+        assertEquals(threadCount * 10000, cache.hitCount() + cache.missCount());
+    }
+
+    private static class RecordingCache extends ConcurrentLruCache<String, String> {
+        final List<String> mEvicted;
+        long mTime;
+
+        RecordingCache(int maxSize, int concurrencyLevel, List<String> evicted) {
+            super(maxSize, concurrencyLevel);
+            mEvicted = evicted;
+        }
+
+        @Override
+        long nanoTime() {
+            return mTime;
+        }
+
+        @Override
+        protected void entryRemoved(boolean evicted, String key, String oldValue,
+                String newValue) {
+            if (evicted) {
+                mEvicted.add(key + "=" + oldValue);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntIntMapTest {
+    @Test
+    public void putAndGet() {
+        IntIntMap map = new IntIntMap();
+        assertTrue(map.isEmpty());
+        map.put(1, 10);
+        map.put(0, 20);
+        map.put(-5, 30);
+        assertEquals(3, map.size());
+        assertEquals(10, map.get(1, -1));
+        assertEquals(20, map.get(0, -1));
+        assertEquals(30, map.get(-5, -1));
+        assertEquals(-1, map.get(2, -1));
+
+        map.put(1, 11);
+        assertEquals(3, map.size());
+        assertEquals(11, map.get(1, -1));
+    }
+
+    @Test
+    public void iterationFollowsInsertionOrder() {
+        IntIntMap map = new IntIntMap(0);
+        for (int i = 0; i < 100; i++) {
+            map.put(i * 31, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i * 31, map.keyAt(i));
+            assertEquals(i, map.valueAt(i));
+            assertEquals(i, map.indexOfKey(i * 31));
+        }
+    }
+
+    @Test
+    public void removeMovesLastMapping() {
+        IntIntMap map = new IntIntMap();
+        map.put(1, 10);
+        map.put(2, 20);
+        map.put(3, 30);
+        assertTrue(map.remove(1));
+        assertFalse(map.remove(1));
+        assertEquals(2, map.size());
+        assertEquals(3, map.keyAt(0));
+        assertEquals(30, map.valueAt(0));
+        assertEquals(0, map.indexOfKey(3));
+        assertFalse(map.containsKey(1));
+        assertEquals("{3=30, 2=20}", map.toString());
+    }
+
+    @Test
+    public void clear() {
+        IntIntMap map = new IntIntMap(4);
+        map.put(1, 1);
+        map.put(2, 2);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1));
+        map.put(2, 3);
+        assertEquals(3, map.get(2, 0));
+    }
+
+    @Test
+    public void matchesHashMap() {
+        Random random = new Random(42);
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            int key = random.nextInt(500) - 250;
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int i = 0; i < map.size(); i++) {
+            assertEquals(expected.get(map.keyAt(i)).intValue(), map.valueAt(i));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntLongMapTest {
+    @Test
+    public void putAndGet() {
+        IntLongMap map = new IntLongMap();
+        assertTrue(map.isEmpty());
+        map.put(1, 10L);
+        map.put(0, Long.MAX_VALUE);
+        map.put(-5, Long.MIN_VALUE);
+        assertEquals(3, map.size());
+        assertEquals(10L, map.get(1, -1L));
+        assertEquals(Long.MAX_VALUE, map.get(0, -1L));
+        assertEquals(Long.MIN_VALUE, map.get(-5, -1L));
+
+        map.put(1, 11L);
+        assertEquals(3, map.size());
+        assertEquals(11L, map.get(1, -1L));
+    }
+
+    @Test
+    public void missingKeyReturnsDefault() {
+        IntLongMap map = new IntLongMap();
+        assertEquals(7L, map.get(1, 7L));
+        assertFalse(map.containsKey(1));
+
+        map.put(1, 0L);
+        assertEquals(7L, map.get(2, 7L));
+        assertFalse(map.containsKey(2));
+        // a mapping to the default value is still a mapping
+        assertEquals(0L, map.get(1, 7L));
+        assertTrue(map.containsKey(1));
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        IntLongMap map = new IntLongMap(1);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i << 8, i * 3L);
+        }
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i * 3L, map.get(i << 8, -1L));
+        }
+    }
+
+    @Test
+    public void iterationFollowsInsertionOrder() {
+        IntLongMap map = new IntLongMap(0);
+        for (int i = 0; i < 100; i++) {
+            map.put(i * 31, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i * 31, map.keyAt(i));
+            assertEquals(i, map.valueAt(i));
+            assertEquals(i, map.indexOfKey(i * 31));
+        }
+    }
+
+    @Test
+    public void removeMovesLastMapping() {
+        IntLongMap map = new IntLongMap();
+        map.put(1, 10L);
+        map.put(2, 20L);
+        map.put(3, 30L);
+        assertTrue(map.remove(1));
+        assertFalse(map.remove(1));
+        assertEquals(2, map.size());
+        assertEquals(3, map.keyAt(0));
+        assertEquals(30L, map.valueAt(0));
+        assertEquals(0, map.indexOfKey(3));
+        assertFalse(map.containsKey(1));
+        assertEquals("{3=30, 2=20}", map.toString());
+    }
+
+    @Test
+    public void clear() {
+        IntLongMap map = new IntLongMap(4);
+        map.put(1, 1L);
+        map.put(2, 2L);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1));
+        map.put(2, 3L);
+        assertEquals(3L, map.get(2, 0L));
+    }
+
+    @Test
+    public void matchesHashMap() {
+        Random random = new Random(42);
+        IntLongMap map = new IntLongMap();
+        Map<Integer, Long> expected = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            int key = random.nextInt(500) - 250;
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            } else {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int i = 0; i < map.size(); i++) {
+            assertEquals(expected.get(map.keyAt(i)).longValue(), map.valueAt(i));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class IntSetTest {
+    @Test
+    public void addAndContains() {
+        IntSet set = new IntSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(0));
+        assertTrue(set.add(Integer.MAX_VALUE));
+        assertTrue(set.add(Integer.MIN_VALUE));
+        assertFalse(set.add(0));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(Integer.MAX_VALUE));
+        assertFalse(set.contains(1));
+        assertEquals(-1, set.indexOf(1));
+        assertEquals("{0, " + Integer.MAX_VALUE + ", " + Integer.MIN_VALUE + "}",
+                set.toString());
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        IntSet set = new IntSet(1);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(set.add(i << 8));
+        }
+        assertEquals(1000, set.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(set.contains(i << 8));
+            assertEquals(i, set.indexOf(i << 8));
+        }
+    }
+
+    @Test
+    public void iterationFollowsInsertionOrder() {
+        IntSet set = new IntSet(0);
+        for (int i = 0; i < 100; i++) {
+            set.add(i * 31);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i * 31, set.valueAt(i));
+        }
+    }
+
+    @Test
+    public void removeMovesLastValue() {
+        IntSet set = new IntSet(2);
+        set.add(1);
+        set.add(2);
+        set.add(3);
+        assertTrue(set.remove(1));
+        assertFalse(set.remove(1));
+        assertEquals(3, set.valueAt(0));
+        assertEquals(2, set.valueAt(1));
+        assertEquals(0, set.indexOf(3));
+    }
+
+    @Test
+    public void clear() {
+        IntSet set = new IntSet(4);
+        set.add(1);
+        set.add(2);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(1));
+        assertTrue(set.add(2));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void matchesHashSet() {
+        Random random = new Random(42);
+        IntSet set = new IntSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            // multiples of a large power of two collide in the low bits without hashing.
+            int value = (random.nextInt(500) - 250) << 16;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (int i = 0; i < set.size(); i++) {
+            assertTrue(expected.contains(set.valueAt(i)));
+        }
+    }
+}
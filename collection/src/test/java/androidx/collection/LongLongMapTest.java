@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongLongMapTest {
+    @Test
+    public void putAndGet() {
+        LongLongMap map = new LongLongMap();
+        assertTrue(map.isEmpty());
+        map.put(1L, 10L);
+        map.put(0L, Long.MAX_VALUE);
+        map.put(-5L, Long.MIN_VALUE);
+        assertEquals(3, map.size());
+        assertEquals(10L, map.get(1L, -1L));
+        assertEquals(Long.MAX_VALUE, map.get(0L, -1L));
+        assertEquals(Long.MIN_VALUE, map.get(-5L, -1L));
+
+        map.put(1L, 11L);
+        assertEquals(3, map.size());
+        assertEquals(11L, map.get(1L, -1L));
+    }
+
+    @Test
+    public void missingKeyReturnsDefault() {
+        LongLongMap map = new LongLongMap();
+        assertEquals(7L, map.get(1L, 7L));
+        assertFalse(map.containsKey(1L));
+
+        map.put(1L, 0L);
+        assertEquals(7L, map.get(2L, 7L));
+        assertFalse(map.containsKey(2L));
+        // a mapping to the default value is still a mapping
+        assertEquals(0L, map.get(1L, 7L));
+        assertTrue(map.containsKey(1L));
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        LongLongMap map = new LongLongMap(1);
+        for (int i = 0; i < 1000; i++) {
+            map.put((long) i << 32, i * 3L);
+        }
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i * 3L, map.get((long) i << 32, -1L));
+        }
+    }
+
+    @Test
+    public void iterationFollowsInsertionOrder() {
+        LongLongMap map = new LongLongMap(0);
+        for (int i = 0; i < 100; i++) {
+            map.put(i * 31L, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i * 31L, map.keyAt(i));
+            assertEquals(i, map.valueAt(i));
+            assertEquals(i, map.indexOfKey(i * 31L));
+        }
+    }
+
+    @Test
+    public void removeMovesLastMapping() {
+        LongLongMap map = new LongLongMap();
+        map.put(1L, 10L);
+        map.put(2L, 20L);
+        map.put(3L, 30L);
+        assertTrue(map.remove(1L));
+        assertFalse(map.remove(1L));
+        assertEquals(2, map.size());
+        assertEquals(3L, map.keyAt(0));
+        assertEquals(30L, map.valueAt(0));
+        assertEquals(0, map.indexOfKey(3L));
+        assertFalse(map.containsKey(1L));
+        assertEquals("{3=30, 2=20}", map.toString());
+    }
+
+    @Test
+    public void clear() {
+        LongLongMap map = new LongLongMap(4);
+        map.put(1L, 1L);
+        map.put(2L, 2L);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1L));
+        map.put(2L, 3L);
+        assertEquals(3L, map.get(2L, 0L));
+    }
+
+    @Test
+    public void matchesHashMap() {
+        Random random = new Random(42);
+        LongLongMap map = new LongLongMap();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            // multiples of a large power of two collide in the low bits without hashing.
+            long key = (random.nextInt(500) - 250L) << 32;
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            } else {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int i = 0; i < map.size(); i++) {
+            assertEquals(expected.get(map.keyAt(i)).longValue(), map.valueAt(i));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class LongSetTest {
+    @Test
+    public void addAndContains() {
+        LongSet set = new LongSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(0L));
+        assertTrue(set.add(Long.MAX_VALUE));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertFalse(set.add(0L));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(Long.MAX_VALUE));
+        assertFalse(set.contains(1L));
+        assertEquals("{0, " + Long.MAX_VALUE + ", " + Long.MIN_VALUE + "}", set.toString());
+    }
+
+    @Test
+    public void removeMovesLastValue() {
+        LongSet set = new LongSet(2);
+        set.add(1L);
+        set.add(2L);
+        set.add(3L);
+        assertTrue(set.remove(1L));
+        assertFalse(set.remove(1L));
+        assertEquals(3L, set.valueAt(0));
+        assertEquals(2L, set.valueAt(1));
+        assertEquals(0, set.indexOf(3L));
+    }
+
+    @Test
+    public void matchesHashSet() {
+        Random random = new Random(42);
+        LongSet set = new LongSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            // multiples of a large power of two collide in the low bits without hashing.
+            long value = (random.nextInt(500) - 250L) << 32;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (int i = 0; i < set.size(); i++) {
+            assertTrue(expected.contains(set.valueAt(i)));
+        }
+    }
+}
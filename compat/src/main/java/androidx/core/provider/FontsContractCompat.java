@@ -45,7 +45,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
-import androidx.collection.LruCache;
+import androidx.collection.ConcurrentLruCache;
 import androidx.collection.SimpleArrayMap;
 import androidx.core.content.res.FontResourcesParserCompat;
 import androidx.core.content.res.ResourcesCompat;
@@ -171,7 +171,8 @@ public class FontsContractCompat {
     /* package */ static final int RESULT_CODE_WRONG_CERTIFICATES = -2;
     // Note -3 is used by FontRequestCallback to indicate the font failed to load.
 
-    static final LruCache<String, Typeface> sTypefaceCache = new LruCache<>(16);
+    static final ConcurrentLruCache<String, Typeface> sTypefaceCache =
+            new ConcurrentLruCache<>(16);
 
     private static final int BACKGROUND_THREAD_KEEP_ALIVE_DURATION_MS = 10000;
     private static final SelfDestructiveThread sBackgroundThread =
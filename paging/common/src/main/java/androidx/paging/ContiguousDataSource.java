@@ -56,4 +56,12 @@ abstract class ContiguousDataSource<Key, Value> extends DataSource<Key, Value> {
      * that isn't yet loaded, a fallback item (last loaded item accessed) will be passed.
      */
     abstract Key getKey(int position, Value item);
+
+    /**
+     * Returns true if a PagedList can drop pages loaded from this data source and load them again
+     * later, starting from the key of the items at the new edge of the loaded range.
+     */
+    boolean supportsPageDropping() {
+        return true;
+    }
 }
@@ -32,6 +32,12 @@ class ContiguousPagedList<K, V> extends PagedList<V> implements PagedStorage.Cal
     private int mPrependItemsRequested = 0;
     private int mAppendItemsRequested = 0;
 
+    private final boolean mShouldTrim;
+    // dropped pages become nulls only if the list is counted, set by the initial load
+    private boolean mReplacePagesWithNulls = false;
+    // number of items that trimming leaves loaded, so that the prefetch window stays loaded
+    private final int mRequiredRemainder;
+
     private PageResult.Receiver<V> mReceiver = new PageResult.Receiver<V>() {
         // Creation thread for initial synchronous load, otherwise main thread
         // Safe to access main thread only state - no other thread has reference during construction
@@ -53,18 +59,58 @@ class ContiguousPagedList<K, V> extends PagedList<V> implements PagedStorage.Cal
             if (resultType == PageResult.INIT) {
                 mStorage.init(pageResult.leadingNulls, page, pageResult.trailingNulls,
                         pageResult.positionOffset, ContiguousPagedList.this);
+                mReplacePagesWithNulls = mStorage.getLeadingNullCount() > 0
+                        || mStorage.getTrailingNullCount() > 0;
                 if (mLastLoad == LAST_LOAD_UNSPECIFIED) {
                     // Because the ContiguousPagedList wasn't initialized with a last load position,
                     // initialize it to the middle of the initial load
                     mLastLoad =
                             pageResult.leadingNulls + pageResult.positionOffset + page.size() / 2;
                 }
-            } else if (resultType == PageResult.APPEND) {
-                mStorage.appendPage(page, ContiguousPagedList.this);
-            } else if (resultType == PageResult.PREPEND) {
-                mStorage.prependPage(page, ContiguousPagedList.this);
             } else {
-                throw new IllegalArgumentException("unexpected resultType " + resultType);
+                // if we end up trimming, we trim from side that's furthest from most recent access
+                boolean trimFromFront = mLastLoad > mStorage.getMiddleOfLoadedRange();
+
+                // is the new page big enough to warrant pre-trimming (i.e. dropping) it?
+                boolean skipNewPage = mShouldTrim
+                        && mStorage.shouldPreTrimNewPage(
+                                mConfig.maxSize, mRequiredRemainder, page.size());
+
+                if (resultType == PageResult.APPEND) {
+                    if (skipNewPage && !trimFromFront) {
+                        // don't append this data, drop it
+                        mAppendItemsRequested = 0;
+                        mAppendWorkerRunning = false;
+                    } else {
+                        mStorage.appendPage(page, ContiguousPagedList.this);
+                    }
+                } else if (resultType == PageResult.PREPEND) {
+                    if (skipNewPage && trimFromFront) {
+                        // don't prepend this data, drop it
+                        mPrependItemsRequested = 0;
+                        mPrependWorkerRunning = false;
+                    } else {
+                        mStorage.prependPage(page, ContiguousPagedList.this);
+                    }
+                } else {
+                    throw new IllegalArgumentException("unexpected resultType " + resultType);
+                }
+
+                // a load in flight on the trimmed side would no longer be adjacent to the
+                // loaded range, so only trim a side that isn't loading
+                if (mShouldTrim) {
+                    if (trimFromFront) {
+                        if (!mPrependWorkerRunning) {
+                            mStorage.trimFromFront(mReplacePagesWithNulls, mConfig.maxSize,
+                                    mRequiredRemainder, ContiguousPagedList.this);
+                        }
+                    } else {
+                        if (!mAppendWorkerRunning) {
+                            mStorage.trimFromEnd(mReplacePagesWithNulls, mConfig.maxSize,
+                                    mRequiredRemainder, ContiguousPagedList.this);
+                        }
+                    }
+                }
             }
 
 
@@ -96,6 +142,10 @@ class ContiguousPagedList<K, V> extends PagedList<V> implements PagedStorage.Cal
         mDataSource = dataSource;
         mLastLoad = lastLoad;
 
+        mShouldTrim = mDataSource.supportsPageDropping()
+                && mConfig.maxSize != Config.MAX_SIZE_UNBOUNDED;
+        mRequiredRemainder = mConfig.prefetchDistance * 2 + mConfig.pageSize;
+
         if (mDataSource.isInvalid()) {
             detach();
         } else {
@@ -114,6 +164,14 @@ class ContiguousPagedList<K, V> extends PagedList<V> implements PagedStorage.Cal
             @NonNull PagedList<V> pagedListSnapshot, @NonNull Callback callback) {
         final PagedStorage<V> snapshot = pagedListSnapshot.mStorage;
 
+        if (!snapshot.isEmpty()
+                && mStorage.getNumberTrimmed() != snapshot.getNumberTrimmed()) {
+            // pages were dropped since the snapshot, so the loaded range can't be derived from
+            // the number of items added - conservatively signal every position as changed
+            dispatchFullUpdate(snapshot.size(), callback);
+            return;
+        }
+
         final int newlyAppended = mStorage.getNumberAppended() - snapshot.getNumberAppended();
         final int newlyPrepended = mStorage.getNumberPrepended() - snapshot.getNumberPrepended();
 
@@ -158,6 +216,19 @@ class ContiguousPagedList<K, V> extends PagedList<V> implements PagedStorage.Cal
         }
     }
 
+    private void dispatchFullUpdate(int previousSize, @NonNull Callback callback) {
+        final int size = mStorage.size();
+        final int changedCount = Math.min(previousSize, size);
+        if (changedCount != 0) {
+            callback.onChanged(0, changedCount);
+        }
+        if (size > previousSize) {
+            callback.onInserted(previousSize, size - previousSize);
+        } else if (size < previousSize) {
+            callback.onRemoved(size, previousSize - size);
+        }
+    }
+
     @MainThread
     @Override
     protected void loadAroundInternal(int index) {
@@ -301,4 +372,20 @@ class ContiguousPagedList<K, V> extends PagedList<V> implements PagedStorage.Cal
     public void onPageInserted(int start, int count) {
         throw new IllegalStateException("Tiled callback on ContiguousPagedList");
     }
+
+    @MainThread
+    @Override
+    public void onPagesRemoved(int startOfDrops, int count) {
+        if (startOfDrops == 0) {
+            // dropped from the front, the remaining items moved towards the start of the list
+            offsetBoundaryAccessIndices(-count);
+        }
+        notifyRemoved(startOfDrops, count);
+    }
+
+    @MainThread
+    @Override
+    public void onPagesSwappedToPlaceholder(int startOfDrops, int count) {
+        notifyChanged(startOfDrops, count);
+    }
 }
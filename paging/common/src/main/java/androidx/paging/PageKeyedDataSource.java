@@ -314,6 +314,12 @@ public abstract class PageKeyedDataSource<Key, Value> extends ContiguousDataSour
         return null;
     }
 
+    @Override
+    boolean supportsPageDropping() {
+        // only the keys adjacent to the loaded range are kept, dropped pages can't be reloaded
+        return false;
+    }
+
     @Override
     final void dispatchLoadInitial(@Nullable Key key, int initialLoadSize, int pageSize,
             boolean enablePlaceholders, @NonNull Executor mainThreadExecutor,
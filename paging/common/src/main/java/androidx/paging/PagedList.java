@@ -703,6 +703,17 @@ public abstract class PagedList<T> extends AbstractList<T> {
         }
     }
 
+    void notifyRemoved(int position, int count) {
+        if (count != 0) {
+            for (int i = mCallbacks.size() - 1; i >= 0; i--) {
+                Callback callback = mCallbacks.get(i).get();
+                if (callback != null) {
+                    callback.onRemoved(position, count);
+                }
+            }
+        }
+    }
+
     void notifyChanged(int position, int count) {
         if (count != 0) {
             for (int i = mCallbacks.size() - 1; i >= 0; i--) {
@@ -774,6 +785,13 @@ public abstract class PagedList<T> extends AbstractList<T> {
      * {@link Builder#setPageSize(int)}, which defines number of items loaded at a time}.
      */
     public static class Config {
+        /**
+         * When {@link #maxSize} is set to {@code MAX_SIZE_UNBOUNDED}, the maximum number of items
+         * loaded is unbounded, and pages will never be dropped.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int MAX_SIZE_UNBOUNDED = Integer.MAX_VALUE;
+
         /**
          * Size of each page loaded by the PagedList.
          */
@@ -803,12 +821,38 @@ public abstract class PagedList<T> extends AbstractList<T> {
         @SuppressWarnings("WeakerAccess")
         public final int initialLoadSizeHint;
 
+        /**
+         * Defines the maximum number of items that may be loaded into this pagedList before pages
+         * should be dropped.
+         * <p>
+         * {@link PageKeyedDataSource} does not currently support dropping pages - when loading
+         * from a {@code PageKeyedDataSource}, this value is ignored.
+         *
+         * @see #MAX_SIZE_UNBOUNDED
+         * @see Builder#setMaxSize(int)
+         */
+        @SuppressWarnings("WeakerAccess")
+        public final int maxSize;
+
+        /**
+         * Maximum number of page loads a tiled PagedList keeps outstanding at once.
+         * <p>
+         * Only used when loading from a {@link PositionalDataSource} with placeholders enabled.
+         *
+         * @see Builder#setMaxConcurrentLoads(int)
+         */
+        @SuppressWarnings("WeakerAccess")
+        public final int maxConcurrentLoads;
+
         private Config(int pageSize, int prefetchDistance,
-                boolean enablePlaceholders, int initialLoadSizeHint) {
+                boolean enablePlaceholders, int initialLoadSizeHint, int maxSize,
+                int maxConcurrentLoads) {
             this.pageSize = pageSize;
             this.prefetchDistance = prefetchDistance;
             this.enablePlaceholders = enablePlaceholders;
             this.initialLoadSizeHint = initialLoadSizeHint;
+            this.maxSize = maxSize;
+            this.maxConcurrentLoads = maxConcurrentLoads;
         }
 
         /**
@@ -821,6 +865,8 @@ public abstract class PagedList<T> extends AbstractList<T> {
             private int mPrefetchDistance = -1;
             private int mInitialLoadSizeHint = -1;
             private boolean mEnablePlaceholders = true;
+            private int mMaxSize = MAX_SIZE_UNBOUNDED;
+            private int mMaxConcurrentLoads = 2;
 
             /**
              * Defines the number of items loaded at once from the DataSource.
@@ -917,6 +963,78 @@ public abstract class PagedList<T> extends AbstractList<T> {
                 return this;
             }
 
+            /**
+             * Defines how many items to keep loaded at once.
+             * <p>
+             * This can be used to cap the number of items kept in memory by dropping pages. This
+             * value is typically many pages so old pages are cached in case the user scrolls back.
+             * <p>
+             * This value must be at least two times the
+             * {@link #setPrefetchDistance(int) prefetch distance} plus the
+             * {@link #setPageSize(int) page size}. This constraint prevents loads from being
+             * continuously fetched and discarded due to prefetching.
+             * <p>
+             * The max size specified here is best effort, not a guarantee. In practice, if maxSize
+             * is many times the page size, the number of items held by the PagedList will not grow
+             * above this number. Exceptions are made as necessary to guarantee:
+             * <ul>
+             *     <li>Pages are never dropped until there are more than two pages loaded. Note that
+             *     a DataSource may not be held strictly to
+             *     {@link Config#pageSize requested pageSize}, so two pages may be larger than
+             *     expected.
+             *     <li>Pages are never dropped if they are within a prefetch window (defined to be
+             *     {@code pageSize + (2 * prefetchDistance)}) of the most recent load.
+             * </ul>
+             * <p>
+             * When pages are dropped, they are replaced by null placeholders if placeholders are
+             * enabled, and removed from the list otherwise. They are loaded again when the items
+             * around them are accessed.
+             * <p>
+             * {@link PageKeyedDataSource} does not currently support dropping pages - when
+             * loading from a {@code PageKeyedDataSource}, this value is ignored.
+             * <p>
+             * If not set, defaults to {@code MAX_SIZE_UNBOUNDED}, which disables page dropping.
+             *
+             * @param maxSize Maximum number of items to keep in memory, or
+             *                {@code MAX_SIZE_UNBOUNDED} to disable page dropping.
+             * @return this
+             *
+             * @see Config#MAX_SIZE_UNBOUNDED
+             * @see Config#maxSize
+             */
+            @SuppressWarnings("WeakerAccess")
+            public Builder setMaxSize(int maxSize) {
+                this.mMaxSize = maxSize;
+                return this;
+            }
+
+            /**
+             * Defines how many page loads a tiled PagedList may have outstanding on its background
+             * executor at once.
+             * <p>
+             * When loading from a {@link PositionalDataSource} with placeholders enabled, pages
+             * are loaded independently of each other as they are accessed. Pages waiting for a
+             * free load slot are merged into a single range load when they are adjacent, and are
+             * dropped if the user scrolls far enough away from them before they start loading.
+             * Loads that have been posted to the background executor but have not started yet
+             * are cancelled the same way, a load that already reached the DataSource always
+             * completes.
+             * <p>
+             * Raise this value if the DataSource can serve several ranges in parallel, for example
+             * a database in write-ahead logging mode, and the background executor has more than
+             * one thread.
+             * <p>
+             * If not set, defaults to 2.
+             *
+             * @param maxConcurrentLoads Maximum number of outstanding page loads, at least 1.
+             * @return this
+             */
+            @SuppressWarnings("WeakerAccess")
+            public Builder setMaxConcurrentLoads(int maxConcurrentLoads) {
+                this.mMaxConcurrentLoads = maxConcurrentLoads;
+                return this;
+            }
+
             /**
              * Creates a {@link Config} with the given parameters.
              *
@@ -937,9 +1055,21 @@ public abstract class PagedList<T> extends AbstractList<T> {
                             + " to trigger loading of more data in the PagedList, so either"
                             + " placeholders must be enabled, or prefetch distance must be > 0.");
                 }
+                if (mMaxSize != MAX_SIZE_UNBOUNDED) {
+                    if (mMaxSize < mPageSize + mPrefetchDistance * 2) {
+                        throw new IllegalArgumentException("Maximum size must be at least"
+                                + " pageSize + 2*prefetchDist, pageSize=" + mPageSize
+                                + ", prefetchDist=" + mPrefetchDistance + ", maxSize=" + mMaxSize);
+                    }
+                }
+
+                if (mMaxConcurrentLoads < 1) {
+                    throw new IllegalArgumentException(
+                            "Maximum concurrent loads must be a positive number");
+                }
 
                 return new Config(mPageSize, mPrefetchDistance,
-                        mEnablePlaceholders, mInitialLoadSizeHint);
+                        mEnablePlaceholders, mInitialLoadSizeHint, mMaxSize, mMaxConcurrentLoads);
             }
         }
     }
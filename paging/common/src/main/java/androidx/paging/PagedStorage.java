@@ -45,7 +45,12 @@ final class PagedStorage<T> extends AbstractList<T> {
      * Non-contiguous - mPages may have nulls or a placeholder page, isTiled() always returns true.
      *     mPages may have nulls, or placeholder (empty) pages while content is loading.
      */
-    private final ArrayList<List<T>> mPages;
+    private ArrayList<List<T>> mPages;
+    /**
+     * True if {@link #mPages} is also referenced by a snapshot of this storage, or by the storage
+     * this one is a snapshot of. A shared list must not be modified, it's copied on first write.
+     */
+    private boolean mPagesShared;
     private int mTrailingNullCount;
 
     private int mPositionOffset;
@@ -55,11 +60,18 @@ final class PagedStorage<T> extends AbstractList<T> {
      */
     private int mStorageCount;
 
+    /**
+     * Number of items in loaded pages. Equal to {@link #mStorageCount} unless tiling leaves
+     * unloaded pages in {@link #mPages}.
+     */
+    private int mLoadedCount;
+
     // If mPageSize > 0, tiling is enabled, 'mPages' may have gaps, and leadingPages is set
     private int mPageSize;
 
     private int mNumberPrepended;
     private int mNumberAppended;
+    private int mNumberTrimmed;
 
     PagedStorage() {
         mLeadingNullCount = 0;
@@ -67,9 +79,11 @@ final class PagedStorage<T> extends AbstractList<T> {
         mTrailingNullCount = 0;
         mPositionOffset = 0;
         mStorageCount = 0;
+        mLoadedCount = 0;
         mPageSize = 1;
         mNumberPrepended = 0;
         mNumberAppended = 0;
+        mNumberTrimmed = 0;
     }
 
     PagedStorage(int leadingNulls, List<T> page, int trailingNulls) {
@@ -79,27 +93,46 @@ final class PagedStorage<T> extends AbstractList<T> {
 
     private PagedStorage(PagedStorage<T> other) {
         mLeadingNullCount = other.mLeadingNullCount;
-        mPages = new ArrayList<>(other.mPages);
+        // snapshots are never modified, so they can share the list of pages until this storage
+        // is modified next, instead of copying it every time.
+        mPages = other.mPages;
+        mPagesShared = true;
+        other.mPagesShared = true;
         mTrailingNullCount = other.mTrailingNullCount;
         mPositionOffset = other.mPositionOffset;
         mStorageCount = other.mStorageCount;
+        mLoadedCount = other.mLoadedCount;
         mPageSize = other.mPageSize;
         mNumberPrepended = other.mNumberPrepended;
         mNumberAppended = other.mNumberAppended;
+        mNumberTrimmed = other.mNumberTrimmed;
     }
 
     PagedStorage<T> snapshot() {
         return new PagedStorage<>(this);
     }
 
+    /**
+     * Returns {@link #mPages}, copying it first if it is shared with a snapshot.
+     */
+    private ArrayList<List<T>> mutablePages() {
+        if (mPagesShared) {
+            mPages = new ArrayList<>(mPages);
+            mPagesShared = false;
+        }
+        return mPages;
+    }
+
     private void init(int leadingNulls, List<T> page, int trailingNulls, int positionOffset) {
         mLeadingNullCount = leadingNulls;
-        mPages.clear();
-        mPages.add(page);
+        final ArrayList<List<T>> pages = mutablePages();
+        pages.clear();
+        pages.add(page);
         mTrailingNullCount = trailingNulls;
 
         mPositionOffset = positionOffset;
         mStorageCount = page.size();
+        mLoadedCount = page.size();
 
         // initialized as tiled. There may be 3 nulls, 2 items, but we still call this tiled
         // even if it will break if nulls convert.
@@ -107,6 +140,7 @@ final class PagedStorage<T> extends AbstractList<T> {
 
         mNumberPrepended = 0;
         mNumberAppended = 0;
+        mNumberTrimmed = 0;
     }
 
     void init(int leadingNulls, @NonNull List<T> page, int trailingNulls, int positionOffset,
@@ -184,6 +218,18 @@ final class PagedStorage<T> extends AbstractList<T> {
         return mNumberPrepended;
     }
 
+    /**
+     * Returns the number of items that have been dropped from this storage, either removed or
+     * swapped back to nulls.
+     */
+    int getNumberTrimmed() {
+        return mNumberTrimmed;
+    }
+
+    int getLoadedCount() {
+        return mLoadedCount;
+    }
+
     int getPageCount() {
         return mPages.size();
     }
@@ -194,6 +240,8 @@ final class PagedStorage<T> extends AbstractList<T> {
         void onPageAppended(int endPosition, int changed, int added);
         void onPagePlaceholderInserted(int pageIndex);
         void onPageInserted(int start, int count);
+        void onPagesRemoved(int startOfDrops, int count);
+        void onPagesSwappedToPlaceholder(int startOfDrops, int count);
     }
 
     int getPositionOffset() {
@@ -261,8 +309,9 @@ final class PagedStorage<T> extends AbstractList<T> {
             }
         }
 
-        mPages.add(0, page);
+        mutablePages().add(0, page);
         mStorageCount += count;
+        mLoadedCount += count;
 
         final int changedCount = Math.min(mLeadingNullCount, count);
         final int addedCount = count - changedCount;
@@ -292,8 +341,9 @@ final class PagedStorage<T> extends AbstractList<T> {
             }
         }
 
-        mPages.add(page);
+        mutablePages().add(page);
         mStorageCount += count;
+        mLoadedCount += count;
 
         final int changedCount = Math.min(mTrailingNullCount, count);
         final int addedCount = count - changedCount;
@@ -306,6 +356,91 @@ final class PagedStorage<T> extends AbstractList<T> {
                 changedCount, addedCount);
     }
 
+    /**
+     * Returns the position, including the position offset, of the item in the middle of the loaded
+     * items. Compared against the last accessed position to decide which side to trim.
+     */
+    int getMiddleOfLoadedRange() {
+        return mLeadingNullCount + mPositionOffset + mStorageCount / 2;
+    }
+
+    /**
+     * Returns true if a new page of the given size should not be added at all, because it would
+     * have to be trimmed right away to stay under maxSize.
+     */
+    boolean shouldPreTrimNewPage(int maxSize, int requiredRemaining, int countToBeAdded) {
+        return mLoadedCount + countToBeAdded > maxSize
+                && mPages.size() > 1
+                && mLoadedCount >= requiredRemaining;
+    }
+
+    private boolean needsTrim(int maxSize, int requiredRemaining, int localPageIndex) {
+        final List<T> page = mPages.get(localPageIndex);
+        return mLoadedCount > maxSize
+                && mPages.size() > 2
+                && mLoadedCount - page.size() >= requiredRemaining;
+    }
+
+    /**
+     * Drops pages from the front while more than maxSize items are loaded, keeping at least
+     * requiredRemaining items.
+     *
+     * @param insertNulls True to swap the dropped items to leading nulls, false to remove them.
+     * @return True if any page was dropped.
+     */
+    boolean trimFromFront(boolean insertNulls, int maxSize, int requiredRemaining,
+            @NonNull Callback callback) {
+        int totalRemoved = 0;
+        while (needsTrim(maxSize, requiredRemaining, 0)) {
+            final int removed = mutablePages().remove(0).size();
+            totalRemoved += removed;
+            mStorageCount -= removed;
+            mLoadedCount -= removed;
+        }
+        if (totalRemoved > 0) {
+            mNumberTrimmed += totalRemoved;
+            if (insertNulls) {
+                final int previousLeadingNulls = mLeadingNullCount;
+                mLeadingNullCount += totalRemoved;
+                callback.onPagesSwappedToPlaceholder(previousLeadingNulls, totalRemoved);
+            } else {
+                // the remaining items move to the front of the list
+                mPositionOffset += totalRemoved;
+                callback.onPagesRemoved(mLeadingNullCount, totalRemoved);
+            }
+        }
+        return totalRemoved > 0;
+    }
+
+    /**
+     * Drops pages from the end while more than maxSize items are loaded, keeping at least
+     * requiredRemaining items.
+     *
+     * @param insertNulls True to swap the dropped items to trailing nulls, false to remove them.
+     * @return True if any page was dropped.
+     */
+    boolean trimFromEnd(boolean insertNulls, int maxSize, int requiredRemaining,
+            @NonNull Callback callback) {
+        int totalRemoved = 0;
+        while (needsTrim(maxSize, requiredRemaining, mPages.size() - 1)) {
+            final int removed = mutablePages().remove(mPages.size() - 1).size();
+            totalRemoved += removed;
+            mStorageCount -= removed;
+            mLoadedCount -= removed;
+        }
+        if (totalRemoved > 0) {
+            mNumberTrimmed += totalRemoved;
+            final int newEndPosition = mLeadingNullCount + mStorageCount;
+            if (insertNulls) {
+                mTrailingNullCount += totalRemoved;
+                callback.onPagesSwappedToPlaceholder(newEndPosition, totalRemoved);
+            } else {
+                callback.onPagesRemoved(newEndPosition, totalRemoved);
+            }
+        }
+        return totalRemoved > 0;
+    }
+
     // ------------------ Non-Contiguous API (tiling required) ----------------------
 
     void initAndSplit(int leadingNulls, @NonNull List<T> multiPageList,
@@ -363,7 +498,8 @@ final class PagedStorage<T> extends AbstractList<T> {
             throw new IllegalArgumentException(
                     "Invalid position " + position + ": data already loaded");
         }
-        mPages.set(localPageIndex, page);
+        mutablePages().set(localPageIndex, page);
+        mLoadedCount += page.size();
         if (callback != null) {
             callback.onPageInserted(position, page.size());
         }
@@ -374,7 +510,7 @@ final class PagedStorage<T> extends AbstractList<T> {
 
         if (minimumPage < leadingNullPages) {
             for (int i = 0; i < leadingNullPages - minimumPage; i++) {
-                mPages.add(0, null);
+                mutablePages().add(0, null);
             }
             int newStorageAllocated = (leadingNullPages - minimumPage) * mPageSize;
             mStorageCount += newStorageAllocated;
@@ -386,7 +522,7 @@ final class PagedStorage<T> extends AbstractList<T> {
             int newStorageAllocated = Math.min(mTrailingNullCount,
                     (maximumPage + 1 - (leadingNullPages + mPages.size())) * mPageSize);
             for (int i = mPages.size(); i <= maximumPage - leadingNullPages; i++) {
-                mPages.add(mPages.size(), null);
+                mutablePages().add(mPages.size(), null);
             }
             mStorageCount += newStorageAllocated;
             mTrailingNullCount -= newStorageAllocated;
@@ -417,12 +553,73 @@ final class PagedStorage<T> extends AbstractList<T> {
             int localPageIndex = pageIndex - leadingNullPages;
             if (mPages.get(localPageIndex) == null) {
                 //noinspection unchecked
-                mPages.set(localPageIndex, PLACEHOLDER_LIST);
+                mutablePages().set(localPageIndex, PLACEHOLDER_LIST);
                 callback.onPagePlaceholderInserted(pageIndex);
             }
         }
     }
 
+    /**
+     * Reverts a page marked as loading by {@link #allocatePlaceholders} back to a plain null page,
+     * so that the next access around it requests it again. Loaded pages are left untouched.
+     */
+    void releasePlaceholder(int pageIndex) {
+        int localPageIndex = pageIndex - mLeadingNullCount / mPageSize;
+        if (localPageIndex >= 0 && localPageIndex < mPages.size()
+                && mPages.get(localPageIndex) == PLACEHOLDER_LIST) {
+            mutablePages().set(localPageIndex, null);
+        }
+    }
+
+    /**
+     * Swaps loaded pages back to nulls, farthest from the given index first, until at most
+     * maxSize items are loaded. Pages within keepDistance of the index are never dropped.
+     */
+    void trimTiles(int maxSize, int index, int keepDistance, @NonNull Callback callback) {
+        final int leadingNullPages = mLeadingNullCount / mPageSize;
+        int first = 0;
+        int last = mPages.size() - 1;
+        while (mLoadedCount > maxSize) {
+            // the farthest loaded page is either the first or the last one
+            while (first <= last && !isLoaded(mPages.get(first))) {
+                first++;
+            }
+            while (last >= first && !isLoaded(mPages.get(last))) {
+                last--;
+            }
+            if (first >= last) {
+                return;
+            }
+            final int firstStart = (first + leadingNullPages) * mPageSize;
+            final int lastStart = (last + leadingNullPages) * mPageSize;
+            final int distanceToFirst = index - (firstStart + mPages.get(first).size() - 1);
+            final int distanceToLast = lastStart - index;
+            final int localPageIndex;
+            final int start;
+            if (distanceToFirst >= distanceToLast) {
+                if (distanceToFirst <= keepDistance) {
+                    return;
+                }
+                localPageIndex = first;
+                start = firstStart;
+            } else {
+                if (distanceToLast <= keepDistance) {
+                    return;
+                }
+                localPageIndex = last;
+                start = lastStart;
+            }
+            final int count = mutablePages().set(localPageIndex, null).size();
+            mLoadedCount -= count;
+            mNumberTrimmed += count;
+            callback.onPagesSwappedToPlaceholder(start, count);
+        }
+    }
+
+    private static boolean isLoaded(List page) {
+        return page != null && page != PLACEHOLDER_LIST;
+    }
+
     public boolean hasPage(int pageSize, int index) {
         // NOTE: we pass pageSize here to avoid in case mPageSize
         // not fully initialized (when last page only one loaded)
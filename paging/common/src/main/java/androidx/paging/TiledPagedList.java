@@ -21,12 +21,21 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.WorkerThread;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 class TiledPagedList<T> extends PagedList<T>
         implements PagedStorage.Callback {
     private final PositionalDataSource<T> mDataSource;
 
+    // main thread only - pages marked as loading that are still waiting for a free load slot
+    private final BitSet mPendingPages = new BitSet();
+    // main thread only - loads posted to the background executor that haven't returned yet
+    private final ArrayList<TileLoad> mLoads = new ArrayList<>();
+
     private PageResult.Receiver<T> mReceiver = new PageResult.Receiver<T>() {
         // Creation thread for initial synchronous load, otherwise main thread
         // Safe to access main thread only state - no other thread has reference during construction
@@ -53,8 +62,20 @@ class TiledPagedList<T> extends PagedList<T>
                         pageResult.leadingNulls, pageResult.page, pageResult.trailingNulls,
                         pageResult.positionOffset, mConfig.pageSize, TiledPagedList.this);
             } else {
-                mStorage.insertPage(pageResult.positionOffset, pageResult.page,
-                        TiledPagedList.this);
+                // a tile load may span several adjacent pages, insert them one by one
+                final int pageSize = mConfig.pageSize;
+                final List<T> page = pageResult.page;
+                for (int start = 0; start < page.size(); start += pageSize) {
+                    int end = Math.min(start + pageSize, page.size());
+                    mStorage.insertPage(pageResult.positionOffset + start,
+                            page.subList(start, end), TiledPagedList.this);
+                }
+                if (mConfig.maxSize != Config.MAX_SIZE_UNBOUNDED) {
+                    // swap the pages farthest from the last access back to placeholders, they
+                    // are loaded again when accessed
+                    mStorage.trimTiles(mConfig.maxSize, mLastLoad, mConfig.prefetchDistance,
+                            TiledPagedList.this);
+                }
             }
 
             if (mBoundaryCallback != null) {
@@ -66,7 +87,9 @@ class TiledPagedList<T> extends PagedList<T>
                 boolean deferEnd = !deferEmpty
                         && ((type == PageResult.INIT && pageResult.trailingNulls == 0)
                                 || (type == PageResult.TILE
-                                        && (pageResult.positionOffset + mConfig.pageSize >= size)));
+                                        && (pageResult.positionOffset
+                                                + Math.max(mConfig.pageSize, pageResult.page.size())
+                                                >= size)));
                 deferBoundaryCallbacks(deferEmpty, deferBegin, deferEnd);
             }
         }
@@ -137,10 +160,10 @@ class TiledPagedList<T> extends PagedList<T>
         for (int i = 0; i < pageCount; i++) {
             int pageIndex = i + leadingNullPages;
             int updatedPages = 0;
-            // count number of consecutive pages that were added since the snapshot...
+            // count number of consecutive pages that were added or dropped since the snapshot...
             while (updatedPages < mStorage.getPageCount()
                     && mStorage.hasPage(pageSize, pageIndex + updatedPages)
-                    && !snapshot.hasPage(pageSize, pageIndex + updatedPages)) {
+                            != snapshot.hasPage(pageSize, pageIndex + updatedPages)) {
                 updatedPages++;
             }
             // and signal them all at once to the callback
@@ -153,7 +176,71 @@ class TiledPagedList<T> extends PagedList<T>
 
     @Override
     protected void loadAroundInternal(int index) {
+        cancelStaleLoads(index);
         mStorage.allocatePlaceholders(index, mConfig.prefetchDistance, mConfig.pageSize, this);
+        dispatchPendingLoads(index);
+    }
+
+    /**
+     * Drops the pending pages and not yet started loads that have moved too far from the access at
+     * the given index, so that fast scrolling doesn't leave a queue of loads nobody will look at.
+     * Their placeholders are released, so they are requested again if the user comes back.
+     */
+    private void cancelStaleLoads(int index) {
+        for (int pageIndex = mPendingPages.nextSetBit(0); pageIndex >= 0;
+                pageIndex = mPendingPages.nextSetBit(pageIndex + 1)) {
+            if (isStale(pageIndex, pageIndex, index)) {
+                mPendingPages.clear(pageIndex);
+                mStorage.releasePlaceholder(pageIndex);
+            }
+        }
+        for (int i = mLoads.size() - 1; i >= 0; i--) {
+            TileLoad load = mLoads.get(i);
+            // a load that already started can't be interrupted, let it complete
+            if (isStale(load.mFirstPage, load.mLastPage, index) && load.cancel()) {
+                mLoads.remove(i);
+                for (int pageIndex = load.mFirstPage; pageIndex <= load.mLastPage; pageIndex++) {
+                    mStorage.releasePlaceholder(pageIndex);
+                }
+            }
+        }
+    }
+
+    private boolean isStale(int firstPage, int lastPage, int index) {
+        final int pageSize = mConfig.pageSize;
+        final int start = firstPage * pageSize;
+        final int end = (lastPage + 1) * pageSize - 1;
+        final int distance = index < start ? start - index : index > end ? index - end : 0;
+        // keep an extra page of slack, so that a load isn't thrown away by a small scroll
+        return distance > mConfig.prefetchDistance + pageSize;
+    }
+
+    /**
+     * Posts loads for pending pages, closest to the given index first, until the concurrency limit
+     * is reached. Adjacent pending pages are merged into a single load.
+     */
+    private void dispatchPendingLoads(int index) {
+        final int centerPage = index / mConfig.pageSize;
+        while (mLoads.size() < mConfig.maxConcurrentLoads && !mPendingPages.isEmpty()) {
+            int closest = -1;
+            for (int pageIndex = mPendingPages.nextSetBit(0); pageIndex >= 0;
+                    pageIndex = mPendingPages.nextSetBit(pageIndex + 1)) {
+                if (closest < 0
+                        || Math.abs(pageIndex - centerPage) < Math.abs(closest - centerPage)) {
+                    closest = pageIndex;
+                }
+            }
+            int firstPage = closest;
+            while (firstPage > 0 && mPendingPages.get(firstPage - 1)) {
+                firstPage--;
+            }
+            int lastPage = mPendingPages.nextClearBit(closest) - 1;
+            mPendingPages.clear(firstPage, lastPage + 1);
+
+            TileLoad load = new TileLoad(firstPage, lastPage);
+            mLoads.add(load);
+            mBackgroundThreadExecutor.execute(load);
+        }
     }
 
     @Override
@@ -173,29 +260,72 @@ class TiledPagedList<T> extends PagedList<T>
 
     @Override
     public void onPagePlaceholderInserted(final int pageIndex) {
-        // placeholder means initialize a load
-        mBackgroundThreadExecutor.execute(new Runnable() {
-            @Override
-            public void run() {
-                if (isDetached()) {
-                    return;
-                }
-                final int pageSize = mConfig.pageSize;
-
-                if (mDataSource.isInvalid()) {
-                    detach();
-                } else {
-                    int startPosition = pageIndex * pageSize;
-                    int count = Math.min(pageSize, mStorage.size() - startPosition);
-                    mDataSource.dispatchLoadRange(
-                            PageResult.TILE, startPosition, count, mMainThreadExecutor, mReceiver);
-                }
-            }
-        });
+        // placeholder means initialize a load, once a load slot is free
+        mPendingPages.set(pageIndex);
     }
 
     @Override
     public void onPageInserted(int start, int count) {
         notifyChanged(start, count);
     }
+
+    @Override
+    public void onPagesRemoved(int startOfDrops, int count) {
+        throw new IllegalStateException("Contiguous callback on TiledPagedList");
+    }
+
+    @Override
+    public void onPagesSwappedToPlaceholder(int startOfDrops, int count) {
+        notifyChanged(startOfDrops, count);
+    }
+
+    /**
+     * Loads a range of adjacent pages on the background executor.
+     * <p>
+     * A load can be cancelled until it starts running, after that it always delivers its result.
+     */
+    private class TileLoad implements Runnable {
+        final int mFirstPage;
+        final int mLastPage;
+        // set by whichever of run() or cancel() gets to the load first
+        private final AtomicBoolean mClaimed = new AtomicBoolean();
+
+        private final PageResult.Receiver<T> mLoadReceiver = new PageResult.Receiver<T>() {
+            @Override
+            public void onPageResult(@PageResult.ResultType int type,
+                    @NonNull PageResult<T> pageResult) {
+                mLoads.remove(TileLoad.this);
+                mReceiver.onPageResult(type, pageResult);
+                if (!isDetached()) {
+                    dispatchPendingLoads(mLastLoad);
+                }
+            }
+        };
+
+        TileLoad(int firstPage, int lastPage) {
+            mFirstPage = firstPage;
+            mLastPage = lastPage;
+        }
+
+        boolean cancel() {
+            return mClaimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public void run() {
+            if (!mClaimed.compareAndSet(false, true) || isDetached()) {
+                return;
+            }
+            if (mDataSource.isInvalid()) {
+                detach();
+            } else {
+                final int pageSize = mConfig.pageSize;
+                int startPosition = mFirstPage * pageSize;
+                int count = Math.min((mLastPage + 1) * pageSize, mStorage.size()) - startPosition;
+                mDataSource.dispatchLoadRange(
+                        PageResult.TILE, startPosition, count, mMainThreadExecutor,
+                        mLoadReceiver);
+            }
+        }
+    }
 }
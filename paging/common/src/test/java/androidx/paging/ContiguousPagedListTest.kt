@@ -26,6 +26,7 @@ import org.junit.Test
 import org.junit.runner.RunWith
 import org.junit.runners.Parameterized
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.times
 import org.mockito.Mockito.verify
 import org.mockito.Mockito.verifyNoMoreInteractions
 import org.mockito.Mockito.verifyZeroInteractions
@@ -151,7 +152,8 @@ class ContiguousPagedListTest(private val mCounted: Boolean) {
             prefetchDistance: Int = 20,
             listData: List<Item> = ITEMS,
             boundaryCallback: PagedList.BoundaryCallback<Item>? = null,
-            lastLoad: Int = ContiguousPagedList.LAST_LOAD_UNSPECIFIED
+            lastLoad: Int = ContiguousPagedList.LAST_LOAD_UNSPECIFIED,
+            maxSize: Int = PagedList.Config.MAX_SIZE_UNBOUNDED
     ): ContiguousPagedList<Int, Item> {
         return ContiguousPagedList(
                 TestSource(listData), mMainThread, mBackgroundThread, boundaryCallback,
@@ -159,6 +161,7 @@ class ContiguousPagedListTest(private val mCounted: Boolean) {
                         .setInitialLoadSizeHint(initLoadSize)
                         .setPageSize(pageSize)
                         .setPrefetchDistance(prefetchDistance)
+                        .setMaxSize(maxSize)
                         .build(),
                 initialPosition,
                 lastLoad)
@@ -499,6 +502,133 @@ class ContiguousPagedListTest(private val mCounted: Boolean) {
         verifyNoMoreInteractions(boundaryCallback)
     }
 
+    private fun createDroppingPagedList(initialPosition: Int) = createCountedPagedList(
+            initialPosition, pageSize = 10, initLoadSize = 20, prefetchDistance = 5,
+            maxSize = 30)
+
+    @Test
+    fun pageDrop_front() {
+        val pagedList = createDroppingPagedList(0)
+        val callback = mock(PagedList.Callback::class.java)
+        pagedList.addWeakCallback(null, callback)
+        verifyRange(0, 20, pagedList)
+
+        pagedList.loadAround(19)
+        drain()
+        // at most two pages loaded, nothing dropped yet
+        verifyRange(0, 30, pagedList)
+        if (mCounted) {
+            verify(callback).onChanged(20, 10)
+        } else {
+            verify(callback).onInserted(20, 10)
+        }
+        verifyNoMoreInteractions(callback)
+
+        pagedList.loadAround(29)
+        drain()
+        // the initial page is the farthest from the access, so it's dropped
+        verifyRange(20, 20, pagedList)
+        if (mCounted) {
+            verify(callback).onChanged(30, 10)
+            verify(callback).onChanged(0, 20)
+        } else {
+            verify(callback).onInserted(30, 10)
+            verify(callback).onRemoved(0, 20)
+        }
+        verifyNoMoreInteractions(callback)
+    }
+
+    @Test
+    fun pageDrop_end() {
+        val pagedList = createDroppingPagedList(80)
+        val callback = mock(PagedList.Callback::class.java)
+        pagedList.addWeakCallback(null, callback)
+        verifyRange(70, 20, pagedList)
+
+        pagedList.loadAround(if (mCounted) 70 else 0)
+        drain()
+        verifyRange(60, 30, pagedList)
+        pagedList.loadAround(if (mCounted) 60 else 0)
+        drain()
+        // the initial page is the farthest from the access, so it's dropped
+        verifyRange(50, 20, pagedList)
+        if (mCounted) {
+            verify(callback).onChanged(60, 10)
+            verify(callback).onChanged(50, 10)
+            verify(callback).onChanged(70, 20)
+        } else {
+            verify(callback, times(2)).onInserted(0, 10)
+            verify(callback).onRemoved(20, 20)
+        }
+        verifyNoMoreInteractions(callback)
+    }
+
+    @Test
+    fun pageDrop_reloadOnScrollBack() {
+        val pagedList = createDroppingPagedList(0)
+        pagedList.loadAround(19)
+        drain()
+        pagedList.loadAround(29)
+        drain()
+        verifyRange(20, 20, pagedList)
+
+        val callback = mock(PagedList.Callback::class.java)
+        pagedList.addWeakCallback(null, callback)
+        // scrolling back to the start loads the dropped items again, and drops the end instead
+        pagedList.loadAround(0)
+        drain()
+        if (!mCounted) {
+            // without placeholders, the first access only prepends up to the prefetch distance
+            verifyRange(10, 30, pagedList)
+            pagedList.loadAround(0)
+            drain()
+        }
+        verifyRange(0, 30, pagedList)
+        if (mCounted) {
+            verify(callback).onChanged(10, 10)
+            verify(callback).onChanged(0, 10)
+            verify(callback).onChanged(30, 10)
+        } else {
+            verify(callback, times(2)).onInserted(0, 10)
+            verify(callback).onRemoved(30, 10)
+        }
+        verifyNoMoreInteractions(callback)
+    }
+
+    @Test
+    fun pageDrop_snapshot() {
+        val pagedList = createDroppingPagedList(0)
+        pagedList.loadAround(19)
+        drain()
+        val snapshot = pagedList.snapshot() as PagedList<Item>
+        pagedList.loadAround(29)
+        drain()
+        verifyRange(20, 20, pagedList)
+
+        // pages were dropped since the snapshot, so every position is reported
+        val callback = mock(PagedList.Callback::class.java)
+        pagedList.addWeakCallback(snapshot, callback)
+        if (mCounted) {
+            verify(callback).onChanged(0, 100)
+        } else {
+            verify(callback).onChanged(0, 20)
+            verify(callback).onRemoved(20, 10)
+        }
+        verifyNoMoreInteractions(callback)
+    }
+
+    @Test
+    fun pageDrop_unbounded() {
+        val pagedList = createCountedPagedList(0, pageSize = 10, initLoadSize = 20,
+                prefetchDistance = 5)
+        for (i in 19 until 100 step 10) {
+            pagedList.loadAround(if (mCounted) i else pagedList.size - 1)
+            drain()
+        }
+        // without maxSize, nothing is dropped
+        verifyRange(0, 100, pagedList)
+    }
+
     private fun drain() {
         var executed: Boolean
         do {
@@ -403,4 +403,83 @@ class PagedStorageTest {
         assertFalse(storage.hasPage(2, 1))
         assertTrue(storage.hasPage(2, 2))
     }
+
+    @Test
+    fun snapshot_unaffectedByLaterChanges() {
+        val callback = mock(PagedStorage.Callback::class.java)
+
+        val storage = PagedStorage(2, createPage("a", "b"), 2)
+        val snapshot = storage.snapshot()
+        storage.appendPage(createPage("c", "d"), callback)
+        val secondSnapshot = storage.snapshot()
+        storage.prependPage(createPage("y", "z"), callback)
+
+        assertArrayEquals(arrayOf(null, null, "a", "b", null, null), snapshot.toArray())
+        assertArrayEquals(arrayOf(null, null, "a", "b", "c", "d"), secondSnapshot.toArray())
+        assertArrayEquals(arrayOf("y", "z", "a", "b", "c", "d"), storage.toArray())
+    }
+
+    @Test
+    fun trimFromFront_removesPages() {
+        val callback = mock(PagedStorage.Callback::class.java)
+        val storage = PagedStorage(0, createPage("a", "b"), 0)
+        storage.appendPage(createPage("c", "d"), callback)
+        storage.appendPage(createPage("e", "f"), callback)
+        storage.appendPage(createPage("g", "h"), callback)
+
+        assertTrue(storage.trimFromFront(false, 5, 4, callback))
+
+        assertArrayEquals(arrayOf("e", "f", "g", "h"), storage.toArray())
+        assertEquals(4, storage.positionOffset)
+        assertEquals(4, storage.numberTrimmed)
+        verify(callback).onPagesRemoved(0, 4)
+    }
+
+    @Test
+    fun trimFromFront_insertsNulls() {
+        val callback = mock(PagedStorage.Callback::class.java)
+        val storage = PagedStorage(1, createPage("a", "b"), 0)
+        storage.appendPage(createPage("c", "d"), callback)
+        storage.appendPage(createPage("e", "f"), callback)
+
+        assertTrue(storage.trimFromFront(true, 4, 4, callback))
+
+        assertArrayEquals(arrayOf(null, null, null, "c", "d", "e", "f"), storage.toArray())
+        assertEquals(3, storage.leadingNullCount)
+        verify(callback).onPagesSwappedToPlaceholder(1, 2)
+    }
+
+    @Test
+    fun trimFromEnd_keepsRequiredRemainder() {
+        val callback = mock(PagedStorage.Callback::class.java)
+        val storage = PagedStorage(0, createPage("a", "b"), 0)
+        storage.appendPage(createPage("c", "d"), callback)
+        storage.appendPage(createPage("e", "f"), callback)
+
+        // dropping a page would leave fewer than 6 items loaded
+        assertFalse(storage.trimFromEnd(true, 4, 6, callback))
+        assertTrue(storage.trimFromEnd(true, 4, 4, callback))
+
+        assertArrayEquals(arrayOf("a", "b", "c", "d", null, null), storage.toArray())
+        assertEquals(2, storage.trailingNullCount)
+        verify(callback).onPagesSwappedToPlaceholder(4, 2)
+    }
+
+    @Test
+    fun trimTiles_dropsFarthestPages() {
+        val callback = mock(PagedStorage.Callback::class.java)
+        val storage = PagedStorage<String>()
+        storage.initAndSplit(0, createPage("a", "b", "c", "d", "e", "f"), 2, 0, 2, callback)
+        storage.allocatePlaceholders(7, 0, 2, callback)
+        storage.insertPage(6, createPage("g", "h"), callback)
+
+        // last access at 5, keep its page and drop from the far end first
+        storage.trimTiles(4, 5, 0, callback)
+
+        assertArrayEquals(arrayOf(null, null, null, null, "e", "f", "g", "h"),
+                storage.toArray())
+        assertEquals(4, storage.loadedCount)
+        verify(callback).onPagesSwappedToPlaceholder(0, 2)
+        verify(callback).onPagesSwappedToPlaceholder(2, 2)
+    }
 }
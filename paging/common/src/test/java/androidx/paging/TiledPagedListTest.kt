@@ -55,16 +55,31 @@ class TiledPagedListTest {
         }
     }
 
+    private class RecordingDataSource(list: List<Item>) : ListDataSource<Item>(list) {
+        val loadedRanges = ArrayList<String>()
+
+        override fun loadRange(params: PositionalDataSource.LoadRangeParams,
+                callback: PositionalDataSource.LoadRangeCallback<Item>) {
+            loadedRanges.add("${params.startPosition}+${params.loadSize}")
+            super.loadRange(params, callback)
+        }
+    }
+
     private fun createTiledPagedList(loadPosition: Int, initPageCount: Int,
             prefetchDistance: Int = PAGE_SIZE,
             listData: List<Item> = ITEMS,
-            boundaryCallback: PagedList.BoundaryCallback<Item>? = null): TiledPagedList<Item> {
+            boundaryCallback: PagedList.BoundaryCallback<Item>? = null,
+            dataSource: ListDataSource<Item> = ListDataSource(listData),
+            maxConcurrentLoads: Int = 2,
+            maxSize: Int = PagedList.Config.MAX_SIZE_UNBOUNDED): TiledPagedList<Item> {
         return TiledPagedList(
-                ListDataSource(listData), mMainThread, mBackgroundThread, boundaryCallback,
+                dataSource, mMainThread, mBackgroundThread, boundaryCallback,
                 PagedList.Config.Builder()
                         .setPageSize(PAGE_SIZE)
                         .setInitialLoadSizeHint(PAGE_SIZE * initPageCount)
                         .setPrefetchDistance(prefetchDistance)
+                        .setMaxConcurrentLoads(maxConcurrentLoads)
+                        .setMaxSize(maxSize)
                         .build(),
                 loadPosition)
     }
@@ -293,6 +308,73 @@ class TiledPagedListTest {
         verifyNoMoreInteractions(callback)
     }
 
+    @Test
+    fun adjacentPagesLoadedTogether() {
+        val dataSource = RecordingDataSource(ITEMS)
+        val pagedList = createTiledPagedList(loadPosition = 0, initPageCount = 1,
+                prefetchDistance = 20, dataSource = dataSource)
+        val callback = mock(PagedList.Callback::class.java)
+        pagedList.addWeakCallback(null, callback)
+        verifyLoadedPages(pagedList, 0, 1)
+
+        pagedList.loadAround(19)
+        drain()
+
+        // pages 2 and 3 are requested with a single range load, but signaled separately
+        assertEquals(listOf("20+20"), dataSource.loadedRanges)
+        verifyLoadedPages(pagedList, 0, 1, 2, 3)
+        verify(callback).onChanged(20, 10)
+        verify(callback).onChanged(30, 10)
+        verifyNoMoreInteractions(callback)
+    }
+
+    @Test
+    fun maxConcurrentLoads() {
+        val dataSource = RecordingDataSource(ITEMS)
+        val pagedList = createTiledPagedList(loadPosition = 0, initPageCount = 1,
+                prefetchDistance = 0, dataSource = dataSource, maxConcurrentLoads = 1)
+        verifyLoadedPages(pagedList, 0, 1)
+
+        pagedList.loadAround(25)
+        pagedList.loadAround(35)
+
+        // page 3 waits for page 2 to finish loading
+        mBackgroundThread.executeAll()
+        assertEquals(listOf("20+10"), dataSource.loadedRanges)
+
+        drain()
+        assertEquals(listOf("20+10", "30+10"), dataSource.loadedRanges)
+        verifyLoadedPages(pagedList, 0, 1, 2, 3)
+    }
+
+    @Test
+    fun staleLoadCancelled() {
+        val dataSource = RecordingDataSource(ITEMS)
+        val pagedList = createTiledPagedList(loadPosition = 0, initPageCount = 1,
+                prefetchDistance = 0, dataSource = dataSource)
+        val callback = mock(PagedList.Callback::class.java)
+        pagedList.addWeakCallback(null, callback)
+        verifyLoadedPages(pagedList, 0, 1)
+
+        // jump away from page 2 before its load starts
+        pagedList.loadAround(25)
+        pagedList.loadAround(5)
+        drain()
+
+        assertTrue(dataSource.loadedRanges.isEmpty())
+        verifyLoadedPages(pagedList, 0, 1)
+        verifyZeroInteractions(callback)
+
+        // coming back requests the page again
+        pagedList.loadAround(25)
+        drain()
+
+        assertEquals(listOf("20+10"), dataSource.loadedRanges)
+        verifyLoadedPages(pagedList, 0, 1, 2)
+        verify(callback).onChanged(20, 10)
+        verifyNoMoreInteractions(callback)
+    }
+
     @Test
     fun placeholdersDisabled() {
         // disable placeholders with config, so we create a contiguous version of the pagedlist
@@ -369,14 +451,19 @@ class TiledPagedListTest {
         verifyZeroInteractions(boundaryCallback)
 
         pagedList.loadAround(0)
-        pagedList.loadAround(44)
 
         // still nothing, since items aren't loaded...
         verifyZeroInteractions(boundaryCallback)
 
         drain()
-        // first/last items loaded now, so callbacks dispatched
+        // first item loaded now, so callback dispatched
         verify(boundaryCallback).onItemAtFrontLoaded(ITEMS.first())
+
+        // drain in between, since jumping to the end would cancel the stale load of the front
+        pagedList.loadAround(44)
+        verifyNoMoreInteractions(boundaryCallback)
+
+        drain()
         verify(boundaryCallback).onItemAtEndLoaded(ITEMS.last())
         verifyNoMoreInteractions(boundaryCallback)
     }
@@ -451,6 +538,59 @@ class TiledPagedListTest {
         validateCallbackForSize(3, 3 * PAGE_SIZE + 2)
     }
 
+    @Test
+    fun pageDrop() {
+        val pagedList = createTiledPagedList(loadPosition = 0, initPageCount = 2,
+                maxSize = 3 * PAGE_SIZE)
+        val callback = mock(PagedList.Callback::class.java)
+        pagedList.addWeakCallback(null, callback)
+        verifyLoadedPages(pagedList, 0, 1)
+
+        pagedList.loadAround(25)
+        drain()
+        // the first page is the farthest from the access, so it's swapped back to nulls
+        verifyLoadedPages(pagedList, 1, 2, 3)
+        verify(callback).onChanged(20, 10)
+        verify(callback).onChanged(30, 10)
+        verify(callback).onChanged(0, 10)
+        verifyNoMoreInteractions(callback)
+    }
+
+    @Test
+    fun pageDrop_reloadOnScrollBack() {
+        val pagedList = createTiledPagedList(loadPosition = 0, initPageCount = 2,
+                maxSize = 3 * PAGE_SIZE)
+        pagedList.loadAround(25)
+        drain()
+        verifyLoadedPages(pagedList, 1, 2, 3)
+
+        val callback = mock(PagedList.Callback::class.java)
+        pagedList.addWeakCallback(null, callback)
+        // scrolling back loads the dropped page again, and drops the other end instead
+        pagedList.loadAround(0)
+        drain()
+        verifyLoadedPages(pagedList, 0, 1, 2)
+        verify(callback).onChanged(0, 10)
+        verify(callback).onChanged(30, 10)
+        verifyNoMoreInteractions(callback)
+    }
+
+    @Test
+    fun pageDrop_snapshot() {
+        val pagedList = createTiledPagedList(loadPosition = 0, initPageCount = 2,
+                maxSize = 3 * PAGE_SIZE)
+        val snapshot = pagedList.snapshot() as PagedList<Item>
+        pagedList.loadAround(25)
+        drain()
+
+        // both the loaded and the dropped pages are reported
+        val callback = mock(PagedList.Callback::class.java)
+        pagedList.addWeakCallback(snapshot, callback)
+        verify(callback).onChanged(0, 10)
+        verify(callback).onChanged(20, 20)
+        verifyNoMoreInteractions(callback)
+    }
+
     private fun drain() {
         var executed: Boolean
         do {
@@ -96,6 +96,16 @@ class PagedStorageDiffHelperTest {
         }
     }
 
+    @Test
+    fun moveAfterUnchangedItems() {
+        validateTwoListDiff(
+                PagedStorage(0, listOf("a", "b", "c", "d", "e", "f"), 0),
+                PagedStorage(0, listOf("a", "b", "e", "c", "d", "f"), 0)) {
+            verify(it).onMoved(4, 2)
+            verifyNoMoreInteractions(it)
+        }
+    }
+
     companion object {
         private val DIFF_CALLBACK = object : DiffUtil.ItemCallback<String>() {
             override fun areItemsTheSame(oldItem: String, newItem: String): Boolean {
@@ -53,6 +53,10 @@ class StringPagedList constructor(leadingNulls: Int, trailingNulls: Int, vararg
 
     override fun onPageInserted(start: Int, count: Int) {}
 
+    override fun onPagesRemoved(startOfDrops: Int, count: Int) {}
+
+    override fun onPagesSwappedToPlaceholder(startOfDrops: Int, count: Int) {}
+
     override fun getDataSource(): DataSource<*, String> {
         throw UnsupportedOperationException()
     }
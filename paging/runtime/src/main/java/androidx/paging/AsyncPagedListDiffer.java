@@ -294,7 +294,7 @@ public class AsyncPagedListDiffer<T> {
         mConfig.getBackgroundThreadExecutor().execute(new Runnable() {
             @Override
             public void run() {
-                final DiffUtil.DiffResult result;
+                final PagedStorageDiffHelper.PagedDiffResult result;
                 result = PagedStorageDiffHelper.computeDiff(
                         oldSnapshot.mStorage,
                         newSnapshot.mStorage,
@@ -314,7 +314,7 @@ public class AsyncPagedListDiffer<T> {
 
     private void latchPagedList(
             PagedList<T> newList, PagedList<T> diffSnapshot,
-            DiffUtil.DiffResult diffResult) {
+            PagedStorageDiffHelper.PagedDiffResult diffResult) {
         if (mSnapshot == null || mPagedList != null) {
             throw new IllegalStateException("must be in snapshot state to apply diff");
         }
@@ -19,27 +19,53 @@ package androidx.paging;
 import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListUpdateCallback;
+import androidx.recyclerview.widget.RecyclerView;
 
 class PagedStorageDiffHelper {
     private PagedStorageDiffHelper() {
     }
 
-    static <T> DiffUtil.DiffResult computeDiff(
+    static <T> PagedDiffResult computeDiff(
             final PagedStorage<T> oldList,
             final PagedStorage<T> newList,
             final DiffUtil.ItemCallback<T> diffCallback) {
-        final int oldOffset = oldList.computeLeadingNulls();
-        final int newOffset = newList.computeLeadingNulls();
+        final int oldLeadingNulls = oldList.computeLeadingNulls();
+        final int newLeadingNulls = newList.computeLeadingNulls();
+
+        final int oldLoadedSize =
+                oldList.size() - oldLeadingNulls - oldList.computeTrailingNulls();
+        final int newLoadedSize =
+                newList.size() - newLeadingNulls - newList.computeTrailingNulls();
+
+        // Items at either end of the loaded range that didn't change can't take part in the diff,
+        // so leave them out. After an invalidation usually only a few items differ, and DiffUtil
+        // then only has to look at those instead of the whole loaded range.
+        int unchangedPrefix = 0;
+        while (unchangedPrefix < oldLoadedSize && unchangedPrefix < newLoadedSize
+                && isUnchanged(oldList.get(oldLeadingNulls + unchangedPrefix),
+                        newList.get(newLeadingNulls + unchangedPrefix), diffCallback)) {
+            unchangedPrefix++;
+        }
+        int unchangedSuffix = 0;
+        while (unchangedSuffix < oldLoadedSize - unchangedPrefix
+                && unchangedSuffix < newLoadedSize - unchangedPrefix
+                && isUnchanged(oldList.get(oldLeadingNulls + oldLoadedSize - 1 - unchangedSuffix),
+                        newList.get(newLeadingNulls + newLoadedSize - 1 - unchangedSuffix),
+                        diffCallback)) {
+            unchangedSuffix++;
+        }
 
-        final int oldSize = oldList.size() - oldOffset - oldList.computeTrailingNulls();
-        final int newSize = newList.size() - newOffset - newList.computeTrailingNulls();
+        final int oldOffset = oldLeadingNulls + unchangedPrefix;
+        final int newOffset = newLeadingNulls + unchangedPrefix;
+        final int oldSize = oldLoadedSize - unchangedPrefix - unchangedSuffix;
+        final int newSize = newLoadedSize - unchangedPrefix - unchangedSuffix;
 
-        return DiffUtil.calculateDiff(new DiffUtil.Callback() {
+        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(new DiffUtil.Callback() {
             @Nullable
             @Override
             public Object getChangePayload(int oldItemPosition, int newItemPosition) {
                 T oldItem = oldList.get(oldItemPosition + oldOffset);
-                T newItem = newList.get(newItemPosition + newList.getLeadingNullCount());
+                T newItem = newList.get(newItemPosition + newOffset);
                 if (oldItem == null || newItem == null) {
                     return null;
                 }
@@ -59,7 +85,7 @@ class PagedStorageDiffHelper {
             @Override
             public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
                 T oldItem = oldList.get(oldItemPosition + oldOffset);
-                T newItem = newList.get(newItemPosition + newList.getLeadingNullCount());
+                T newItem = newList.get(newItemPosition + newOffset);
                 if (oldItem == newItem) {
                     return true;
                 }
@@ -73,7 +99,7 @@ class PagedStorageDiffHelper {
             @Override
             public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
                 T oldItem = oldList.get(oldItemPosition + oldOffset);
-                T newItem = newList.get(newItemPosition + newList.getLeadingNullCount());
+                T newItem = newList.get(newItemPosition + newOffset);
                 if (oldItem == newItem) {
                     return true;
                 }
@@ -84,7 +110,55 @@ class PagedStorageDiffHelper {
 
                 return diffCallback.areContentsTheSame(oldItem, newItem);
             }
+
+            @Override
+            public long getOldItemId(int oldItemPosition) {
+                T oldItem = oldList.get(oldItemPosition + oldOffset);
+                return oldItem == null ? RecyclerView.NO_ID : diffCallback.getItemId(oldItem);
+            }
+
+            @Override
+            public long getNewItemId(int newItemPosition) {
+                T newItem = newList.get(newItemPosition + newOffset);
+                return newItem == null ? RecyclerView.NO_ID : diffCallback.getItemId(newItem);
+            }
         }, true);
+        return new PagedDiffResult(diffResult, unchangedPrefix);
+    }
+
+    private static <T> boolean isUnchanged(@Nullable T oldItem, @Nullable T newItem,
+            DiffUtil.ItemCallback<T> diffCallback) {
+        if (oldItem == newItem) {
+            return true;
+        }
+        if (oldItem == null || newItem == null) {
+            return false;
+        }
+        return diffCallback.areItemsTheSame(oldItem, newItem)
+                && diffCallback.areContentsTheSame(oldItem, newItem);
+    }
+
+    /**
+     * Result of {@link #computeDiff}: the DiffResult of the loaded items that may have changed,
+     * and the number of loaded items before them that didn't change.
+     */
+    static class PagedDiffResult {
+        final DiffUtil.DiffResult mDiffResult;
+        final int mUnchangedPrefix;
+
+        PagedDiffResult(DiffUtil.DiffResult diffResult, int unchangedPrefix) {
+            mDiffResult = diffResult;
+            mUnchangedPrefix = unchangedPrefix;
+        }
+
+        void dispatchUpdatesTo(ListUpdateCallback callback, int leadingNulls) {
+            final int offset = leadingNulls + mUnchangedPrefix;
+            if (offset != 0) {
+                mDiffResult.dispatchUpdatesTo(new OffsettingListUpdateCallback(offset, callback));
+            } else {
+                mDiffResult.dispatchUpdatesTo(callback);
+            }
+        }
     }
 
     private static class OffsettingListUpdateCallback implements ListUpdateCallback {
@@ -108,7 +182,7 @@ class PagedStorageDiffHelper {
 
         @Override
         public void onMoved(int fromPosition, int toPosition) {
-            mCallback.onRemoved(fromPosition + mOffset, toPosition + mOffset);
+            mCallback.onMoved(fromPosition + mOffset, toPosition + mOffset);
         }
 
         @Override
@@ -132,7 +206,7 @@ class PagedStorageDiffHelper {
     static <T> void dispatchDiff(ListUpdateCallback callback,
             final PagedStorage<T> oldList,
             final PagedStorage<T> newList,
-            final DiffUtil.DiffResult diffResult) {
+            final PagedDiffResult diffResult) {
 
         final int trailingOld = oldList.computeTrailingNulls();
         final int trailingNew = newList.computeTrailingNulls();
@@ -144,7 +218,7 @@ class PagedStorageDiffHelper {
                 && leadingOld == 0
                 && leadingNew == 0) {
             // Simple case, dispatch & return
-            diffResult.dispatchUpdatesTo(callback);
+            diffResult.dispatchUpdatesTo(callback, 0);
             return;
         }
 
@@ -164,10 +238,6 @@ class PagedStorageDiffHelper {
         }
 
         // apply the diff, with an offset if needed
-        if (leadingNew != 0) {
-            diffResult.dispatchUpdatesTo(new OffsettingListUpdateCallback(leadingNew, callback));
-        } else {
-            diffResult.dispatchUpdatesTo(callback);
-        }
+        diffResult.dispatchUpdatesTo(callback, leadingNew);
     }
 }
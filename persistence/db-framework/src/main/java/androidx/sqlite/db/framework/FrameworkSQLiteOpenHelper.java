@@ -22,15 +22,29 @@ import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.os.Build;
 
+import androidx.annotation.NonNull;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.SupportSQLiteReaderPool;
 
-class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
+class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper, SupportSQLiteReaderPool {
     private final OpenHelper mDelegate;
+    private final boolean mInMemory;
+    private final int mMaxReaderConnections;
+    private volatile boolean mWriteAheadLoggingEnabled;
+    // guarded by this, replaced each time the database is closed.
+    private FrameworkSQLiteReaderPool mReaderPool;
 
     FrameworkSQLiteOpenHelper(Context context, String name,
             Callback callback) {
+        this(context, name, callback, 0);
+    }
+
+    FrameworkSQLiteOpenHelper(Context context, String name,
+            Callback callback, int maxReaderConnections) {
         mDelegate = createDelegate(context, name, callback);
+        mInMemory = name == null;
+        mMaxReaderConnections = maxReaderConnections;
     }
 
     private OpenHelper createDelegate(Context context, String name, Callback callback) {
@@ -47,6 +61,7 @@ class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
     @androidx.annotation.RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN)
     public void setWriteAheadLoggingEnabled(boolean enabled) {
         mDelegate.setWriteAheadLoggingEnabled(enabled);
+        mWriteAheadLoggingEnabled = enabled;
     }
 
     @Override
@@ -59,8 +74,45 @@ class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
         return mDelegate.getReadableSupportDatabase();
     }
 
+    @Override
+    public SupportSQLiteDatabase acquireReadOnlyDatabase() {
+        if (mInMemory || mMaxReaderConnections <= 0 || !mWriteAheadLoggingEnabled) {
+            // readers would either see a different database or block on the writer.
+            return null;
+        }
+        // make sure the database is created and migrated before any reader opens it.
+        final SupportSQLiteDatabase writer = getWritableDatabase();
+        FrameworkSQLiteReaderPool pool;
+        synchronized (this) {
+            pool = mReaderPool;
+            if (pool == null) {
+                pool = new FrameworkSQLiteReaderPool(writer.getPath(), mMaxReaderConnections);
+                mReaderPool = pool;
+            }
+        }
+        return pool.acquire();
+    }
+
+    @Override
+    public void releaseReadOnlyDatabase(@NonNull SupportSQLiteDatabase database) {
+        if (!(database instanceof FrameworkSQLiteReaderPool.Reader)) {
+            throw new IllegalArgumentException("Cannot release a database that is not acquired"
+                    + " via acquireReadOnlyDatabase");
+        }
+        FrameworkSQLiteReaderPool.Reader reader = (FrameworkSQLiteReaderPool.Reader) database;
+        reader.mPool.release(reader);
+    }
+
     @Override
     public void close() {
+        FrameworkSQLiteReaderPool pool;
+        synchronized (this) {
+            pool = mReaderPool;
+            mReaderPool = null;
+        }
+        if (pool != null) {
+            pool.close();
+        }
         mDelegate.close();
     }
 
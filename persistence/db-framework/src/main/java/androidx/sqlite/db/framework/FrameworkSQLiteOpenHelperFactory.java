@@ -17,16 +17,50 @@
 package androidx.sqlite.db.framework;
 
 import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.SupportSQLiteReaderPool;
 
 /**
  * Implements {@link SupportSQLiteOpenHelper.Factory} using the SQLite implementation in the
  * framework.
+ * <p>
+ * The open helpers created by this factory also implement {@link SupportSQLiteReaderPool}. When
+ * write-ahead logging is enabled, they keep a bounded pool of read-only connections that can
+ * run queries concurrently with the writer connection.
  */
 @SuppressWarnings("unused")
 public final class FrameworkSQLiteOpenHelperFactory implements SupportSQLiteOpenHelper.Factory {
+    /**
+     * The default maximum number of read-only connections kept by each open helper.
+     */
+    public static final int DEFAULT_MAX_READER_CONNECTIONS = 4;
+
+    private final int mMaxReaderConnections;
+
+    /**
+     * Creates a factory whose open helpers keep up to {@link #DEFAULT_MAX_READER_CONNECTIONS}
+     * read-only connections.
+     */
+    public FrameworkSQLiteOpenHelperFactory() {
+        this(DEFAULT_MAX_READER_CONNECTIONS);
+    }
+
+    /**
+     * Creates a factory whose open helpers keep up to the given number of read-only connections.
+     *
+     * @param maxReaderConnections The maximum number of read-only connections per open helper.
+     *                             Pass 0 to disable the reader pool.
+     */
+    public FrameworkSQLiteOpenHelperFactory(int maxReaderConnections) {
+        if (maxReaderConnections < 0) {
+            throw new IllegalArgumentException("maxReaderConnections cannot be negative");
+        }
+        mMaxReaderConnections = maxReaderConnections;
+    }
+
     @Override
     public SupportSQLiteOpenHelper create(SupportSQLiteOpenHelper.Configuration configuration) {
         return new FrameworkSQLiteOpenHelper(
-                configuration.context, configuration.name, configuration.callback);
+                configuration.context, configuration.name, configuration.callback,
+                mMaxReaderConnections);
     }
 }
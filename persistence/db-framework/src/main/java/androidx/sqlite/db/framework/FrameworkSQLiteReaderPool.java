@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.sqlite.db.framework;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+
+/**
+ * A bounded pool of read-only connections to a database file.
+ * <p>
+ * Each connection is a separate {@link SQLiteDatabase} opened with
+ * {@link SQLiteDatabase#OPEN_READONLY}, so readers never queue behind the writer connection when
+ * the database is in write-ahead logging mode. Connections are opened lazily, up to the maximum
+ * size, and are kept open until the pool is closed. A closed pool cannot be re-opened, the owner
+ * should create a new one instead.
+ * <p>
+ * This class is thread safe.
+ */
+class FrameworkSQLiteReaderPool {
+    private static final String TAG = "SupportSQLite";
+
+    private final String mPath;
+    private final int mMaxSize;
+    // idle readers, most recently released first so that we keep using warm connections.
+    private final ArrayDeque<Reader> mIdle;
+    // number of readers that are open or being opened.
+    private int mSize;
+    private boolean mClosed;
+
+    FrameworkSQLiteReaderPool(String path, int maxSize) {
+        mPath = path;
+        mMaxSize = maxSize;
+        mIdle = new ArrayDeque<>(maxSize);
+    }
+
+    /**
+     * Returns an idle reader or opens a new one if the pool is not full yet.
+     *
+     * @return A read-only database or null if the pool is exhausted or closed.
+     */
+    Reader acquire() {
+        synchronized (this) {
+            if (mClosed) {
+                return null;
+            }
+            Reader idle = mIdle.pollFirst();
+            if (idle != null) {
+                return idle;
+            }
+            if (mSize >= mMaxSize) {
+                return null;
+            }
+            // reserve the slot, we don't want to hold the lock while opening the file.
+            mSize++;
+        }
+        SQLiteDatabase sqLiteDatabase;
+        try {
+            sqLiteDatabase = SQLiteDatabase.openDatabase(mPath, null,
+                    SQLiteDatabase.OPEN_READONLY);
+        } catch (SQLiteException e) {
+            Log.w(TAG, "Cannot open a read-only connection to " + mPath, e);
+            synchronized (this) {
+                mSize--;
+            }
+            return null;
+        }
+        synchronized (this) {
+            if (!mClosed) {
+                return new Reader(this, sqLiteDatabase);
+            }
+            mSize--;
+        }
+        // the pool was closed while we were opening the connection.
+        sqLiteDatabase.close();
+        return null;
+    }
+
+    void release(Reader reader) {
+        synchronized (this) {
+            if (!mClosed) {
+                mIdle.addFirst(reader);
+                return;
+            }
+            mSize--;
+        }
+        reader.mSQLiteDatabase.close();
+    }
+
+    /**
+     * Closes all idle readers. Readers that are still in use are closed when they are released.
+     */
+    void close() {
+        final Reader[] toClose;
+        synchronized (this) {
+            if (mClosed) {
+                return;
+            }
+            mClosed = true;
+            toClose = mIdle.toArray(new Reader[mIdle.size()]);
+            mSize -= toClose.length;
+            mIdle.clear();
+        }
+        for (Reader reader : toClose) {
+            reader.mSQLiteDatabase.close();
+        }
+    }
+
+    /**
+     * A read-only database that remembers the pool it belongs to.
+     */
+    static class Reader extends FrameworkSQLiteDatabase {
+        final FrameworkSQLiteReaderPool mPool;
+        final SQLiteDatabase mSQLiteDatabase;
+
+        Reader(FrameworkSQLiteReaderPool pool, SQLiteDatabase delegate) {
+            super(delegate);
+            mPool = pool;
+            mSQLiteDatabase = delegate;
+        }
+    }
+}
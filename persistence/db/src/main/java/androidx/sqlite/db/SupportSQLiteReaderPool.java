@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.sqlite.db;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * An optional interface that a {@link SupportSQLiteOpenHelper} can implement to hand out
+ * read-only connections to the same database file.
+ * <p>
+ * When the database is in write-ahead logging mode, queries that run on these connections do not
+ * wait for the writer connection, so several readers can make progress at the same time.
+ * Queries that run inside a transaction must keep using
+ * {@link SupportSQLiteOpenHelper#getWritableDatabase()} since a read-only connection cannot see
+ * the uncommitted changes of that transaction.
+ */
+public interface SupportSQLiteReaderPool {
+    /**
+     * Acquires a read-only database from the pool.
+     * <p>
+     * This method does not block. If there is no idle reader and the pool is at its maximum size,
+     * or if the database is not in write-ahead logging mode, it returns {@code null} and the caller
+     * should fall back to {@link SupportSQLiteOpenHelper#getWritableDatabase()}.
+     * <p>
+     * Each database returned from this method must be given back via
+     * {@link #releaseReadOnlyDatabase(SupportSQLiteDatabase)} once the caller is done with it,
+     * including any {@link android.database.Cursor Cursor} obtained from it.
+     *
+     * @return A read-only database or {@code null} if there is none available.
+     */
+    @Nullable
+    SupportSQLiteDatabase acquireReadOnlyDatabase();
+
+    /**
+     * Returns a database that was acquired via {@link #acquireReadOnlyDatabase()} to the pool.
+     *
+     * @param database The database to release.
+     */
+    void releaseReadOnlyDatabase(@NonNull SupportSQLiteDatabase database);
+}
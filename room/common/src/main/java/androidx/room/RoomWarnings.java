@@ -134,6 +134,19 @@ public class RoomWarnings {
     public static final String RELATION_QUERY_WITHOUT_TRANSACTION =
             "ROOM_RELATION_QUERY_WITHOUT_TRANSACTION";
 
+    /**
+     * Reported when the query plan of a {@link Query} shows that SQLite has to scan a whole table,
+     * build a temporary index or sort the rows into a temporary B-tree for the ORDER BY clause.
+     * These queries get slower as the tables grow and can usually be fixed by adding an
+     * {@link Index} to the {@link Entity}, in particular on the child columns of a
+     * {@link ForeignKey}.
+     * <p>
+     * Room checks the plan against the entities and indices declared in the {@link Database},
+     * with empty tables. If the {@code room.failOnInefficientQueryPlan} annotation processor
+     * argument is {@code true}, this is reported as an error instead of a warning.
+     */
+    public static final String INEFFICIENT_QUERY_PLAN = "ROOM_INEFFICIENT_QUERY_PLAN";
+
     /** @deprecated This type should not be instantiated as it contains only static methods. */
     @Deprecated
     @SuppressWarnings("PrivateConstructorForUtilityClass")
@@ -76,6 +76,8 @@ object RoomTypeNames {
             ClassName.get("androidx.room.util", "TableInfo.Index")
     val LIMIT_OFFSET_DATA_SOURCE: ClassName =
             ClassName.get("androidx.room.paging", "LimitOffsetDataSource")
+    val KEYSET_DATA_SOURCE: ClassName =
+            ClassName.get("androidx.room.paging", "KeysetDataSource")
 }
 
 object PagingTypeNames {
@@ -83,6 +85,8 @@ object PagingTypeNames {
             ClassName.get("androidx.paging", "DataSource")
     val POSITIONAL_DATA_SOURCE: ClassName =
             ClassName.get("androidx.paging", "PositionalDataSource")
+    val ITEM_KEYED_DATA_SOURCE: ClassName =
+            ClassName.get("androidx.paging", "ItemKeyedDataSource")
     val DATA_SOURCE_FACTORY: ClassName =
             ClassName.get("androidx.paging", "DataSource.Factory")
 }
@@ -96,6 +100,7 @@ object LifecyclesTypeNames {
 object AndroidTypeNames {
     val CURSOR: ClassName = ClassName.get("android.database", "Cursor")
     val ARRAY_MAP: ClassName = ClassName.get("androidx.collection", "ArrayMap")
+    val LONG_SPARSE_ARRAY: ClassName = ClassName.get("androidx.collection", "LongSparseArray")
     val BUILD: ClassName = ClassName.get("android.os", "Build")
 }
 
@@ -38,6 +38,17 @@ data class Section(val text: String, val type: SectionType) {
 
 data class Table(val name: String, val alias: String)
 
+/**
+ * A term in the ORDER BY clause of a SELECT query.
+ *
+ * [column] is null if the term is not a plain column reference (e.g. a function call).
+ */
+data class OrderingTerm(
+        val tableAlias: String?,
+        val column: String?,
+        val descending: Boolean,
+        val hasCollation: Boolean)
+
 data class ParsedQuery(
         val original: String,
         val type: QueryType,
@@ -45,7 +56,13 @@ data class ParsedQuery(
         // pairs of table name and alias,
         val tables: Set<Table>,
         val syntaxErrors: List<String>,
-        val runtimeQueryPlaceholder: Boolean) {
+        val runtimeQueryPlaceholder: Boolean,
+        // ORDER BY terms of the outermost SELECT statement
+        val orderingTerms: List<OrderingTerm> = emptyList(),
+        // true if the outermost SELECT statement has a LIMIT clause
+        val hasLimit: Boolean = false,
+        // true if the statement or any of its sub queries has a WHERE clause
+        val hasWhereClause: Boolean = false) {
     companion object {
         val STARTS_WITH_NUMBER = "^\\?[0-9]".toRegex()
         val MISSING = ParsedQuery("missing query", QueryType.UNKNOWN, emptyList(), emptySet(),
@@ -40,11 +40,17 @@ class QueryVisitor(
     private val tableNames = mutableSetOf<Table>()
     private val withClauseNames = mutableSetOf<String>()
     private val queryType: QueryType
+    private val orderingTerms = arrayListOf<OrderingTerm>()
+    private var hasLimit = false
+    private var hasWhereClause = false
 
     init {
         queryType = (0 until statement.childCount).map {
             findQueryType(statement.getChild(it))
         }.filterNot { it == QueryType.UNKNOWN }.firstOrNull() ?: QueryType.UNKNOWN
+        (0 until statement.childCount).forEach {
+            findOrderingAndLimit(statement.getChild(it))
+        }
 
         statement.accept(this)
     }
@@ -74,6 +80,32 @@ class QueryVisitor(
         }
     }
 
+    private fun findOrderingAndLimit(statement: ParseTree) {
+        val (terms, limit) = when (statement) {
+            is SQLiteParser.Factored_select_stmtContext ->
+                Pair(statement.ordering_term(), statement.K_LIMIT())
+            is SQLiteParser.Compound_select_stmtContext ->
+                Pair(statement.ordering_term(), statement.K_LIMIT())
+            is SQLiteParser.Select_stmtContext ->
+                Pair(statement.ordering_term(), statement.K_LIMIT())
+            is SQLiteParser.Simple_select_stmtContext ->
+                Pair(statement.ordering_term(), statement.K_LIMIT())
+            else -> return
+        }
+        hasLimit = limit != null
+        terms.mapTo(orderingTerms) { term ->
+            // the grammar reads "name COLLATE NOCASE" as a COLLATE expression around the column
+            val collated = term.expr().K_COLLATE() != null
+            val expr = if (collated) term.expr().expr(0) else term.expr()
+            val columnName = expr.column_name()
+            OrderingTerm(
+                    tableAlias = expr.table_name()?.let { unescapeIdentifier(it.text) },
+                    column = columnName?.let { unescapeIdentifier(it.text) },
+                    descending = term.K_DESC() != null,
+                    hasCollation = collated || term.K_COLLATE() != null)
+        }
+    }
+
     override fun visitExpr(ctx: SQLiteParser.ExprContext): Void? {
         val bindParameter = ctx.BIND_PARAMETER()
         if (bindParameter != null) {
@@ -82,6 +114,13 @@ class QueryVisitor(
         return super.visitExpr(ctx)
     }
 
+    override fun visitTerminal(node: TerminalNode): Void? {
+        if (node.symbol.type == SQLiteParser.K_WHERE) {
+            hasWhereClause = true
+        }
+        return super.visitTerminal(node)
+    }
+
     fun createParsedQuery(): ParsedQuery {
         return ParsedQuery(
                 original = original,
@@ -89,7 +128,10 @@ class QueryVisitor(
                 inputs = bindingExpressions.sortedBy { it.sourceInterval.a },
                 tables = tableNames,
                 syntaxErrors = syntaxErrors,
-                runtimeQueryPlaceholder = forRuntimeQuery)
+                runtimeQueryPlaceholder = forRuntimeQuery,
+                orderingTerms = orderingTerms,
+                hasLimit = hasLimit,
+                hasWhereClause = hasWhereClause)
     }
 
     override fun visitCommon_table_expression(
@@ -114,6 +156,14 @@ class QueryVisitor(
         return super.visitTable_or_subquery(ctx)
     }
 
+    override fun visitQualified_table_name(
+            ctx: SQLiteParser.Qualified_table_nameContext): Void? {
+        // the table of a DELETE or UPDATE statement
+        val tableName = unescapeIdentifier(ctx.table_name().text)
+        tableNames.add(Table(tableName, tableName))
+        return super.visitQualified_table_name(ctx)
+    }
+
     private fun unescapeIdentifier(text: String): String {
         val trimmed = text.trim()
         ESCAPE_LITERALS.forEach {
@@ -75,6 +75,12 @@ class Context private constructor(
         }
     }
 
+    // when set, inefficient query plans are reported as errors instead of warnings.
+    val failOnInefficientQueryPlan by lazy {
+        processingEnv.options[ProcessorOptions.OPTION_FAIL_ON_INEFFICIENT_QUERY_PLAN.argName]
+                ?.toBoolean() ?: false
+    }
+
     fun <T> collectLogs(handler: (Context) -> T): Pair<T, RLog.CollectingMessager> {
         val collector = RLog.CollectingMessager()
         val subContext = Context(processingEnv = processingEnv,
@@ -110,6 +116,7 @@ class Context private constructor(
     }
 
     enum class ProcessorOptions(val argName: String) {
-        OPTION_SCHEMA_FOLDER("room.schemaLocation")
+        OPTION_SCHEMA_FOLDER("room.schemaLocation"),
+        OPTION_FAIL_ON_INEFFICIENT_QUERY_PLAN("room.failOnInefficientQueryPlan")
     }
 }
@@ -489,6 +489,34 @@ object ProcessorErrors {
 
     val PAGING_SPECIFY_DATA_SOURCE_TYPE = "For now, Room only supports PositionalDataSource class."
 
+    val KEYSET_PAGING_REQUIRES_SINGLE_ORDER_BY_COLUMN = """
+            A DataSource.Factory with a non Integer key pages the query by seeking on its ORDER BY
+            column. The query must be ordered by exactly one column, without a COLLATE clause.
+            Use Integer as the key type to page with LIMIT and OFFSET instead.
+            """.trim()
+
+    val KEYSET_PAGING_CANNOT_HAVE_LIMIT = "A DataSource.Factory with a non Integer key cannot" +
+            " have a LIMIT clause since Room adds its own LIMIT to load each page."
+
+    fun keysetPagingKeyNotInResult(column: String): String {
+        return "The ORDER BY column `$column` must be mapped to a field of the returned type" +
+                " without an alias so that Room can read the key of each item. Embedded fields" +
+                " cannot be used as keys."
+    }
+
+    fun keysetPagingKeyTypeMismatch(column: String, keyType: TypeName,
+                                    fieldType: TypeName): String {
+        return "The key type of the DataSource.Factory ($keyType) must match the type of the" +
+                " ORDER BY column `$column` ($fieldType). Supported key types are boxed" +
+                " primitives, String and byte[]."
+    }
+
+    fun keysetPagingKeyNotUnique(column: String): String {
+        return "The ORDER BY column `$column` must be the primary key or have a unique index to" +
+                " be used as a DataSource.Factory key, otherwise rows that share the same key" +
+                " may be skipped while paging."
+    }
+
     fun primaryKeyNull(field: String): String {
         return "You must annotate primary keys with @NonNull. \"$field\" is nullable. SQLite " +
                 "considers this a " +
@@ -23,7 +23,6 @@ import androidx.room.ext.KotlinMetadataProcessor
 import androidx.room.ext.hasAnnotation
 import androidx.room.parser.ParsedQuery
 import androidx.room.parser.QueryType
-import androidx.room.parser.SqlParser
 import androidx.room.solver.query.result.LiveDataQueryResultBinder
 import androidx.room.solver.query.result.PojoRowAdapter
 import androidx.room.verifier.DatabaseVerificaitonErrors
@@ -72,7 +71,7 @@ class QueryMethodProcessor(
                 ProcessorErrors.MISSING_QUERY_ANNOTATION)
 
         val query = if (annotation != null) {
-            val query = SqlParser.parse(
+            val query = context.cache.parseQuery(
                     AnnotationMirrors.getAnnotationValue(annotation, "value").value.toString())
             context.checker.check(query.errors.isEmpty(), executableElement,
                     query.errors.joinToString("\n"))
@@ -82,6 +81,8 @@ class QueryMethodProcessor(
             if (query.resultInfo?.error != null) {
                 context.logger.e(executableElement,
                         DatabaseVerificaitonErrors.cannotVerifyQuery(query.resultInfo!!.error!!))
+            } else if (query.resultInfo != null) {
+                checkQueryPlan(dbVerifier!!, query)
             }
 
             context.checker.check(executableType.returnType.kind != TypeKind.ERROR,
@@ -163,4 +164,17 @@ class QueryMethodProcessor(
         }
         return queryMethod
     }
+
+    private fun checkQueryPlan(dbVerifier: DatabaseVerifier, query: ParsedQuery) {
+        val issues = dbVerifier.findQueryPlanIssues(query)
+        if (issues.isEmpty()) {
+            return
+        }
+        val message = DatabaseVerificaitonErrors.inefficientQueryPlan(issues)
+        if (!context.failOnInefficientQueryPlan) {
+            context.logger.w(Warning.INEFFICIENT_QUERY_PLAN, executableElement, message)
+        } else if (!context.logger.suppressedWarnings.contains(Warning.INEFFICIENT_QUERY_PLAN)) {
+            context.logger.e(executableElement, message)
+        }
+    }
 }
@@ -18,6 +18,8 @@
 
 package androidx.room.processor.cache
 
+import androidx.room.parser.ParsedQuery
+import androidx.room.parser.SqlParser
 import androidx.room.processor.FieldProcessor
 import androidx.room.vo.EmbeddedField
 import androidx.room.vo.Entity
@@ -37,6 +39,21 @@ class Cache(val parent: Cache?, val converters: LinkedHashSet<TypeMirror>,
             val suppressedWarnings: Set<Warning>) {
     val entities: Bucket<EntityKey, Entity> = Bucket(parent?.entities)
     val pojos: Bucket<PojoKey, Pojo> = Bucket(parent?.pojos)
+    // parsing does not depend on converters or warnings, so all contexts share the same entries
+    private val queries: MutableMap<String, ParsedQuery> = parent?.queries ?: mutableMapOf()
+
+    /**
+     * Parses the given query, re-using the parse tree of an identical query that was seen before.
+     * <p>
+     * The same query shows up in every database that uses a Dao and in every relation that loads
+     * the same table. The returned copy does not share the [ParsedQuery.resultInfo], which is
+     * computed against a specific database.
+     */
+    fun parseQuery(sql: String): ParsedQuery {
+        return queries.getOrPut(sql, {
+            SqlParser.parse(sql)
+        }).copy()
+    }
 
     inner class Bucket<K, T>(source: Bucket<K, T>?) {
         private val entries: MutableMap<FullKey<K>, T> = source?.entries ?: mutableMapOf()
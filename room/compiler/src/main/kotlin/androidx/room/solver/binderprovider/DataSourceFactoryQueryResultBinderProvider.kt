@@ -17,14 +17,21 @@
 package androidx.room.solver.binderprovider
 
 import androidx.room.ext.PagingTypeNames
+import androidx.room.ext.typeName
 import androidx.room.parser.ParsedQuery
 import androidx.room.processor.Context
 import androidx.room.processor.ProcessorErrors
 import androidx.room.solver.QueryResultBinderProvider
 import androidx.room.solver.query.result.DataSourceFactoryQueryResultBinder
+import androidx.room.solver.query.result.DataSourceQueryResultBinder
+import androidx.room.solver.query.result.EntityRowAdapter
+import androidx.room.solver.query.result.KeysetDataSourceQueryResultBinder
 import androidx.room.solver.query.result.ListQueryResultAdapter
 import androidx.room.solver.query.result.PositionalDataSourceQueryResultBinder
+import androidx.room.solver.query.result.PojoRowAdapter
 import androidx.room.solver.query.result.QueryResultBinder
+import com.squareup.javapoet.ArrayTypeName
+import com.squareup.javapoet.TypeName
 import javax.lang.model.type.DeclaredType
 import javax.lang.model.type.TypeMirror
 
@@ -45,8 +52,86 @@ class DataSourceFactoryQueryResultBinderProvider(val context: Context) : QueryRe
 
         val tableNames = ((adapter?.accessedTableNames() ?: emptyList())
                 + query.tables.map { it.name }).toSet()
-        val countedBinder = PositionalDataSourceQueryResultBinder(adapter, tableNames)
-        return DataSourceFactoryQueryResultBinder(countedBinder)
+        val keyType = declared.typeArguments[0]
+        val dataSourceBinder = if (TypeName.get(keyType) == Integer::class.typeName()) {
+            PositionalDataSourceQueryResultBinder(adapter, tableNames)
+        } else {
+            createKeysetBinder(keyType, query, adapter, tableNames)
+        }
+        return DataSourceFactoryQueryResultBinder(dataSourceBinder)
+    }
+
+    /**
+     * Non Integer keys are paged by seeking on the ORDER BY column of the query, which must be a
+     * unique column that is mapped to a field of the returned type.
+     */
+    private fun createKeysetBinder(
+            keyType: TypeMirror,
+            query: ParsedQuery,
+            adapter: ListQueryResultAdapter?,
+            tableNames: Set<String>): DataSourceQueryResultBinder {
+        val fallback = PositionalDataSourceQueryResultBinder(adapter, tableNames)
+        val term = query.orderingTerms.singleOrNull()
+        val column = term?.column
+        if (term == null || column == null || term.hasCollation) {
+            context.logger.e(ProcessorErrors.KEYSET_PAGING_REQUIRES_SINGLE_ORDER_BY_COLUMN)
+            return fallback
+        }
+        if (query.hasLimit) {
+            context.logger.e(ProcessorErrors.KEYSET_PAGING_CANNOT_HAVE_LIMIT)
+            return fallback
+        }
+        val rowAdapter = adapter?.rowAdapter ?: return fallback
+        val resultFields = when (rowAdapter) {
+            is PojoRowAdapter -> rowAdapter.mapping.matchedFields
+            is EntityRowAdapter -> rowAdapter.entity.fields
+            else -> emptyList()
+        }
+        val keyField = resultFields.firstOrNull {
+            it.parent == null && it.columnName.equals(column, ignoreCase = true)
+        }
+        if (keyField == null) {
+            context.logger.e(ProcessorErrors.keysetPagingKeyNotInResult(column))
+            return fallback
+        }
+        val keyTypeName = TypeName.get(keyType)
+        if (keyField.typeName.box() != keyTypeName || keyTypeName !in SUPPORTED_KEY_TYPES) {
+            context.logger.e(ProcessorErrors.keysetPagingKeyTypeMismatch(
+                    column, keyTypeName, keyField.typeName))
+            return fallback
+        }
+        if (!isUniqueColumn(query, term.tableAlias, column)) {
+            context.logger.e(ProcessorErrors.keysetPagingKeyNotUnique(column))
+            return fallback
+        }
+        return KeysetDataSourceQueryResultBinder(adapter, tableNames, keyField, term.descending)
+    }
+
+    /**
+     * Checks the schema for a single column primary key or unique index on the given column. If
+     * the table of the column cannot be found (e.g. when the query is not verified), this method
+     * trusts the developer and returns true.
+     */
+    private fun isUniqueColumn(query: ParsedQuery, tableAlias: String?, column: String): Boolean {
+        val entities = context.databaseVerifier?.entities ?: return true
+        val candidateTables = if (tableAlias == null) {
+            query.tables
+        } else {
+            query.tables.filter { it.alias.equals(tableAlias, ignoreCase = true) }
+        }.map { it.name }
+        val owners = entities.filter { entity ->
+            candidateTables.any { it.equals(entity.tableName, ignoreCase = true) } &&
+                    entity.fields.any { it.columnName.equals(column, ignoreCase = true) }
+        }
+        if (owners.size != 1) {
+            return true
+        }
+        val entity = owners.first()
+        val uniqueColumnSets = listOf(entity.primaryKey.columnNames) +
+                entity.indices.filter { it.unique }.map { it.columnNames }
+        return uniqueColumnSets.any {
+            it.size == 1 && it.first().equals(column, ignoreCase = true)
+        }
     }
 
     override fun matches(declared: DeclaredType): Boolean =
@@ -60,4 +145,11 @@ class DataSourceFactoryQueryResultBinderProvider(val context: Context) : QueryRe
         // we don't want to return paged list unless explicitly requested
         return context.processingEnv.typeUtils.isAssignable(dataSourceFactoryTypeMirror, erasure)
     }
+
+    companion object {
+        private val SUPPORTED_KEY_TYPES = listOf(TypeName.BOOLEAN, TypeName.BYTE, TypeName.SHORT,
+                TypeName.INT, TypeName.LONG, TypeName.CHAR, TypeName.FLOAT, TypeName.DOUBLE)
+                .map { it.box() } + listOf(TypeName.get(String::class.java),
+                ArrayTypeName.of(TypeName.BYTE))
+    }
 }
@@ -22,6 +22,7 @@ import androidx.room.ext.N
 import androidx.room.ext.T
 import androidx.room.solver.CodeGenScope
 import androidx.room.writer.DaoWriter
+import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.FieldSpec
 import com.squareup.javapoet.MethodSpec
 import javax.lang.model.element.Modifier
@@ -41,6 +42,15 @@ abstract class BaseObservableQueryResultBinder(adapter: QueryResultAdapter?)
         }.build()
     }
 
+    /**
+     * Returns the code to get the Executor of the database that should run the query. Queries
+     * that run in a transaction use the transaction executor.
+     */
+    protected fun executorCode(dbField: FieldSpec, inTransaction: Boolean): CodeBlock {
+        val getter = if (inTransaction) "getTransactionExecutor" else "getQueryExecutor"
+        return CodeBlock.of("$N.$L()", dbField, getter)
+    }
+
     protected fun createRunQueryAndReturnStatements(builder: MethodSpec.Builder,
                                                     roomSQLiteQueryVar: String,
                                                     dbField: FieldSpec,
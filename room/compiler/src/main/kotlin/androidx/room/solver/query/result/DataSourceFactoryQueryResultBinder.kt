@@ -18,7 +18,6 @@ package androidx.room.solver.query.result
 
 import androidx.room.ext.L
 import androidx.room.ext.PagingTypeNames
-import androidx.room.ext.typeName
 import androidx.room.solver.CodeGenScope
 import com.squareup.javapoet.FieldSpec
 import com.squareup.javapoet.MethodSpec
@@ -27,10 +26,10 @@ import com.squareup.javapoet.TypeSpec
 import javax.lang.model.element.Modifier
 
 class DataSourceFactoryQueryResultBinder(
-        val positionalDataSourceQueryResultBinder: PositionalDataSourceQueryResultBinder)
-    : QueryResultBinder(positionalDataSourceQueryResultBinder.listAdapter) {
+        val dataSourceQueryResultBinder: DataSourceQueryResultBinder)
+    : QueryResultBinder(dataSourceQueryResultBinder.listAdapter) {
     @Suppress("HasPlatformType")
-    val typeName = positionalDataSourceQueryResultBinder.itemTypeName
+    val typeName = dataSourceQueryResultBinder.itemTypeName
     override fun convertAndReturn(
             roomSQLiteQueryVar: String,
             canReleaseQuery: Boolean,
@@ -42,7 +41,7 @@ class DataSourceFactoryQueryResultBinder(
             val pagedListProvider = TypeSpec
                     .anonymousClassBuilder("").apply {
                 superclass(ParameterizedTypeName.get(PagingTypeNames.DATA_SOURCE_FACTORY,
-                        Integer::class.typeName(), typeName))
+                        dataSourceQueryResultBinder.keyTypeName, typeName))
                 addMethod(createCreateMethod(
                         roomSQLiteQueryVar = roomSQLiteQueryVar,
                         dbField = dbField,
@@ -61,9 +60,9 @@ class DataSourceFactoryQueryResultBinder(
     ): MethodSpec = MethodSpec.methodBuilder("create").apply {
         addAnnotation(Override::class.java)
         addModifiers(Modifier.PUBLIC)
-        returns(positionalDataSourceQueryResultBinder.typeName)
+        returns(dataSourceQueryResultBinder.typeName)
         val countedBinderScope = scope.fork()
-        positionalDataSourceQueryResultBinder.convertAndReturn(
+        dataSourceQueryResultBinder.convertAndReturn(
                 roomSQLiteQueryVar = roomSQLiteQueryVar,
                 canReleaseQuery = true,
                 dbField = dbField,
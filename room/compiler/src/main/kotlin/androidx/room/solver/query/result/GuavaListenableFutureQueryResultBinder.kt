@@ -34,7 +34,8 @@ import javax.lang.model.type.TypeMirror
 /**
  * A ResultBinder that emits a ListenableFuture<T> where T is the input {@code typeArg}.
  *
- * <p>The Future runs on the background thread Executor.
+ * <p>The Future runs on the query Executor of the database, or on its transaction Executor if the
+ * query runs in a transaction.
  */
 class GuavaListenableFutureQueryResultBinder(
         val typeArg: TypeMirror,
@@ -56,8 +57,9 @@ class GuavaListenableFutureQueryResultBinder(
 
         scope.builder().apply {
             addStatement(
-                    "return $T.createListenableFuture($L, $L, $L)",
+                    "return $T.createListenableFuture($L, $L, $L, $L)",
                     RoomGuavaTypeNames.GUAVA_ROOM,
+                    executorCode(dbField, inTransaction),
                     callableImpl,
                     roomSQLiteQueryVar,
                     canReleaseQuery)
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package androidx.room.solver.query.result
+
+import androidx.room.ext.L
+import androidx.room.ext.N
+import androidx.room.ext.RoomTypeNames
+import androidx.room.ext.S
+import androidx.room.solver.CodeGenScope
+import androidx.room.vo.CallType
+import androidx.room.vo.Field
+import com.squareup.javapoet.FieldSpec
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.ParameterizedTypeName
+import com.squareup.javapoet.TypeName
+import com.squareup.javapoet.TypeSpec
+import javax.lang.model.element.Modifier
+
+/**
+ * Returns a KeysetDataSource that pages the query by seeking on [keyField].
+ */
+class KeysetDataSourceQueryResultBinder(
+        listAdapter: ListQueryResultAdapter?,
+        tableNames: Set<String>,
+        val keyField: Field,
+        val descending: Boolean) : DataSourceQueryResultBinder(listAdapter, tableNames) {
+    override val keyTypeName: TypeName = keyField.typeName.box()
+    override val typeName: ParameterizedTypeName = ParameterizedTypeName.get(
+            RoomTypeNames.KEYSET_DATA_SOURCE, keyTypeName, itemTypeName)
+    override fun convertAndReturn(roomSQLiteQueryVar: String,
+                                  canReleaseQuery: Boolean,
+                                  dbField: FieldSpec,
+                                  inTransaction: Boolean,
+                                  scope: CodeGenScope) {
+        val spec = TypeSpec.anonymousClassBuilder("$N, $L, $S, $L, $L $L",
+                dbField, roomSQLiteQueryVar, keyField.columnName, descending, inTransaction,
+                tableNamesList).apply {
+            superclass(typeName)
+            addMethod(createConvertRowsMethod(scope))
+            addMethod(createGetKeyMethod())
+        }.build()
+        scope.builder().apply {
+            addStatement("return $L", spec)
+        }
+    }
+
+    private fun createGetKeyMethod(): MethodSpec = MethodSpec.methodBuilder("getKey").apply {
+        addAnnotation(Override::class.java)
+        addModifiers(Modifier.PUBLIC)
+        returns(keyTypeName)
+        val itemParam = ParameterSpec.builder(itemTypeName, "item").build()
+        addParameter(itemParam)
+        val getter = keyField.getter
+        when (getter.callType) {
+            CallType.METHOD -> addStatement("return $N.$L()", itemParam, getter.name)
+            else -> addStatement("return $N.$L", itemParam, getter.name)
+        }
+    }.build()
+}
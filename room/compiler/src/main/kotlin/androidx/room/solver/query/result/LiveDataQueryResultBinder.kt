@@ -49,7 +49,8 @@ class LiveDataQueryResultBinder(val typeArg: TypeMirror, val tableNames: Set<Str
     ) {
         val typeName = typeArg.typeName()
 
-        val liveDataImpl = TypeSpec.anonymousClassBuilder("").apply {
+        val liveDataImpl = TypeSpec.anonymousClassBuilder(
+                "$L", executorCode(dbField, inTransaction)).apply {
             superclass(ParameterizedTypeName.get(LifecyclesTypeNames.COMPUTABLE_LIVE_DATA,
                     typeName))
             val observerField = FieldSpec.builder(RoomTypeNames.INVALIDATION_OBSERVER,
@@ -29,4 +29,39 @@ object DatabaseVerificaitonErrors {
     fun cannotCreateConnection(exception: Exception): String {
         return CANNOT_CREATE_SQLITE_CONNECTION.format(exception.message)
     }
+
+    private val INEFFICIENT_QUERY_PLAN: String = "The query plan of this query will get slower" +
+            " as the tables grow:\n%s\nYou can add an index to the entity or suppress this" +
+            " warning with @SuppressWarnings(RoomWarnings.INEFFICIENT_QUERY_PLAN)."
+    fun inefficientQueryPlan(issues: List<String>): String {
+        return INEFFICIENT_QUERY_PLAN.format(issues.joinToString("\n") { " - $it" })
+    }
+
+    private val FULL_TABLE_SCAN: String = "It scans the whole `%s` table."
+    fun fullTableScan(tableName: String): String {
+        return FULL_TABLE_SCAN.format(tableName)
+    }
+
+    private val AUTOMATIC_INDEX: String = "It builds a temporary index on the `%s` table each" +
+            " time it runs."
+    fun automaticIndex(tableName: String): String {
+        return AUTOMATIC_INDEX.format(tableName)
+    }
+
+    val TEMP_B_TREE_FOR_ORDER_BY: String = "It sorts the rows in a temporary B-tree for the" +
+            " ORDER BY clause instead of reading them in order from an index."
+
+    private val UNINDEXED_FOREIGN_KEY: String = "The foreign key column(s) %s of `%s` are not" +
+            " indexed."
+    fun unindexedForeignKey(tableName: String, columnNames: List<String>): String {
+        return UNINDEXED_FOREIGN_KEY.format(columnNames.joinToString(", "), tableName)
+    }
+
+    private val DELETE_SCANS_FOREIGN_KEY_CHILD: String = "Deleting from `%s` scans the whole" +
+            " `%s` table to check its foreign key column(s) %s, which are not indexed."
+    fun deleteScansForeignKeyChild(parentTable: String, childTable: String,
+            columnNames: List<String>): String {
+        return DELETE_SCANS_FOREIGN_KEY_CHILD.format(parentTable, childTable,
+                columnNames.joinToString(", "))
+    }
 }
@@ -16,15 +16,18 @@
 
 package androidx.room.verifier
 
+import androidx.room.parser.ParsedQuery
 import androidx.room.processor.Context
 import androidx.room.vo.Entity
 import androidx.room.vo.Warning
+import collect
 import columnInfo
 import org.sqlite.JDBC
 import java.io.File
 import java.sql.Connection
 import java.sql.DriverManager
 import java.sql.SQLException
+import java.sql.Types
 import java.util.UUID
 import java.util.regex.Pattern
 import javax.lang.model.element.Element
@@ -97,16 +100,59 @@ class DatabaseVerifier private constructor(
         entities.forEach { entity ->
             val stmt = connection.createStatement()
             stmt.executeUpdate(stripLocalizeCollations(entity.createTableQuery))
+            // indices are needed to get the same query plans as on the device
+            entity.indices.forEach { index ->
+                stmt.executeUpdate(index.createQuery(entity.tableName))
+            }
         }
     }
 
+    // results per SQL string: within this database, several Dao methods can share the same
+    // query, and relations that fetch the same entity by the same column share theirs
+    private val analyzed = mutableMapOf<String, QueryResultInfo>()
+
     fun analyze(sql: String): QueryResultInfo {
-        return try {
-            val stmt = connection.prepareStatement(stripLocalizeCollations(sql))
-            QueryResultInfo(stmt.columnInfo())
+        return analyzed.getOrPut(sql) {
+            try {
+                val stmt = connection.prepareStatement(stripLocalizeCollations(sql))
+                QueryResultInfo(stmt.columnInfo())
+            } catch (ex: SQLException) {
+                QueryResultInfo(emptyList(), ex)
+            }
+        }
+    }
+
+    /**
+     * Runs EXPLAIN QUERY PLAN for the given query and returns the reasons why it may be slow on
+     * large tables. Returns an empty list if the plan looks fine or cannot be computed.
+     */
+    fun findQueryPlanIssues(query: ParsedQuery): List<String> {
+        val plan = try {
+            val stmt = connection.prepareStatement(
+                    "EXPLAIN QUERY PLAN ${stripLocalizeCollations(query.original)}")
+            // the plan does not depend on the arguments, but the driver wants them all bound
+            (1..stmt.parameterMetaData.parameterCount).forEach {
+                stmt.setNull(it, Types.NULL)
+            }
+            val resultSet = stmt.executeQuery()
+            val metaData = resultSet.metaData
+            val hasParentColumn = (1..metaData.columnCount).any {
+                metaData.getColumnName(it) == "parent"
+            }
+            if (hasParentColumn) {
+                resultSet.collect {
+                    QueryPlanStep(it.getInt("id"), it.getInt("parent"), it.getString("detail"))
+                }
+            } else {
+                // SQLite before 3.24 does not print the tree, only the SELECT of each row
+                QueryPlanStep.fromSelectIds(resultSet.collect {
+                    Pair(it.getInt("selectid"), it.getString("detail"))
+                })
+            }
         } catch (ex: SQLException) {
-            QueryResultInfo(emptyList(), ex)
+            return emptyList()
         }
+        return QueryPlanChecker(query, entities).findIssues(plan)
     }
 
     private fun stripLocalizeCollations(sql: String) =
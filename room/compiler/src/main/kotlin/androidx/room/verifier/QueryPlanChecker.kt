@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.verifier
+
+import androidx.room.parser.ParsedQuery
+import androidx.room.parser.QueryType
+import androidx.room.vo.Entity
+import java.util.regex.Pattern
+
+/**
+ * Finds the steps of an EXPLAIN QUERY PLAN output that get slower as the tables grow.
+ * <p>
+ * The tables are empty at compile time, so this only looks at the shape of the plan: a table
+ * that is scanned while the query filters or joins it, a temporary index, or a temporary B-tree
+ * used to sort the rows for the ORDER BY clause.
+ */
+class QueryPlanChecker(val query: ParsedQuery, val entities: List<Entity>) {
+    companion object {
+        // SQLite before 3.24 prints "SCAN TABLE User AS u", newer versions print "SCAN u".
+        private val LOOP_PATTERN = Pattern.compile(
+                "^(SCAN|SEARCH)(?: TABLE)? (\\S+)(?: AS (\\S+))?(.*)$")
+        private const val TEMP_B_TREE_PREFIX = "USE TEMP B-TREE FOR "
+        private const val ORDER_BY_SUFFIX = "ORDER BY"
+        private const val CORRELATED_PREFIX = "CORRELATED "
+        // subqueries that run on their own, the WHERE clause of the query may not be theirs.
+        // UNION parts are left out since the parsed query does not tell which one is filtered.
+        private val SUBQUERY_PATTERN = Pattern.compile(
+                "^(?:(?:LIST|SCALAR) SUBQUERY|MATERIALIZE|CO-ROUTINE) .*$")
+    }
+
+    fun findIssues(plan: List<QueryPlanStep>): List<String> {
+        val issues = arrayListOf<String>()
+        val stepsById = plan.associateBy { it.id }
+        // the first loop under a parent runs once per run of the parent, the following ones run
+        // once per row of the loops before them
+        val parentsWithLoop = mutableSetOf<Int>()
+        plan.forEach { step ->
+            val detail = step.detail
+            val matcher = LOOP_PATTERN.matcher(detail)
+            if (matcher.matches()) {
+                val ancestors = findAncestors(step, stepsById)
+                // a correlated subquery runs once per row of the query that uses it, while a
+                // UNION part or an independent subquery runs once
+                val innerLoop = !parentsWithLoop.add(step.parent) ||
+                        ancestors.any { it.detail.startsWith(CORRELATED_PREFIX) }
+                // the WHERE clause may belong to the outer query instead of the subquery
+                val filtered = query.hasWhereClause &&
+                        ancestors.none { SUBQUERY_PATTERN.matcher(it.detail).matches() }
+                val entity = findEntity(matcher.group(2)) ?: return@forEach
+                val usage = matcher.group(4)
+                if (usage.contains(" USING AUTOMATIC ")) {
+                    issues.add(DatabaseVerificaitonErrors.automaticIndex(entity.tableName))
+                    addUnindexedForeignKeys(entity, issues)
+                } else if (matcher.group(1) == "SCAN" && !usage.contains(" USING ")
+                        && (innerLoop || filtered)) {
+                    // scanning a table that is not filtered is expected, it is the result
+                    issues.add(DatabaseVerificaitonErrors.fullTableScan(entity.tableName))
+                    addUnindexedForeignKeys(entity, issues)
+                }
+            } else if (detail.startsWith(TEMP_B_TREE_PREFIX) && detail.endsWith(ORDER_BY_SUFFIX)) {
+                issues.add(DatabaseVerificaitonErrors.TEMP_B_TREE_FOR_ORDER_BY)
+            }
+        }
+        if (query.type == QueryType.DELETE) {
+            // SQLite checks the child tables of the deleted rows, this is not part of the plan
+            query.tables.forEach { table ->
+                entities.forEach { child ->
+                    child.foreignKeys.filter {
+                        it.parentTable.equals(table.name, ignoreCase = true)
+                    }.map { foreignKey ->
+                        foreignKey.childFields.map { it.columnName }
+                    }.filterNot {
+                        child.isIndexed(it)
+                    }.forEach {
+                        issues.add(DatabaseVerificaitonErrors.deleteScansForeignKeyChild(
+                                table.name, child.tableName, it))
+                    }
+                }
+            }
+        }
+        return issues
+    }
+
+    /**
+     * Points at the foreign keys of the given entity that join it with another table of the query
+     * without an index.
+     */
+    private fun addUnindexedForeignKeys(entity: Entity, issues: MutableList<String>) {
+        entity.foreignKeys.filter { foreignKey ->
+            query.tables.any { it.name.equals(foreignKey.parentTable, ignoreCase = true) }
+        }.map { foreignKey ->
+            foreignKey.childFields.map { it.columnName }
+        }.filterNot {
+            entity.isIndexed(it)
+        }.forEach {
+            issues.add(DatabaseVerificaitonErrors.unindexedForeignKey(entity.tableName, it))
+        }
+    }
+
+    private fun findAncestors(
+            step: QueryPlanStep, stepsById: Map<Int, QueryPlanStep>): List<QueryPlanStep> {
+        val ancestors = arrayListOf<QueryPlanStep>()
+        var parent = stepsById[step.parent]
+        while (parent != null && parent !in ancestors) {
+            ancestors.add(parent)
+            parent = stepsById[parent.parent]
+        }
+        return ancestors
+    }
+
+    private fun findEntity(nameOrAlias: String): Entity? {
+        val tableName = query.tables.firstOrNull {
+            it.alias.equals(nameOrAlias, ignoreCase = true)
+        }?.name ?: nameOrAlias
+        return entities.firstOrNull { it.tableName.equals(tableName, ignoreCase = true) }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.verifier
+
+import java.util.regex.Pattern
+
+/**
+ * Represents a row of the EXPLAIN QUERY PLAN output.
+ * <p>
+ * The steps form a tree: [parent] is the [id] of the enclosing step, or 0 for the top level. The
+ * loops that share a parent are nested in the order they are listed.
+ */
+data class QueryPlanStep(val id: Int, val parent: Int, val detail: String) {
+    companion object {
+        private val SUBQUERY_REFERENCE = Pattern.compile("SUBQUERY (\\d+)")
+        private const val EXECUTE_PREFIX = "EXECUTE "
+        private const val SCAN_SUBQUERY_PREFIX = "SCAN SUBQUERY "
+
+        /**
+         * Builds the tree from the output of SQLite before 3.24, which has the id of the SELECT
+         * each row belongs to instead of a parent.
+         * <p>
+         * Each subquery becomes a step under the SELECT of the row that runs it, and is named
+         * like in the newer output, e.g. "EXECUTE CORRELATED SCALAR SUBQUERY 1" becomes
+         * "CORRELATED SCALAR SUBQUERY 1" and "SCAN SUBQUERY 1" becomes "MATERIALIZE 1".
+         */
+        fun fromSelectIds(rows: List<Pair<Int, String>>): List<QueryPlanStep> {
+            // SELECT n is the step -n, so that it does not collide with the ids of the rows
+            val subqueries = linkedMapOf<Int, QueryPlanStep>()
+            rows.forEach { (selectId, detail) ->
+                val matcher = SUBQUERY_REFERENCE.matcher(detail)
+                while (matcher.find()) {
+                    val subquery = matcher.group(1).toInt()
+                    if (subquery != 0 && subquery != selectId) {
+                        subqueries.getOrPut(subquery) {
+                            QueryPlanStep(-subquery, -selectId, subqueryDetail(detail, subquery))
+                        }
+                    }
+                }
+            }
+            return subqueries.values + rows.mapIndexed { index, (selectId, detail) ->
+                QueryPlanStep(index + 1, -selectId, detail)
+            }
+        }
+
+        private fun subqueryDetail(detail: String, subquery: Int): String {
+            return when {
+                detail.startsWith(EXECUTE_PREFIX) -> detail.substring(EXECUTE_PREFIX.length)
+                detail.startsWith(SCAN_SUBQUERY_PREFIX) -> "MATERIALIZE $subquery"
+                // a part of a compound SELECT, which runs once like the top level query
+                else -> "COMPOUND PART $subquery"
+            }
+        }
+    }
+}
@@ -82,6 +82,16 @@ class Entity(
             indices.map { it.toBundle() },
             foreignKeys.map { it.toBundle() })
 
+    /**
+     * Returns true if the given columns are the leading columns of the primary key or of an index,
+     * so that SQLite can look rows up by them.
+     */
+    fun isIndexed(columns: List<String>): Boolean {
+        fun covers(fields: List<Field>) = fields.size >= columns.size
+                && columns.withIndex().all { fields[it.index].columnName == it.value }
+        return covers(primaryKey.fields) || indices.any { covers(it.fields) }
+    }
+
     fun isUnique(columns: List<String>): Boolean {
         return if (primaryKey.columnNames.size == columns.size
                 && primaryKey.columnNames.containsAll(columns)) {
@@ -24,11 +24,11 @@ import androidx.room.ext.T
 import androidx.room.ext.typeName
 import androidx.room.parser.ParsedQuery
 import androidx.room.parser.SQLTypeAffinity
-import androidx.room.parser.SqlParser
 import androidx.room.processor.Context
 import androidx.room.processor.ProcessorErrors.CANNOT_FIND_QUERY_RESULT_ADAPTER
 import androidx.room.processor.ProcessorErrors.relationAffinityMismatch
 import androidx.room.solver.CodeGenScope
+import androidx.room.solver.query.parameter.LongSparseArrayKeyQueryParameterAdapter
 import androidx.room.solver.query.result.RowAdapter
 import androidx.room.solver.query.result.SingleColumnRowAdapter
 import androidx.room.verifier.DatabaseVerificaitonErrors
@@ -59,6 +59,8 @@ data class RelationCollector(val relation: Relation,
     // set when writing the code generator in writeInitCode
     lateinit var varName: String
 
+    val usesLongSparseArray = mapTypeName.rawType == AndroidTypeNames.LONG_SPARSE_ARRAY
+
     fun writeInitCode(scope: CodeGenScope) {
         val tmpVar = scope.getTmpVar(
                 "_collection${relation.field.getPath().stripNonJava().capitalize()}")
@@ -161,19 +163,25 @@ data class RelationCollector(val relation: Relation,
                             relation.pojoTypeName)
                 }
 
-                val canUseArrayMap = context.processingEnv.elementUtils
+                val elements = context.processingEnv.elementUtils
+                // integer keys go into a LongSparseArray to avoid boxing every key
+                val canUseLongSparseArray = affinity == SQLTypeAffinity.INTEGER &&
+                        elements.getTypeElement(
+                                AndroidTypeNames.LONG_SPARSE_ARRAY.toString()) != null
+                val canUseArrayMap = elements
                         .getTypeElement(AndroidTypeNames.ARRAY_MAP.toString()) != null
-                val mapClass = if (canUseArrayMap) {
-                    AndroidTypeNames.ARRAY_MAP
+                val tmpMapType = if (canUseLongSparseArray) {
+                    ParameterizedTypeName.get(AndroidTypeNames.LONG_SPARSE_ARRAY,
+                            collectionTypeName)
+                } else if (canUseArrayMap) {
+                    ParameterizedTypeName.get(AndroidTypeNames.ARRAY_MAP, keyType,
+                            collectionTypeName)
                 } else {
-                    ClassName.get(java.util.HashMap::class.java)
+                    ParameterizedTypeName.get(ClassName.get(java.util.HashMap::class.java),
+                            keyType, collectionTypeName)
                 }
-                val tmpMapType = ParameterizedTypeName.get(mapClass, keyType, collectionTypeName)
-                val keyTypeMirror = keyTypeMirrorFor(context, affinity)
-                val set = context.processingEnv.elementUtils.getTypeElement("java.util.Set")
-                val keySet = context.processingEnv.typeUtils.getDeclaredType(set, keyTypeMirror)
                 val loadAllQuery = relation.createLoadAllSql()
-                val parsedQuery = SqlParser.parse(loadAllQuery)
+                val parsedQuery = context.cache.parseQuery(loadAllQuery)
                 context.checker.check(parsedQuery.errors.isEmpty(), relation.field.element,
                         parsedQuery.errors.joinToString("\n"))
                 if (parsedQuery.errors.isEmpty()) {
@@ -186,12 +194,26 @@ data class RelationCollector(val relation: Relation,
                 }
                 val resultInfo = parsedQuery.resultInfo
 
-                val queryParam = QueryParameter(
-                        name = RelationCollectorMethodWriter.KEY_SET_VARIABLE,
-                        sqlName = RelationCollectorMethodWriter.KEY_SET_VARIABLE,
-                        type = keySet,
-                        queryParamAdapter =
-                                context.typeAdapterStore.findQueryParameterAdapter(keySet))
+                val queryParam = if (canUseLongSparseArray) {
+                    // binds the keys of the map directly
+                    QueryParameter(
+                            name = RelationCollectorMethodWriter.PARAM_MAP_VARIABLE,
+                            sqlName = RelationCollectorMethodWriter.KEY_SET_VARIABLE,
+                            type = elements.getTypeElement(
+                                    AndroidTypeNames.LONG_SPARSE_ARRAY.toString()).asType(),
+                            queryParamAdapter = LongSparseArrayKeyQueryParameterAdapter())
+                } else {
+                    val keyTypeMirror = keyTypeMirrorFor(context, affinity)
+                    val set = elements.getTypeElement("java.util.Set")
+                    val keySet = context.processingEnv.typeUtils.getDeclaredType(set,
+                            keyTypeMirror)
+                    QueryParameter(
+                            name = RelationCollectorMethodWriter.KEY_SET_VARIABLE,
+                            sqlName = RelationCollectorMethodWriter.KEY_SET_VARIABLE,
+                            type = keySet,
+                            queryParamAdapter =
+                                    context.typeAdapterStore.findQueryParameterAdapter(keySet))
+                }
                 val queryWriter = QueryWriter(
                         parameters = listOf(queryParam),
                         sectionToParamMapping = listOf(Pair(parsedQuery.bindSections.first(),
@@ -228,7 +250,7 @@ data class RelationCollector(val relation: Relation,
                             relation = relation,
                             affinity = affinity,
                             mapTypeName = tmpMapType,
-                            keyTypeName = keyType,
+                            keyTypeName = if (canUseLongSparseArray) TypeName.LONG else keyType,
                             collectionTypeName = collectionTypeName,
                             queryWriter = queryWriter,
                             rowAdapter = rowAdapter,
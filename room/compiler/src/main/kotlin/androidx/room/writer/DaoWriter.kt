@@ -75,6 +75,8 @@ class DaoWriter(val dao: Dao, val processingEnv: ProcessingEnvironment)
 
     override fun createTypeSpecBuilder(): TypeSpec.Builder {
         val builder = TypeSpec.classBuilder(dao.implTypeName)
+        // lets incremental builds know which source this file is generated from
+        builder.addOriginatingElement(dao.element)
         /**
          * if delete / update query method wants to return modified rows, we need prepared query.
          * in that case, if args are dynamic, we cannot re-use the query, if not, we should re-use
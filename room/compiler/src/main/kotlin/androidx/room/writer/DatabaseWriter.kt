@@ -48,6 +48,9 @@ class DatabaseWriter(val database: Database) : ClassWriter(database.implTypeName
         builder.apply {
             addModifiers(PUBLIC)
             superclass(database.typeName)
+            // the implementation has to be re-generated when the database or its entities change
+            addOriginatingElement(database.element)
+            database.entities.forEach { addOriginatingElement(it.element) }
             addMethod(createCreateOpenHelper())
             addMethod(createCreateInvalidationTracker())
             addMethod(createClearAllTables())
@@ -54,6 +54,14 @@ class EntityInsertionAdapterWriter(val entity: Entity, val onConflict: String) {
             } else {
                 null
             }
+            val rowPlaceholders = "(" +
+                    entity.fields.joinToString(",") {
+                        if (primitiveAutoGenerateField == it) {
+                            "nullif(?, 0)"
+                        } else {
+                            "?"
+                        }
+                    } + ")"
             addMethod(MethodSpec.methodBuilder("createQuery").apply {
                 addAnnotation(Override::class.java)
                 returns(ClassName.get("java.lang", "String"))
@@ -62,16 +70,16 @@ class EntityInsertionAdapterWriter(val entity: Entity, val onConflict: String) {
                         "INSERT OR $onConflict INTO `${entity.tableName}`(" +
                                 entity.fields.joinToString(",") {
                                     "`${it.columnName}`"
-                                } + ") VALUES (" +
-                                entity.fields.joinToString(",") {
-                                    if (primitiveAutoGenerateField == it) {
-                                        "nullif(?, 0)"
-                                    } else {
-                                        "?"
-                                    }
-                                } + ")"
+                                } + ") VALUES " + rowPlaceholders
                 addStatement("return $S", query)
             }.build())
+            // lets the adapter insert many entities with a single multi-row statement
+            addMethod(MethodSpec.methodBuilder("createRowPlaceholders").apply {
+                addAnnotation(Override::class.java)
+                returns(ClassName.get("java.lang", "String"))
+                addModifiers(PUBLIC)
+                addStatement("return $S", rowPlaceholders)
+            }.build())
             addMethod(MethodSpec.methodBuilder("bind").apply {
                 val bindScope = CodeGenScope(classWriter)
                 addAnnotation(Override::class.java)
@@ -3,6 +3,7 @@ package androidx.lifecycle;
 import androidx.lifecycle.LiveData;
 public abstract class ComputableLiveData<T> {
     public ComputableLiveData(){}
+    public ComputableLiveData(java.util.concurrent.Executor executor){}
     abstract protected T compute();
     public LiveData<T> getLiveData() {return null;}
     public void invalidate() {}
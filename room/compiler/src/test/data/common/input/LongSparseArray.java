@@ -0,0 +1,12 @@
+//LongSparseArray class for tests
+package androidx.collection;
+public class LongSparseArray<E> {
+    public LongSparseArray() {}
+    public LongSparseArray(int initialCapacity) {}
+    public E get(long key) {return null;}
+    public void put(long key, E value) {}
+    public int size() {return 0;}
+    public boolean isEmpty() {return true;}
+    public long keyAt(int index) {return 0;}
+    public E valueAt(int index) {return null;}
+}
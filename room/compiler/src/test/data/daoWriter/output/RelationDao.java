@@ -0,0 +1,152 @@
+
+package foo.bar;
+
+import android.database.Cursor;
+import androidx.collection.LongSparseArray;
+import androidx.room.RoomDatabase;
+import androidx.room.RoomSQLiteQuery;
+import androidx.room.util.StringUtil;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.StringBuilder;
+import java.lang.SuppressWarnings;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Generated;
+
+@Generated("androidx.room.RoomProcessor")
+@SuppressWarnings("unchecked")
+public class RelationDao_Impl implements RelationDao {
+  private final RoomDatabase __db;
+
+  public RelationDao_Impl(RoomDatabase __db) {
+    this.__db = __db;
+  }
+
+  @Override
+  public List<RelationDao.UserWithBooks> loadUsersWithBooks() {
+    final String _sql = "SELECT * FROM User";
+    final RoomSQLiteQuery _statement = RoomSQLiteQuery.acquire(_sql, 0);
+    __db.beginTransaction();
+    try {
+      final Cursor _cursor = __db.query(_statement);
+      try {
+        final LongSparseArray<ArrayList<Book>> _collectionBooks = new LongSparseArray<ArrayList<Book>>();
+        final int _cursorIndexOfUid = _cursor.getColumnIndexOrThrow("uid");
+        final int _cursorIndexOfName = _cursor.getColumnIndexOrThrow("name");
+        final int _cursorIndexOfLastName = _cursor.getColumnIndexOrThrow("lastName");
+        final int _cursorIndexOfAge = _cursor.getColumnIndexOrThrow("ageColumn");
+        final List<RelationDao.UserWithBooks> _result = new ArrayList<RelationDao.UserWithBooks>(_cursor.getCount());
+        while(_cursor.moveToNext()) {
+          final RelationDao.UserWithBooks _item;
+          final User _tmpUser;
+          if (! (_cursor.isNull(_cursorIndexOfUid) && _cursor.isNull(_cursorIndexOfName) && _cursor.isNull(_cursorIndexOfLastName) && _cursor.isNull(_cursorIndexOfAge))) {
+            _tmpUser = new User();
+            _tmpUser.uid = _cursor.getInt(_cursorIndexOfUid);
+            _tmpUser.name = _cursor.getString(_cursorIndexOfName);
+            final String _tmpLastName;
+            _tmpLastName = _cursor.getString(_cursorIndexOfLastName);
+            _tmpUser.setLastName(_tmpLastName);
+            _tmpUser.age = _cursor.getInt(_cursorIndexOfAge);
+          }  else  {
+            _tmpUser = null;
+          }
+          _item = new RelationDao.UserWithBooks();
+          if (!_cursor.isNull(_cursorIndexOfUid)) {
+            final long _tmpKey = _cursor.getLong(_cursorIndexOfUid);
+            ArrayList<Book> _tmpCollection = _collectionBooks.get(_tmpKey);
+            if(_tmpCollection == null) {
+              _tmpCollection = new ArrayList<Book>();
+              _collectionBooks.put(_tmpKey, _tmpCollection);
+            }
+            _item.books = _tmpCollection;
+          }
+          _item.user = _tmpUser;
+          _result.add(_item);
+        }
+        __fetchRelationshipBookAsfooBarBook(_collectionBooks);
+        __db.setTransactionSuccessful();
+        return _result;
+      } finally {
+        _cursor.close();
+        _statement.release();
+      }
+    } finally {
+      __db.endTransaction();
+    }
+  }
+
+  private Book __entityCursorConverter_fooBarBook(Cursor cursor) {
+    final Book _entity;
+    final int _cursorIndexOfBookId = cursor.getColumnIndex("bookId");
+    final int _cursorIndexOfUid = cursor.getColumnIndex("uid");
+    _entity = new Book();
+    if (_cursorIndexOfBookId != -1) {
+      _entity.bookId = cursor.getInt(_cursorIndexOfBookId);
+    }
+    if (_cursorIndexOfUid != -1) {
+      _entity.uid = cursor.getInt(_cursorIndexOfUid);
+    }
+    return _entity;
+  }
+
+  private void __fetchRelationshipBookAsfooBarBook(final LongSparseArray<ArrayList<Book>> _map) {
+    if (_map.isEmpty()) {
+      return;
+    }
+    // check if the size is too big, if so divide;
+    if(_map.size() > RoomDatabase.MAX_BIND_PARAMETER_CNT) {
+      LongSparseArray<ArrayList<Book>> _tmpInnerMap = new LongSparseArray<ArrayList<Book>>(androidx.room.RoomDatabase.MAX_BIND_PARAMETER_CNT);
+      int _mapIndex = 0;
+      int _tmpIndex = 0;
+      final int _limit = _map.size();
+      while(_mapIndex < _limit) {
+        _tmpInnerMap.put(_map.keyAt(_mapIndex), _map.valueAt(_mapIndex));
+        _mapIndex++;
+        _tmpIndex++;
+        if(_tmpIndex == RoomDatabase.MAX_BIND_PARAMETER_CNT) {
+          __fetchRelationshipBookAsfooBarBook(_tmpInnerMap);
+          _tmpInnerMap = new LongSparseArray<ArrayList<Book>>(RoomDatabase.MAX_BIND_PARAMETER_CNT);
+          _tmpIndex = 0;
+        }
+      }
+      if(_tmpIndex > 0) {
+        __fetchRelationshipBookAsfooBarBook(_tmpInnerMap);
+      }
+      return;
+    }
+    StringBuilder _stringBuilder = StringUtil.newStringBuilder();
+    _stringBuilder.append("SELECT `bookId`,`uid` FROM `Book` WHERE `uid` IN (");
+    final int _inputSize = _map.size();
+    StringUtil.appendPlaceholders(_stringBuilder, _inputSize);
+    _stringBuilder.append(")");
+    final String _sql = _stringBuilder.toString();
+    final int _argCount = 0 + _inputSize;
+    final RoomSQLiteQuery _stmt = RoomSQLiteQuery.acquire(_sql, _argCount);
+    int _argIndex = 1;
+    for (int _i = 0; _i < _map.size(); _i++) {
+      _stmt.bindLong(_argIndex, _map.keyAt(_i));
+      _argIndex ++;
+    }
+    final Cursor _cursor = __db.query(_stmt);
+    try {
+      final int _itemKeyIndex = _cursor.getColumnIndex("uid");
+      if (_itemKeyIndex == -1) {
+        return;
+      }
+      while(_cursor.moveToNext()) {
+        if (!_cursor.isNull(_itemKeyIndex)) {
+          final long _tmpKey = _cursor.getLong(_itemKeyIndex);
+          ArrayList<Book> _tmpCollection = _map.get(_tmpKey);
+          if (_tmpCollection != null) {
+            final Book _item;
+            _item = __entityCursorConverter_fooBarBook(_cursor);
+            _tmpCollection.add(_item);
+          }
+        }
+      }
+    } finally {
+      _cursor.close();
+    }
+  }
+}
@@ -46,6 +46,11 @@ public class WriterDao_Impl implements WriterDao {
                         + " (?,?,?,?)";
             }
 
+            @Override
+            public String createRowPlaceholders() {
+                return "(?,?,?,?)";
+            }
+
             @Override
             public void bind(SupportSQLiteStatement stmt, User value) {
                 stmt.bindLong(1, value.uid);
@@ -69,6 +74,11 @@ public class WriterDao_Impl implements WriterDao {
                         + " (?,?,?,?)";
             }
 
+            @Override
+            public String createRowPlaceholders() {
+                return "(?,?,?,?)";
+            }
+
             @Override
             public void bind(SupportSQLiteStatement stmt, User value) {
                 stmt.bindLong(1, value.uid);
@@ -91,6 +101,11 @@ public class WriterDao_Impl implements WriterDao {
                 return "INSERT OR ABORT INTO `Book`(`bookId`,`uid`) VALUES (?,?)";
             }
 
+            @Override
+            public String createRowPlaceholders() {
+                return "(?,?)";
+            }
+
             @Override
             public void bind(SupportSQLiteStatement stmt, Book value) {
                 stmt.bindLong(1, value.bookId);
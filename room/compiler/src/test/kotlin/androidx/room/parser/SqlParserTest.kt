@@ -89,6 +89,51 @@ class SqlParserTest {
                 `is`(setOf(Table("books", "books"))))
         assertThat(SqlParser.parse("select x.id from (select * from books) as x").tables,
                 `is`(setOf(Table("books", "books"))))
+        assertThat(SqlParser.parse("delete from `users` where id = :id").tables,
+                `is`(setOf(Table("users", "users"))))
+        assertThat(SqlParser.parse("update users set name = :name").tables,
+                `is`(setOf(Table("users", "users"))))
+    }
+
+    @Test
+    fun extractOrderingTerms() {
+        assertThat(SqlParser.parse("select * from users").orderingTerms,
+                `is`(emptyList<OrderingTerm>()))
+        assertThat(SqlParser.parse("select * from users order by name").orderingTerms,
+                `is`(listOf(OrderingTerm(null, "name", false, false))))
+        assertThat(SqlParser.parse("select * from users u order by u.`id` desc").orderingTerms,
+                `is`(listOf(OrderingTerm("u", "id", true, false))))
+        assertThat(SqlParser.parse("select * from users order by name collate nocase, id asc")
+                .orderingTerms, `is`(listOf(OrderingTerm(null, "name", false, true),
+                OrderingTerm(null, "id", false, false))))
+        assertThat(SqlParser.parse("select * from users order by lower(name)").orderingTerms,
+                `is`(listOf(OrderingTerm(null, null, false, false))))
+        // ordering of sub queries does not matter
+        assertThat(SqlParser.parse("select * from (select * from users order by name)")
+                .orderingTerms, `is`(emptyList<OrderingTerm>()))
+    }
+
+    @Test
+    fun detectLimit() {
+        assertThat(SqlParser.parse("select * from users").hasLimit, `is`(false))
+        assertThat(SqlParser.parse("select * from users limit 3").hasLimit, `is`(true))
+        assertThat(SqlParser.parse("select * from users order by id limit :x offset 4")
+                .hasLimit, `is`(true))
+        assertThat(SqlParser.parse("select * from (select * from users limit 3)").hasLimit,
+                `is`(false))
+    }
+
+    @Test
+    fun detectWhereClause() {
+        assertThat(SqlParser.parse("select * from users").hasWhereClause, `is`(false))
+        assertThat(SqlParser.parse("select * from users where id = :id").hasWhereClause,
+                `is`(true))
+        assertThat(SqlParser.parse("delete from users where id = :id").hasWhereClause,
+                `is`(true))
+        assertThat(SqlParser.parse("select * from users where id in (select id from books)")
+                .hasWhereClause, `is`(true))
+        assertThat(SqlParser.parse("select * from (select * from users where id > 3)")
+                .hasWhereClause, `is`(true))
     }
 
     @Test
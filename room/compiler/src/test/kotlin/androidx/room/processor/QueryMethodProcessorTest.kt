@@ -27,17 +27,21 @@ import androidx.room.Transaction
 import androidx.room.ext.CommonTypeNames
 import androidx.room.ext.LifecyclesTypeNames
 import androidx.room.ext.PagingTypeNames
+import androidx.room.ext.RoomTypeNames
 import androidx.room.ext.hasAnnotation
 import androidx.room.ext.typeName
 import androidx.room.parser.Table
 import androidx.room.processor.ProcessorErrors.CANNOT_FIND_QUERY_RESULT_ADAPTER
 import androidx.room.solver.query.result.DataSourceFactoryQueryResultBinder
+import androidx.room.solver.query.result.KeysetDataSourceQueryResultBinder
 import androidx.room.solver.query.result.ListQueryResultAdapter
 import androidx.room.solver.query.result.LiveDataQueryResultBinder
 import androidx.room.solver.query.result.PojoRowAdapter
+import androidx.room.solver.query.result.PositionalDataSourceQueryResultBinder
 import androidx.room.solver.query.result.SingleEntityQueryResultAdapter
 import androidx.room.testing.TestInvocation
 import androidx.room.testing.TestProcessor
+import androidx.room.verifier.DatabaseVerificaitonErrors
 import androidx.room.vo.Field
 import androidx.room.vo.QueryMethod
 import androidx.room.vo.Warning
@@ -60,6 +64,7 @@ import org.hamcrest.CoreMatchers.instanceOf
 import org.hamcrest.CoreMatchers.not
 import org.hamcrest.CoreMatchers.notNullValue
 import org.hamcrest.CoreMatchers.nullValue
+import org.hamcrest.CoreMatchers.sameInstance
 import org.hamcrest.MatcherAssert.assertThat
 import org.junit.Assert.assertEquals
 import org.junit.Test
@@ -83,6 +88,7 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
                 """
         const val DAO_SUFFIX = "}"
         val POJO: ClassName = ClassName.get("foo.bar", "MyClass.Pojo")
+        val INEFFICIENT_USER_SCAN = DatabaseVerificaitonErrors.fullTableScan("User")
         @Parameterized.Parameters(name = "enableDbVerification={0}")
         @JvmStatic
         fun getParams() = arrayOf(true, false)
@@ -113,6 +119,22 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
         }.compilesWithoutError()
     }
 
+    @Test
+    fun testParsedQueryIsShared() {
+        singleQueryMethod(
+                """
+                @Query("SELECT * from User where uid = :x")
+                abstract public long foo(int x);
+                """) { parsedQuery, invocation ->
+            val query = parsedQuery.query
+            val cached = invocation.context.cache.parseQuery(query.original)
+            assertThat(cached, not(sameInstance(query)))
+            assertThat(cached.inputs, sameInstance(query.inputs))
+            // result info belongs to the database that verified the query
+            assertThat(cached.resultInfo, nullValue())
+        }.compilesWithoutError()
+    }
+
     @Test
     fun testSingleParam() {
         singleQueryMethod(
@@ -472,7 +494,7 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
                     instanceOf(DataSourceFactoryQueryResultBinder::class.java))
             val tableNames =
                     (parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
-                            .positionalDataSourceQueryResultBinder.tableNames
+                            .dataSourceQueryResultBinder.tableNames
             assertEquals(setOf("user"), tableNames)
         }.compilesWithoutError()
     }
@@ -493,11 +515,117 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
                     instanceOf(DataSourceFactoryQueryResultBinder::class.java))
             val tableNames =
                     (parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
-                            .positionalDataSourceQueryResultBinder.tableNames
+                            .dataSourceQueryResultBinder.tableNames
             assertEquals(setOf("User", "Book"), tableNames)
         }.compilesWithoutError()
     }
 
+    @Test
+    fun testKeysetDataSourceFactoryQuery() {
+        singleQueryMethod(
+                """
+                @Query("select * from user order by name desc")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<String, User>
+                userDataSourceFactory();
+                """
+        ) { parsedQuery, _ ->
+            val binder = (parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
+                    .dataSourceQueryResultBinder
+            assertThat(binder, instanceOf(KeysetDataSourceQueryResultBinder::class.java))
+            binder as KeysetDataSourceQueryResultBinder
+            assertThat(binder.keyField.columnName, `is`("name"))
+            assertThat(binder.descending, `is`(true))
+            assertThat(binder.typeName, `is`(ParameterizedTypeName.get(
+                    RoomTypeNames.KEYSET_DATA_SOURCE, String::class.typeName(),
+                    ClassName.get("foo.bar", "User"))))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testKeysetDataSourceFactoryQuery_getter() {
+        singleQueryMethod(
+                """
+                @Query("select * from user u order by u.lastName")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<String, User>
+                userDataSourceFactory();
+                """
+        ) { parsedQuery, _ ->
+            val binder = (parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
+                    .dataSourceQueryResultBinder as KeysetDataSourceQueryResultBinder
+            assertThat(binder.keyField.name, `is`("lastName"))
+            assertThat(binder.descending, `is`(false))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testKeysetDataSourceFactoryQuery_multipleOrderingTerms() {
+        singleQueryMethod(
+                """
+                @Query("select * from user order by name, uid")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<String, User>
+                userDataSourceFactory();
+                """
+        ) { _, _ ->
+        }.failsToCompile()
+                .withErrorContaining(ProcessorErrors.KEYSET_PAGING_REQUIRES_SINGLE_ORDER_BY_COLUMN)
+    }
+
+    @Test
+    fun testKeysetDataSourceFactoryQuery_limit() {
+        singleQueryMethod(
+                """
+                @Query("select * from user order by name limit 10")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<String, User>
+                userDataSourceFactory();
+                """
+        ) { _, _ ->
+        }.failsToCompile()
+                .withErrorContaining(ProcessorErrors.KEYSET_PAGING_CANNOT_HAVE_LIMIT)
+    }
+
+    @Test
+    fun testKeysetDataSourceFactoryQuery_typeMismatch() {
+        singleQueryMethod(
+                """
+                @Query("select * from user order by name")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<Long, User>
+                userDataSourceFactory();
+                """
+        ) { _, _ ->
+        }.failsToCompile()
+                .withErrorContaining(ProcessorErrors.keysetPagingKeyTypeMismatch("name",
+                        TypeName.LONG.box(), String::class.typeName()))
+    }
+
+    @Test
+    fun testKeysetDataSourceFactoryQuery_keyNotInResult() {
+        singleQueryMethod(
+                """
+                @Query("select name from user order by uid")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<String, String>
+                nameDataSourceFactory();
+                """
+        ) { _, _ ->
+        }.failsToCompile()
+                .withErrorContaining(ProcessorErrors.keysetPagingKeyNotInResult("uid"))
+    }
+
+    @Test
+    fun testDataSourceFactoryQuery_integerKeyUsesLimitOffset() {
+        singleQueryMethod(
+                """
+                @Query("select * from user order by ageColumn + 1")
+                abstract ${PagingTypeNames.DATA_SOURCE_FACTORY}<Integer, User>
+                userDataSourceFactory();
+                """
+        ) { parsedQuery, _ ->
+            // Integer keys keep using limit / offset paging
+            assertThat((parsedQuery.queryResultBinder as DataSourceFactoryQueryResultBinder)
+                    .dataSourceQueryResultBinder,
+                    instanceOf(PositionalDataSourceQueryResultBinder::class.java))
+        }.compilesWithoutError()
+    }
+
     @Test
     fun query_detectTransaction_delete() {
         singleQueryMethod(
@@ -578,6 +706,75 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
         }.compilesWithoutError()
     }
 
+    @Test
+    fun inefficientQueryPlan() {
+        if (!enableVerification) {
+            return
+        }
+        singleQueryMethod(
+                """
+                @Query("SELECT * FROM User WHERE name = :name")
+                abstract public java.util.List<User> findByName(String name);
+                """) { _, _ ->
+        }.compilesWithoutError().withWarningContaining(INEFFICIENT_USER_SCAN)
+    }
+
+    @Test
+    fun inefficientQueryPlan_indexed() {
+        if (!enableVerification) {
+            return
+        }
+        singleQueryMethod(
+                """
+                @Query("SELECT * FROM User WHERE uid = :uid")
+                abstract public User findById(int uid);
+                """) { _, _ ->
+        }.compilesWithoutWarnings()
+    }
+
+    @Test
+    fun inefficientQueryPlan_suppressed() {
+        if (!enableVerification) {
+            return
+        }
+        singleQueryMethod(
+                """
+                @SuppressWarnings(RoomWarnings.INEFFICIENT_QUERY_PLAN)
+                @Query("SELECT * FROM User WHERE name = :name")
+                abstract public java.util.List<User> findByName(String name);
+                """) { _, _ ->
+        }.compilesWithoutWarnings()
+    }
+
+    @Test
+    fun inefficientQueryPlan_failOnInefficientQueryPlan() {
+        if (!enableVerification) {
+            return
+        }
+        singleQueryMethod(
+                """
+                @Query("SELECT * FROM User WHERE name = :name")
+                abstract public java.util.List<User> findByName(String name);
+                """,
+                options = listOf("-Aroom.failOnInefficientQueryPlan=true")) { _, _ ->
+        }.failsToCompile().withErrorContaining(INEFFICIENT_USER_SCAN)
+    }
+
+    @Test
+    fun inefficientQueryPlan_failOnInefficientQueryPlan_suppressed() {
+        if (!enableVerification) {
+            return
+        }
+        singleQueryMethod(
+                """
+                @SuppressWarnings(RoomWarnings.INEFFICIENT_QUERY_PLAN)
+                @Query("SELECT * FROM User WHERE name = :name")
+                abstract public java.util.List<User> findByName(String name);
+                """,
+                options = listOf("-Aroom.failOnInefficientQueryPlan=true")) { _, _ ->
+        }.compilesWithoutError()
+    }
+
     @Test
     fun relationWithExtendsBounds() {
         if (!enableVerification) {
@@ -811,6 +1008,7 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
 
     private fun singleQueryMethod(
         vararg input: String,
+        options: List<String> = emptyList(),
         handler: (QueryMethod, TestInvocation) -> Unit
     ): CompileTester {
         return assertAbout(JavaSourcesSubjectFactory.javaSources())
@@ -822,6 +1020,7 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
                     ), COMMON.LIVE_DATA, COMMON.COMPUTABLE_LIVE_DATA, COMMON.USER, COMMON.BOOK
                 )
             )
+            .withCompilerOptions(options)
             .processedWith(TestProcessor.builder()
                 .forAnnotations(
                     Query::class, Dao::class, ColumnInfo::class,
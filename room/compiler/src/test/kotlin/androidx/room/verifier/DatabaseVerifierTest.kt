@@ -18,6 +18,7 @@ package androidx.room.verifier
 
 import androidx.room.parser.Collate
 import androidx.room.parser.SQLTypeAffinity
+import androidx.room.parser.SqlParser
 import androidx.room.processor.Context
 import androidx.room.testing.TestInvocation
 import androidx.room.vo.CallType
@@ -27,6 +28,9 @@ import androidx.room.vo.Entity
 import androidx.room.vo.Field
 import androidx.room.vo.FieldGetter
 import androidx.room.vo.FieldSetter
+import androidx.room.vo.ForeignKey
+import androidx.room.vo.ForeignKeyAction
+import androidx.room.vo.Index
 import androidx.room.vo.PrimaryKey
 import collect
 import columnNames
@@ -185,6 +189,151 @@ class DatabaseVerifierTest(private val useLocalizedCollation: Boolean) {
         }.compilesWithoutError()
     }
 
+    @Test
+    fun testQueryPlan_noFilter() {
+        queryPlanTest("select * from User") {
+            assertThat(it, `is`(emptyList()))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_filterOnPrimaryKey() {
+        queryPlanTest("select * from User where id = :id") {
+            assertThat(it, `is`(emptyList()))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_filterOnIndex() {
+        queryPlanTest("select * from User where lastName = :lastName") {
+            assertThat(it, `is`(emptyList()))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_filterWithoutIndex() {
+        queryPlanTest("select * from User where name = :name") {
+            assertThat(it, `is`(listOf(DatabaseVerificaitonErrors.fullTableScan("User"))))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_orderByIndex() {
+        queryPlanTest("select * from User order by lastName") {
+            assertThat(it, `is`(emptyList()))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_orderWithoutIndex() {
+        queryPlanTest("select * from User where lastName = :lastName order by name") {
+            assertThat(it, `is`(listOf(DatabaseVerificaitonErrors.TEMP_B_TREE_FOR_ORDER_BY)))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_joinOnForeignKeyWithoutIndex() {
+        queryPlanTest("select u.* from User u join Pet p on p.ownerId = u.id where u.name = :n") {
+            assertThat(it, hasItem(
+                    DatabaseVerificaitonErrors.unindexedForeignKey("Pet", listOf("ownerId"))))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_deleteParentOfForeignKeyWithoutIndex() {
+        queryPlanTest("delete from User where id = :id") {
+            assertThat(it, `is`(listOf(DatabaseVerificaitonErrors.deleteScansForeignKeyChild(
+                    "User", "Pet", listOf("ownerId")))))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_join() {
+        // the inner loop of the join scans Pet for each User
+        queryPlanTest("select * from User u, Pet p where p.ownerId = u.id") {
+            assertThat(it, `is`(listOf(DatabaseVerificaitonErrors.fullTableScan("Pet"),
+                    DatabaseVerificaitonErrors.unindexedForeignKey("Pet", listOf("ownerId")))))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_union() {
+        // each part of the UNION runs once
+        queryPlanTest("select id from User union select ownerId from Pet") {
+            assertThat(it, `is`(emptyList()))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_independentSubquery() {
+        // the subquery runs once, not for each row of the outer query
+        queryPlanTest("select * from User where id in (select ownerId from Pet)") {
+            assertThat(it, `is`(emptyList()))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_correlatedSubquery() {
+        queryPlanTest("select (select count(*) from Pet p where p.ownerId = u.id)" +
+                " from User u where u.id = :id") {
+            assertThat(it, `is`(listOf(DatabaseVerificaitonErrors.fullTableScan("Pet"),
+                    DatabaseVerificaitonErrors.unindexedForeignKey("Pet", listOf("ownerId")))))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_tree_union() {
+        // output of SQLite 3.24 and newer
+        planTest("select id from User union select ownerId from Pet", listOf(
+                QueryPlanStep(1, 0, "COMPOUND QUERY"),
+                QueryPlanStep(2, 1, "LEFT-MOST SUBQUERY"),
+                QueryPlanStep(3, 2, "SCAN User"),
+                QueryPlanStep(4, 1, "UNION USING TEMP B-TREE"),
+                QueryPlanStep(5, 4, "SCAN Pet"))) {
+            assertThat(it, `is`(emptyList()))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_tree_correlatedSubquery() {
+        planTest("select (select count(*) from Pet p where p.ownerId = u.id) from User u",
+                listOf(QueryPlanStep(2, 0, "SCAN u"),
+                        QueryPlanStep(4, 0, "CORRELATED SCALAR SUBQUERY 1"),
+                        QueryPlanStep(8, 4, "SCAN p"))) {
+            assertThat(it, `is`(listOf(DatabaseVerificaitonErrors.fullTableScan("User"),
+                    DatabaseVerificaitonErrors.fullTableScan("Pet"),
+                    DatabaseVerificaitonErrors.unindexedForeignKey("Pet", listOf("ownerId")))))
+        }
+    }
+
+    @Test
+    fun testQueryPlan_selectIdsToTree() {
+        val steps = QueryPlanStep.fromSelectIds(listOf(
+                Pair(0, "SCAN TABLE User AS u"),
+                Pair(0, "EXECUTE CORRELATED SCALAR SUBQUERY 1"),
+                Pair(1, "SCAN TABLE Pet AS p")))
+        assertThat(steps, `is`(listOf(
+                QueryPlanStep(-1, 0, "CORRELATED SCALAR SUBQUERY 1"),
+                QueryPlanStep(1, 0, "SCAN TABLE User AS u"),
+                QueryPlanStep(2, 0, "EXECUTE CORRELATED SCALAR SUBQUERY 1"),
+                QueryPlanStep(3, -1, "SCAN TABLE Pet AS p"))))
+    }
+
+    private fun planTest(sql: String, plan: List<QueryPlanStep>, cb: (List<String>) -> Unit) {
+        simpleRun { invocation ->
+            val entities = userAndPetDb(invocation.context).entities
+            cb(QueryPlanChecker(SqlParser.parse(sql), entities).findIssues(plan))
+        }.compilesWithoutError()
+    }
+
+    private fun queryPlanTest(sql: String, cb: (List<String>) -> Unit) {
+        simpleRun { invocation ->
+            val verifier = DatabaseVerifier.create(invocation.context,
+                    mock(Element::class.java), userAndPetDb(invocation.context).entities)!!
+            cb(verifier.findQueryPlanIssues(SqlParser.parse(sql)))
+        }.compilesWithoutError()
+    }
+
     private fun validQueryTest(sql: String, cb: (QueryResultInfo) -> Unit) {
         simpleRun { invocation ->
             val verifier = createVerifier(invocation)
@@ -201,6 +350,22 @@ class DatabaseVerifierTest(private val useLocalizedCollation: Boolean) {
                 field("ratio", primitive(context, TypeKind.FLOAT), SQLTypeAffinity.REAL)))
     }
 
+    private fun userAndPetDb(context: Context): Database {
+        val lastName = field("lastName", context.COMMON_TYPES.STRING, SQLTypeAffinity.TEXT)
+        val user = entity("User",
+                field("id", primitive(context, TypeKind.INT), SQLTypeAffinity.INTEGER),
+                field("name", context.COMMON_TYPES.STRING, SQLTypeAffinity.TEXT),
+                lastName,
+                indices = listOf(Index("index_User_lastName", false, listOf(lastName))))
+        val ownerId = field("ownerId", primitive(context, TypeKind.INT), SQLTypeAffinity.INTEGER)
+        val pet = entity("Pet",
+                field("petId", primitive(context, TypeKind.INT), SQLTypeAffinity.INTEGER),
+                ownerId,
+                foreignKeys = listOf(ForeignKey("User", listOf("id"), listOf(ownerId),
+                        ForeignKeyAction.NO_ACTION, ForeignKeyAction.NO_ACTION, false)))
+        return database(user, pet)
+    }
+
     private fun database(vararg entities: Entity): Database {
         return Database(
                 element = mock(TypeElement::class.java),
@@ -212,16 +377,18 @@ class DatabaseVerifierTest(private val useLocalizedCollation: Boolean) {
                 enableForeignKeys = false)
     }
 
-    private fun entity(tableName: String, vararg fields: Field): Entity {
+    private fun entity(tableName: String, vararg fields: Field,
+            indices: List<Index> = emptyList(),
+            foreignKeys: List<ForeignKey> = emptyList()): Entity {
         return Entity(
                 element = mock(TypeElement::class.java),
                 tableName = tableName,
                 type = mock(DeclaredType::class.java),
                 fields = fields.toList(),
                 embeddedFields = emptyList(),
-                indices = emptyList(),
+                indices = indices,
                 primaryKey = PrimaryKey(null, fields.take(1), false),
-                foreignKeys = emptyList(),
+                foreignKeys = foreignKeys,
                 constructor = Constructor(mock(ExecutableElement::class.java), emptyList())
         )
     }
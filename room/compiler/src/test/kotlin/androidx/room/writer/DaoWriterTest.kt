@@ -72,6 +72,16 @@ class DaoWriterTest {
         )
     }
 
+    @Test
+    fun relationDao() {
+        singleDao(
+                loadJavaCode("daoWriter/input/RelationDao.java", "foo.bar.RelationDao"),
+                COMMON.LONG_SPARSE_ARRAY
+        ).compilesWithoutError().and().generatesSources(
+                loadJavaCode("daoWriter/output/RelationDao.java", "foo.bar.RelationDao_Impl")
+        )
+    }
+
     fun singleDao(vararg jfo: JavaFileObject): CompileTester {
         return Truth.assertAbout(JavaSourcesSubjectFactory.javaSources())
                 .that(jfo.toList() + COMMON.USER + COMMON.MULTI_PKEY_ENTITY + COMMON.BOOK +
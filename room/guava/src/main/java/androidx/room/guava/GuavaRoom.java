@@ -27,6 +27,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListenableFutureTask;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * A class to hold static methods used by code generation in Room's Guava compatibility library.
@@ -42,13 +43,30 @@ public class GuavaRoom {
     /**
      * Returns a {@link ListenableFuture<T>} created by submitting the input {@code callable} to
      * {@link ArchTaskExecutor}'s background-threaded Executor.
+     *
+     * @deprecated Use {@link #createListenableFuture(Executor, Callable, RoomSQLiteQuery,
+     * boolean)}
      */
+    @Deprecated
     public static <T> ListenableFuture<T> createListenableFuture(
             final Callable<T> callable,
             final RoomSQLiteQuery query,
             final boolean releaseQuery) {
+        return createListenableFuture(ArchTaskExecutor.getIOThreadExecutor(), callable, query,
+                releaseQuery);
+    }
+
+    /**
+     * Returns a {@link ListenableFuture<T>} created by submitting the input {@code callable} to
+     * the given {@code executor}, which is one of the executors of the database.
+     */
+    public static <T> ListenableFuture<T> createListenableFuture(
+            final Executor executor,
+            final Callable<T> callable,
+            final RoomSQLiteQuery query,
+            final boolean releaseQuery) {
         ListenableFutureTask<T> listenableFutureTask = ListenableFutureTask.create(callable);
-        ArchTaskExecutor.getInstance().executeOnDiskIO(listenableFutureTask);
+        executor.execute(listenableFutureTask);
 
         if (releaseQuery) {
             Futures.addCallback(
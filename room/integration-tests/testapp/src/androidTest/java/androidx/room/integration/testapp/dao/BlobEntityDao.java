@@ -16,6 +16,7 @@
 
 package androidx.room.integration.testapp.dao;
 
+import androidx.paging.DataSource;
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.Query;
@@ -37,4 +38,13 @@ public interface BlobEntityDao {
 
     @Query("UPDATE BlobEntity SET content = :content WHERE id = :id")
     void updateContent(long id, byte[] content);
+
+    @Query("SELECT * FROM BlobEntity ORDER BY id")
+    DataSource.Factory<Long, BlobEntity> loadPagedById();
+
+    @Query("SELECT * FROM BlobEntity ORDER BY id DESC")
+    DataSource.Factory<Long, BlobEntity> loadPagedByIdDesc();
+
+    @Query("SELECT * FROM BlobEntity WHERE id >= :minId ORDER BY id")
+    DataSource.Factory<Long, BlobEntity> loadPagedByIdFrom(long minId);
 }
@@ -32,6 +32,7 @@ import androidx.room.integration.testapp.vo.UserAndPetAdoptionDates;
 import androidx.room.integration.testapp.vo.UserAndGenericPet;
 import androidx.room.integration.testapp.vo.UserAndPetNonNull;
 import androidx.room.integration.testapp.vo.UserIdAndPetNames;
+import androidx.room.integration.testapp.vo.UserLongIdAndPets;
 import androidx.room.integration.testapp.vo.UserWithPetsAndToys;
 
 import java.util.List;
@@ -64,6 +65,9 @@ public interface UserPetDao {
     @Query("SELECT * FROM User u")
     List<UserIdAndPetNames> loadUserAndPetNames();
 
+    @Query("SELECT mId FROM User ORDER BY mId")
+    List<UserLongIdAndPets> loadUserLongIdsAndPets();
+
     @Query("SELECT * FROM User u")
     List<UserWithPetsAndToys> loadUserWithPetsAndToys();
 
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.integration.testapp.paging;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import android.support.test.filters.SmallTest;
+import android.support.test.runner.AndroidJUnit4;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.DataSource;
+import androidx.paging.ItemKeyedDataSource;
+import androidx.room.integration.testapp.dao.BlobEntityDao;
+import androidx.room.integration.testapp.test.TestDatabaseTest;
+import androidx.room.integration.testapp.vo.BlobEntity;
+import androidx.room.paging.KeysetDataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class KeysetDataSourceTest extends TestDatabaseTest {
+    private BlobEntityDao mBlobEntityDao;
+
+    @Before
+    public void setUp() {
+        mBlobEntityDao = mDatabase.getBlobEntityDao();
+    }
+
+    private KeysetDataSource<Long, BlobEntity> create(
+            DataSource.Factory<Long, BlobEntity> factory) {
+        return (KeysetDataSource<Long, BlobEntity>) factory.create();
+    }
+
+    @Test
+    public void emptyPage() {
+        KeysetDataSource<Long, BlobEntity> dataSource = create(mBlobEntityDao.loadPagedById());
+        assertThat(loadInitial(dataSource, null, 10), is(Collections.<Long>emptyList()));
+    }
+
+    @Test
+    public void loadInitial_noKey() {
+        createEntities(10);
+        KeysetDataSource<Long, BlobEntity> dataSource = create(mBlobEntityDao.loadPagedById());
+        assertThat(loadInitial(dataSource, null, 3), is(Arrays.asList(10L, 20L, 30L)));
+    }
+
+    @Test
+    public void loadInitial_withKey() {
+        createEntities(10);
+        KeysetDataSource<Long, BlobEntity> dataSource = create(mBlobEntityDao.loadPagedById());
+        // the initial page starts at the requested key
+        assertThat(loadInitial(dataSource, 50L, 3), is(Arrays.asList(50L, 60L, 70L)));
+        // or right after it, if there is no item with that key
+        assertThat(loadInitial(dataSource, 55L, 3), is(Arrays.asList(60L, 70L, 80L)));
+    }
+
+    @Test
+    public void loadAfter() {
+        createEntities(10);
+        KeysetDataSource<Long, BlobEntity> dataSource = create(mBlobEntityDao.loadPagedById());
+        assertThat(loadAfter(dataSource, 30L, 3), is(Arrays.asList(40L, 50L, 60L)));
+        assertThat(loadAfter(dataSource, 80L, 3), is(Arrays.asList(90L, 100L)));
+        assertThat(loadAfter(dataSource, 100L, 3), is(Collections.<Long>emptyList()));
+    }
+
+    @Test
+    public void loadBefore() {
+        createEntities(10);
+        KeysetDataSource<Long, BlobEntity> dataSource = create(mBlobEntityDao.loadPagedById());
+        // the items closest to the key are loaded, in the order of the list
+        assertThat(loadBefore(dataSource, 70L, 3), is(Arrays.asList(40L, 50L, 60L)));
+        assertThat(loadBefore(dataSource, 30L, 3), is(Arrays.asList(10L, 20L)));
+        assertThat(loadBefore(dataSource, 10L, 3), is(Collections.<Long>emptyList()));
+    }
+
+    @Test
+    public void descending() {
+        createEntities(10);
+        KeysetDataSource<Long, BlobEntity> dataSource =
+                create(mBlobEntityDao.loadPagedByIdDesc());
+        assertThat(loadInitial(dataSource, null, 3), is(Arrays.asList(100L, 90L, 80L)));
+        assertThat(loadInitial(dataSource, 55L, 3), is(Arrays.asList(50L, 40L, 30L)));
+        assertThat(loadAfter(dataSource, 80L, 3), is(Arrays.asList(70L, 60L, 50L)));
+        assertThat(loadAfter(dataSource, 20L, 3), is(Arrays.asList(10L)));
+        assertThat(loadBefore(dataSource, 50L, 3), is(Arrays.asList(80L, 70L, 60L)));
+        assertThat(loadBefore(dataSource, 90L, 3), is(Arrays.asList(100L)));
+    }
+
+    @Test
+    public void queryArguments() {
+        createEntities(10);
+        KeysetDataSource<Long, BlobEntity> dataSource =
+                create(mBlobEntityDao.loadPagedByIdFrom(45L));
+        assertThat(loadInitial(dataSource, null, 2), is(Arrays.asList(50L, 60L)));
+        assertThat(loadAfter(dataSource, 60L, 2), is(Arrays.asList(70L, 80L)));
+        // the query arguments still apply when seeking backwards
+        assertThat(loadBefore(dataSource, 70L, 5), is(Arrays.asList(50L, 60L)));
+    }
+
+    @Test
+    public void getKey() {
+        KeysetDataSource<Long, BlobEntity> dataSource = create(mBlobEntityDao.loadPagedById());
+        assertThat(dataSource.getKey(new BlobEntity(42L, null)), is(42L));
+    }
+
+    @Test
+    public void invalidation() {
+        createEntities(3);
+        KeysetDataSource<Long, BlobEntity> dataSource = create(mBlobEntityDao.loadPagedById());
+        assertThat(dataSource.isInvalid(), is(false));
+        mBlobEntityDao.insert(new BlobEntity(5L, null));
+        assertThat(dataSource.isInvalid(), is(true));
+
+        // a new data source sees the new item
+        KeysetDataSource<Long, BlobEntity> next = create(mBlobEntityDao.loadPagedById());
+        assertThat(next.isInvalid(), is(false));
+        assertThat(loadInitial(next, null, 2), is(Arrays.asList(5L, 10L)));
+    }
+
+    @Test
+    public void invalidation_otherTable() {
+        createEntities(3);
+        KeysetDataSource<Long, BlobEntity> dataSource = create(mBlobEntityDao.loadPagedById());
+        mUserDao.deleteEverything();
+        assertThat(dataSource.isInvalid(), is(false));
+    }
+
+    private void createEntities(int count) {
+        for (int i = 1; i <= count; i++) {
+            mBlobEntityDao.insert(new BlobEntity(i * 10L, new byte[]{(byte) i}));
+        }
+    }
+
+    private static List<Long> loadInitial(KeysetDataSource<Long, BlobEntity> dataSource,
+            @Nullable Long key, int loadSize) {
+        final List<Long> result = new ArrayList<>();
+        dataSource.loadInitial(
+                new ItemKeyedDataSource.LoadInitialParams<>(key, loadSize, false),
+                new ItemKeyedDataSource.LoadInitialCallback<BlobEntity>() {
+                    @Override
+                    public void onResult(@NonNull List<BlobEntity> data, int position,
+                            int totalCount) {
+                        throw new AssertionError("the size of the list is not known");
+                    }
+
+                    @Override
+                    public void onResult(@NonNull List<BlobEntity> data) {
+                        addIds(data, result);
+                    }
+                });
+        return result;
+    }
+
+    private static List<Long> loadAfter(KeysetDataSource<Long, BlobEntity> dataSource,
+            long key, int loadSize) {
+        final List<Long> result = new ArrayList<>();
+        dataSource.loadAfter(new ItemKeyedDataSource.LoadParams<>(key, loadSize),
+                new CollectingCallback(result));
+        return result;
+    }
+
+    private static List<Long> loadBefore(KeysetDataSource<Long, BlobEntity> dataSource,
+            long key, int loadSize) {
+        final List<Long> result = new ArrayList<>();
+        dataSource.loadBefore(new ItemKeyedDataSource.LoadParams<>(key, loadSize),
+                new CollectingCallback(result));
+        return result;
+    }
+
+    private static void addIds(List<BlobEntity> entities, List<Long> ids) {
+        for (BlobEntity entity : entities) {
+            ids.add(entity.id);
+        }
+    }
+
+    private static class CollectingCallback extends ItemKeyedDataSource.LoadCallback<BlobEntity> {
+        private final List<Long> mIds;
+
+        CollectingCallback(List<Long> ids) {
+            mIds = ids;
+        }
+
+        @Override
+        public void onResult(@NonNull List<BlobEntity> data) {
+            addIds(data, mIds);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package androidx.room.integration.testapp.test;
 
 import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
@@ -40,6 +41,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -131,6 +133,31 @@ public class InvalidationTest {
         assertThat(observer.getInvalidatedTables(), hasItem("User"));
     }
 
+    @Test
+    public void testRowChanges() throws InterruptedException, TimeoutException {
+        mUserDao.insert(TestUtil.createUser(3));
+        mUserDao.insert(TestUtil.createUser(4));
+        RowLoggingObserver observer = new RowLoggingObserver("User");
+        mDb.getInvalidationTracker().addObserver(observer);
+        drain();
+        mDb.beginTransaction();
+        try {
+            mUserDao.updateById(3, "foo2");
+            mUserDao.insert(TestUtil.createUser(7));
+            mUserDao.deleteByUids(4);
+            mDb.setTransactionSuccessful();
+        } finally {
+            mDb.endTransaction();
+        }
+        drain();
+        assertThat(observer.mInvalidatedTables, hasItem("User"));
+        assertThat(observer.mRowIds.get("User"), is(new long[]{3, 4, 7}));
+
+        mUserDao.updateById(7, "foo3");
+        drain();
+        assertThat(observer.mRowIds.get("User"), is(new long[]{7}));
+    }
+
     private static class LoggingObserver extends InvalidationTracker.Observer {
         private Set<String> mInvalidatedTables;
 
@@ -147,4 +174,20 @@ public class InvalidationTest {
             return mInvalidatedTables;
         }
     }
+
+    private static class RowLoggingObserver extends InvalidationTracker.RowObserver {
+        Set<String> mInvalidatedTables;
+        Map<String, long[]> mRowIds;
+
+        RowLoggingObserver(String... tables) {
+            super(tables);
+        }
+
+        @Override
+        public void onRowsChanged(@NonNull Set<String> tables,
+                @NonNull Map<String, long[]> rowIds) {
+            mInvalidatedTables = tables;
+            mRowIds = rowIds;
+        }
+    }
 }
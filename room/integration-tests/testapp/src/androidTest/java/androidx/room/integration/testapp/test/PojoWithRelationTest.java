@@ -31,6 +31,7 @@ import androidx.room.integration.testapp.vo.User;
 import androidx.room.integration.testapp.vo.UserAndAllPets;
 import androidx.room.integration.testapp.vo.UserAndPetAdoptionDates;
 import androidx.room.integration.testapp.vo.UserIdAndPetNames;
+import androidx.room.integration.testapp.vo.UserLongIdAndPets;
 import androidx.room.integration.testapp.vo.UserWithPetsAndToys;
 
 import org.junit.Test;
@@ -232,4 +233,55 @@ public class PojoWithRelationTest extends TestDatabaseTest {
             assertThat(result.get(i).pets, is(Collections.singletonList(pets.get(i))));
         }
     }
+
+    @Test
+    public void longKey() {
+        User[] users = TestUtil.createUsersArray(1, 2, 3);
+        mUserDao.insertAll(users);
+        Pet[] pets = TestUtil.createPetsForUser(2, 1, 3);
+        mPetDao.insertAll(pets);
+        List<UserLongIdAndPets> result = mUserPetDao.loadUserLongIdsAndPets();
+        assertThat(result.size(), is(3));
+        assertThat(result.get(0).userId, is(1L));
+        assertThat(result.get(0).pets, is(Collections.<Pet>emptyList()));
+        assertThat(result.get(1).userId, is(2L));
+        assertThat(result.get(1).pets, is(Arrays.asList(pets)));
+        assertThat(result.get(2).userId, is(3L));
+        assertThat(result.get(2).pets, is(Collections.<Pet>emptyList()));
+    }
+
+    @Test
+    public void longKey_largeRelation() {
+        // more keys than bind arguments, so the keys are fetched in batches
+        final List<User> users = new ArrayList<>();
+        final List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            User user = TestUtil.createUser(i + 1);
+            users.add(user);
+            // every other user has a pet
+            if (i % 2 == 0) {
+                Pet pet = TestUtil.createPet(i + 1);
+                pet.setUserId(user.getId());
+                pets.add(pet);
+            }
+        }
+        mDatabase.runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                mUserDao.insertAll(users.toArray(new User[users.size()]));
+                mPetDao.insertAll(pets.toArray(new Pet[pets.size()]));
+            }
+        });
+        List<UserLongIdAndPets> result = mUserPetDao.loadUserLongIdsAndPets();
+        assertThat(result.size(), is(2000));
+        for (int i = 0; i < 2000; i++) {
+            assertThat(result.get(i).userId, is((long) users.get(i).getId()));
+            if (i % 2 == 0) {
+                assertThat(result.get(i).pets,
+                        is(Collections.singletonList(pets.get(i / 2))));
+            } else {
+                assertThat(result.get(i).pets, is(Collections.<Pet>emptyList()));
+            }
+        }
+    }
 }
@@ -223,6 +223,33 @@ public class SimpleEntityReadWriteTest {
         }
     }
 
+    @Test
+    public void insertAllInBatches() {
+        // enough users to need several multi-row statements and a partial one at the end.
+        int[] ids = new int[1234];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        User[] users = TestUtil.createUsersArray(ids);
+        mUserDao.insertAll(users);
+        assertThat(mUserDao.count(), is(ids.length));
+        for (User user : users) {
+            assertThat(mUserDao.load(user.getId()), is(user));
+        }
+    }
+
+    @Test
+    public void insertAllInBatchesWithConflict() {
+        User[] users = TestUtil.createUsersArray(1, 2, 3, 4, 5, 6, 7, 8);
+        users[7].setId(3);
+        try {
+            mUserDao.insertAll(users);
+            fail("Inserting a duplicate primary key should fail");
+        } catch (SQLiteConstraintException expected) {
+        }
+        assertThat(mUserDao.count(), is(0));
+    }
+
     @Test
     public void delete() {
         User user = TestUtil.createUser(3);
@@ -20,9 +20,11 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalToIgnoringCase;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
@@ -44,7 +46,10 @@ import androidx.room.RoomDatabase;
 import androidx.room.integration.testapp.TestDatabase;
 import androidx.room.integration.testapp.dao.UserDao;
 import androidx.room.integration.testapp.vo.User;
+import androidx.sqlite.db.SimpleSQLiteQuery;
 import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteReaderPool;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
 
 import org.junit.After;
 import org.junit.Before;
@@ -60,6 +65,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RunWith(AndroidJUnit4.class)
 @LargeTest
@@ -187,6 +193,155 @@ public class WriteAheadLoggingTest {
         assertThat(dao.count(), is(0));
     }
 
+    @Test
+    public void readInTransactionSeesUncommittedWrites() {
+        final UserDao dao = mDatabase.getUserDao();
+        final User user1 = TestUtil.createUser(1);
+        dao.insert(user1);
+        try {
+            mDatabase.beginTransaction();
+            dao.delete(user1);
+            // must run on the writer connection, a reader would still see user1.
+            assertThat(dao.load(1), is(nullValue()));
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+        }
+    }
+
+    @Test
+    public void parallelReads() throws InterruptedException, ExecutionException {
+        final UserDao dao = mDatabase.getUserDao();
+        final User user1 = TestUtil.createUser(1);
+        dao.insert(user1);
+        // more threads than the reader pool so that some of them fall back to the writer.
+        final int numberOfThreads = 10;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        ArrayList<Future<User>> futures = new ArrayList<>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return dao.load(1);
+            }));
+        }
+        start.countDown();
+        for (Future<User> future : futures) {
+            assertThat(future.get(), is(equalTo(user1)));
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void openCursorsHoldReaders() {
+        mDatabase.getUserDao().insert(TestUtil.createUser(1));
+        SupportSQLiteReaderPool pool = (SupportSQLiteReaderPool) mDatabase.getOpenHelper();
+        List<Cursor> cursors = new ArrayList<>();
+        try {
+            for (int i = 0; i < FrameworkSQLiteOpenHelperFactory.DEFAULT_MAX_READER_CONNECTIONS;
+                    i++) {
+                Cursor cursor = mDatabase.query(new SimpleSQLiteQuery("SELECT * FROM User"));
+                assertThat(cursor.moveToFirst(), is(true));
+                cursors.add(cursor);
+            }
+            // every reader is held by an open cursor
+            assertThat(pool.acquireReadOnlyDatabase(), is(nullValue()));
+        } finally {
+            for (Cursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+        SupportSQLiteDatabase reader = pool.acquireReadOnlyDatabase();
+        assertThat(reader, is(not(nullValue())));
+        assertThat(reader.isReadOnly(), is(true));
+        pool.releaseReadOnlyDatabase(reader);
+    }
+
+    @Test
+    public void readDoesNotWaitForWriter() throws Exception {
+        final UserDao dao = mDatabase.getUserDao();
+        final User user1 = TestUtil.createUser(1);
+        dao.insert(user1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch finishTransaction = insertInOpenTransaction(executor,
+                TestUtil.createUser(2));
+        try {
+            // a reader sees the last committed state while the writer is busy
+            Future<User> committed = executor.submit(() -> dao.load(1));
+            Future<User> uncommitted = executor.submit(() -> dao.load(2));
+            assertThat(committed.get(10, TimeUnit.SECONDS), is(equalTo(user1)));
+            assertThat(uncommitted.get(10, TimeUnit.SECONDS), is(nullValue()));
+        } finally {
+            finishTransaction.countDown();
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+        assertThat(dao.load(2), is(not(nullValue())));
+    }
+
+    @Test
+    public void readFallsBackToWriterWhenPoolIsEmpty() throws Exception {
+        final UserDao dao = mDatabase.getUserDao();
+        dao.insert(TestUtil.createUser(1));
+        SupportSQLiteReaderPool pool = (SupportSQLiteReaderPool) mDatabase.getOpenHelper();
+        List<SupportSQLiteDatabase> readers = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch finishTransaction = null;
+        try {
+            SupportSQLiteDatabase reader;
+            while ((reader = pool.acquireReadOnlyDatabase()) != null) {
+                readers.add(reader);
+            }
+            assertThat(readers, hasSize(
+                    FrameworkSQLiteOpenHelperFactory.DEFAULT_MAX_READER_CONNECTIONS));
+
+            final User user2 = TestUtil.createUser(2);
+            finishTransaction = insertInOpenTransaction(executor, user2);
+            // the read runs on the writer connection, so it waits for the transaction
+            Future<User> load = executor.submit(() -> dao.load(2));
+            try {
+                load.get(500, TimeUnit.MILLISECONDS);
+                fail("the read should wait for the transaction of the writer connection");
+            } catch (TimeoutException expected) {
+                // the writer is still in the transaction
+            }
+            finishTransaction.countDown();
+            assertThat(load.get(10, TimeUnit.SECONDS), is(equalTo(user2)));
+        } finally {
+            if (finishTransaction != null) {
+                finishTransaction.countDown();
+            }
+            for (SupportSQLiteDatabase reader : readers) {
+                pool.releaseReadOnlyDatabase(reader);
+            }
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Inserts the user in a transaction on the given executor, and keeps that transaction open
+     * until the returned latch is counted down.
+     */
+    private CountDownLatch insertInOpenTransaction(ExecutorService executor, final User user)
+            throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        executor.submit(() -> {
+            mDatabase.beginTransaction();
+            try {
+                mDatabase.getUserDao().insert(user);
+                mDatabase.setTransactionSuccessful();
+                started.countDown();
+                finish.await();
+            } finally {
+                mDatabase.endTransaction();
+            }
+            return null;
+        });
+        assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+        return finish;
+    }
+
     @Test
     @LargeTest
     public void observeInvalidationInBackground() throws InterruptedException, ExecutionException {
@@ -21,10 +21,12 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
+import androidx.arch.core.executor.ArchTaskExecutor;
 import androidx.sqlite.db.SupportSQLiteOpenHelper;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Configuration class for a {@link RoomDatabase}.
@@ -66,6 +68,18 @@ public class DatabaseConfiguration {
      */
     public final RoomDatabase.JournalMode journalMode;
 
+    /**
+     * The Executor used to run asynchronous queries.
+     */
+    @NonNull
+    public final Executor queryExecutor;
+
+    /**
+     * The Executor used to run asynchronous work that runs in a transaction.
+     */
+    @NonNull
+    public final Executor transactionExecutor;
+
     /**
      * If true, Room should crash if a migration is missing.
      */
@@ -91,6 +105,46 @@ public class DatabaseConfiguration {
      * @param migrationNotRequiredFrom The collection of schema versions from which migrations
      *                                 aren't required.
      *
+     * @deprecated Use {@link #DatabaseConfiguration(Context, String,
+     * SupportSQLiteOpenHelper.Factory, RoomDatabase.MigrationContainer, List, boolean,
+     * RoomDatabase.JournalMode, Executor, Executor, boolean, Set)}
+     *
+     * @hide
+     */
+    @Deprecated
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public DatabaseConfiguration(@NonNull Context context, @Nullable String name,
+            @NonNull SupportSQLiteOpenHelper.Factory sqliteOpenHelperFactory,
+            @NonNull RoomDatabase.MigrationContainer migrationContainer,
+            @Nullable List<RoomDatabase.Callback> callbacks,
+            boolean allowMainThreadQueries,
+            RoomDatabase.JournalMode journalMode,
+            boolean requireMigration,
+            @Nullable Set<Integer> migrationNotRequiredFrom) {
+        this(context, name, sqliteOpenHelperFactory, migrationContainer, callbacks,
+                allowMainThreadQueries, journalMode, ArchTaskExecutor.getIOThreadExecutor(),
+                ArchTaskExecutor.getIOThreadExecutor(), requireMigration,
+                migrationNotRequiredFrom);
+    }
+
+    /**
+     * Creates a database configuration with the given values.
+     *
+     * @param context The application context.
+     * @param name Name of the database, can be null if it is in memory.
+     * @param sqliteOpenHelperFactory The open helper factory to use.
+     * @param migrationContainer The migration container for migrations.
+     * @param callbacks The list of callbacks for database events.
+     * @param allowMainThreadQueries Whether to allow main thread reads/writes or not.
+     * @param journalMode The journal mode. This has to be either TRUNCATE or WRITE_AHEAD_LOGGING.
+     * @param queryExecutor The Executor used to execute asynchronous queries.
+     * @param transactionExecutor The Executor used to execute asynchronous work that runs in a
+     *                            transaction.
+     * @param requireMigration True if Room should require a valid migration if version changes,
+     *                        instead of recreating the tables.
+     * @param migrationNotRequiredFrom The collection of schema versions from which migrations
+     *                                 aren't required.
+     *
      * @hide
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
@@ -100,6 +154,8 @@ public class DatabaseConfiguration {
             @Nullable List<RoomDatabase.Callback> callbacks,
             boolean allowMainThreadQueries,
             RoomDatabase.JournalMode journalMode,
+            @NonNull Executor queryExecutor,
+            @NonNull Executor transactionExecutor,
             boolean requireMigration,
             @Nullable Set<Integer> migrationNotRequiredFrom) {
         this.sqliteOpenHelperFactory = sqliteOpenHelperFactory;
@@ -109,6 +165,8 @@ public class DatabaseConfiguration {
         this.callbacks = callbacks;
         this.allowMainThreadQueries = allowMainThreadQueries;
         this.journalMode = journalMode;
+        this.queryExecutor = queryExecutor;
+        this.transactionExecutor = transactionExecutor;
         this.requireMigration = requireMigration;
         this.mMigrationNotRequiredFrom = migrationNotRequiredFrom;
     }
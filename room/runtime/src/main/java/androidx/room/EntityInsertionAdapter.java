@@ -16,12 +16,17 @@
 
 package androidx.room;
 
+import android.os.Build;
+
 import androidx.annotation.RestrictTo;
 import androidx.sqlite.db.SupportSQLiteStatement;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Implementations of this class knows how to insert a particular entity.
@@ -34,6 +39,20 @@ import java.util.List;
 @SuppressWarnings({"WeakerAccess", "unused"})
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
+    /**
+     * Upper bound for the number of rows in a single multi-row INSERT. SQLite builds the VALUES
+     * list as a compound SELECT, which is limited to 500 terms by default.
+     */
+    static final int MAX_BATCH_ROW_CNT = 500;
+
+    private final RoomDatabase mDatabase;
+    private final AtomicBoolean mBatchLock = new AtomicBoolean(false);
+    // the multi-row statement for full batches, shared the same way as the single row statement.
+    private volatile SupportSQLiteStatement mBatchStmt;
+    // number of rows per full batch, 0 until computed, -1 if batching is not possible.
+    private volatile int mBatchRowCount;
+    private int mRowArgCount;
+
     /**
      * Creates an InsertionAdapter that can insert the entity type T into the given database.
      *
@@ -41,6 +60,7 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
      */
     public EntityInsertionAdapter(RoomDatabase database) {
         super(database);
+        mDatabase = database;
     }
 
     /**
@@ -52,6 +72,19 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
      */
     protected abstract void bind(SupportSQLiteStatement statement, T entity);
 
+    /**
+     * Returns the placeholders that {@link #createQuery()} ends with, e.g. {@code (?,?)}.
+     * <p>
+     * If this method returns a value, inserting multiple entities without asking for their row
+     * ids repeats these placeholders to insert many rows with a single statement. The default
+     * implementation returns {@code null}, which inserts the entities one by one.
+     *
+     * @return The placeholders for a single row or {@code null} if rows cannot be batched.
+     */
+    protected String createRowPlaceholders() {
+        return null;
+    }
+
     /**
      * Inserts the entity into the database.
      *
@@ -73,6 +106,9 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
      * @param entities Entities to insert
      */
     public final void insert(T[] entities) {
+        if (entities.length > 1 && insertInBatches(Arrays.asList(entities))) {
+            return;
+        }
         final SupportSQLiteStatement stmt = acquire();
         try {
             for (T entity : entities) {
@@ -90,6 +126,12 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
      * @param entities Entities to insert
      */
     public final void insert(Iterable<T> entities) {
+        if (entities instanceof Collection && ((Collection<T>) entities).size() > 1) {
+            // snapshot the entities, so that the rows bound match the rows counted
+            if (insertInBatches(new ArrayList<>((Collection<T>) entities))) {
+                return;
+            }
+        }
         final SupportSQLiteStatement stmt = acquire();
         try {
             for (T entity : entities) {
@@ -248,4 +290,188 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
             release(stmt);
         }
     }
+
+    /**
+     * Inserts the given entities with multi-row INSERT statements.
+     *
+     * @param entities The entities to insert.
+     * @return False if this adapter cannot insert in batches, in which case nothing is inserted.
+     */
+    private boolean insertInBatches(List<T> entities) {
+        final int batchRowCount = getBatchRowCount();
+        if (batchRowCount < 2) {
+            return false;
+        }
+        assertNotMainThread();
+        final boolean canUseCached = mBatchLock.compareAndSet(false, true);
+        SupportSQLiteStatement fullBatchStmt = null;
+        final OffsetStatement offsetStmt = new OffsetStatement(mRowArgCount);
+        final int count = entities.size();
+        try {
+            int start = 0;
+            while (start < count) {
+                final int rowCount = Math.min(count - start, batchRowCount);
+                final SupportSQLiteStatement stmt;
+                if (rowCount == batchRowCount) {
+                    if (fullBatchStmt == null) {
+                        fullBatchStmt = getFullBatchStmt(canUseCached, batchRowCount);
+                    }
+                    stmt = fullBatchStmt;
+                } else {
+                    stmt = mDatabase.compileStatement(createBatchQuery(rowCount));
+                }
+                try {
+                    offsetStmt.mDelegate = stmt;
+                    for (int row = 0; row < rowCount; row++) {
+                        offsetStmt.mOffset = row * mRowArgCount;
+                        bind(offsetStmt, entities.get(start + row));
+                    }
+                    stmt.executeInsert();
+                } finally {
+                    if (stmt != fullBatchStmt) {
+                        closeQuietly(stmt);
+                    }
+                }
+                start += rowCount;
+            }
+        } finally {
+            if (canUseCached) {
+                mBatchLock.set(false);
+            } else if (fullBatchStmt != null) {
+                closeQuietly(fullBatchStmt);
+            }
+        }
+        return true;
+    }
+
+    private SupportSQLiteStatement getFullBatchStmt(boolean canUseCached, int rowCount) {
+        if (!canUseCached) {
+            // it is in use, create a one off statement
+            return mDatabase.compileStatement(createBatchQuery(rowCount));
+        }
+        if (mBatchStmt == null) {
+            mBatchStmt = mDatabase.compileStatement(createBatchQuery(rowCount));
+        }
+        return mBatchStmt;
+    }
+
+    private int getBatchRowCount() {
+        if (mBatchRowCount == 0) {
+            final String placeholders = createRowPlaceholders();
+            // multi-row VALUES clauses require SQLite 3.7.11, which ships with Jelly Bean.
+            if (placeholders == null
+                    || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+                mBatchRowCount = -1;
+            } else {
+                int argCount = 0;
+                for (int i = 0; i < placeholders.length(); i++) {
+                    if (placeholders.charAt(i) == '?') {
+                        argCount++;
+                    }
+                }
+                mRowArgCount = argCount;
+                mBatchRowCount = argCount == 0 ? -1 : Math.min(MAX_BATCH_ROW_CNT,
+                        RoomDatabase.MAX_BIND_PARAMETER_CNT / argCount);
+            }
+        }
+        return mBatchRowCount;
+    }
+
+    String createBatchQuery(int rowCount) {
+        final String query = createQuery();
+        final String placeholders = createRowPlaceholders();
+        final StringBuilder builder = new StringBuilder(
+                query.length() + (rowCount - 1) * (placeholders.length() + 1));
+        builder.append(query);
+        for (int i = 1; i < rowCount; i++) {
+            builder.append(',').append(placeholders);
+        }
+        return builder.toString();
+    }
+
+    private static void closeQuietly(SupportSQLiteStatement statement) {
+        try {
+            statement.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Binds a single entity into its row of a multi-row statement by shifting the bind indices.
+     * <p>
+     * All other calls are forwarded to the multi-row statement, except {@link #clearBindings()}
+     * which only clears the arguments of the current row, and {@link #close()} which does
+     * nothing since the adapter owns the multi-row statement.
+     */
+    private static class OffsetStatement implements SupportSQLiteStatement {
+        SupportSQLiteStatement mDelegate;
+        int mOffset;
+        final int mArgCount;
+
+        OffsetStatement(int argCount) {
+            mArgCount = argCount;
+        }
+
+        @Override
+        public void bindNull(int index) {
+            mDelegate.bindNull(mOffset + index);
+        }
+
+        @Override
+        public void bindLong(int index, long value) {
+            mDelegate.bindLong(mOffset + index, value);
+        }
+
+        @Override
+        public void bindDouble(int index, double value) {
+            mDelegate.bindDouble(mOffset + index, value);
+        }
+
+        @Override
+        public void bindString(int index, String value) {
+            mDelegate.bindString(mOffset + index, value);
+        }
+
+        @Override
+        public void bindBlob(int index, byte[] value) {
+            mDelegate.bindBlob(mOffset + index, value);
+        }
+
+        @Override
+        public void clearBindings() {
+            for (int index = 1; index <= mArgCount; index++) {
+                mDelegate.bindNull(mOffset + index);
+            }
+        }
+
+        @Override
+        public void execute() {
+            mDelegate.execute();
+        }
+
+        @Override
+        public int executeUpdateDelete() {
+            return mDelegate.executeUpdateDelete();
+        }
+
+        @Override
+        public long executeInsert() {
+            return mDelegate.executeInsert();
+        }
+
+        @Override
+        public long simpleQueryForLong() {
+            return mDelegate.simpleQueryForLong();
+        }
+
+        @Override
+        public String simpleQueryForString() {
+            return mDelegate.simpleQueryForString();
+        }
+
+        @Override
+        public void close() {
+            // the multi-row statement is closed or cached by insertInBatches
+        }
+    }
 }
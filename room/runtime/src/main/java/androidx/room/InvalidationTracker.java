@@ -28,9 +28,8 @@ import androidx.annotation.WorkerThread;
 import androidx.arch.core.internal.SafeIterableMap;
 import androidx.collection.ArrayMap;
 import androidx.collection.ArraySet;
-import androidx.arch.core.executor.ArchTaskExecutor;
+import androidx.collection.SparseArrayCompat;
 import androidx.sqlite.db.SupportSQLiteDatabase;
-import androidx.sqlite.db.SupportSQLiteStatement;
 
 import java.lang.ref.WeakReference;
 import java.util.Arrays;
@@ -45,17 +44,20 @@ import java.util.concurrent.locks.Lock;
  * InvalidationTracker keeps a list of tables modified by queries and notifies its callbacks about
  * these tables.
  */
-// We create an in memory table with (version, table_id) where version is an auto-increment primary
-// key and a table_id (hardcoded int from initialization).
+// We create an in memory table with (table_id, version) where table_id is a hardcoded int from
+// initialization and version is a counter for that table.
 // ObservedTableTracker tracks list of tables we should be watching (e.g. adding triggers for).
 // Before each beginTransaction, RoomDatabase invokes InvalidationTracker to sync trigger states.
 // After each endTransaction, RoomDatabase invokes InvalidationTracker to refresh invalidated
 // tables.
-// Each update on one of the observed tables triggers an insertion into this table, hence a
-// new version.
-// Unfortunately, we cannot override the previous row because sqlite uses the conflict resolution
-// of the outer query (the thing that triggered us) so we do a cleanup as we sync instead of letting
-// SQLite override the rows.
+// Each update on one of the observed tables triggers an increment of the version of that table.
+// Since there is only one row per table, the cost of a refresh depends on the number of observed
+// tables rather than the number of modified rows. The trigger only runs an UPDATE on a row that
+// does not have any constraints other than its primary key, so the conflict resolution of the
+// outer statement (which SQLite applies to the statements in the trigger body) never kicks in.
+// Tables observed by a RowObserver get a second set of triggers that append (table_id, rowid)
+// pairs into another temp table. That table is read and cleared on each refresh, in the same
+// transaction as the versions.
 // https://sqlite.org/lang_createtrigger.html:  An ON CONFLICT clause may be specified as part of an
 // UPDATE or INSERT action within the body of the trigger. However if an ON CONFLICT clause is
 // specified as part of the statement causing the trigger to fire, then conflict handling policy of
@@ -71,23 +73,44 @@ public class InvalidationTracker {
     private static final String TABLE_ID_COLUMN_NAME = "table_id";
 
     private static final String CREATE_VERSION_TABLE_SQL = "CREATE TEMP TABLE " + UPDATE_TABLE_NAME
-            + "(" + VERSION_COLUMN_NAME
-            + " INTEGER PRIMARY KEY AUTOINCREMENT, "
-            + TABLE_ID_COLUMN_NAME
-            + " INTEGER)";
+            + "(" + TABLE_ID_COLUMN_NAME
+            + " INTEGER PRIMARY KEY, "
+            + VERSION_COLUMN_NAME
+            + " INTEGER NOT NULL DEFAULT 0)";
 
     @VisibleForTesting
-    static final String CLEANUP_SQL = "DELETE FROM " + UPDATE_TABLE_NAME
-            + " WHERE " + VERSION_COLUMN_NAME + " NOT IN( SELECT MAX("
-            + VERSION_COLUMN_NAME + ") FROM " + UPDATE_TABLE_NAME
-            + " GROUP BY " + TABLE_ID_COLUMN_NAME + ")";
+    // There is at most one row per observed table so this is cheap, no matter how many rows were
+    // modified since the last refresh. Versions that did not change are filtered in Java.
+    static final String SELECT_UPDATED_TABLES_SQL = "SELECT " + VERSION_COLUMN_NAME + ", "
+            + TABLE_ID_COLUMN_NAME + " FROM " + UPDATE_TABLE_NAME;
 
+    private static final String ROW_TABLE_NAME = "room_row_modification_log";
+
+    private static final String ROW_ID_COLUMN_NAME = "row_id";
+
+    // There is no unique constraint on purpose, the conflict resolution of the statement that
+    // fires the trigger would apply to it. Duplicates are removed while reading.
+    private static final String CREATE_ROW_TABLE_SQL = "CREATE TEMP TABLE " + ROW_TABLE_NAME
+            + "(" + TABLE_ID_COLUMN_NAME
+            + " INTEGER NOT NULL, "
+            + ROW_ID_COLUMN_NAME
+            + " INTEGER NOT NULL)";
+
+    @VisibleForTesting
+    static final String SELECT_CHANGED_ROWS_SQL = "SELECT DISTINCT " + TABLE_ID_COLUMN_NAME
+            + ", " + ROW_ID_COLUMN_NAME + " FROM " + ROW_TABLE_NAME + " ORDER BY "
+            + TABLE_ID_COLUMN_NAME + ", " + ROW_ID_COLUMN_NAME;
+
+    private static final String CLEAR_CHANGED_ROWS_SQL = "DELETE FROM " + ROW_TABLE_NAME;
+
+    /**
+     * If more rows than this change in a table between two refreshes, {@link RowObserver}s only
+     * learn that the table changed. Reloading the whole table is cheaper at that point.
+     */
     @VisibleForTesting
-    // We always clean before selecting so it is unlikely to have the same row twice and if we
-    // do, it is not a big deal, just more data in the cursor.
-    static final String SELECT_UPDATED_TABLES_SQL = "SELECT * FROM " + UPDATE_TABLE_NAME
-            + " WHERE " + VERSION_COLUMN_NAME
-            + "  > ? ORDER BY " + VERSION_COLUMN_NAME + " ASC;";
+    static final int MAX_CHANGED_ROWS_PER_TABLE = 1000;
+
+    private static final Object[] EMPTY_ARGS = new Object[0];
 
     @NonNull
     @VisibleForTesting
@@ -98,21 +121,20 @@ public class InvalidationTracker {
     @VisibleForTesting
     long[] mTableVersions;
 
-    private Object[] mQueryArgs = new Object[1];
-
-    // max id in the last syc
-    private long mMaxVersion = 0;
-
     private final RoomDatabase mDatabase;
 
     AtomicBoolean mPendingRefresh = new AtomicBoolean(false);
 
     private volatile boolean mInitialized = false;
 
-    private volatile SupportSQLiteStatement mCleanupStatement;
-
     private ObservedTableTracker mObservedTableTracker;
 
+    // tracks the tables that have at least one RowObserver
+    private ObservedTableTracker mRowTableTracker;
+
+    // set once a RowObserver is added, from then on refresh reads the changed rows.
+    private volatile boolean mRowTrackingUsed = false;
+
     // should be accessed with synchronization only.
     @VisibleForTesting
     final SafeIterableMap<Observer, ObserverWrapper> mObserverMap = new SafeIterableMap<>();
@@ -127,6 +149,7 @@ public class InvalidationTracker {
     public InvalidationTracker(RoomDatabase database, String... tableNames) {
         mDatabase = database;
         mObservedTableTracker = new ObservedTableTracker(tableNames.length);
+        mRowTableTracker = new ObservedTableTracker(tableNames.length);
         mTableIdLookup = new ArrayMap<>();
         final int size = tableNames.length;
         mTableNames = new String[size];
@@ -156,20 +179,25 @@ public class InvalidationTracker {
                 database.execSQL("PRAGMA temp_store = MEMORY;");
                 database.execSQL("PRAGMA recursive_triggers='ON';");
                 database.execSQL(CREATE_VERSION_TABLE_SQL);
+                database.execSQL(CREATE_ROW_TABLE_SQL);
                 database.setTransactionSuccessful();
             } finally {
                 database.endTransaction();
             }
             syncTriggers(database);
-            mCleanupStatement = database.compileStatement(CLEANUP_SQL);
             mInitialized = true;
         }
     }
 
     private static void appendTriggerName(StringBuilder builder, String tableName,
             String triggerType) {
+        appendTriggerName(builder, "room_table_modification_trigger_", tableName, triggerType);
+    }
+
+    private static void appendTriggerName(StringBuilder builder, String prefix, String tableName,
+            String triggerType) {
         builder.append("`")
-                .append("room_table_modification_trigger_")
+                .append(prefix)
                 .append(tableName)
                 .append("_")
                 .append(triggerType)
@@ -188,6 +216,9 @@ public class InvalidationTracker {
     }
 
     private void startTrackingTable(SupportSQLiteDatabase writableDb, int tableId) {
+        // the row is kept when tracking stops so that versions never go backwards.
+        writableDb.execSQL("INSERT OR IGNORE INTO " + UPDATE_TABLE_NAME + " VALUES(" + tableId
+                + ", 0)");
         final String tableName = mTableNames[tableId];
         StringBuilder stringBuilder = new StringBuilder();
         for (String trigger : TRIGGERS) {
@@ -198,11 +229,61 @@ public class InvalidationTracker {
                     .append(trigger)
                     .append(" ON `")
                     .append(tableName)
-                    .append("` BEGIN INSERT OR REPLACE INTO ")
+                    .append("` BEGIN UPDATE ")
                     .append(UPDATE_TABLE_NAME)
-                    .append(" VALUES(null, ")
+                    .append(" SET ")
+                    .append(VERSION_COLUMN_NAME)
+                    .append(" = ")
+                    .append(VERSION_COLUMN_NAME)
+                    .append(" + 1 WHERE ")
+                    .append(TABLE_ID_COLUMN_NAME)
+                    .append(" = ")
+                    .append(tableId)
+                    .append("; END");
+            writableDb.execSQL(stringBuilder.toString());
+        }
+    }
+
+    private void stopTrackingRows(SupportSQLiteDatabase writableDb, int tableId) {
+        final String tableName = mTableNames[tableId];
+        StringBuilder stringBuilder = new StringBuilder();
+        for (String trigger : TRIGGERS) {
+            stringBuilder.setLength(0);
+            stringBuilder.append("DROP TRIGGER IF EXISTS ");
+            appendTriggerName(stringBuilder, "room_row_modification_trigger_", tableName,
+                    trigger);
+            writableDb.execSQL(stringBuilder.toString());
+        }
+    }
+
+    private void startTrackingRows(SupportSQLiteDatabase writableDb, int tableId) {
+        final String tableName = mTableNames[tableId];
+        StringBuilder stringBuilder = new StringBuilder();
+        for (String trigger : TRIGGERS) {
+            stringBuilder.setLength(0);
+            stringBuilder.append("CREATE TEMP TRIGGER IF NOT EXISTS ");
+            appendTriggerName(stringBuilder, "room_row_modification_trigger_", tableName,
+                    trigger);
+            stringBuilder.append(" AFTER ")
+                    .append(trigger)
+                    .append(" ON `")
+                    .append(tableName)
+                    .append("` BEGIN INSERT INTO ")
+                    .append(ROW_TABLE_NAME)
+                    .append(" VALUES(")
                     .append(tableId)
-                    .append("); END");
+                    .append(", ")
+                    .append("DELETE".equals(trigger) ? "OLD" : "NEW")
+                    .append(".rowid);");
+            if ("UPDATE".equals(trigger)) {
+                // an update may change the rowid, in which case both rows are reported.
+                stringBuilder.append(" INSERT INTO ")
+                        .append(ROW_TABLE_NAME)
+                        .append(" SELECT ")
+                        .append(tableId)
+                        .append(", OLD.rowid WHERE OLD.rowid != NEW.rowid;");
+            }
+            stringBuilder.append(" END");
             writableDb.execSQL(stringBuilder.toString());
         }
     }
@@ -235,14 +316,22 @@ public class InvalidationTracker {
                 throw new IllegalArgumentException("There is no table with name " + tableNames[i]);
             }
             tableIds[i] = tableId;
-            versions[i] = mMaxVersion;
+            versions[i] = mTableVersions[tableId];
         }
         ObserverWrapper wrapper = new ObserverWrapper(observer, tableIds, tableNames, versions);
         ObserverWrapper currentObserver;
         synchronized (mObserverMap) {
             currentObserver = mObserverMap.putIfAbsent(observer, wrapper);
         }
-        if (currentObserver == null && mObservedTableTracker.onAdded(tableIds)) {
+        if (currentObserver != null) {
+            return;
+        }
+        boolean needsSync = mObservedTableTracker.onAdded(tableIds);
+        if (observer instanceof RowObserver) {
+            mRowTrackingUsed = true;
+            needsSync |= mRowTableTracker.onAdded(tableIds);
+        }
+        if (needsSync) {
             syncTriggers();
         }
     }
@@ -274,7 +363,14 @@ public class InvalidationTracker {
         synchronized (mObserverMap) {
             wrapper = mObserverMap.remove(observer);
         }
-        if (wrapper != null && mObservedTableTracker.onRemoved(wrapper.mTableIds)) {
+        if (wrapper == null) {
+            return;
+        }
+        boolean needsSync = mObservedTableTracker.onRemoved(wrapper.mTableIds);
+        if (wrapper.mObserver instanceof RowObserver) {
+            needsSync |= mRowTableTracker.onRemoved(wrapper.mTableIds);
+        }
+        if (needsSync) {
             syncTriggers();
         }
     }
@@ -300,6 +396,7 @@ public class InvalidationTracker {
         public void run() {
             final Lock closeLock = mDatabase.getCloseLock();
             boolean hasUpdatedTable = false;
+            SparseArrayCompat<long[]> changedRows = null;
             try {
                 closeLock.lock();
 
@@ -319,15 +416,20 @@ public class InvalidationTracker {
                     return;
                 }
 
-                mCleanupStatement.executeUpdateDelete();
-                mQueryArgs[0] = mMaxVersion;
-                if (mDatabase.mWriteAheadLoggingEnabled) {
+                final boolean readRows = mRowTrackingUsed;
+                if (mDatabase.mWriteAheadLoggingEnabled || readRows) {
                     // This transaction has to be on the underlying DB rather than the RoomDatabase
                     // in order to avoid a recursive loop after endTransaction.
                     SupportSQLiteDatabase db = mDatabase.getOpenHelper().getWritableDatabase();
                     try {
                         db.beginTransaction();
                         hasUpdatedTable = checkUpdatedTable();
+                        if (readRows) {
+                            // changed rows must be read and cleared atomically, otherwise we
+                            // might drop rows written in between.
+                            changedRows = readChangedRows();
+                            db.execSQL(CLEAR_CHANGED_ROWS_SQL);
+                        }
                         db.setTransactionSuccessful();
                     } finally {
                         db.endTransaction();
@@ -345,7 +447,7 @@ public class InvalidationTracker {
             if (hasUpdatedTable) {
                 synchronized (mObserverMap) {
                     for (Map.Entry<Observer, ObserverWrapper> entry : mObserverMap) {
-                        entry.getValue().checkForInvalidation(mTableVersions);
+                        entry.getValue().checkForInvalidation(mTableVersions, changedRows);
                     }
                 }
             }
@@ -353,23 +455,68 @@ public class InvalidationTracker {
 
         private boolean checkUpdatedTable() {
             boolean hasUpdatedTable = false;
-            Cursor cursor = mDatabase.query(SELECT_UPDATED_TABLES_SQL, mQueryArgs);
+            Cursor cursor = mDatabase.query(SELECT_UPDATED_TABLES_SQL, EMPTY_ARGS);
             //noinspection TryFinallyCanBeTryWithResources
             try {
                 while (cursor.moveToNext()) {
                     final long version = cursor.getLong(0);
                     final int tableId = cursor.getInt(1);
 
-                    mTableVersions[tableId] = version;
-                    hasUpdatedTable = true;
-                    // result is ordered so we can safely do this assignment
-                    mMaxVersion = version;
+                    if (mTableVersions[tableId] != version) {
+                        mTableVersions[tableId] = version;
+                        hasUpdatedTable = true;
+                    }
                 }
             } finally {
                 cursor.close();
             }
             return hasUpdatedTable;
         }
+
+        /**
+         * Returns the sorted, distinct row ids that changed in each table. Tables with too many
+         * changed rows are left out.
+         */
+        private SparseArrayCompat<long[]> readChangedRows() {
+            final SparseArrayCompat<long[]> changedRows = new SparseArrayCompat<>();
+            Cursor cursor = mDatabase.query(SELECT_CHANGED_ROWS_SQL, EMPTY_ARGS);
+            //noinspection TryFinallyCanBeTryWithResources
+            try {
+                int currentTableId = -1;
+                long[] rowIds = null;
+                int count = 0;
+                while (cursor.moveToNext()) {
+                    final int tableId = cursor.getInt(0);
+                    if (tableId != currentTableId) {
+                        if (rowIds != null) {
+                            changedRows.put(currentTableId, Arrays.copyOf(rowIds, count));
+                        }
+                        currentTableId = tableId;
+                        rowIds = new long[16];
+                        count = 0;
+                    }
+                    if (rowIds == null) {
+                        // too many rows in this table, skip the rest.
+                        continue;
+                    }
+                    if (count == MAX_CHANGED_ROWS_PER_TABLE) {
+                        rowIds = null;
+                        continue;
+                    }
+                    if (count == rowIds.length) {
+                        rowIds = Arrays.copyOf(rowIds, Math.min(count * 2,
+                                MAX_CHANGED_ROWS_PER_TABLE));
+                    }
+                    rowIds[count++] = cursor.getLong(1);
+                }
+                if (rowIds != null) {
+                    changedRows.put(currentTableId, Arrays.copyOf(rowIds, count));
+                }
+            } finally {
+                cursor.close();
+            }
+            return changedRows;
+        }
     };
 
     /**
@@ -383,7 +530,7 @@ public class InvalidationTracker {
     public void refreshVersionsAsync() {
         // TODO we should consider doing this sync instead of async.
         if (mPendingRefresh.compareAndSet(false, true)) {
-            ArchTaskExecutor.getInstance().executeOnDiskIO(mRefreshRunnable);
+            mDatabase.getQueryExecutor().execute(mRefreshRunnable);
         }
     }
 
@@ -414,27 +561,48 @@ public class InvalidationTracker {
                     // there is a potential race condition where another mSyncTriggers runnable
                     // can start running right after we get the tables list to sync.
                     final int[] tablesToSync = mObservedTableTracker.getTablesToSync();
-                    if (tablesToSync == null) {
+                    final int[] rowTablesToSync = mRowTableTracker.getTablesToSync();
+                    if (tablesToSync == null && rowTablesToSync == null) {
                         return;
                     }
-                    final int limit = tablesToSync.length;
                     try {
                         database.beginTransaction();
-                        for (int tableId = 0; tableId < limit; tableId++) {
-                            switch (tablesToSync[tableId]) {
-                                case ObservedTableTracker.ADD:
-                                    startTrackingTable(database, tableId);
-                                    break;
-                                case ObservedTableTracker.REMOVE:
-                                    stopTrackingTable(database, tableId);
-                                    break;
+                        if (tablesToSync != null) {
+                            final int limit = tablesToSync.length;
+                            for (int tableId = 0; tableId < limit; tableId++) {
+                                switch (tablesToSync[tableId]) {
+                                    case ObservedTableTracker.ADD:
+                                        startTrackingTable(database, tableId);
+                                        break;
+                                    case ObservedTableTracker.REMOVE:
+                                        stopTrackingTable(database, tableId);
+                                        break;
+                                }
+                            }
+                        }
+                        if (rowTablesToSync != null) {
+                            final int limit = rowTablesToSync.length;
+                            for (int tableId = 0; tableId < limit; tableId++) {
+                                switch (rowTablesToSync[tableId]) {
+                                    case ObservedTableTracker.ADD:
+                                        startTrackingRows(database, tableId);
+                                        break;
+                                    case ObservedTableTracker.REMOVE:
+                                        stopTrackingRows(database, tableId);
+                                        break;
+                                }
                             }
                         }
                         database.setTransactionSuccessful();
                     } finally {
                         database.endTransaction();
                     }
-                    mObservedTableTracker.onSyncCompleted();
+                    if (tablesToSync != null) {
+                        mObservedTableTracker.onSyncCompleted();
+                    }
+                    if (rowTablesToSync != null) {
+                        mRowTableTracker.onSyncCompleted();
+                    }
                 } finally {
                     closeLock.unlock();
                 }
@@ -489,8 +657,10 @@ public class InvalidationTracker {
             }
         }
 
-        void checkForInvalidation(long[] versions) {
+        void checkForInvalidation(long[] versions,
+                @Nullable SparseArrayCompat<long[]> changedRows) {
             Set<String> invalidatedTables = null;
+            Map<String, long[]> rowIds = null;
             final int size = mTableIds.length;
             for (int index = 0; index < size; index++) {
                 final int tableId = mTableIds[index];
@@ -498,6 +668,14 @@ public class InvalidationTracker {
                 final long currentVersion = mVersions[index];
                 if (currentVersion < newVersion) {
                     mVersions[index] = newVersion;
+                    final long[] tableRowIds = changedRows == null ? null
+                            : changedRows.get(tableId);
+                    if (tableRowIds != null) {
+                        if (rowIds == null) {
+                            rowIds = new ArrayMap<>(size);
+                        }
+                        rowIds.put(mTableNames[index], tableRowIds);
+                    }
                     if (size == 1) {
                         // Optimization for a single-table observer
                         invalidatedTables = mSingleTableSet;
@@ -509,7 +687,14 @@ public class InvalidationTracker {
                     }
                 }
             }
-            if (invalidatedTables != null) {
+            if (invalidatedTables == null) {
+                return;
+            }
+            if (mObserver instanceof RowObserver) {
+                ((RowObserver) mObserver).onRowsChanged(invalidatedTables, rowIds == null
+                        ? Collections.<String, long[]>emptyMap()
+                        : Collections.unmodifiableMap(rowIds));
+            } else {
                 mObserver.onInvalidated(invalidatedTables);
             }
         }
@@ -552,6 +737,61 @@ public class InvalidationTracker {
         public abstract void onInvalidated(@NonNull Set<String> tables);
     }
 
+    /**
+     * An observer that also receives the ids of the rows that changed in the observed tables.
+     * <p>
+     * Each modification of an observed table is recorded in a temporary table until the
+     * invalidation tracker refreshes, which happens after each transaction. This is more expensive
+     * than tracking tables alone so it should only be used when the observer can update its state
+     * from the changed rows, e.g. by reloading only those rows.
+     */
+    public abstract static class RowObserver extends Observer {
+        /**
+         * Observes the given list of tables.
+         *
+         * @param firstTable The table name
+         * @param rest       More table names
+         */
+        @SuppressWarnings("unused")
+        protected RowObserver(@NonNull String firstTable, String... rest) {
+            super(firstTable, rest);
+        }
+
+        /**
+         * Observes the given list of tables.
+         *
+         * @param tables The list of tables to observe for changes.
+         */
+        public RowObserver(@NonNull String[] tables) {
+            super(tables);
+        }
+
+        /**
+         * Called with an empty map of row ids when this observer is wrapped by another observer
+         * that does not know about rows.
+         *
+         * @param tables A set of invalidated tables.
+         */
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            onRowsChanged(tables, Collections.<String, long[]>emptyMap());
+        }
+
+        /**
+         * Called when one of the observed tables is invalidated in the database.
+         * <p>
+         * A table that is in {@code tables} but not in {@code rowIds} changed in a way that
+         * cannot be described by row ids, e.g. too many of its rows changed or it changed before
+         * row tracking started. The observer should reload everything it knows about that table.
+         *
+         * @param tables A set of invalidated tables.
+         * @param rowIds The sorted, distinct rowids of the changed rows, keyed by table name.
+         *               Deleted rows are included. The arrays must not be modified.
+         */
+        public abstract void onRowsChanged(@NonNull Set<String> tables,
+                @NonNull Map<String, long[]> rowIds);
+    }
+
 
     /**
      * Keeps a list of tables we should observe. Invalidation tracker lazily syncs this list w/
@@ -20,6 +20,7 @@ import android.annotation.SuppressLint;
 import android.app.ActivityManager;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.CursorWrapper;
 import android.os.Build;
 import android.util.Log;
 
@@ -37,6 +38,7 @@ import androidx.sqlite.db.SimpleSQLiteQuery;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 import androidx.sqlite.db.SupportSQLiteOpenHelper;
 import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteReaderPool;
 import androidx.sqlite.db.SupportSQLiteStatement;
 import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
 
@@ -46,6 +48,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -71,7 +74,11 @@ public abstract class RoomDatabase {
     // set by the generated open helper.
     protected volatile SupportSQLiteDatabase mDatabase;
     private SupportSQLiteOpenHelper mOpenHelper;
+    @Nullable
+    private SupportSQLiteReaderPool mReaderPool;
     private final InvalidationTracker mInvalidationTracker;
+    private Executor mQueryExecutor;
+    private Executor mTransactionExecutor;
     private boolean mAllowMainThreadQueries;
     boolean mWriteAheadLoggingEnabled;
 
@@ -109,12 +116,17 @@ public abstract class RoomDatabase {
     @CallSuper
     public void init(@NonNull DatabaseConfiguration configuration) {
         mOpenHelper = createOpenHelper(configuration);
+        if (mOpenHelper instanceof SupportSQLiteReaderPool) {
+            mReaderPool = (SupportSQLiteReaderPool) mOpenHelper;
+        }
         boolean wal = false;
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
             wal = configuration.journalMode == JournalMode.WRITE_AHEAD_LOGGING;
             mOpenHelper.setWriteAheadLoggingEnabled(wal);
         }
         mCallbacks = configuration.callbacks;
+        mQueryExecutor = configuration.queryExecutor;
+        mTransactionExecutor = configuration.transactionExecutor;
         mAllowMainThreadQueries = configuration.allowMainThreadQueries;
         mWriteAheadLoggingEnabled = wal;
     }
@@ -129,6 +141,30 @@ public abstract class RoomDatabase {
         return mOpenHelper;
     }
 
+    /**
+     * Returns the Executor that is used to run asynchronous queries, such as refreshing a
+     * {@link androidx.lifecycle.LiveData LiveData} returned from a {@link Dao}.
+     *
+     * @return The Executor used to run asynchronous queries.
+     * @see Builder#setQueryExecutor(Executor)
+     */
+    @NonNull
+    public Executor getQueryExecutor() {
+        return mQueryExecutor;
+    }
+
+    /**
+     * Returns the Executor that is used to run asynchronous work that runs in a transaction, such
+     * as an observable {@link Dao} query annotated with {@link Transaction}.
+     *
+     * @return The Executor used to run asynchronous work in a transaction.
+     * @see Builder#setTransactionExecutor(Executor)
+     */
+    @NonNull
+    public Executor getTransactionExecutor() {
+        return mTransactionExecutor;
+    }
+
     /**
      * Creates the open helper to access the database. Generated class already implements this
      * method.
@@ -225,13 +261,33 @@ public abstract class RoomDatabase {
 
     /**
      * Wrapper for {@link SupportSQLiteDatabase#query(SupportSQLiteQuery)}.
+     * <p>
+     * If the open helper implements {@link SupportSQLiteReaderPool} and the current thread is not
+     * in a transaction, the query runs on a read-only connection so that it does not wait for
+     * the writer. The connection is returned to the pool when the cursor is closed.
      *
      * @param query The Query which includes the SQL and a bind callback for bind arguments.
      * @return Result of the query.
      */
     public Cursor query(SupportSQLiteQuery query) {
         assertNotMainThread();
-        return mOpenHelper.getWritableDatabase().query(query);
+        final SupportSQLiteDatabase writer = mOpenHelper.getWritableDatabase();
+        if (mReaderPool == null || writer.inTransaction()) {
+            return writer.query(query);
+        }
+        final SupportSQLiteDatabase reader = mReaderPool.acquireReadOnlyDatabase();
+        if (reader == null) {
+            // pool is exhausted or not available, fallback to the writer connection.
+            return writer.query(query);
+        }
+        final Cursor cursor;
+        try {
+            cursor = reader.query(query);
+        } catch (RuntimeException e) {
+            mReaderPool.releaseReadOnlyDatabase(reader);
+            throw e;
+        }
+        return new ReaderCursor(cursor, mReaderPool, reader);
     }
 
     /**
@@ -371,6 +427,10 @@ public abstract class RoomDatabase {
 
         /**
          * Write-Ahead Logging mode.
+         * <p>
+         * In this mode, if the open helper implements {@link SupportSQLiteReaderPool} (e.g. the
+         * default {@link FrameworkSQLiteOpenHelperFactory}), queries that run outside of a
+         * transaction use a pool of read-only connections and do not wait for the writer.
          */
         @RequiresApi(Build.VERSION_CODES.JELLY_BEAN)
         WRITE_AHEAD_LOGGING;
@@ -407,6 +467,8 @@ public abstract class RoomDatabase {
         private ArrayList<Callback> mCallbacks;
 
         private SupportSQLiteOpenHelper.Factory mFactory;
+        private Executor mQueryExecutor;
+        private Executor mTransactionExecutor;
         private boolean mAllowMainThreadQueries;
         private JournalMode mJournalMode;
         private boolean mRequireMigration;
@@ -495,6 +557,46 @@ public abstract class RoomDatabase {
             return this;
         }
 
+        /**
+         * Sets the {@link Executor} that will be used to run asynchronous queries, such as
+         * refreshing a {@link androidx.lifecycle.LiveData LiveData} returned from a {@link Dao},
+         * a {@code Flowable} or a {@code ListenableFuture}. Room also uses it to check for
+         * invalidated tables.
+         * <p>
+         * Giving each database its own Executor prevents a busy database from delaying the queries
+         * of another one.
+         * <p>
+         * When both the query Executor and the transaction Executor are unset, the arch IO thread
+         * pool is used. When only one of them is set, it is used for both.
+         *
+         * @param executor The executor to use for asynchronous queries.
+         * @return this
+         */
+        @NonNull
+        public Builder<T> setQueryExecutor(@NonNull Executor executor) {
+            mQueryExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Executor} that will be used to run asynchronous work that runs in a
+         * transaction, such as observable {@link Dao} queries annotated with {@link Transaction}.
+         * <p>
+         * Since transactions are serialized on the writer connection, this Executor can be
+         * smaller than the one passed to {@link #setQueryExecutor(Executor)}.
+         * <p>
+         * When both the query Executor and the transaction Executor are unset, the arch IO thread
+         * pool is used. When only one of them is set, it is used for both.
+         *
+         * @param executor The executor to use for asynchronous work in a transaction.
+         * @return this
+         */
+        @NonNull
+        public Builder<T> setTransactionExecutor(@NonNull Executor executor) {
+            mTransactionExecutor = executor;
+            return this;
+        }
+
         /**
          * Sets the journal mode for this database.
          *
@@ -620,6 +722,14 @@ public abstract class RoomDatabase {
                 }
             }
 
+            if (mQueryExecutor == null && mTransactionExecutor == null) {
+                mQueryExecutor = mTransactionExecutor = ArchTaskExecutor.getIOThreadExecutor();
+            } else if (mQueryExecutor == null) {
+                mQueryExecutor = mTransactionExecutor;
+            } else if (mTransactionExecutor == null) {
+                mTransactionExecutor = mQueryExecutor;
+            }
+
             if (mFactory == null) {
                 mFactory = new FrameworkSQLiteOpenHelperFactory();
             }
@@ -627,6 +737,7 @@ public abstract class RoomDatabase {
                     new DatabaseConfiguration(mContext, mName, mFactory, mMigrationContainer,
                             mCallbacks, mAllowMainThreadQueries,
                             mJournalMode.resolve(mContext),
+                            mQueryExecutor, mTransactionExecutor,
                             mRequireMigration, mMigrationsNotRequiredFrom);
             T db = Room.getGeneratedImplementation(mDatabaseClass, DB_IMPL_SUFFIX);
             db.init(configuration);
@@ -733,6 +844,32 @@ public abstract class RoomDatabase {
         }
     }
 
+    /**
+     * A cursor that gives its read-only connection back to the pool when it is closed.
+     */
+    static class ReaderCursor extends CursorWrapper {
+        private final SupportSQLiteReaderPool mPool;
+        private SupportSQLiteDatabase mReader;
+
+        ReaderCursor(Cursor cursor, SupportSQLiteReaderPool pool, SupportSQLiteDatabase reader) {
+            super(cursor);
+            mPool = pool;
+            mReader = reader;
+        }
+
+        @Override
+        public void close() {
+            try {
+                super.close();
+            } finally {
+                if (mReader != null) {
+                    mPool.releaseReadOnlyDatabase(mReader);
+                    mReader = null;
+                }
+            }
+        }
+    }
+
     /**
      * Callback for {@link RoomDatabase}.
      */
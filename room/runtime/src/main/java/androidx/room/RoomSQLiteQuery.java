@@ -25,9 +25,7 @@ import androidx.sqlite.db.SupportSQLiteQuery;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.Arrays;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * This class is used as an intermediate place to keep binding arguments so that we can run
@@ -40,15 +38,17 @@ import java.util.TreeMap;
 @SuppressWarnings("unused")
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class RoomSQLiteQuery implements SupportSQLiteQuery, SupportSQLiteProgram {
+    // Queries are pooled in buckets by capacity. Bucket i holds queries with a capacity of
+    // (2^i - 1) so that a query can be re-used for any argument count up to its capacity while
+    // wasting at most half of it.
     @SuppressWarnings("WeakerAccess")
     @VisibleForTesting
-    // Maximum number of queries we'll keep cached.
-    static final int POOL_LIMIT = 15;
+    // Queries that need more arguments than this are not pooled.
+    static final int MAX_POOLED_CAPACITY = (1 << 8) - 1;
     @SuppressWarnings("WeakerAccess")
     @VisibleForTesting
-    // Once we hit POOL_LIMIT, we'll bring the pool size back to the desired number. We always
-    // clear the bigger queries (# of arguments).
-    static final int DESIRED_POOL_SIZE = 10;
+    // Maximum number of queries we'll keep cached in each bucket.
+    static final int SLOTS_PER_BUCKET = 4;
     private volatile String mQuery;
     @SuppressWarnings("WeakerAccess")
     @VisibleForTesting
@@ -74,9 +74,13 @@ public class RoomSQLiteQuery implements SupportSQLiteQuery, SupportSQLiteProgram
     int mArgCount;
 
 
+    // Each slot is claimed and returned with a single atomic operation so threads never block on
+    // each other. A thread starts looking from a slot picked by its id so that concurrent threads
+    // usually touch different slots.
     @SuppressWarnings("WeakerAccess")
     @VisibleForTesting
-    static final TreeMap<Integer, RoomSQLiteQuery> sQueryPool = new TreeMap<>();
+    static final AtomicReferenceArray<RoomSQLiteQuery> sQueryPool = new AtomicReferenceArray<>(
+            (bucketOf(MAX_POOLED_CAPACITY) + 1) * SLOTS_PER_BUCKET);
 
     /**
      * Copies the given SupportSQLiteQuery and converts it into RoomSQLiteQuery.
@@ -138,21 +142,40 @@ public class RoomSQLiteQuery implements SupportSQLiteQuery, SupportSQLiteProgram
      */
     @SuppressWarnings("WeakerAccess")
     public static RoomSQLiteQuery acquire(String query, int argumentCount) {
-        synchronized (sQueryPool) {
-            final Map.Entry<Integer, RoomSQLiteQuery> entry =
-                    sQueryPool.ceilingEntry(argumentCount);
-            if (entry != null) {
-                sQueryPool.remove(entry.getKey());
-                final RoomSQLiteQuery sqliteQuery = entry.getValue();
-                sqliteQuery.init(query, argumentCount);
-                return sqliteQuery;
+        if (argumentCount <= MAX_POOLED_CAPACITY) {
+            final int bucket = bucketOf(argumentCount);
+            final int firstSlot = bucket * SLOTS_PER_BUCKET;
+            final int start = startSlot();
+            for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+                final int slot = firstSlot + (start + i) % SLOTS_PER_BUCKET;
+                final RoomSQLiteQuery sqliteQuery = sQueryPool.getAndSet(slot, null);
+                if (sqliteQuery != null) {
+                    sqliteQuery.init(query, argumentCount);
+                    return sqliteQuery;
+                }
             }
+            // round up the capacity so that the query can be pooled with its bucket.
+            RoomSQLiteQuery sqLiteQuery = new RoomSQLiteQuery((1 << bucket) - 1);
+            sqLiteQuery.init(query, argumentCount);
+            return sqLiteQuery;
         }
         RoomSQLiteQuery sqLiteQuery = new RoomSQLiteQuery(argumentCount);
         sqLiteQuery.init(query, argumentCount);
         return sqLiteQuery;
     }
 
+    /**
+     * Returns the index of the smallest bucket that can hold a query with the given number of
+     * arguments.
+     */
+    private static int bucketOf(int argumentCount) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(argumentCount);
+    }
+
+    private static int startSlot() {
+        return (int) (Thread.currentThread().getId() % SLOTS_PER_BUCKET);
+    }
+
     private RoomSQLiteQuery(int capacity) {
         mCapacity = capacity;
         // because, 1 based indices... we don't want to offsets everything with 1 all the time.
@@ -179,21 +202,18 @@ public class RoomSQLiteQuery implements SupportSQLiteQuery, SupportSQLiteProgram
      */
     @SuppressWarnings("WeakerAccess")
     public void release() {
-        synchronized (sQueryPool) {
-            sQueryPool.put(mCapacity, this);
-            prunePoolLocked();
+        if (mCapacity > MAX_POOLED_CAPACITY) {
+            return;
         }
-    }
-
-    private static void prunePoolLocked() {
-        if (sQueryPool.size() > POOL_LIMIT) {
-            int toBeRemoved = sQueryPool.size() - DESIRED_POOL_SIZE;
-            final Iterator<Integer> iterator = sQueryPool.descendingKeySet().iterator();
-            while (toBeRemoved-- > 0) {
-                iterator.next();
-                iterator.remove();
+        final int firstSlot = bucketOf(mCapacity) * SLOTS_PER_BUCKET;
+        final int start = startSlot();
+        for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+            final int slot = firstSlot + (start + i) % SLOTS_PER_BUCKET;
+            if (sQueryPool.compareAndSet(slot, null, this)) {
+                return;
             }
         }
+        // the bucket is full, let this one go.
     }
 
     @Override
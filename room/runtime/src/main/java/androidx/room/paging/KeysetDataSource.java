@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.paging;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.paging.ItemKeyedDataSource;
+import androidx.room.InvalidationTracker;
+import androidx.room.RoomDatabase;
+import androidx.room.RoomSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A data source implementation that pages the query by seeking on a unique, ordered key column.
+ * <p>
+ * Unlike {@link LimitOffsetDataSource}, this data source never skips rows with an OFFSET, instead
+ * each page starts right after (or before) the key of the last loaded item:
+ * <pre>
+ * SELECT * FROM ( original query ) WHERE key > ? ORDER BY key LIMIT ?
+ * </pre>
+ * If the key column is indexed, loading a page costs the same no matter how deep the page is.
+ * This data source also does not count the rows of the query, so it does not support
+ * placeholders.
+ * <p>
+ * The key column must be unique and not null in the result of the query, otherwise rows that
+ * share the same key with the boundary of a page might be skipped.
+ *
+ * @param <K> Type of the key column.
+ * @param <T> Data type returned by the data source.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public abstract class KeysetDataSource<K, T> extends ItemKeyedDataSource<K, T> {
+    private final RoomSQLiteQuery mSourceQuery;
+    private final String mFirstPageQuery;
+    private final String mInitialQuery;
+    private final String mAfterQuery;
+    private final String mBeforeQuery;
+    private final RoomDatabase mDb;
+    @SuppressWarnings("FieldCanBeLocal")
+    private final InvalidationTracker.Observer mObserver;
+    private final boolean mInTransaction;
+
+    protected KeysetDataSource(RoomDatabase db, SupportSQLiteQuery query, String keyColumn,
+            boolean descending, boolean inTransaction, String... tables) {
+        this(db, RoomSQLiteQuery.copyFrom(query), keyColumn, descending, inTransaction, tables);
+    }
+
+    protected KeysetDataSource(RoomDatabase db, RoomSQLiteQuery query, String keyColumn,
+            boolean descending, boolean inTransaction, String... tables) {
+        mDb = db;
+        mSourceQuery = query;
+        mInTransaction = inTransaction;
+        final String source = "SELECT * FROM ( " + mSourceQuery.getSql() + " )";
+        final String key = "`" + keyColumn + "`";
+        final String forward = descending ? " DESC" : " ASC";
+        final String backward = descending ? " ASC" : " DESC";
+        mFirstPageQuery = source + " ORDER BY " + key + forward + " LIMIT ?";
+        mInitialQuery = source + " WHERE " + key + (descending ? " <= ?" : " >= ?")
+                + " ORDER BY " + key + forward + " LIMIT ?";
+        mAfterQuery = source + " WHERE " + key + (descending ? " < ?" : " > ?")
+                + " ORDER BY " + key + forward + " LIMIT ?";
+        mBeforeQuery = source + " WHERE " + key + (descending ? " > ?" : " < ?")
+                + " ORDER BY " + key + backward + " LIMIT ?";
+        mObserver = new InvalidationTracker.Observer(tables) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        };
+        db.getInvalidationTracker().addWeakObserver(mObserver);
+    }
+
+    @Override
+    public boolean isInvalid() {
+        mDb.getInvalidationTracker().refreshVersionsSync();
+        return super.isInvalid();
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    protected abstract List<T> convertRows(Cursor cursor);
+
+    @Override
+    public void loadInitial(@NonNull LoadInitialParams<K> params,
+            @NonNull LoadInitialCallback<T> callback) {
+        final List<T> list;
+        if (params.requestedInitialKey == null) {
+            list = load(mFirstPageQuery, null, params.requestedLoadSize);
+        } else {
+            list = load(mInitialQuery, params.requestedInitialKey, params.requestedLoadSize);
+        }
+        callback.onResult(list);
+    }
+
+    @Override
+    public void loadAfter(@NonNull LoadParams<K> params, @NonNull LoadCallback<T> callback) {
+        callback.onResult(load(mAfterQuery, params.key, params.requestedLoadSize));
+    }
+
+    @Override
+    public void loadBefore(@NonNull LoadParams<K> params, @NonNull LoadCallback<T> callback) {
+        List<T> list = load(mBeforeQuery, params.key, params.requestedLoadSize);
+        // rows are loaded walking away from the key, flip them back into the list order.
+        Collections.reverse(list);
+        callback.onResult(list);
+    }
+
+    private List<T> load(String sql, @Nullable K key, int loadCount) {
+        final int extraArgs = key == null ? 1 : 2;
+        final RoomSQLiteQuery sqLiteQuery = RoomSQLiteQuery.acquire(sql,
+                mSourceQuery.getArgCount() + extraArgs);
+        sqLiteQuery.copyArgumentsFrom(mSourceQuery);
+        if (key != null) {
+            bindKey(sqLiteQuery, sqLiteQuery.getArgCount() - 1, key);
+        }
+        sqLiteQuery.bindLong(sqLiteQuery.getArgCount(), loadCount);
+        if (mInTransaction) {
+            mDb.beginTransaction();
+            Cursor cursor = null;
+            try {
+                cursor = mDb.query(sqLiteQuery);
+                List<T> rows = convertRows(cursor);
+                mDb.setTransactionSuccessful();
+                return rows;
+            } finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+                mDb.endTransaction();
+                sqLiteQuery.release();
+            }
+        } else {
+            Cursor cursor = mDb.query(sqLiteQuery);
+            //noinspection TryFinallyCanBeTryWithResources
+            try {
+                return convertRows(cursor);
+            } finally {
+                cursor.close();
+                sqLiteQuery.release();
+            }
+        }
+    }
+
+    private static void bindKey(RoomSQLiteQuery query, int index, Object key) {
+        if (key instanceof String) {
+            query.bindString(index, (String) key);
+        } else if (key instanceof Double || key instanceof Float) {
+            query.bindDouble(index, ((Number) key).doubleValue());
+        } else if (key instanceof Number) {
+            query.bindLong(index, ((Number) key).longValue());
+        } else if (key instanceof byte[]) {
+            query.bindBlob(index, (byte[]) key);
+        } else if (key instanceof Boolean) {
+            query.bindLong(index, (Boolean) key ? 1 : 0);
+        } else if (key instanceof Character) {
+            query.bindLong(index, (Character) key);
+        } else {
+            throw new IllegalArgumentException("Cannot bind key " + key + " of type "
+                    + key.getClass() + " to a query.");
+        }
+    }
+}
@@ -28,6 +28,7 @@ import static java.util.Arrays.asList;
 import android.content.Context;
 
 import androidx.annotation.NonNull;
+import androidx.arch.core.executor.ArchTaskExecutor;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 import androidx.sqlite.db.SupportSQLiteOpenHelper;
@@ -39,6 +40,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 @SuppressWarnings("ArraysAsListWithZeroOrOneArgument")
 @RunWith(JUnit4.class)
@@ -271,6 +273,51 @@ public class BuilderTest {
         assertThat(config.sqliteOpenHelperFactory, is(factory));
     }
 
+    @Test
+    public void executors_default() {
+        Context context = mock(Context.class);
+        TestDatabase db = Room.inMemoryDatabaseBuilder(context, TestDatabase.class).build();
+        DatabaseConfiguration config = ((BuilderTest_TestDatabase_Impl) db).mConfig;
+        assertThat(config.queryExecutor, is(ArchTaskExecutor.getIOThreadExecutor()));
+        assertThat(config.transactionExecutor, is(ArchTaskExecutor.getIOThreadExecutor()));
+        assertThat(db.getQueryExecutor(), is(ArchTaskExecutor.getIOThreadExecutor()));
+    }
+
+    @Test
+    public void executors_queryOnly() {
+        Context context = mock(Context.class);
+        Executor executor = mock(Executor.class);
+        TestDatabase db = Room.inMemoryDatabaseBuilder(context, TestDatabase.class)
+                .setQueryExecutor(executor)
+                .build();
+        assertThat(db.getQueryExecutor(), is(executor));
+        assertThat(db.getTransactionExecutor(), is(executor));
+    }
+
+    @Test
+    public void executors_transactionOnly() {
+        Context context = mock(Context.class);
+        Executor executor = mock(Executor.class);
+        TestDatabase db = Room.inMemoryDatabaseBuilder(context, TestDatabase.class)
+                .setTransactionExecutor(executor)
+                .build();
+        assertThat(db.getQueryExecutor(), is(executor));
+        assertThat(db.getTransactionExecutor(), is(executor));
+    }
+
+    @Test
+    public void executors_both() {
+        Context context = mock(Context.class);
+        Executor queryExecutor = mock(Executor.class);
+        Executor transactionExecutor = mock(Executor.class);
+        TestDatabase db = Room.inMemoryDatabaseBuilder(context, TestDatabase.class)
+                .setQueryExecutor(queryExecutor)
+                .setTransactionExecutor(transactionExecutor)
+                .build();
+        assertThat(db.getQueryExecutor(), is(queryExecutor));
+        assertThat(db.getTransactionExecutor(), is(transactionExecutor));
+    }
+
     abstract static class TestDatabase extends RoomDatabase {
     }
 
@@ -23,7 +23,6 @@ import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
-import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -35,10 +34,10 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteException;
 
 import androidx.annotation.NonNull;
+import androidx.arch.core.executor.ArchTaskExecutor;
 import androidx.arch.core.executor.JunitTaskExecutorRule;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 import androidx.sqlite.db.SupportSQLiteOpenHelper;
-import androidx.sqlite.db.SupportSQLiteStatement;
 
 import org.junit.After;
 import org.junit.Before;
@@ -53,6 +52,7 @@ import org.mockito.stubbing.Answer;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -71,16 +71,15 @@ public class InvalidationTrackerTest {
     public void setup() {
         mRoomDatabase = mock(RoomDatabase.class);
         SupportSQLiteDatabase sqliteDb = mock(SupportSQLiteDatabase.class);
-        final SupportSQLiteStatement statement = mock(SupportSQLiteStatement.class);
         mOpenHelper = mock(SupportSQLiteOpenHelper.class);
 
-        doReturn(statement).when(sqliteDb).compileStatement(eq(InvalidationTracker.CLEANUP_SQL));
         doReturn(sqliteDb).when(mOpenHelper).getWritableDatabase();
         doReturn(true).when(mRoomDatabase).isOpen();
         ReentrantLock closeLock = new ReentrantLock();
         doReturn(closeLock).when(mRoomDatabase).getCloseLock();
         //noinspection ResultOfMethodCallIgnored
         doReturn(mOpenHelper).when(mRoomDatabase).getOpenHelper();
+        doReturn(ArchTaskExecutor.getIOThreadExecutor()).when(mRoomDatabase).getQueryExecutor();
 
         mTracker = new InvalidationTracker(mRoomDatabase, "a", "B", "i");
         mTracker.internalInit(sqliteDb);
@@ -161,6 +160,80 @@ public class InvalidationTrackerTest {
         assertThat(mTracker.mTableVersions, is(new long[]{7, 3, 0}));
     }
 
+    @Test
+    public void refreshIgnoresUnchangedVersions() throws Exception {
+        LatchObserver observer = new LatchObserver(1, "a");
+        mTracker.addObserver(observer);
+        setVersions(1, 0, 2, 1);
+        refreshSync();
+        assertThat(observer.await(), is(true));
+
+        // counters of all tables are read on each refresh, same values should not invalidate.
+        observer.reset(1);
+        setVersions(1, 0, 2, 1);
+        refreshSync();
+        assertThat(observer.await(), is(false));
+        assertThat(mTracker.mTableVersions, is(new long[]{1, 2, 0}));
+    }
+
+    @Test
+    public void newObserverStartsFromCurrentVersion() throws Exception {
+        setVersions(5, 0);
+        refreshSync();
+        LatchObserver observer = new LatchObserver(1, "a");
+        mTracker.addObserver(observer);
+        refreshSync();
+        assertThat(observer.await(), is(false));
+
+        setVersions(6, 0);
+        refreshSync();
+        assertThat(observer.await(), is(true));
+    }
+
+    @Test
+    public void observeRows() throws Exception {
+        RowRecorder observer = new RowRecorder("a", "B");
+        mTracker.addObserver(observer);
+        setChangedRows(0, 3, 0, 5, 1, 7);
+        setVersions(1, 0, 1, 1);
+        refreshSync();
+        assertThat(observer.mTables, hasItems("a", "B"));
+        assertThat(observer.mRowIds.get("a"), is(new long[]{3, 5}));
+        assertThat(observer.mRowIds.get("B"), is(new long[]{7}));
+    }
+
+    @Test
+    public void observeRows_tooManyRows() throws Exception {
+        RowRecorder observer = new RowRecorder("a", "B");
+        mTracker.addObserver(observer);
+        final int rowCount = InvalidationTracker.MAX_CHANGED_ROWS_PER_TABLE + 1;
+        int[] tableRowPairs = new int[rowCount * 2 + 2];
+        for (int i = 0; i < rowCount; i++) {
+            tableRowPairs[i * 2] = 0;
+            tableRowPairs[i * 2 + 1] = i;
+        }
+        tableRowPairs[rowCount * 2] = 1;
+        tableRowPairs[rowCount * 2 + 1] = 3;
+        setChangedRows(tableRowPairs);
+        setVersions(1, 0, 1, 1);
+        refreshSync();
+        assertThat(observer.mTables, hasItems("a", "B"));
+        assertThat(observer.mRowIds.containsKey("a"), is(false));
+        assertThat(observer.mRowIds.get("B"), is(new long[]{3}));
+    }
+
+    @Test
+    public void observeRows_tableObserverIsNotAffected() throws Exception {
+        LatchObserver observer = new LatchObserver(1, "a");
+        mTracker.addObserver(observer);
+        mTracker.addObserver(new RowRecorder("a"));
+        setChangedRows(0, 3);
+        setVersions(1, 0);
+        refreshSync();
+        assertThat(observer.await(), is(true));
+        assertThat(observer.getInvalidatedTables(), hasItem("a"));
+    }
+
     private void refreshSync() throws InterruptedException {
         mTracker.refreshVersionsAsync();
         drainTasks();
@@ -258,6 +331,18 @@ public class InvalidationTrackerTest {
         mTracker.mRefreshRunnable.run();
     }
 
+    /**
+     * Key value pairs of TABLE_ID, ROW_ID
+     */
+    private void setChangedRows(int... keyValuePairs) throws InterruptedException {
+        drainTasks();
+        Cursor cursor = createCursorWithValues(keyValuePairs);
+        doReturn(cursor).when(mRoomDatabase).query(
+                Mockito.eq(InvalidationTracker.SELECT_CHANGED_ROWS_SQL),
+                any(Object[].class)
+        );
+    }
+
     /**
      * Key value pairs of VERSION, TABLE_ID
      */
@@ -328,6 +413,22 @@ public class InvalidationTrackerTest {
         }
     }
 
+    private static class RowRecorder extends InvalidationTracker.RowObserver {
+        volatile Set<String> mTables;
+        volatile Map<String, long[]> mRowIds;
+
+        RowRecorder(String... tables) {
+            super(tables);
+        }
+
+        @Override
+        public void onRowsChanged(@NonNull Set<String> tables,
+                @NonNull Map<String, long[]> rowIds) {
+            mTables = tables;
+            mRowIds = rowIds;
+        }
+    }
+
     private static void forceGc() {
         // Use a random index in the list to detect the garbage collection each time because
         // .get() may accidentally trigger a strong reference during collection.
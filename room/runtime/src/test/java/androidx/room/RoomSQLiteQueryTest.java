@@ -31,14 +31,19 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RunWith(JUnit4.class)
 public class RoomSQLiteQueryTest {
     @Before
     public void clear() {
-        RoomSQLiteQuery.sQueryPool.clear();
+        for (int i = 0; i < RoomSQLiteQuery.sQueryPool.length(); i++) {
+            RoomSQLiteQuery.sQueryPool.set(i, null);
+        }
     }
 
     @Test
@@ -90,17 +95,27 @@ public class RoomSQLiteQueryTest {
     }
 
     @Test
-    public void dontKeepSameSizeTwice() {
-        RoomSQLiteQuery query1 = RoomSQLiteQuery.acquire("abc", 3);
-        RoomSQLiteQuery query2 = RoomSQLiteQuery.acquire("zx", 3);
-        RoomSQLiteQuery query3 = RoomSQLiteQuery.acquire("qw", 0);
+    public void keepSameSizeUpToBucketLimit() {
+        List<RoomSQLiteQuery> queries = new ArrayList<>();
+        for (int i = 0; i < RoomSQLiteQuery.SLOTS_PER_BUCKET + 1; i++) {
+            queries.add(RoomSQLiteQuery.acquire("abc", 3));
+        }
+        for (RoomSQLiteQuery query : queries) {
+            query.release();
+        }
+        assertThat(pooledCount(), is(RoomSQLiteQuery.SLOTS_PER_BUCKET));
 
-        query1.release();
-        query2.release();
-        assertThat(RoomSQLiteQuery.sQueryPool.size(), is(1));
+        RoomSQLiteQuery.acquire("qw", 0).release();
+        assertThat(pooledCount(), is(RoomSQLiteQuery.SLOTS_PER_BUCKET + 1));
+    }
 
-        query3.release();
-        assertThat(RoomSQLiteQuery.sQueryPool.size(), is(2));
+    @Test
+    public void capacityIsRoundedUpToBucket() {
+        RoomSQLiteQuery query = RoomSQLiteQuery.acquire("abc", 4);
+        assertThat(query.mCapacity, is(7));
+        assertThat(query.mArgCount, is(4));
+        query.release();
+        assertThat(RoomSQLiteQuery.acquire("dsa", 7), sameInstance(query));
     }
 
     @Test
@@ -118,32 +133,51 @@ public class RoomSQLiteQueryTest {
     }
 
     @Test
-    public void pruneCache() {
-        for (int i = 0; i < RoomSQLiteQuery.POOL_LIMIT; i++) {
-            RoomSQLiteQuery.acquire("dsdsa", i).release();
-        }
-        pruneCacheTest();
+    public void doNotPoolLargeQueries() {
+        final int argCount = RoomSQLiteQuery.MAX_POOLED_CAPACITY + 1;
+        RoomSQLiteQuery query = RoomSQLiteQuery.acquire("abc", argCount);
+        assertThat(query.mCapacity, is(argCount));
+        query.release();
+        assertThat(pooledCount(), is(0));
+        assertThat(RoomSQLiteQuery.acquire("dsa", argCount), not(sameInstance(query)));
     }
 
     @Test
-    public void pruneCacheReverseInsertion() {
-        List<RoomSQLiteQuery> queries = new ArrayList<>();
-        for (int i = RoomSQLiteQuery.POOL_LIMIT - 1; i >= 0; i--) {
-            queries.add(RoomSQLiteQuery.acquire("dsdsa", i));
+    public void concurrentAcquireRelease() throws InterruptedException {
+        final int threadCount = 8;
+        final Set<RoomSQLiteQuery> inUse = Collections.newSetFromMap(
+                new ConcurrentHashMap<RoomSQLiteQuery, Boolean>());
+        final AtomicBoolean sharedInstance = new AtomicBoolean(false);
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; j++) {
+                        RoomSQLiteQuery query = RoomSQLiteQuery.acquire("abc", j % 10);
+                        if (!inUse.add(query)) {
+                            sharedInstance.set(true);
+                        }
+                        inUse.remove(query);
+                        query.release();
+                    }
+                }
+            });
+            threads[i].start();
         }
-        for (RoomSQLiteQuery query : queries) {
-            query.release();
+        for (Thread thread : threads) {
+            thread.join();
         }
-        pruneCacheTest();
+        assertThat(sharedInstance.get(), is(false));
     }
 
-    private void pruneCacheTest() {
-        assertThat(RoomSQLiteQuery.sQueryPool.size(), is(RoomSQLiteQuery.POOL_LIMIT));
-        RoomSQLiteQuery.acquire("dsadsa", RoomSQLiteQuery.POOL_LIMIT + 1).release();
-        assertThat(RoomSQLiteQuery.sQueryPool.size(), is(RoomSQLiteQuery.DESIRED_POOL_SIZE));
-        Iterator<RoomSQLiteQuery> itr = RoomSQLiteQuery.sQueryPool.values().iterator();
-        for (int i = 0; i < RoomSQLiteQuery.DESIRED_POOL_SIZE; i++) {
-            assertThat(itr.next().mCapacity, is(i));
+    private static int pooledCount() {
+        int count = 0;
+        for (int i = 0; i < RoomSQLiteQuery.sQueryPool.length(); i++) {
+            if (RoomSQLiteQuery.sQueryPool.get(i) != null) {
+                count++;
+            }
         }
+        return count;
     }
 }
@@ -25,6 +25,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import androidx.arch.core.executor.ArchTaskExecutor;
 import androidx.arch.core.executor.JunitTaskExecutorRule;
 
 import org.hamcrest.CoreMatchers;
@@ -63,6 +64,7 @@ public class RxRoomTest {
         mDatabase = mock(RoomDatabase.class);
         mInvalidationTracker = mock(InvalidationTracker.class);
         when(mDatabase.getInvalidationTracker()).thenReturn(mInvalidationTracker);
+        when(mDatabase.getQueryExecutor()).thenReturn(ArchTaskExecutor.getIOThreadExecutor());
         doAnswer(new Answer() {
             @Override
             public Object answer(InvocationOnMock invocation) throws Throwable {
@@ -0,0 +1,478 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.recyclerview.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import android.os.SystemClock;
+import android.support.test.filters.MediumTest;
+import android.support.test.rule.ActivityTestRule;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests for {@link AsyncListUtil} loading tiles on a multi-threaded {@link Executor}.
+ * <p>
+ * The loads are held by a {@link GatedExecutor} until the test releases them, so that the range
+ * or the generation can be changed while they are in flight.
+ */
+@MediumTest
+@RunWith(JUnit4.class)
+public class AsyncListUtilExecutorTest {
+    @Rule
+    public ActivityTestRule<TestActivity> mActivityRule =
+            new ActivityTestRule<>(TestActivity.class);
+
+    private static final int TILE_SIZE = 10;
+    private static final int VIEWPORT_SIZE = 25;
+    private static final long TIMEOUT_MS = 2000;
+
+    private final TestDataCallback mDataCallback = new TestDataCallback();
+    private final TestViewCallback mViewCallback = new TestViewCallback();
+    private final GatedExecutor mExecutor = new GatedExecutor(4);
+
+    AsyncListUtil<String> mAsyncListUtil;
+
+    @After
+    public void tearDown() throws Exception {
+        mExecutor.shutdown();
+        mDataCallback.assertNoErrors();
+    }
+
+    @Test
+    public void loadsTilesInParallel() throws Throwable {
+        final int tileCount = 3;
+        final CountDownLatch allStarted = new CountDownLatch(tileCount);
+        final AtomicBoolean parallel = new AtomicBoolean(true);
+        mDataCallback.mBeforeFill = new Runnable() {
+            @Override
+            public void run() {
+                allStarted.countDown();
+                try {
+                    // only returns true if all the fills are running at the same time
+                    if (!allStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                        parallel.set(false);
+                    }
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        createOnUiThread();
+        mExecutor.waitForPending(tileCount);
+        mExecutor.releaseAll();
+
+        waitForItems("gen1", 0, VIEWPORT_SIZE);
+        assertTrue("tiles were not loaded in parallel", parallel.get());
+        assertEquals(1, mDataCallback.getFillCount(0));
+        assertEquals(1, mDataCallback.getFillCount(10));
+        assertEquals(1, mDataCallback.getFillCount(20));
+    }
+
+    @Test
+    public void skipsTilesScrolledOutOfRange() throws Throwable {
+        createOnUiThread();
+        mExecutor.waitForPending(3);
+
+        // 0, 10 and 20 are still waiting for a thread, 70, 80 and 90 are requested
+        scrollOnUiThread(70);
+        mExecutor.waitForPending(6);
+        mExecutor.releaseAll();
+
+        waitForItems("gen1", 70, 30);
+        mExecutor.waitForIdle();
+        assertEquals(0, mDataCallback.getFillCount(0));
+        assertEquals(0, mDataCallback.getFillCount(10));
+        assertEquals(0, mDataCallback.getFillCount(20));
+        assertEquals(1, mDataCallback.getFillCount(70));
+        assertEquals(1, mDataCallback.getFillCount(80));
+        assertEquals(1, mDataCallback.getFillCount(90));
+    }
+
+    @Test
+    public void reloadsSkippedTilesWhenScrollingBack() throws Throwable {
+        createOnUiThread();
+        mExecutor.waitForPending(3);
+
+        scrollOnUiThread(70);
+        mExecutor.waitForPending(6);
+        // the range comes back while the skipped loads may still be on their way back to the
+        // background thread, either way the tiles have to be loaded again
+        mExecutor.releaseAll();
+        scrollOnUiThread(0);
+
+        mExecutor.releaseAllUntil(new Condition() {
+            @Override
+            public boolean isMet() {
+                return mDataCallback.getFillCount(0) > 0
+                        && mDataCallback.getFillCount(10) > 0
+                        && mDataCallback.getFillCount(20) > 0;
+            }
+        });
+        waitForItems("gen1", 0, VIEWPORT_SIZE);
+        mExecutor.waitForIdle();
+        assertEquals(1, mDataCallback.getFillCount(0));
+        assertEquals(1, mDataCallback.getFillCount(10));
+        assertEquals(1, mDataCallback.getFillCount(20));
+    }
+
+    @Test
+    public void refreshWhileLoadsAreWaiting() throws Throwable {
+        createOnUiThread();
+        mExecutor.waitForPending(3);
+
+        refreshOnUiThread();
+        // the loads of the first generation are still pending, the second generation asks again
+        mExecutor.waitForPending(6);
+        mExecutor.releaseAll();
+
+        waitForItems("gen2", 0, VIEWPORT_SIZE);
+        mExecutor.waitForIdle();
+        // the loads of the first generation are skipped
+        assertEquals(1, mDataCallback.getFillCount(0));
+        assertEquals(1, mDataCallback.getFillCount(10));
+        assertEquals(1, mDataCallback.getFillCount(20));
+    }
+
+    @Test
+    public void refreshWhileLoadIsFilling() throws Throwable {
+        final CountDownLatch fillStarted = new CountDownLatch(1);
+        final CountDownLatch finishFill = new CountDownLatch(1);
+        mDataCallback.mBeforeFill = new Runnable() {
+            @Override
+            public void run() {
+                fillStarted.countDown();
+                try {
+                    assertTrue(finishFill.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        createOnUiThread();
+        mExecutor.waitForPending(3);
+        mExecutor.releaseOne();
+        assertTrue(fillStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        // the refresh waits for the fill, and the filled tile is of an older generation
+        refreshOnUiThread();
+        mDataCallback.mBeforeFill = null;
+        finishFill.countDown();
+        mDataCallback.waitForRecycled("gen1 #0");
+
+        mExecutor.waitForPending(5);
+        mExecutor.releaseAll();
+        waitForItems("gen2", 0, VIEWPORT_SIZE);
+        mExecutor.waitForIdle();
+        assertEquals(2, mDataCallback.getFillCount(0));
+        assertEquals(1, mDataCallback.getFillCount(10));
+        assertEquals(1, mDataCallback.getFillCount(20));
+    }
+
+    @Test
+    public void recyclesTilesOfOlderGeneration() throws Throwable {
+        createOnUiThread();
+        mExecutor.waitForPending(3);
+        mExecutor.releaseAll();
+        waitForItems("gen1", 0, VIEWPORT_SIZE);
+
+        refreshOnUiThread();
+        mExecutor.waitForPending(3);
+        mExecutor.releaseAll();
+        waitForItems("gen2", 0, VIEWPORT_SIZE);
+        mExecutor.waitForIdle();
+
+        // each tile of the first generation is recycled once, and its array reused
+        mDataCallback.waitForRecycled("gen1 #0");
+        mDataCallback.waitForRecycled("gen1 #10");
+        mDataCallback.waitForRecycled("gen1 #20");
+        assertEquals(3, mDataCallback.getCreatedArrayCount());
+    }
+
+    private void createOnUiThread() throws Throwable {
+        mActivityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                mAsyncListUtil = new AsyncListUtil<>(
+                        String.class, TILE_SIZE, mDataCallback, mViewCallback, mExecutor);
+            }
+        });
+    }
+
+    private void refreshOnUiThread() throws Throwable {
+        mActivityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                mAsyncListUtil.refresh();
+            }
+        });
+    }
+
+    private void scrollOnUiThread(final int position) throws Throwable {
+        mActivityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                mViewCallback.mFirstVisibleItem = position;
+                mViewCallback.mLastVisibleItem = position + VIEWPORT_SIZE - 1;
+                mAsyncListUtil.onRangeChanged();
+            }
+        });
+    }
+
+    private void waitForItems(final String generation, final int start, final int count)
+            throws Throwable {
+        final boolean[] loaded = new boolean[1];
+        final long deadline = SystemClock.uptimeMillis() + TIMEOUT_MS;
+        while (!loaded[0]) {
+            if (SystemClock.uptimeMillis() > deadline) {
+                fail("timed out waiting for " + generation + " items " + start + ".."
+                        + (start + count - 1));
+            }
+            mActivityRule.runOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    loaded[0] = true;
+                    for (int i = start; i < start + count; i++) {
+                        String item = mAsyncListUtil.getItem(i);
+                        if (!(generation + " #" + i).equals(item)) {
+                            loaded[0] = false;
+                            return;
+                        }
+                    }
+                }
+            });
+            if (!loaded[0]) {
+                SystemClock.sleep(10);
+            }
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    /**
+     * Fills the items with their generation and position, and checks that an array is never
+     * filled again before its items were recycled, or recycled twice.
+     */
+    private static class TestDataCallback extends AsyncListUtil.DataCallback<String> {
+        volatile int mDataItemCount = 100;
+        volatile Runnable mBeforeFill;
+
+        private int mGeneration;
+        private final int[] mFillCounts = new int[100];
+        private final Set<String[]> mFilledArrays =
+                Collections.newSetFromMap(new IdentityHashMap<String[], Boolean>());
+        private final Set<String[]> mCreatedArrays =
+                Collections.newSetFromMap(new IdentityHashMap<String[], Boolean>());
+        private final List<String> mRecycledItems = new ArrayList<>();
+        private final List<String> mErrors = new ArrayList<>();
+
+        @Override
+        public int refreshData() {
+            synchronized (this) {
+                mGeneration++;
+            }
+            return mDataItemCount;
+        }
+
+        @Override
+        public void fillData(@NonNull String[] data, int startPosition, int itemCount) {
+            Runnable beforeFill = mBeforeFill;
+            if (beforeFill != null) {
+                beforeFill.run();
+            }
+            synchronized (this) {
+                if (!mFilledArrays.add(data)) {
+                    mErrors.add("tile @" + startPosition + " was reused before being recycled");
+                }
+                mCreatedArrays.add(data);
+                mFillCounts[startPosition]++;
+                for (int i = 0; i < itemCount; i++) {
+                    data[i] = "gen" + mGeneration + " #" + (startPosition + i);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void recycleData(@NonNull String[] data, int itemCount) {
+            if (!mFilledArrays.remove(data)) {
+                mErrors.add("tile with " + data[0] + " was recycled twice");
+            }
+            mRecycledItems.add(data[0]);
+        }
+
+        synchronized int getFillCount(int startPosition) {
+            return mFillCounts[startPosition];
+        }
+
+        synchronized int getCreatedArrayCount() {
+            return mCreatedArrays.size();
+        }
+
+        synchronized void waitForRecycled(String item) throws InterruptedException {
+            final long deadline = SystemClock.uptimeMillis() + TIMEOUT_MS;
+            while (!mRecycledItems.contains(item)) {
+                long remaining = deadline - SystemClock.uptimeMillis();
+                if (remaining <= 0) {
+                    fail("timed out waiting for the tile of " + item + " to be recycled");
+                }
+                wait(10);
+            }
+        }
+
+        synchronized void assertNoErrors() {
+            assertEquals(Collections.<String>emptyList(), mErrors);
+        }
+    }
+
+    private static class TestViewCallback extends AsyncListUtil.ViewCallback {
+        int mFirstVisibleItem;
+        int mLastVisibleItem = VIEWPORT_SIZE - 1;
+
+        @Override
+        public void getItemRangeInto(@NonNull int[] outRange) {
+            outRange[0] = mFirstVisibleItem;
+            outRange[1] = mLastVisibleItem;
+        }
+
+        @Override
+        public void extendRangeInto(@NonNull int[] range, @NonNull int[] outRange,
+                int scrollHint) {
+            outRange[0] = range[0];
+            outRange[1] = range[1];
+        }
+
+        @Override
+        public void onDataRefresh() {
+        }
+
+        @Override
+        public void onItemLoaded(int position) {
+        }
+    }
+
+    /**
+     * Holds the loads until the test releases them to a thread pool.
+     */
+    private static class GatedExecutor implements Executor {
+        private final ExecutorService mPool;
+        private final List<Runnable> mPending = new ArrayList<>();
+        private int mRunning;
+
+        GatedExecutor(int threadCount) {
+            mPool = Executors.newFixedThreadPool(threadCount);
+        }
+
+        @Override
+        public synchronized void execute(@NonNull Runnable command) {
+            mPending.add(command);
+            notifyAll();
+        }
+
+        synchronized void waitForPending(int count) throws InterruptedException {
+            final long deadline = SystemClock.uptimeMillis() + TIMEOUT_MS;
+            while (mPending.size() < count) {
+                long remaining = deadline - SystemClock.uptimeMillis();
+                if (remaining <= 0) {
+                    fail("timed out waiting for " + count + " loads, got " + mPending.size());
+                }
+                wait(remaining);
+            }
+            assertEquals(count, mPending.size());
+        }
+
+        synchronized void releaseOne() {
+            submit(mPending.remove(0));
+        }
+
+        synchronized void releaseAll() {
+            for (Runnable runnable : mPending) {
+                submit(runnable);
+            }
+            mPending.clear();
+        }
+
+        void releaseAllUntil(Condition condition) throws InterruptedException {
+            final long deadline = SystemClock.uptimeMillis() + TIMEOUT_MS;
+            while (!condition.isMet()) {
+                if (SystemClock.uptimeMillis() > deadline) {
+                    fail("timed out releasing loads");
+                }
+                releaseAll();
+                synchronized (this) {
+                    wait(10);
+                }
+            }
+        }
+
+        synchronized void waitForIdle() throws InterruptedException {
+            final long deadline = SystemClock.uptimeMillis() + TIMEOUT_MS;
+            while (mRunning > 0) {
+                long remaining = deadline - SystemClock.uptimeMillis();
+                if (remaining <= 0) {
+                    fail("timed out waiting for " + mRunning + " loads");
+                }
+                wait(remaining);
+            }
+            // the results are handed back to the background thread
+            SystemClock.sleep(100);
+        }
+
+        void shutdown() throws InterruptedException {
+            mPool.shutdownNow();
+            assertTrue(mPool.awaitTermination(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        }
+
+        private void submit(final Runnable runnable) {
+            mRunning++;
+            mPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        runnable.run();
+                    } finally {
+                        synchronized (GatedExecutor.this) {
+                            mRunning--;
+                            GatedExecutor.this.notifyAll();
+                        }
+                    }
+                }
+            });
+        }
+    }
+}
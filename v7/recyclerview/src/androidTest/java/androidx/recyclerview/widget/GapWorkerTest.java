@@ -27,12 +27,17 @@ import android.support.test.InstrumentationRegistry;
 import android.support.test.filters.SdkSuppress;
 import android.support.test.filters.SmallTest;
 import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 @SmallTest
 @RunWith(AndroidJUnit4.class)
@@ -181,4 +186,77 @@ public class GapWorkerTest {
             recyclerView.onDetachedFromWindow();
         }
     }
+
+    @SdkSuppress(minSdkVersion = Build.VERSION_CODES.LOLLIPOP)
+    @Test
+    public void prefetchPrefillsPoolBeforeDeadline() {
+        final long[] nanoTime = new long[1];
+        final int[] createCount = new int[1];
+        RecyclerView recyclerView = new RecyclerView(getContext()) {
+            @Override
+            long getNanoTime() {
+                return nanoTime[0];
+            }
+
+            @Override
+            public int getWindowVisibility() {
+                // Pretend to be visible to avoid being filtered out
+                return View.VISIBLE;
+            }
+        };
+        recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        recyclerView.setAdapter(new RecyclerView.Adapter() {
+            @NonNull
+            @Override
+            public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent,
+                    int viewType) {
+                nanoTime[0] += TimeUnit.MILLISECONDS.toNanos(5);
+                createCount[0]++;
+                View view = new View(parent.getContext());
+                view.setMinimumWidth(100);
+                view.setMinimumHeight(100);
+                return new RecyclerView.ViewHolder(view) {};
+            }
+
+            @Override
+            public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+            }
+
+            @Override
+            public int getItemCount() {
+                return 100;
+            }
+        });
+        try {
+            recyclerView.onAttachedToWindow();
+            recyclerView.measure(
+                    View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY));
+            recyclerView.layout(0, 0, 100, 100);
+
+            RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+            pool.setAdaptiveMaxRecycledViews(true);
+            pool.setMaxRecycledViews(0, 3);
+            for (int i = 0; i < 3; i++) {
+                assertNull(pool.getRecycledView(0));
+            }
+            int created = createCount[0];
+
+            // no time left in this frame
+            recyclerView.mGapWorker.prefetch(nanoTime[0]);
+            assertEquals(created, createCount[0]);
+            assertEquals(0, pool.getRecycledViewCount(0));
+
+            // time for a single 5ms create
+            recyclerView.mGapWorker.prefetch(nanoTime[0] + TimeUnit.MILLISECONDS.toNanos(8));
+            assertEquals(created + 1, createCount[0]);
+            assertEquals(1, pool.getRecycledViewCount(0));
+
+            recyclerView.mGapWorker.prefetch(RecyclerView.FOREVER_NS);
+            assertEquals(created + 3, createCount[0]);
+            assertEquals(3, pool.getRecycledViewCount(0));
+        } finally {
+            recyclerView.onDetachedFromWindow();
+        }
+    }
 }
@@ -21,6 +21,7 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
 import android.content.Context;
@@ -35,6 +36,8 @@ import androidx.annotation.NonNull;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.concurrent.TimeUnit;
+
 @SmallTest
 @RunWith(AndroidJUnit4.class)
 public class RecycledViewPoolTest {
@@ -90,6 +93,217 @@ public class RecycledViewPoolTest {
         assertEquals(0, pool.getRecycledViewCount(3));
     }
 
+    @Test
+    public void hitAndMissCounts() {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.putRecycledView(makeHolder(1));
+
+        assertNotNull(pool.getRecycledView(1));
+        assertNull(pool.getRecycledView(1));
+        assertNull(pool.getRecycledView(1));
+
+        assertEquals(1, pool.getRecycledViewHitCount(1));
+        assertEquals(2, pool.getRecycledViewMissCount(1));
+        assertEquals(0, pool.getRecycledViewHitCount(2));
+    }
+
+    @Test
+    public void adaptive_growsAfterDiscardedHolderIsMissed() {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setAdaptiveMaxRecycledViews(true);
+        pool.setMaxRecycledViews(1, 2);
+        for (int i = 0; i < 3; i++) {
+            pool.putRecycledView(makeHolder(1));
+        }
+        assertEquals(2, pool.getRecycledViewCount(1));
+
+        // the third holder was discarded and is missed now
+        pool.getRecycledView(1);
+        pool.getRecycledView(1);
+        assertNull(pool.getRecycledView(1));
+        assertEquals(3, pool.getMaxRecycledViews(1));
+
+        for (int i = 0; i < 3; i++) {
+            pool.putRecycledView(makeHolder(1));
+        }
+        assertEquals(3, pool.getRecycledViewCount(1));
+    }
+
+    @Test
+    public void adaptive_neverGrowsWithoutDiscards() {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setAdaptiveMaxRecycledViews(true);
+        pool.setMaxRecycledViews(1, 2);
+        for (int i = 0; i < 10; i++) {
+            assertNull(pool.getRecycledView(1));
+        }
+        assertEquals(2, pool.getMaxRecycledViews(1));
+    }
+
+    @Test
+    public void adaptive_shrinksWhenUnused() {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setAdaptiveMaxRecycledViews(true);
+        pool.setMaxRecycledViews(1, 1);
+        for (int i = 0; i < 3; i++) {
+            // discard a holder, then miss it
+            pool.putRecycledView(makeHolder(1));
+            pool.putRecycledView(makeHolder(1));
+            while (pool.getRecycledView(1) != null) {
+                // drain
+            }
+        }
+        int grown = pool.getMaxRecycledViews(1);
+        assertThat(grown > 1, is(true));
+
+        // keep the pool full, a single holder is taken and put back each time
+        for (int i = 0; i < grown; i++) {
+            pool.putRecycledView(makeHolder(1));
+        }
+        for (int i = 0; i < 64; i++) {
+            pool.putRecycledView(pool.getRecycledView(1));
+        }
+        assertEquals(1, pool.getMaxRecycledViews(1));
+        assertEquals(1, pool.getRecycledViewCount(1));
+    }
+
+    @Test
+    public void adaptive_disableRestoresMax() {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setAdaptiveMaxRecycledViews(true);
+        pool.setMaxRecycledViews(1, 1);
+        pool.putRecycledView(makeHolder(1));
+        pool.putRecycledView(makeHolder(1));
+        pool.getRecycledView(1);
+        pool.getRecycledView(1);
+        assertEquals(2, pool.getMaxRecycledViews(1));
+
+        pool.setAdaptiveMaxRecycledViews(false);
+        assertEquals(1, pool.getMaxRecycledViews(1));
+    }
+
+    @Test
+    public void prefill_stopsAtDeadline() {
+        TimeMockingRecyclerView recyclerView = createPrefillingRecyclerView();
+        RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        pool.setAdaptiveMaxRecycledViews(true);
+        pool.setMaxRecycledViews(0, 4);
+        missRecycledViews(pool, 0, 4);
+        int createCount = recyclerView.mCreateCount;
+
+        // each create takes 5ms, so only two fit before the deadline
+        pool.prefill(recyclerView,
+                recyclerView.getNanoTime() + TimeUnit.MILLISECONDS.toNanos(12));
+        assertEquals(createCount + 2, recyclerView.mCreateCount);
+        assertEquals(2, pool.getRecycledViewCount(0));
+
+        // the rest is created once there is time again
+        pool.prefill(recyclerView, RecyclerView.FOREVER_NS);
+        assertEquals(createCount + 4, recyclerView.mCreateCount);
+        assertEquals(4, pool.getRecycledViewCount(0));
+    }
+
+    @Test
+    public void prefill_neverExceedsAdaptiveMax() {
+        TimeMockingRecyclerView recyclerView = createPrefillingRecyclerView();
+        RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        pool.setAdaptiveMaxRecycledViews(true);
+        pool.setMaxRecycledViews(0, 2);
+        // discard a holder, then miss it, so that the max grows to 3
+        pool.putRecycledView(makeHolder(0));
+        pool.putRecycledView(makeHolder(0));
+        pool.putRecycledView(makeHolder(0));
+        missRecycledViews(pool, 0, 10);
+        assertEquals(3, pool.getMaxRecycledViews(0));
+        int createCount = recyclerView.mCreateCount;
+
+        pool.prefill(recyclerView, RecyclerView.FOREVER_NS);
+        assertEquals(createCount + 3, recyclerView.mCreateCount);
+        assertEquals(3, pool.getRecycledViewCount(0));
+
+        // nothing is left to create
+        pool.prefill(recyclerView, RecyclerView.FOREVER_NS);
+        assertEquals(createCount + 3, recyclerView.mCreateCount);
+        assertEquals(3, pool.getRecycledViewCount(0));
+    }
+
+    @Test
+    public void prefill_fullPool() {
+        TimeMockingRecyclerView recyclerView = createPrefillingRecyclerView();
+        RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        pool.setAdaptiveMaxRecycledViews(true);
+        pool.setMaxRecycledViews(0, 2);
+        missRecycledViews(pool, 0, 2);
+        pool.putRecycledView(makeHolder(0));
+        pool.putRecycledView(makeHolder(0));
+        int createCount = recyclerView.mCreateCount;
+
+        pool.prefill(recyclerView, RecyclerView.FOREVER_NS);
+        assertEquals(createCount, recyclerView.mCreateCount);
+        assertEquals(2, pool.getRecycledViewCount(0));
+    }
+
+    @Test
+    public void prefill_notAdaptive() {
+        TimeMockingRecyclerView recyclerView = createPrefillingRecyclerView();
+        RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        missRecycledViews(pool, 0, 2);
+        int createCount = recyclerView.mCreateCount;
+
+        pool.prefill(recyclerView, RecyclerView.FOREVER_NS);
+        assertEquals(createCount, recyclerView.mCreateCount);
+        assertEquals(0, pool.getRecycledViewCount(0));
+    }
+
+    private void missRecycledViews(RecyclerView.RecycledViewPool pool, int viewType,
+            int count) {
+        while (pool.getRecycledView(viewType) != null) {
+            // drain
+        }
+        for (int i = 1; i < count; i++) {
+            assertNull(pool.getRecycledView(viewType));
+        }
+    }
+
+    /**
+     * Creates a RecyclerView showing a single 100x100 child of type 0, whose ViewHolders take 5ms
+     * to create.
+     */
+    private TimeMockingRecyclerView createPrefillingRecyclerView() {
+        final TimeMockingRecyclerView recyclerView =
+                new TimeMockingRecyclerView(InstrumentationRegistry.getContext());
+        recyclerView.setLayoutManager(
+                new LinearLayoutManager(InstrumentationRegistry.getContext()));
+        recyclerView.setAdapter(new RecyclerView.Adapter() {
+            @NonNull
+            @Override
+            public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent,
+                    int viewType) {
+                recyclerView.registerTimePassingMs(5);
+                recyclerView.mCreateCount++;
+                View view = new View(parent.getContext());
+                view.setMinimumWidth(100);
+                view.setMinimumHeight(100);
+                return new MockViewHolder(view);
+            }
+
+            @Override
+            public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+            }
+
+            @Override
+            public int getItemCount() {
+                return 100;
+            }
+        });
+        recyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 100, 100);
+        assertEquals(1, recyclerView.getChildCount());
+        return recyclerView;
+    }
+
     @Test
     public void onAdapterChanged_attachedToOneOldAdapterNotNullNotCompatWithPrev_clears() {
         onAdapterChanged(1, true, true, true);
@@ -139,7 +353,29 @@ public class RecycledViewPoolTest {
 
     private static class MockViewHolder extends RecyclerView.ViewHolder {
         MockViewHolder(Context context) {
-            super(new View(context));
+            this(new View(context));
+        }
+
+        MockViewHolder(View itemView) {
+            super(itemView);
+        }
+    }
+
+    private static class TimeMockingRecyclerView extends RecyclerView {
+        private long mMockNanoTime = 0;
+        int mCreateCount = 0;
+
+        TimeMockingRecyclerView(Context context) {
+            super(context);
+        }
+
+        void registerTimePassingMs(long ms) {
+            mMockNanoTime += TimeUnit.MILLISECONDS.toNanos(ms);
+        }
+
+        @Override
+        long getNanoTime() {
+            return mMockNanoTime;
         }
     }
 
@@ -104,6 +104,13 @@ public class ThreadUtilTest {
                                 assertBackgroundThread();
                                 setResultData("recycleTile", data);
                             }
+
+                            @Override
+                            public void finishTileLoad(int generation,
+                                    TileList.Tile<Integer> data, boolean filled) {
+                                assertBackgroundThread();
+                                setResultData("finishTileLoad", generation, data, filled);
+                            }
                         });
             }
         });
@@ -171,6 +178,15 @@ public class ThreadUtilTest {
         assertThat(data, is(new Object[]{tile}));
     }
 
+    @Test
+    public void finishTileLoad() throws InterruptedException {
+        initWait("finishTileLoad");
+        TileList.Tile<Integer> tile = new TileList.Tile<Integer>(Integer.class, 10);
+        mBackgroundProxy.finishTileLoad(4, tile, true);
+        Object[] data = waitFor("finishTileLoad");
+        assertThat(data, is(new Object[]{4, tile, true}));
+    }
+
     private void assertMainThread() {
         assertThat(Looper.myLooper(), notNullValue());
         assertThat(Looper.myLooper(), sameInstance(Looper.getMainLooper()));
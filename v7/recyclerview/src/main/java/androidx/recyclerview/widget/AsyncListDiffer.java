@@ -271,6 +271,22 @@ public class AsyncListDiffer<T> {
                         // non-null which is the only case handled above.
                         throw new AssertionError();
                     }
+
+                    @Override
+                    public long getOldItemId(int oldItemPosition) {
+                        T oldItem = oldList.get(oldItemPosition);
+                        return oldItem == null
+                                ? RecyclerView.NO_ID
+                                : mConfig.getDiffCallback().getItemId(oldItem);
+                    }
+
+                    @Override
+                    public long getNewItemId(int newItemPosition) {
+                        T newItem = newList.get(newItemPosition);
+                        return newItem == null
+                                ? RecyclerView.NO_ID
+                                : mConfig.getDiffCallback().getItemId(newItem);
+                    }
                 });
 
                 mConfig.getMainThreadExecutor().execute(new Runnable() {
@@ -25,6 +25,10 @@ import androidx.annotation.Nullable;
 import androidx.annotation.UiThread;
 import androidx.annotation.WorkerThread;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
 /**
  * A utility class that supports asynchronous content loading.
  * <p>
@@ -39,8 +43,11 @@ import androidx.annotation.WorkerThread;
  * {@link ViewCallback} when the data is loaded. It may load some extra items for smoother
  * scrolling.
  * <p>
- * Note that this class uses a single thread to load the data, so it suitable to load data from
- * secondary storage such as disk, but not from network.
+ * Note that by default this class uses a single thread to load the data, so it suitable to load
+ * data from secondary storage such as disk, but not from network. If the data source can serve
+ * several requests at once, an {@link Executor} can be passed to
+ * {@link #AsyncListUtil(Class, int, DataCallback, ViewCallback, Executor)} to load several tiles
+ * in parallel.
  * <p>
  * This class is designed to work with {@link RecyclerView}, but it does
  * not depend on it and can be used with other list views.
@@ -55,6 +62,8 @@ public class AsyncListUtil<T> {
     final int mTileSize;
     final DataCallback<T> mDataCallback;
     final ViewCallback mViewCallback;
+    @Nullable
+    final Executor mLoadExecutor;
 
     final TileList<T> mTileList;
 
@@ -89,10 +98,36 @@ public class AsyncListUtil<T> {
      */
     public AsyncListUtil(@NonNull Class<T> klass, int tileSize,
             @NonNull DataCallback<T> dataCallback, @NonNull ViewCallback viewCallback) {
+        this(klass, tileSize, dataCallback, viewCallback, null);
+    }
+
+    /**
+     * Creates an AsyncListUtil that loads tiles in parallel on the given Executor.
+     * <p>
+     * {@link DataCallback#fillData(Object[], int, int)} is called on the threads of the Executor
+     * and may be called for several tiles at the same time, so the number of threads of the
+     * Executor limits the number of tiles loaded at once. It is never called while
+     * {@link DataCallback#refreshData()} runs.
+     * <p>
+     * Tiles are handed to the Executor in the order they are needed: the visible ones first, then
+     * the ones in the scroll direction. A tile that is no longer in the range returned by
+     * {@link ViewCallback#extendRangeInto(int[], int[], int)} when a thread picks it up is not
+     * loaded.
+     *
+     * @param klass Class of the data item.
+     * @param tileSize Number of item per chunk loaded at once.
+     * @param dataCallback Data access callback.
+     * @param viewCallback Callback for querying visible item range and update notifications.
+     * @param loadExecutor Executor that runs {@link DataCallback#fillData(Object[], int, int)}.
+     */
+    public AsyncListUtil(@NonNull Class<T> klass, int tileSize,
+            @NonNull DataCallback<T> dataCallback, @NonNull ViewCallback viewCallback,
+            @Nullable Executor loadExecutor) {
         mTClass = klass;
         mTileSize = tileSize;
         mDataCallback = dataCallback;
         mViewCallback = viewCallback;
+        mLoadExecutor = loadExecutor;
 
         mTileList = new TileList<T>(mTileSize);
 
@@ -296,18 +331,32 @@ public class AsyncListUtil<T> {
         private TileList.Tile<T> mRecycledRoot;
 
         final SparseBooleanArray mLoadedTiles = new SparseBooleanArray();
+        // tiles handed to mLoadExecutor that have not come back yet
+        final SparseBooleanArray mLoadingTiles = new SparseBooleanArray();
+
+        // held by the loader threads while they fill a tile, so that refreshData never runs
+        // concurrently with fillData
+        private final ReadWriteLock mRefreshLock = new ReentrantReadWriteLock();
 
         private int mGeneration;
         private int mItemCount;
+        private int mScrollHint = ViewCallback.HINT_SCROLL_NONE;
 
-        private int mFirstRequiredTileStart;
-        private int mLastRequiredTileStart;
+        // read by the loader threads
+        private volatile int mFirstRequiredTileStart;
+        private volatile int mLastRequiredTileStart;
 
         @Override
         public void refresh(int generation) {
-            mGeneration = generation;
-            mLoadedTiles.clear();
-            mItemCount = mDataCallback.refreshData();
+            mRefreshLock.writeLock().lock();
+            try {
+                mGeneration = generation;
+                mLoadedTiles.clear();
+                mLoadingTiles.clear();
+                mItemCount = mDataCallback.refreshData();
+            } finally {
+                mRefreshLock.writeLock().unlock();
+            }
             mMainThreadProxy.updateItemCount(mGeneration, mItemCount);
         }
 
@@ -328,6 +377,7 @@ public class AsyncListUtil<T> {
 
             mFirstRequiredTileStart = getTileStart(extRangeStart);
             mLastRequiredTileStart = getTileStart(extRangeEnd);
+            mScrollHint = scrollHint;
             if (DEBUG) {
                 log("requesting tile range: %d..%d",
                         mFirstRequiredTileStart, mLastRequiredTileStart);
@@ -363,7 +413,7 @@ public class AsyncListUtil<T> {
 
         @Override
         public void loadTile(int position, int scrollHint) {
-            if (isTileLoaded(position)) {
+            if (isTileLoaded(position) || mLoadingTiles.get(position)) {
                 if (DEBUG) {
                     log("already loaded tile @%d", position);
                 }
@@ -372,18 +422,79 @@ public class AsyncListUtil<T> {
             TileList.Tile<T> tile = acquireTile();
             tile.mStartPosition = position;
             tile.mItemCount = Math.min(mTileSize, mItemCount - tile.mStartPosition);
+            if (mLoadExecutor != null) {
+                mLoadingTiles.put(position, true);
+                mLoadExecutor.execute(createTileLoad(mGeneration, tile));
+                return;
+            }
             mDataCallback.fillData(tile.mItems, tile.mStartPosition, tile.mItemCount);
             flushTileCache(scrollHint);
             addTile(tile);
         }
 
+        private Runnable createTileLoad(final int generation, final TileList.Tile<T> tile) {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    boolean filled = false;
+                    mRefreshLock.readLock().lock();
+                    try {
+                        // skip the tiles that were refreshed or scrolled out of range while
+                        // waiting for a thread
+                        if (generation == mGeneration
+                                && tile.mStartPosition >= mFirstRequiredTileStart
+                                && tile.mStartPosition <= mLastRequiredTileStart) {
+                            mDataCallback.fillData(tile.mItems, tile.mStartPosition,
+                                    tile.mItemCount);
+                            filled = true;
+                        }
+                    } finally {
+                        mRefreshLock.readLock().unlock();
+                    }
+                    mBackgroundProxy.finishTileLoad(generation, tile, filled);
+                }
+            };
+        }
+
+        @Override
+        public void finishTileLoad(int generation, TileList.Tile<T> tile, boolean filled) {
+            if (generation == mGeneration) {
+                mLoadingTiles.delete(tile.mStartPosition);
+            }
+            if (!filled) {
+                if (DEBUG) {
+                    log("skipped tile @%d", tile.mStartPosition);
+                }
+                // fillData was not called, so the tile holds no items of its own. It came from
+                // acquireTile(): either new, or from the free list, which only receives tiles
+                // after recycleTile() passed their items to recycleData(). The tile was never
+                // sent to the main thread, so nothing else can recycle it: put it back on the
+                // free list without calling recycleData() again.
+                releaseTile(tile);
+                if (generation == mGeneration
+                        && tile.mStartPosition >= mFirstRequiredTileStart
+                        && tile.mStartPosition <= mLastRequiredTileStart) {
+                    // the range came back over the tile after the thread skipped it
+                    loadTile(tile.mStartPosition, mScrollHint);
+                }
+            } else if (generation != mGeneration) {
+                recycleTile(tile);
+            } else {
+                flushTileCache(mScrollHint);
+                addTile(tile);
+            }
+        }
+
         @Override
         public void recycleTile(TileList.Tile<T> tile) {
             if (DEBUG) {
                 log("recycling tile @%d", tile.mStartPosition);
             }
             mDataCallback.recycleData(tile.mItems, tile.mItemCount);
+            releaseTile(tile);
+        }
 
+        private void releaseTile(TileList.Tile<T> tile) {
             tile.mNext = mRecycledRoot;
             mRecycledRoot = tile;
         }
@@ -19,12 +19,14 @@ package androidx.recyclerview.widget;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
+import androidx.collection.LongLongMap;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * DiffUtil is a utility class that can calculate the difference between two lists and output a
@@ -49,7 +51,12 @@ import java.util.List;
  * <p>
  * If move detection is enabled, it takes an additional O(N^2) time where N is the total number of
  * added and removed items. If your lists are already sorted by the same constraint (e.g. a created
- * timestamp for a list of posts), you can disable move detection to improve performance.
+ * timestamp for a list of posts), you can disable move detection to improve performance. If your
+ * items have stable ids, return them from {@link Callback#getOldItemId(int)} and
+ * {@link Callback#getNewItemId(int)} and move detection only takes O(N) time.
+ * <p>
+ * For very large lists, {@link #calculateDiff(Callback, boolean, Executor, int)} can spread the
+ * work of Myers's algorithm over several threads.
  * <p>
  * The actual runtime of the algorithm significantly depends on the number of changes in the list
  * and the cost of your comparison methods. Below are some average run times for reference:
@@ -141,45 +148,12 @@ public class DiffUtil {
                 if (snake.size > 0) {
                     snakes.add(snake);
                 }
-                // offset the snake to convert its coordinates from the Range's area to global
-                snake.x += range.oldListStart;
-                snake.y += range.newListStart;
-
-                // add new ranges for left and right
+                // add new ranges for left and right, re-use range for right
                 final Range left = rangePool.isEmpty() ? new Range() : rangePool.remove(
                         rangePool.size() - 1);
-                left.oldListStart = range.oldListStart;
-                left.newListStart = range.newListStart;
-                if (snake.reverse) {
-                    left.oldListEnd = snake.x;
-                    left.newListEnd = snake.y;
-                } else {
-                    if (snake.removal) {
-                        left.oldListEnd = snake.x - 1;
-                        left.newListEnd = snake.y;
-                    } else {
-                        left.oldListEnd = snake.x;
-                        left.newListEnd = snake.y - 1;
-                    }
-                }
+                splitRange(range, snake, left, range);
                 stack.add(left);
-
-                // re-use range for right
-                //noinspection UnnecessaryLocalVariable
-                final Range right = range;
-                if (snake.reverse) {
-                    if (snake.removal) {
-                        right.oldListStart = snake.x + snake.size + 1;
-                        right.newListStart = snake.y + snake.size;
-                    } else {
-                        right.oldListStart = snake.x + snake.size;
-                        right.newListStart = snake.y + snake.size + 1;
-                    }
-                } else {
-                    right.oldListStart = snake.x + snake.size;
-                    right.newListStart = snake.y + snake.size;
-                }
-                stack.add(right);
+                stack.add(range);
             } else {
                 rangePool.add(range);
             }
@@ -192,6 +166,207 @@ public class DiffUtil {
 
     }
 
+    /**
+     * Calculates the list of update operations that can covert one list into the other one,
+     * using up to {@code parallelism} threads.
+     * <p>
+     * Each time Myers's algorithm finds the middle snake of a range, the parts of the range before
+     * and after it can be solved independently. This method solves them on the calling thread and
+     * on up to {@code parallelism - 1} tasks posted to the given executor, for example a
+     * {@link java.util.concurrent.ForkJoinPool ForkJoinPool}. The calling thread always takes part
+     * in the work, so the diff completes even if the executor is busy or runs tasks on the calling
+     * thread. Each thread allocates its own working arrays, so this needs more memory than
+     * {@link #calculateDiff(Callback, boolean)}.
+     * <p>
+     * {@link Callback#areItemsTheSame(int, int)} is called from several threads at once, so the
+     * Callback and the lists it reads from must be safe to read concurrently. Move detection runs
+     * on the calling thread.
+     *
+     * @param cb The callback that acts as a gateway to the backing list data
+     * @param detectMoves True if DiffUtil should try to detect moved items, false otherwise.
+     * @param executor The executor that runs the additional worker tasks.
+     * @param parallelism Maximum number of threads working on the diff, including the calling
+     *                    thread.
+     *
+     * @return A DiffResult that contains the information about the edit sequence to convert the
+     * old list into the new list.
+     */
+    @NonNull
+    public static DiffResult calculateDiff(@NonNull Callback cb, boolean detectMoves,
+            @NonNull Executor executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        if (parallelism == 1) {
+            return calculateDiff(cb, detectMoves);
+        }
+        final int oldSize = cb.getOldListSize();
+        final int newSize = cb.getNewListSize();
+        final List<Snake> snakes =
+                new ParallelDiff(cb, oldSize, newSize).run(executor, parallelism - 1);
+        Collections.sort(snakes, SNAKE_COMPARATOR);
+        return new DiffResult(cb, snakes, new int[oldSize + 1], new int[newSize + 1],
+                detectMoves);
+    }
+
+    /**
+     * Offsets the snake found in the given range to global coordinates, then sets {@code left} to
+     * the part of the range before the snake and {@code right} to the part after it.
+     * {@code right} may be the same object as {@code range}.
+     */
+    private static void splitRange(Range range, Snake snake, Range left, Range right) {
+        // offset the snake to convert its coordinates from the Range's area to global
+        snake.x += range.oldListStart;
+        snake.y += range.newListStart;
+
+        left.oldListStart = range.oldListStart;
+        left.newListStart = range.newListStart;
+        if (snake.reverse) {
+            left.oldListEnd = snake.x;
+            left.newListEnd = snake.y;
+        } else {
+            if (snake.removal) {
+                left.oldListEnd = snake.x - 1;
+                left.newListEnd = snake.y;
+            } else {
+                left.oldListEnd = snake.x;
+                left.newListEnd = snake.y - 1;
+            }
+        }
+
+        right.oldListEnd = range.oldListEnd;
+        right.newListEnd = range.newListEnd;
+        if (snake.reverse) {
+            if (snake.removal) {
+                right.oldListStart = snake.x + snake.size + 1;
+                right.newListStart = snake.y + snake.size;
+            } else {
+                right.oldListStart = snake.x + snake.size;
+                right.newListStart = snake.y + snake.size + 1;
+            }
+        } else {
+            right.oldListStart = snake.x + snake.size;
+            right.newListStart = snake.y + snake.size;
+        }
+    }
+
+    /**
+     * Runs Myers's algorithm on several threads that share a queue of ranges left to solve.
+     */
+    private static class ParallelDiff implements Runnable {
+        private final Callback mCallback;
+        // ranges waiting for a thread, guarded by this
+        private final List<Range> mRanges = new ArrayList<>();
+        // snakes found so far, guarded by this
+        private final List<Snake> mSnakes = new ArrayList<>();
+        // number of ranges that are waiting or being solved, guarded by this
+        private int mPendingRanges;
+        // first exception thrown by a worker, guarded by this
+        private RuntimeException mFailure;
+
+        ParallelDiff(Callback callback, int oldSize, int newSize) {
+            mCallback = callback;
+            mRanges.add(new Range(0, oldSize, 0, newSize));
+            mPendingRanges = 1;
+        }
+
+        List<Snake> run(Executor executor, int helpers) {
+            for (int i = 0; i < helpers; i++) {
+                executor.execute(this);
+            }
+            boolean interrupted = work(true);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                if (mFailure != null) {
+                    throw mFailure;
+                }
+                return mSnakes;
+            }
+        }
+
+        @Override
+        public void run() {
+            if (work(false)) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Solves ranges until there are none left.
+         *
+         * @param caller True on the thread that called calculateDiff, which has to wait until all
+         *               the ranges are solved, even the ones solved by other threads.
+         * @return True if the thread was interrupted while waiting.
+         */
+        private boolean work(boolean caller) {
+            boolean interrupted = false;
+            int[] forward = null;
+            int[] backward = null;
+            while (true) {
+                final Range range;
+                synchronized (this) {
+                    while (mRanges.isEmpty() && mPendingRanges > 0 && mFailure == null) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                            if (!caller) {
+                                // the other threads pick up the remaining ranges
+                                return true;
+                            }
+                        }
+                    }
+                    if (mRanges.isEmpty()) {
+                        return interrupted;
+                    }
+                    range = mRanges.remove(mRanges.size() - 1);
+                }
+
+                Snake snake = null;
+                RuntimeException failure = null;
+                try {
+                    final int oldSize = range.oldListEnd - range.oldListStart;
+                    final int newSize = range.newListEnd - range.newListStart;
+                    final int max = oldSize + newSize + Math.abs(oldSize - newSize);
+                    if (forward == null || forward.length < max * 2) {
+                        forward = new int[max * 2];
+                        backward = new int[max * 2];
+                    }
+                    snake = diffPartial(mCallback, range.oldListStart, range.oldListEnd,
+                            range.newListStart, range.newListEnd, forward, backward, max);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+
+                synchronized (this) {
+                    if (failure != null) {
+                        if (mFailure == null) {
+                            mFailure = failure;
+                        }
+                        // stop all the threads, the diff can't complete
+                        mRanges.clear();
+                        mPendingRanges = 0;
+                    } else if (mFailure == null) {
+                        if (snake != null) {
+                            if (snake.size > 0) {
+                                mSnakes.add(snake);
+                            }
+                            final Range left = new Range();
+                            splitRange(range, snake, left, range);
+                            mRanges.add(left);
+                            mRanges.add(range);
+                            mPendingRanges += 2;
+                        }
+                        mPendingRanges--;
+                    }
+                    notifyAll();
+                }
+            }
+        }
+    }
+
     private static Snake diffPartial(Callback cb, int startOld, int endOld,
             int startNew, int endNew, int[] forward, int[] backward, int kOffset) {
         final int oldSize = endOld - startOld;
@@ -352,6 +527,40 @@ public class DiffUtil {
         public Object getChangePayload(int oldItemPosition, int newItemPosition) {
             return null;
         }
+
+        /**
+         * Returns a stable id for the item at the given position in the old list.
+         * <p>
+         * If this method and {@link #getNewItemId(int)} return an id for all the items that were
+         * added or removed, move detection finds matching items through a hash table of their ids
+         * instead of comparing them with every other added or removed item. Two items must have
+         * the same id if and only if {@link #areItemsTheSame(int, int)} returns {@code true} for
+         * them.
+         * <p>
+         * Default implementation returns {@link RecyclerView#NO_ID}.
+         *
+         * @param oldItemPosition The position of the item in the old list
+         *
+         * @return The stable id of the item or {@link RecyclerView#NO_ID}.
+         */
+        public long getOldItemId(int oldItemPosition) {
+            return RecyclerView.NO_ID;
+        }
+
+        /**
+         * Returns a stable id for the item at the given position in the new list.
+         * <p>
+         * Default implementation returns {@link RecyclerView#NO_ID}.
+         *
+         * @param newItemPosition The position of the item in the new list
+         *
+         * @return The stable id of the item or {@link RecyclerView#NO_ID}.
+         *
+         * @see #getOldItemId(int)
+         */
+        public long getNewItemId(int newItemPosition) {
+            return RecyclerView.NO_ID;
+        }
     }
 
     /**
@@ -426,6 +635,22 @@ public class DiffUtil {
         public Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
             return null;
         }
+
+        /**
+         * Returns a stable id for the given item, which lets move detection find matching items
+         * through a hash table instead of comparing them with every other added or removed item.
+         * <p>
+         * Two items must have the same id if and only if {@link #areItemsTheSame(T, T)} returns
+         * {@code true} for them.
+         * <p>
+         * Default implementation returns {@link RecyclerView#NO_ID}.
+         *
+         * @see Callback#getOldItemId(int)
+         */
+        @SuppressWarnings({"WeakerAccess", "unused"})
+        public long getItemId(@NonNull T item) {
+            return RecyclerView.NO_ID;
+        }
     }
 
     /**
@@ -543,6 +768,16 @@ public class DiffUtil {
 
         private final boolean mDetectMoves;
 
+        // When the callback provides stable ids, these map the id of each removed / added item to
+        // its last position, and chain each position to the previous position with the same id.
+        // They are only needed to detect moves, and are released once that is done.
+        @Nullable
+        private LongLongMap mRemovedIdPositions;
+        private int[] mPreviousRemovedPositions;
+        @Nullable
+        private LongLongMap mAddedIdPositions;
+        private int[] mPreviousAddedPositions;
+
         /**
          * @param callback The callback that was used to calculate the diff
          * @param snakes The list of Myers' snakes
@@ -562,7 +797,85 @@ public class DiffUtil {
             mNewListSize = callback.getNewListSize();
             mDetectMoves = detectMoves;
             addRootSnake();
+            if (detectMoves) {
+                indexStableIds();
+            }
             findMatchingItems();
+            releaseStableIdIndex();
+        }
+
+        /**
+         * Indexes the removed and added items by their stable ids, if the callback provides them,
+         * so that move detection does not have to scan all of them for each item.
+         */
+        private void indexStableIds() {
+            final LongLongMap removed = new LongLongMap();
+            final int[] previousRemoved = new int[mOldListSize];
+            final LongLongMap added = new LongLongMap();
+            final int[] previousAdded = new int[mNewListSize];
+            int posOld = 0;
+            int posNew = 0;
+            final int snakeCount = mSnakes.size();
+            for (int i = 0; i <= snakeCount; i++) {
+                final Snake snake = i < snakeCount ? mSnakes.get(i) : null;
+                final int endOld = snake != null ? snake.x : mOldListSize;
+                final int endNew = snake != null ? snake.y : mNewListSize;
+                for (; posOld < endOld; posOld++) {
+                    final long id = mCallback.getOldItemId(posOld);
+                    if (id == RecyclerView.NO_ID) {
+                        return;
+                    }
+                    previousRemoved[posOld] = (int) removed.get(id, -1);
+                    removed.put(id, posOld);
+                }
+                for (; posNew < endNew; posNew++) {
+                    final long id = mCallback.getNewItemId(posNew);
+                    if (id == RecyclerView.NO_ID) {
+                        return;
+                    }
+                    previousAdded[posNew] = (int) added.get(id, -1);
+                    added.put(id, posNew);
+                }
+                if (snake != null) {
+                    posOld = snake.x + snake.size;
+                    posNew = snake.y + snake.size;
+                }
+            }
+            mRemovedIdPositions = removed;
+            mPreviousRemovedPositions = previousRemoved;
+            mAddedIdPositions = added;
+            mPreviousAddedPositions = previousAdded;
+        }
+
+        /**
+         * Drops the index built by {@link #indexStableIds()}, so that a DiffResult which is kept
+         * around to dispatch its updates later does not hold on to it.
+         */
+        private void releaseStableIdIndex() {
+            mRemovedIdPositions = null;
+            mPreviousRemovedPositions = null;
+            mAddedIdPositions = null;
+            mPreviousAddedPositions = null;
+        }
+
+        /**
+         * Returns the last indexed position before {@code end} with the given id, or -1.
+         * <p>
+         * Move detection looks for items before a position that only decreases, so positions at
+         * or after {@code end} are dropped from the index as they are skipped.
+         */
+        private static int findPreviousPosition(LongLongMap lastPositions, int[] previousPositions,
+                long id, int end) {
+            final int index = lastPositions.indexOfKey(id);
+            if (index < 0) {
+                return -1;
+            }
+            int pos = (int) lastPositions.valueAt(index);
+            while (pos >= end) {
+                pos = previousPositions[pos];
+            }
+            lastPositions.setValueAt(index, pos);
+            return pos;
         }
 
         /**
@@ -633,6 +946,17 @@ public class DiffUtil {
             if (mOldItemStatuses[x - 1] != 0) {
                 return; // already set by a latter item
             }
+            if (mAddedIdPositions != null) {
+                final int pos = findPreviousPosition(mAddedIdPositions, mPreviousAddedPositions,
+                        mCallback.getOldItemId(x - 1), y);
+                if (pos >= 0) {
+                    final boolean theSame = mCallback.areContentsTheSame(x - 1, pos);
+                    final int changeFlag = theSame ? FLAG_MOVED_NOT_CHANGED : FLAG_MOVED_CHANGED;
+                    mOldItemStatuses[x - 1] = (pos << FLAG_OFFSET) | FLAG_IGNORE;
+                    mNewItemStatuses[pos] = ((x - 1) << FLAG_OFFSET) | changeFlag;
+                }
+                return;
+            }
             findMatchingItem(x, y, snakeIndex, false);
         }
 
@@ -640,6 +964,17 @@ public class DiffUtil {
             if (mNewItemStatuses[y - 1] != 0) {
                 return; // already set by a latter item
             }
+            if (mRemovedIdPositions != null) {
+                final int pos = findPreviousPosition(mRemovedIdPositions,
+                        mPreviousRemovedPositions, mCallback.getNewItemId(y - 1), x);
+                if (pos >= 0) {
+                    final boolean theSame = mCallback.areContentsTheSame(pos, y - 1);
+                    final int changeFlag = theSame ? FLAG_MOVED_NOT_CHANGED : FLAG_MOVED_CHANGED;
+                    mNewItemStatuses[y - 1] = (pos << FLAG_OFFSET) | FLAG_IGNORE;
+                    mOldItemStatuses[pos] = ((y - 1) << FLAG_OFFSET) | changeFlag;
+                }
+                return;
+            }
             findMatchingItem(x, y, snakeIndex, true);
         }
 
@@ -361,9 +361,24 @@ final class GapWorker implements Runnable {
         }
     }
 
+    /**
+     * Uses the time left before the deadline to create the ViewHolders that adaptive pools ran
+     * out of.
+     */
+    private void prefillRecycledViewPools(long deadlineNs) {
+        final int viewCount = mRecyclerViews.size();
+        for (int i = 0; i < viewCount; i++) {
+            RecyclerView view = mRecyclerViews.get(i);
+            if (view.getWindowVisibility() == View.VISIBLE) {
+                view.getRecycledViewPool().prefill(view, deadlineNs);
+            }
+        }
+    }
+
     void prefetch(long deadlineNs) {
         buildTaskList();
         flushTasksWithDeadline(deadlineNs);
+        prefillRecycledViewPools(deadlineNs);
     }
 
     @Override
@@ -93,6 +93,7 @@ class MessageThreadUtil<T> implements ThreadUtil<T> {
             static final int UPDATE_RANGE = 2;
             static final int LOAD_TILE = 3;
             static final int RECYCLE_TILE = 4;
+            static final int FINISH_TILE_LOAD = 5;
 
             @Override
             public void refresh(int generation) {
@@ -116,6 +117,12 @@ class MessageThreadUtil<T> implements ThreadUtil<T> {
                 sendMessage(SyncQueueItem.obtainMessage(RECYCLE_TILE, 0, tile));
             }
 
+            @Override
+            public void finishTileLoad(int generation, TileList.Tile<T> tile, boolean filled) {
+                sendMessage(SyncQueueItem.obtainMessage(FINISH_TILE_LOAD, generation,
+                        filled ? 1 : 0, 0, 0, 0, tile));
+            }
+
             private void sendMessage(SyncQueueItem msg) {
                 mQueue.sendMessage(msg);
                 maybeExecuteBackgroundRunnable();
@@ -158,6 +165,11 @@ class MessageThreadUtil<T> implements ThreadUtil<T> {
                                 //noinspection unchecked
                                 callback.recycleTile((TileList.Tile<T>) msg.data);
                                 break;
+                            case FINISH_TILE_LOAD:
+                                //noinspection unchecked
+                                callback.finishTileLoad(
+                                        msg.arg1, (TileList.Tile<T>) msg.data, msg.arg2 != 0);
+                                break;
                             default:
                                 Log.e("ThreadUtil", "Unsupported message, what=" + msg.what);
                         }
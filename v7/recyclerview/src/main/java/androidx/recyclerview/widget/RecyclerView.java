@@ -5330,9 +5330,18 @@ public class RecyclerView extends ViewGroup implements ScrollingView, NestedScro
      * and use {@link RecyclerView#setRecycledViewPool(RecycledViewPool)}.
      * <p>
      * RecyclerView automatically creates a pool for itself if you don't provide one.
+     * <p>
+     * By default the pool keeps up to 5 ViewHolders of each type, which can be changed with
+     * {@link #setMaxRecycledViews(int, int)}. A pool shared by nested RecyclerViews may need more
+     * than that, in which case {@link #setAdaptiveMaxRecycledViews(boolean)} lets the pool adjust
+     * the number of ViewHolders it keeps for each type to what the RecyclerViews ask for.
      */
     public static class RecycledViewPool {
         private static final int DEFAULT_MAX_SCRAP = 5;
+        // an adaptive pool keeps up to this many times the max set for a type
+        private static final int ADAPTIVE_MAX_SCRAP_FACTOR = 4;
+        // number of requests for a type after which an adaptive pool re-evaluates its budget
+        private static final int ADAPTIVE_WINDOW = 32;
 
         /**
          * Tracks both pooled holders, as well as create/bind timing metadata for the given type.
@@ -5351,13 +5360,27 @@ public class RecyclerView extends ViewGroup implements ScrollingView, NestedScro
         static class ScrapData {
             final ArrayList<ViewHolder> mScrapHeap = new ArrayList<>();
             int mMaxScrap = DEFAULT_MAX_SCRAP;
+            // the max set by the app, an adaptive pool never goes below it
+            int mBaseMaxScrap = DEFAULT_MAX_SCRAP;
             long mCreateRunningAverageNs = 0;
             long mBindRunningAverageNs = 0;
+            int mHitCount = 0;
+            int mMissCount = 0;
+            // ViewHolders dropped because the heap was full, since the last miss
+            int mDiscardCount = 0;
+            // ViewHolders an adaptive pool should create ahead of time, see #prefill
+            int mPrefillCount = 0;
+            // requests, misses and smallest heap size after a hit in the current ADAPTIVE_WINDOW
+            int mWindowRequestCount = 0;
+            int mWindowMissCount = 0;
+            int mWindowMinScrap = Integer.MAX_VALUE;
         }
         SparseArray<ScrapData> mScrap = new SparseArray<>();
 
         private int mAttachCount = 0;
 
+        private boolean mAdaptive = false;
+
         /**
          * Discard all ViewHolders.
          */
@@ -5377,10 +5400,95 @@ public class RecyclerView extends ViewGroup implements ScrollingView, NestedScro
         public void setMaxRecycledViews(int viewType, int max) {
             ScrapData scrapData = getScrapDataForType(viewType);
             scrapData.mMaxScrap = max;
-            final ArrayList<ViewHolder> scrapHeap = scrapData.mScrapHeap;
-            while (scrapHeap.size() > max) {
-                scrapHeap.remove(scrapHeap.size() - 1);
+            scrapData.mBaseMaxScrap = max;
+            trimScrapHeap(scrapData);
+        }
+
+        /**
+         * Returns the maximum number of ViewHolders of the given type the pool currently holds
+         * before discarding.
+         * <p>
+         * This is the value set with {@link #setMaxRecycledViews(int, int)}, unless the pool is
+         * adaptive and has grown it.
+         *
+         * @param viewType ViewHolder Type
+         * @return Maximum number
+         *
+         * @see #setAdaptiveMaxRecycledViews(boolean)
+         */
+        public int getMaxRecycledViews(int viewType) {
+            return getScrapDataForType(viewType).mMaxScrap;
+        }
+
+        /**
+         * Sets whether the pool adjusts the maximum number of ViewHolders it keeps for each type.
+         * <p>
+         * An adaptive pool grows the maximum of a type when it had to discard ViewHolders of that
+         * type that were later needed, up to 4 times the value set with
+         * {@link #setMaxRecycledViews(int, int)}. It shrinks it back when the extra ViewHolders
+         * are not used. It also creates ViewHolders of the types it ran out of ahead of time,
+         * when RecyclerView has time left after prefetching, so that they don't have to be
+         * created while scrolling.
+         * <p>
+         * This is useful for a pool shared by nested RecyclerViews, where a type that is
+         * recycled by one RecyclerView is often needed by another one right after.
+         *
+         * @param adaptive True to let the pool adjust the maximum number of ViewHolders per type.
+         */
+        public void setAdaptiveMaxRecycledViews(boolean adaptive) {
+            if (mAdaptive == adaptive) {
+                return;
             }
+            mAdaptive = adaptive;
+            for (int i = 0; i < mScrap.size(); i++) {
+                ScrapData scrapData = mScrap.valueAt(i);
+                scrapData.mMaxScrap = scrapData.mBaseMaxScrap;
+                scrapData.mDiscardCount = 0;
+                scrapData.mPrefillCount = 0;
+                resetWindow(scrapData);
+                trimScrapHeap(scrapData);
+            }
+        }
+
+        /**
+         * Returns whether the pool adjusts the maximum number of ViewHolders it keeps per type.
+         *
+         * @see #setAdaptiveMaxRecycledViews(boolean)
+         */
+        public boolean isAdaptiveMaxRecycledViews() {
+            return mAdaptive;
+        }
+
+        /**
+         * Returns the number of times a ViewHolder of the given type was requested from the pool
+         * and found.
+         */
+        public int getRecycledViewHitCount(int viewType) {
+            return getScrapDataForType(viewType).mHitCount;
+        }
+
+        /**
+         * Returns the number of times a ViewHolder of the given type was requested from the pool
+         * but none was available, which usually means a new one had to be created.
+         */
+        public int getRecycledViewMissCount(int viewType) {
+            return getScrapDataForType(viewType).mMissCount;
+        }
+
+        /**
+         * Returns the running average of the time taken to create a ViewHolder of the given type
+         * in nanoseconds, or 0 if none was created yet.
+         */
+        public long getAverageCreateTimeNs(int viewType) {
+            return getScrapDataForType(viewType).mCreateRunningAverageNs;
+        }
+
+        /**
+         * Returns the running average of the time taken to bind a ViewHolder of the given type in
+         * nanoseconds, or 0 if none was bound yet.
+         */
+        public long getAverageBindTimeNs(int viewType) {
+            return getScrapDataForType(viewType).mBindRunningAverageNs;
         }
 
         /**
@@ -5400,12 +5508,65 @@ public class RecyclerView extends ViewGroup implements ScrollingView, NestedScro
          */
         @Nullable
         public ViewHolder getRecycledView(int viewType) {
-            final ScrapData scrapData = mScrap.get(viewType);
-            if (scrapData != null && !scrapData.mScrapHeap.isEmpty()) {
-                final ArrayList<ViewHolder> scrapHeap = scrapData.mScrapHeap;
-                return scrapHeap.remove(scrapHeap.size() - 1);
+            final ScrapData scrapData = getScrapDataForType(viewType);
+            final ArrayList<ViewHolder> scrapHeap = scrapData.mScrapHeap;
+            final ViewHolder holder;
+            if (!scrapHeap.isEmpty()) {
+                scrapData.mHitCount++;
+                holder = scrapHeap.remove(scrapHeap.size() - 1);
+            } else {
+                scrapData.mMissCount++;
+                holder = null;
+            }
+            if (mAdaptive) {
+                adaptMaxScrap(scrapData, holder != null);
+            }
+            return holder;
+        }
+
+        /**
+         * Updates the budget of an adaptive pool after a request for a ViewHolder of the given
+         * type.
+         */
+        private void adaptMaxScrap(ScrapData scrapData, boolean hit) {
+            if (hit) {
+                scrapData.mWindowMinScrap = Math.min(scrapData.mWindowMinScrap,
+                        scrapData.mScrapHeap.size());
+            } else {
+                scrapData.mWindowMissCount++;
+                if (scrapData.mDiscardCount > 0 && scrapData.mMaxScrap
+                        < scrapData.mBaseMaxScrap * ADAPTIVE_MAX_SCRAP_FACTOR) {
+                    // keeping a ViewHolder we discarded would have avoided this miss
+                    scrapData.mMaxScrap++;
+                }
+                scrapData.mDiscardCount = 0;
+                scrapData.mPrefillCount = Math.min(scrapData.mPrefillCount + 1,
+                        scrapData.mMaxScrap);
+            }
+            if (++scrapData.mWindowRequestCount < ADAPTIVE_WINDOW) {
+                return;
+            }
+            if (scrapData.mWindowMissCount == 0 && scrapData.mWindowMinScrap > 0
+                    && scrapData.mMaxScrap > scrapData.mBaseMaxScrap) {
+                // the pool never went below mWindowMinScrap ViewHolders, those are not needed
+                scrapData.mMaxScrap = Math.max(scrapData.mBaseMaxScrap,
+                        scrapData.mMaxScrap - scrapData.mWindowMinScrap);
+                trimScrapHeap(scrapData);
+            }
+            resetWindow(scrapData);
+        }
+
+        private void resetWindow(ScrapData scrapData) {
+            scrapData.mWindowRequestCount = 0;
+            scrapData.mWindowMissCount = 0;
+            scrapData.mWindowMinScrap = Integer.MAX_VALUE;
+        }
+
+        private void trimScrapHeap(ScrapData scrapData) {
+            final ArrayList<ViewHolder> scrapHeap = scrapData.mScrapHeap;
+            while (scrapHeap.size() > scrapData.mMaxScrap) {
+                scrapHeap.remove(scrapHeap.size() - 1);
             }
-            return null;
         }
 
         /**
@@ -5433,8 +5594,10 @@ public class RecyclerView extends ViewGroup implements ScrollingView, NestedScro
          */
         public void putRecycledView(ViewHolder scrap) {
             final int viewType = scrap.getItemViewType();
-            final ArrayList<ViewHolder> scrapHeap = getScrapDataForType(viewType).mScrapHeap;
-            if (mScrap.get(viewType).mMaxScrap <= scrapHeap.size()) {
+            final ScrapData scrapData = getScrapDataForType(viewType);
+            final ArrayList<ViewHolder> scrapHeap = scrapData.mScrapHeap;
+            if (scrapData.mMaxScrap <= scrapHeap.size()) {
+                scrapData.mDiscardCount++;
                 return;
             }
             if (DEBUG && scrapHeap.contains(scrap)) {
@@ -5473,6 +5636,44 @@ public class RecyclerView extends ViewGroup implements ScrollingView, NestedScro
             return expectedDurationNs == 0 || (approxCurrentNs + expectedDurationNs < deadlineNs);
         }
 
+        /**
+         * Creates the ViewHolders an adaptive pool ran out of, as long as they can be created
+         * before the deadline.
+         * <p>
+         * Only the types of the children of the given RecyclerView are created with its Adapter,
+         * since the other types of a shared pool may come from a different Adapter.
+         */
+        void prefill(RecyclerView view, long deadlineNs) {
+            if (!mAdaptive || view.mAdapter == null) {
+                return;
+            }
+            final int childCount = view.mChildHelper.getUnfilteredChildCount();
+            for (int i = 0; i < childCount; i++) {
+                final ViewHolder child =
+                        getChildViewHolderInt(view.mChildHelper.getUnfilteredChildAt(i));
+                if (child == null || child.shouldIgnore()) {
+                    continue;
+                }
+                final int viewType = child.getItemViewType();
+                final ScrapData scrapData = getScrapDataForType(viewType);
+                while (scrapData.mPrefillCount > 0
+                        && scrapData.mScrapHeap.size() < scrapData.mMaxScrap) {
+                    final long start = view.getNanoTime();
+                    if (!willCreateInTime(viewType, start, deadlineNs)) {
+                        break;
+                    }
+                    final ViewHolder holder = view.mAdapter.createViewHolder(view, viewType);
+                    RecyclerView innerView = findNestedRecyclerView(holder.itemView);
+                    if (innerView != null) {
+                        holder.mNestedRecyclerView = new WeakReference<>(innerView);
+                    }
+                    factorInCreateTime(viewType, view.getNanoTime() - start);
+                    scrapData.mPrefillCount--;
+                    putRecycledView(holder);
+                }
+            }
+        }
+
         void attach() {
             mAttachCount++;
         }
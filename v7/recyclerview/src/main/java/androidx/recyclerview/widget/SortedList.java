@@ -49,6 +49,12 @@ public class SortedList<T> {
     private static final int INSERTION = 1;
     private static final int DELETION = 1 << 1;
     private static final int LOOKUP = 1 << 2;
+
+    // States of the items in mData while updates are deferred.
+    private static final byte DEFERRED_KEPT = 0;
+    private static final byte DEFERRED_REMOVED = 1;
+    private static final byte DEFERRED_UPDATED = 2;
+    private static final byte DEFERRED_RECALCULATED = 3;
     T[] mData;
 
     /**
@@ -78,6 +84,29 @@ public class SortedList<T> {
 
     private BatchedCallback mBatchedCallback;
 
+    /**
+     * True between {@link #beginDeferredUpdates()} and {@link #endDeferredUpdates()}.
+     */
+    private boolean mDeferringUpdates;
+
+    /**
+     * Items that will be merged into the list when the deferred updates end, including the new
+     * versions of updated items. May contain nulls for updates that were removed again.
+     */
+    private T[] mDeferredItems;
+    private int mDeferredItemCount;
+
+    /**
+     * For each item in mData, whether it is kept, removed or updated by the deferred updates.
+     * Allocated on the first update that touches an existing item.
+     */
+    private byte[] mDeferredStates;
+
+    /**
+     * For each updated item in mData, the index of its new version in mDeferredItems.
+     */
+    private int[] mDeferredItemIndices;
+
     private int mSize;
     private final Class<T> mTClass;
 
@@ -141,6 +170,10 @@ public class SortedList<T> {
      */
     public int add(T item) {
         throwIfInMutationOperation();
+        if (mDeferringUpdates) {
+            deferItem(item);
+            return INVALID_POSITION;
+        }
         return add(item, true);
     }
 
@@ -164,7 +197,11 @@ public class SortedList<T> {
             return;
         }
 
-        if (mayModifyInput) {
+        if (mDeferringUpdates) {
+            for (T item : items) {
+                deferItem(item);
+            }
+        } else if (mayModifyInput) {
             addAllInternal(items);
         } else {
             addAllInternal(copyArray(items));
@@ -208,6 +245,8 @@ public class SortedList<T> {
      * and {@link ListUpdateCallback#onRemoved(int, int)} events.  See {@link DiffUtil} if you want
      * your implementation to dispatch move events.
      * <p>
+     * Any update deferred by {@link #beginDeferredUpdates()} is discarded.
+     * <p>
      * @param items Array of items to replace current items.
      * @param mayModifyInput If true, SortedList is allowed to modify and permanently reference the
      *                       input array.
@@ -215,6 +254,8 @@ public class SortedList<T> {
      */
     public void replaceAll(@NonNull T[] items, boolean mayModifyInput) {
         throwIfInMutationOperation();
+        // the pending updates would be replaced anyway
+        discardDeferredUpdates();
 
         if (mayModifyInput) {
             replaceAllInternal(items);
@@ -471,6 +512,122 @@ public class SortedList<T> {
         }
     }
 
+    /**
+     * Merges the deferred updates into the list. This method assumes that newItems are sorted and
+     * deduplicated.
+     * <p>
+     * Works like {@link #merge(Object[], int)}, except that the items of the old data that are
+     * removed or updated are dropped on the way. An updated item whose new version lands where it
+     * was is changed in place, otherwise it is removed and its new version is inserted.
+     */
+    private void mergeDeferred(T[] newData, int newDataSize, byte[] states) {
+        final boolean forceBatchedUpdates = !(mCallback instanceof BatchedCallback);
+        if (forceBatchedUpdates) {
+            beginBatchedUpdates();
+        }
+
+        mOldData = mData;
+        mOldDataStart = 0;
+        mOldDataSize = mSize;
+
+        final int mergedCapacity = mSize + newDataSize + CAPACITY_GROWTH;
+        mData = (T[]) Array.newInstance(mTClass, mergedCapacity);
+        mNewDataStart = 0;
+
+        int newDataStart = 0;
+        // the next old item that is kept, only moves forward so that finding it stays linear.
+        int nextKept = 0;
+        while (mOldDataStart < mOldDataSize || newDataStart < newDataSize) {
+            if (mOldDataStart == mOldDataSize) {
+                // No more old items, copy the remaining new items.
+                int itemCount = newDataSize - newDataStart;
+                System.arraycopy(newData, newDataStart, mData, mNewDataStart, itemCount);
+                mNewDataStart += itemCount;
+                mSize += itemCount;
+                mCallback.onInserted(mNewDataStart - itemCount, itemCount);
+                break;
+            }
+
+            T oldItem = mOldData[mOldDataStart];
+            final byte state = states[mOldDataStart];
+            if (state != DEFERRED_KEPT) {
+                // The old item may have been modified in place, so it is never compared. Its new
+                // version can take its place if it is the next new item and sorts before the next
+                // kept old item.
+                if (newDataStart < newDataSize
+                        && mCallback.areItemsTheSame(oldItem, newData[newDataStart])) {
+                    T newItem = newData[newDataStart];
+                    nextKept = Math.max(nextKept, mOldDataStart + 1);
+                    while (nextKept < mOldDataSize && states[nextKept] != DEFERRED_KEPT) {
+                        nextKept++;
+                    }
+                    if (nextKept == mOldDataSize
+                            || mCallback.compare(mOldData[nextKept], newItem) > 0) {
+                        mData[mNewDataStart++] = newItem;
+                        newDataStart++;
+                        mOldDataStart++;
+                        final boolean changed;
+                        if (state == DEFERRED_UPDATED) {
+                            // assume changed if the same object is given back
+                            changed = oldItem == newItem
+                                    || !mCallback.areContentsTheSame(oldItem, newItem);
+                        } else if (state == DEFERRED_REMOVED) {
+                            // removed and added back
+                            changed = !mCallback.areContentsTheSame(oldItem, newItem);
+                        } else {
+                            changed = false;
+                        }
+                        if (changed) {
+                            mCallback.onChanged(mNewDataStart - 1, 1,
+                                    mCallback.getChangePayload(oldItem, newItem));
+                        }
+                        continue;
+                    }
+                }
+                mSize--;
+                mOldDataStart++;
+                mCallback.onRemoved(mNewDataStart, 1);
+                continue;
+            }
+
+            if (newDataStart == newDataSize) {
+                // No more new items, keep the old item.
+                mData[mNewDataStart++] = oldItem;
+                mOldDataStart++;
+                continue;
+            }
+
+            T newItem = newData[newDataStart];
+            int compare = mCallback.compare(oldItem, newItem);
+            if (compare > 0) {
+                // New item is lower, output it.
+                mData[mNewDataStart++] = newItem;
+                mSize++;
+                newDataStart++;
+                mCallback.onInserted(mNewDataStart - 1, 1);
+            } else if (compare == 0 && mCallback.areItemsTheSame(oldItem, newItem)) {
+                // Items are the same. Output the new item, but consume both.
+                mData[mNewDataStart++] = newItem;
+                newDataStart++;
+                mOldDataStart++;
+                if (!mCallback.areContentsTheSame(oldItem, newItem)) {
+                    mCallback.onChanged(mNewDataStart - 1, 1,
+                            mCallback.getChangePayload(oldItem, newItem));
+                }
+            } else {
+                // Old item is lower than or equal to (but not the same as the new). Output it.
+                mData[mNewDataStart++] = oldItem;
+                mOldDataStart++;
+            }
+        }
+
+        mOldData = null;
+
+        if (forceBatchedUpdates) {
+            endBatchedUpdates();
+        }
+    }
+
     /**
      * Throws an exception if called while we are in the middle of a mutation operation (addAll or
      * replaceAll).
@@ -538,6 +695,145 @@ public class SortedList<T> {
         }
     }
 
+    /**
+     * Defers the updates that happen after calling this method and before calling
+     * {@link #endDeferredUpdates()}, so that they are applied to the list together.
+     * <p>
+     * Each {@link #add(Object)}, {@link #updateItemAt(int, Object)} or
+     * {@link #recalculatePositionOfItemAt(int)} call on a large list shifts the backing array,
+     * which gets expensive when many small updates arrive at once. While updates are deferred,
+     * these calls only record the change. {@link #endDeferredUpdates()} then sorts the recorded
+     * items and merges them into the list in a single pass, dispatching the resulting events
+     * through a {@link BatchedCallback}.
+     * <p>
+     * While updates are deferred:
+     * <ul>
+     *     <li>{@link #size()}, {@link #get(int)} and {@link #indexOf(Object)} reflect the list as
+     *     it was when this method was called, and indices passed to
+     *     {@link #updateItemAt(int, Object)}, {@link #recalculatePositionOfItemAt(int)} and
+     *     {@link #removeItemAt(int)} refer to it as well.</li>
+     *     <li>{@link #add(Object)} returns {@link #INVALID_POSITION} since the position of the item
+     *     is not known until the updates are applied.</li>
+     *     <li>{@link #remove(Object)} only finds items that were in the list when this method was
+     *     called.</li>
+     *     <li>{@link #clear()} and {@link #replaceAll(Object[])} discard the deferred updates and
+     *     are applied right away.</li>
+     * </ul>
+     * Items that change position are dispatched as a removal followed by an insertion, like
+     * {@link #replaceAll(Object[])} does, instead of {@link Callback#onMoved(int, int)}.
+     * <p>
+     * A sample implementation may look like this:
+     * <pre>
+     *     mSortedList.beginDeferredUpdates();
+     *     try {
+     *         for (Row row : changedRows) {
+     *             mSortedList.updateItemAt(mSortedList.indexOf(row), row)
+     *         }
+     *         mSortedList.addAll(newRows)
+     *     } finally {
+     *         mSortedList.endDeferredUpdates();
+     *     }
+     * </pre>
+     * <p>
+     * If updates are already deferred, calling this method has no effect.
+     */
+    public void beginDeferredUpdates() {
+        throwIfInMutationOperation();
+        mDeferringUpdates = true;
+    }
+
+    /**
+     * Applies the updates deferred since {@link #beginDeferredUpdates()} and dispatches the
+     * resulting events to the callback.
+     */
+    public void endDeferredUpdates() {
+        throwIfInMutationOperation();
+        if (!mDeferringUpdates) {
+            return;
+        }
+        mDeferringUpdates = false;
+
+        int newSize = 0;
+        for (int i = 0; i < mDeferredItemCount; i++) {
+            if (mDeferredItems[i] != null) {
+                newSize++;
+            }
+        }
+        final T[] newData = (T[]) Array.newInstance(mTClass, newSize);
+        for (int i = 0, j = 0; i < mDeferredItemCount; i++) {
+            if (mDeferredItems[i] != null) {
+                newData[j++] = mDeferredItems[i];
+            }
+        }
+        final byte[] states = mDeferredStates;
+        discardDeferredUpdates();
+
+        if (states == null) {
+            // only additions, nothing to remove from the current data.
+            addAllInternal(newData);
+        } else {
+            mergeDeferred(newData, sortAndDedup(newData), states);
+        }
+    }
+
+    private void discardDeferredUpdates() {
+        mDeferredItems = null;
+        mDeferredItemCount = 0;
+        mDeferredStates = null;
+        mDeferredItemIndices = null;
+    }
+
+    private int deferItem(T item) {
+        if (mDeferredItems == null) {
+            mDeferredItems = (T[]) Array.newInstance(mTClass, MIN_CAPACITY);
+        } else if (mDeferredItemCount == mDeferredItems.length) {
+            T[] newItems = (T[]) Array.newInstance(mTClass, mDeferredItemCount * 2);
+            System.arraycopy(mDeferredItems, 0, newItems, 0, mDeferredItemCount);
+            mDeferredItems = newItems;
+        }
+        mDeferredItems[mDeferredItemCount] = item;
+        return mDeferredItemCount++;
+    }
+
+    private byte getDeferredState(int index) {
+        return mDeferredStates == null ? DEFERRED_KEPT : mDeferredStates[index];
+    }
+
+    private void setDeferredState(int index, byte state) {
+        if (mDeferredStates == null) {
+            mDeferredStates = new byte[mSize];
+            mDeferredItemIndices = new int[mSize];
+        }
+        mDeferredStates[index] = state;
+    }
+
+    private void deferRemoval(int index) {
+        final byte state = getDeferredState(index);
+        if (state == DEFERRED_UPDATED || state == DEFERRED_RECALCULATED) {
+            // drop the new version of the item as well
+            mDeferredItems[mDeferredItemIndices[index]] = null;
+        }
+        setDeferredState(index, DEFERRED_REMOVED);
+    }
+
+    private void deferUpdate(int index, T item, byte state) {
+        final byte previousState = getDeferredState(index);
+        if (previousState == DEFERRED_REMOVED) {
+            throw new IllegalStateException("Cannot update the item at " + index
+                    + " because it has been removed in the deferred updates.");
+        }
+        // an item that has been updated before still needs its change event
+        setDeferredState(index,
+                previousState == DEFERRED_UPDATED ? DEFERRED_UPDATED : state);
+        if (previousState == DEFERRED_KEPT) {
+            mDeferredItemIndices[index] = deferItem(item);
+        } else if (state != DEFERRED_RECALCULATED) {
+            // a recalculation passes the item from get(), which is still the old version, so it
+            // keeps the pending one
+            mDeferredItems[mDeferredItemIndices[index]] = item;
+        }
+    }
+
     private int add(T item, boolean notify) {
         int index = findIndexOf(item, mData, 0, mSize, INSERTION);
         if (index == INVALID_POSITION) {
@@ -572,6 +868,14 @@ public class SortedList<T> {
      */
     public boolean remove(T item) {
         throwIfInMutationOperation();
+        if (mDeferringUpdates) {
+            final int index = findIndexOf(item, mData, 0, mSize, DELETION);
+            if (index == INVALID_POSITION || getDeferredState(index) == DEFERRED_REMOVED) {
+                return false;
+            }
+            deferRemoval(index);
+            return true;
+        }
         return remove(item, true);
     }
 
@@ -585,6 +889,10 @@ public class SortedList<T> {
     public T removeItemAt(int index) {
         throwIfInMutationOperation();
         T item = get(index);
+        if (mDeferringUpdates) {
+            deferRemoval(index);
+            return item;
+        }
         removeItemAtIndex(index, true);
         return item;
     }
@@ -630,6 +938,10 @@ public class SortedList<T> {
     public void updateItemAt(int index, T item) {
         throwIfInMutationOperation();
         final T existing = get(index);
+        if (mDeferringUpdates) {
+            deferUpdate(index, item, DEFERRED_UPDATED);
+            return;
+        }
         // assume changed if the same object is given back
         boolean contentsChanged = existing == item || !mCallback.areContentsTheSame(existing, item);
         if (existing != item) {
@@ -685,6 +997,10 @@ public class SortedList<T> {
         throwIfInMutationOperation();
         // TODO can be improved
         final T item = get(index);
+        if (mDeferringUpdates) {
+            deferUpdate(index, item, DEFERRED_RECALCULATED);
+            return;
+        }
         removeItemAtIndex(index, false);
         int newIndex = add(item, false);
         if (index != newIndex) {
@@ -816,10 +1132,12 @@ public class SortedList<T> {
     }
 
     /**
-     * Removes all items from the SortedList.
+     * Removes all items from the SortedList. Discards any update deferred by
+     * {@link #beginDeferredUpdates()}.
      */
     public void clear() {
         throwIfInMutationOperation();
+        discardDeferredUpdates();
         if (mSize == 0) {
             return;
         }
@@ -37,6 +37,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 @RunWith(JUnit4.class)
 @SmallTest
@@ -45,6 +46,14 @@ public class DiffUtilTest {
     private List<Item> mBefore = new ArrayList<>();
     private List<Item> mAfter = new ArrayList<>();
     private StringBuilder mLog = new StringBuilder();
+    private boolean mStableIds;
+
+    private static final Executor NEW_THREAD_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            new Thread(command).start();
+        }
+    };
 
     private DiffUtil.Callback mCallback = new DiffUtil.Callback() {
         @Override
@@ -78,6 +87,16 @@ public class DiffUtilTest {
                     not(CoreMatchers.equalTo(mAfter.get(newItemIndex).data)));
             return mAfter.get(newItemIndex).payload;
         }
+
+        @Override
+        public long getOldItemId(int oldItemPosition) {
+            return mStableIds ? mBefore.get(oldItemPosition).id : RecyclerView.NO_ID;
+        }
+
+        @Override
+        public long getNewItemId(int newItemPosition) {
+            return mStableIds ? mAfter.get(newItemPosition).id : RecyclerView.NO_ID;
+        }
     };
 
     @Rule
@@ -266,6 +285,20 @@ public class DiffUtilTest {
         check();
     }
 
+    @Test
+    public void testLargeListWithMoves() {
+        initWithSize(2000);
+        for (int i = 0; i < 300; i++) {
+            move(sRand.nextInt(mAfter.size()), sRand.nextInt(mAfter.size()));
+        }
+        for (int i = 0; i < 100; i++) {
+            add(sRand.nextInt(mAfter.size() + 1));
+            delete(sRand.nextInt(mAfter.size()));
+            update(sRand.nextInt(mAfter.size()));
+        }
+        check();
+    }
+
     @Test
     public void testDisableMoveDetection() {
         initWithSize(5);
@@ -321,6 +354,16 @@ public class DiffUtilTest {
 
         List<Item> applied = applyUpdates(mBefore, result);
         assertEquals(applied, mAfter);
+
+        // looking up moves by stable id or solving ranges in parallel must give the same result
+        mStableIds = true;
+        try {
+            assertEquals(applyUpdates(mBefore, DiffUtil.calculateDiff(mCallback)), mAfter);
+        } finally {
+            mStableIds = false;
+        }
+        assertEquals(applyUpdates(mBefore,
+                DiffUtil.calculateDiff(mCallback, true, NEW_THREAD_EXECUTOR, 4)), mAfter);
     }
 
     private void initWithSize(int size) {
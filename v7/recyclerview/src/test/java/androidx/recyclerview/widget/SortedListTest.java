@@ -1498,6 +1498,210 @@ public class SortedListTest {
         assertTrue(mCallbackRunnables.isEmpty());
     }
 
+    @Test
+    public void deferredUpdates_appliedWhenEnded() {
+        mList.addAll(createItemsFromInts(1, 2, 3, 4, 5));
+        mEvents.clear();
+
+        mList.beginDeferredUpdates();
+        assertEquals(SortedList.INVALID_POSITION, mList.add(new Item(6)));
+        assertEquals(SortedList.INVALID_POSITION, mList.add(new Item(0)));
+        mList.updateItemAt(2, new Item(3, 3, 30));
+        assertTrue(mList.remove(new Item(4)));
+        assertFalse(mList.remove(new Item(6)));
+        // nothing changes until the updates end
+        assertEquals(5, mList.size());
+        assertEquals(new Item(3), mList.get(2));
+        assertEquals(0, mEvents.size());
+        mList.endDeferredUpdates();
+
+        Item[] expected = new Item[]{
+                new Item(0),
+                new Item(1),
+                new Item(2),
+                new Item(3, 3, 30),
+                new Item(5),
+                new Item(6)
+        };
+        assertTrue(sortedListEquals(mList, expected));
+        assertEquals(new Event(TYPE.ADD, 0, 1), mEvents.get(0));
+        assertEquals(new Event(TYPE.CHANGE, 3, 1), mEvents.get(1));
+        assertEquals(new Event(TYPE.REMOVE, 4, 1), mEvents.get(2));
+        assertEquals(new Event(TYPE.ADD, 5, 1), mEvents.get(3));
+        assertEquals(4, mEvents.size());
+    }
+
+    @Test
+    public void deferredUpdates_movedItemIsRemovedAndInserted() {
+        mList.addAll(createItemsFromInts(1, 2, 3, 4));
+        mEvents.clear();
+
+        mList.beginDeferredUpdates();
+        mList.updateItemAt(0, new Item(1, 5, 1));
+        mList.endDeferredUpdates();
+
+        Item[] expected = new Item[]{
+                new Item(2),
+                new Item(3),
+                new Item(4),
+                new Item(1, 5, 1)
+        };
+        assertTrue(sortedListEquals(mList, expected));
+        assertEquals(new Event(TYPE.REMOVE, 0, 1), mEvents.get(0));
+        assertEquals(new Event(TYPE.ADD, 3, 1), mEvents.get(1));
+        assertEquals(2, mEvents.size());
+    }
+
+    @Test
+    public void deferredUpdates_recalculatePosition() {
+        Item[] items = createItemsFromInts(1, 3, 5);
+        mList.addAll(items);
+        mEvents.clear();
+
+        mList.beginDeferredUpdates();
+        items[1].cmpField = 4;
+        mList.recalculatePositionOfItemAt(1);
+        items[2].cmpField = 0;
+        mList.recalculatePositionOfItemAt(2);
+        mList.endDeferredUpdates();
+
+        assertSame(items[2], mList.get(0));
+        assertSame(items[0], mList.get(1));
+        assertSame(items[1], mList.get(2));
+        // the item that stays in place is neither moved nor changed
+        assertEquals(new Event(TYPE.ADD, 0, 1), mEvents.get(0));
+        assertEquals(new Event(TYPE.REMOVE, 3, 1), mEvents.get(1));
+        assertEquals(2, mEvents.size());
+    }
+
+    @Test
+    public void deferredUpdates_updateThenRecalculate() {
+        mList.addAll(createItemsFromInts(1, 3, 5));
+        mEvents.clear();
+
+        mList.beginDeferredUpdates();
+        Item updated = new Item(3, 6, 30);
+        mList.updateItemAt(1, updated);
+        // get() still returns the old version, which must not replace the pending update
+        mList.recalculatePositionOfItemAt(1);
+        mList.endDeferredUpdates();
+
+        assertSame(updated, mList.get(2));
+        Item[] expected = new Item[]{
+                new Item(1),
+                new Item(5),
+                new Item(3, 6, 30)
+        };
+        assertTrue(sortedListEquals(mList, expected));
+        assertEquals(new Event(TYPE.REMOVE, 1, 1), mEvents.get(0));
+        assertEquals(new Event(TYPE.ADD, 2, 1), mEvents.get(1));
+        assertEquals(2, mEvents.size());
+    }
+
+    @Test
+    public void deferredUpdates_updateInPlaceThenRecalculate() {
+        mList.addAll(createItemsFromInts(1, 3, 5));
+        mEvents.clear();
+
+        mList.beginDeferredUpdates();
+        Item updated = new Item(3, 3, 30);
+        mList.updateItemAt(1, updated);
+        mList.recalculatePositionOfItemAt(1);
+        mList.endDeferredUpdates();
+
+        assertSame(updated, mList.get(1));
+        assertEquals(new Event(TYPE.CHANGE, 1, 1), mEvents.get(0));
+        assertEquals(1, mEvents.size());
+    }
+
+    @Test
+    public void deferredUpdates_clearDiscardsUpdates() {
+        mList.addAll(createItemsFromInts(1, 2));
+
+        mList.beginDeferredUpdates();
+        mList.add(new Item(3));
+        mList.removeItemAt(0);
+        mList.clear();
+        mList.endDeferredUpdates();
+
+        assertEquals(0, mList.size());
+    }
+
+    @Test
+    public void deferredUpdates_random() {
+        Random random = new Random(System.nanoTime());
+        List<Integer> cmpFields = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            cmpFields.add(i);
+        }
+        Collections.shuffle(cmpFields, random);
+        int next = 0;
+        for (int i = 0; i < 500; i++) {
+            int cmpField = cmpFields.get(next++);
+            mList.add(new Item(cmpField, cmpField, 0));
+        }
+        List<Item> shadow = new ArrayList<>();
+        for (int i = 0; i < mList.size(); i++) {
+            shadow.add(mList.get(i));
+        }
+        List<Item> expected = new ArrayList<>(shadow);
+        mEvents.clear();
+
+        mList.beginDeferredUpdates();
+        for (int i = 0; i < 200; i++) {
+            int cmpField = cmpFields.get(next++);
+            int index = random.nextInt(shadow.size());
+            Item existing = shadow.get(index);
+            if (!expected.contains(existing)) {
+                // already removed or updated
+                continue;
+            }
+            switch (random.nextInt(3)) {
+                case 0:
+                    Item item = new Item(cmpField, cmpField, 0);
+                    mList.add(item);
+                    expected.add(item);
+                    break;
+                case 1:
+                    Item updated = new Item(existing.id, cmpField, random.nextInt(2));
+                    mList.updateItemAt(index, updated);
+                    expected.set(expected.indexOf(existing), updated);
+                    break;
+                case 2:
+                    mList.removeItemAt(index);
+                    expected.remove(existing);
+                    break;
+            }
+        }
+        mList.endDeferredUpdates();
+
+        Collections.sort(expected, sItemComparator);
+        assertTrue(sortedListEquals(mList, expected.toArray(new Item[0])));
+        // replaying the events on the old items must end up with the new list
+        for (Event event : mEvents) {
+            for (int i = 0; i < event.mVal2; i++) {
+                switch (event.mType) {
+                    case ADD:
+                        shadow.add(event.mVal1 + i, mList.get(event.mVal1 + i));
+                        break;
+                    case REMOVE:
+                        shadow.remove(event.mVal1);
+                        break;
+                    case CHANGE:
+                        shadow.set(event.mVal1 + i, mList.get(event.mVal1 + i));
+                        break;
+                    default:
+                        fail("unexpected event " + event);
+                }
+            }
+        }
+        assertEquals(mList.size(), shadow.size());
+        for (int i = 0; i < shadow.size(); i++) {
+            assertEquals(mList.get(i).id, shadow.get(i).id);
+            assertEquals(mList.get(i).data, shadow.get(i).data);
+        }
+    }
+
     private int size() {
         return mList.size();
     }
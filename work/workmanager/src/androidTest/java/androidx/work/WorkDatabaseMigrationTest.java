@@ -19,10 +19,12 @@ package androidx.work;
 import static android.database.sqlite.SQLiteDatabase.CONFLICT_FAIL;
 
 import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_3_4;
+import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_4_5;
 import static androidx.work.impl.WorkDatabaseMigrations.VERSION_1;
 import static androidx.work.impl.WorkDatabaseMigrations.VERSION_2;
 import static androidx.work.impl.WorkDatabaseMigrations.VERSION_3;
 import static androidx.work.impl.WorkDatabaseMigrations.VERSION_4;
+import static androidx.work.impl.WorkDatabaseMigrations.VERSION_5;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -234,6 +236,32 @@ public class WorkDatabaseMigrationTest {
         database.close();
     }
 
+    @Test
+    @MediumTest
+    public void testMigrationVersion4To5() throws IOException {
+        SupportSQLiteDatabase database =
+                mMigrationTestHelper.createDatabase(TEST_DATABASE, VERSION_4);
+
+        String workSpecId = UUID.randomUUID().toString();
+        database.insert("workspec", CONFLICT_FAIL, contentValues(workSpecId));
+
+        database = mMigrationTestHelper.runMigrationsAndValidate(
+                TEST_DATABASE,
+                VERSION_5,
+                VALIDATE_DROPPED_TABLES,
+                MIGRATION_4_5);
+
+        Cursor cursor = database.query(
+                "SELECT name FROM sqlite_master WHERE type='index' AND name=?",
+                new Object[]{"index_WorkSpec_state"});
+        assertThat(cursor.getCount(), is(1));
+        cursor.close();
+        cursor = database.query("SELECT * from workspec");
+        assertThat(cursor.getCount(), is(1));
+        cursor.close();
+        database.close();
+    }
+
     @NonNull
     private ContentValues contentValues(String workSpecId) {
         ContentValues contentValues = new ContentValues();
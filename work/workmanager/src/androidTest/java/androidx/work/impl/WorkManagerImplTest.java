@@ -85,6 +85,7 @@ import androidx.work.impl.model.WorkTag;
 import androidx.work.impl.model.WorkTagDao;
 import androidx.work.impl.utils.CancelWorkRunnable;
 import androidx.work.impl.utils.Preferences;
+import androidx.work.impl.utils.PruneWorkRunnable;
 import androidx.work.impl.utils.taskexecutor.InstantTaskExecutorRule;
 import androidx.work.impl.workers.ConstraintTrackingWorker;
 import androidx.work.worker.InfiniteTestWorker;
@@ -97,6 +98,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -251,6 +253,26 @@ public class WorkManagerImplTest {
         assertThat(prerequisites, containsInAnyOrder(work2.getStringId()));
     }
 
+    @Test
+    @MediumTest
+    public void testEnqueue_insertWithManyPrerequisites() {
+        // more prerequisites than SQLite accepts arguments in a single query
+        List<OneTimeWorkRequest> prerequisites = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            prerequisites.add(new OneTimeWorkRequest.Builder(TestWorker.class)
+                    .setInitialState(SUCCEEDED)
+                    .build());
+        }
+        OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(TestWorker.class).build();
+
+        mWorkManagerImpl.beginWith(prerequisites).then(work).synchronous().enqueueSync();
+
+        WorkSpecDao workSpecDao = mDatabase.workSpecDao();
+        DependencyDao dependencyDao = mDatabase.dependencyDao();
+        assertThat(dependencyDao.getPrerequisites(work.getStringId()).size(), is(1000));
+        assertThat(workSpecDao.getState(work.getStringId()), isOneOf(ENQUEUED, RUNNING));
+    }
+
     @Test
     @SmallTest
     public void testEnqueue_insertWithCompletedDependencies_isNotStatusBlocked() {
@@ -1145,6 +1167,43 @@ public class WorkManagerImplTest {
         assertThat(workSpecDao.getState(work1.getStringId()), is(CANCELLED));
     }
 
+    @Test
+    @SmallTest
+    public void testCancelWorkById_cancelsTransitivelyDependentWork() {
+        WorkSpecDao workSpecDao = mDatabase.workSpecDao();
+
+        OneTimeWorkRequest work0 = new OneTimeWorkRequest.Builder(TestWorker.class).build();
+        OneTimeWorkRequest work1 = new OneTimeWorkRequest.Builder(TestWorker.class)
+                .setInitialState(BLOCKED)
+                .build();
+        OneTimeWorkRequest work2 = new OneTimeWorkRequest.Builder(TestWorker.class)
+                .setInitialState(BLOCKED)
+                .build();
+        OneTimeWorkRequest work3 = new OneTimeWorkRequest.Builder(TestWorker.class)
+                .setInitialState(BLOCKED)
+                .build();
+        OneTimeWorkRequest unrelatedWork =
+                new OneTimeWorkRequest.Builder(TestWorker.class).build();
+        insertWorkSpecAndTags(work0);
+        insertWorkSpecAndTags(work1);
+        insertWorkSpecAndTags(work2);
+        insertWorkSpecAndTags(work3);
+        insertWorkSpecAndTags(unrelatedWork);
+        insertDependency(work1, work0);
+        insertDependency(work2, work1);
+        // work3 is reachable through two paths
+        insertDependency(work3, work0);
+        insertDependency(work3, work2);
+
+        mWorkManagerImpl.synchronous().cancelWorkByIdSync(work0.getId());
+
+        assertThat(workSpecDao.getState(work0.getStringId()), is(CANCELLED));
+        assertThat(workSpecDao.getState(work1.getStringId()), is(CANCELLED));
+        assertThat(workSpecDao.getState(work2.getStringId()), is(CANCELLED));
+        assertThat(workSpecDao.getState(work3.getStringId()), is(CANCELLED));
+        assertThat(workSpecDao.getState(unrelatedWork.getStringId()), is(not(CANCELLED)));
+    }
+
     @Test
     @SmallTest
     public void testCancelWorkById_cancelsUnfinishedWorkOnly() {
@@ -1376,6 +1435,26 @@ public class WorkManagerImplTest {
                 is(nullValue()));
     }
 
+    @Test
+    @MediumTest
+    public void pruneFinishedWork_deletesInBatches() {
+        List<OneTimeWorkRequest> finishedWork = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(TestWorker.class)
+                    .setInitialState(SUCCEEDED)
+                    .build();
+            insertWorkSpecAndTags(work);
+            finishedWork.add(work);
+        }
+
+        mWorkManagerImpl.synchronous().pruneWorkSync();
+
+        WorkSpecDao workSpecDao = mDatabase.workSpecDao();
+        for (OneTimeWorkRequest work : finishedWork) {
+            assertThat(workSpecDao.getWorkSpec(work.getStringId()), is(nullValue()));
+        }
+    }
+
     @Test
     @SmallTest
     public void testSynchronousCancelAndGetStatus() {
@@ -1411,10 +1490,10 @@ public class WorkManagerImplTest {
 
     @Test
     @SmallTest
-    public void testGenerateCleanupCallback_deletesOldFinishedWork() {
+    public void testPruneExpiredWork_deletesOldFinishedWork() {
         OneTimeWorkRequest work1 = new OneTimeWorkRequest.Builder(TestWorker.class)
                 .setInitialState(SUCCEEDED)
-                .setPeriodStartTime(WorkDatabase.getPruneDate() - 1L, TimeUnit.MILLISECONDS)
+                .setPeriodStartTime(getPruneDate() - 1L, TimeUnit.MILLISECONDS)
                 .build();
         OneTimeWorkRequest work2 = new OneTimeWorkRequest.Builder(TestWorker.class)
                 .setPeriodStartTime(Long.MAX_VALUE, TimeUnit.MILLISECONDS)
@@ -1423,9 +1502,7 @@ public class WorkManagerImplTest {
         insertWorkSpecAndTags(work1);
         insertWorkSpecAndTags(work2);
 
-        SupportSQLiteOpenHelper openHelper = mDatabase.getOpenHelper();
-        SupportSQLiteDatabase db = openHelper.getWritableDatabase();
-        WorkDatabase.generateCleanupCallback().onOpen(db);
+        PruneWorkRunnable.forExpiredWork(mWorkManagerImpl).run();
 
         WorkSpecDao workSpecDao = mDatabase.workSpecDao();
         assertThat(workSpecDao.getWorkSpec(work1.getStringId()), is(nullValue()));
@@ -1434,18 +1511,18 @@ public class WorkManagerImplTest {
 
     @Test
     @SmallTest
-    public void testGenerateCleanupCallback_doesNotDeleteOldFinishedWorkWithActiveDependents() {
+    public void testPruneExpiredWork_doesNotDeleteOldFinishedWorkWithActiveDependents() {
         OneTimeWorkRequest work0 = new OneTimeWorkRequest.Builder(TestWorker.class)
                 .setInitialState(SUCCEEDED)
-                .setPeriodStartTime(WorkDatabase.getPruneDate() - 1L, TimeUnit.MILLISECONDS)
+                .setPeriodStartTime(getPruneDate() - 1L, TimeUnit.MILLISECONDS)
                 .build();
         OneTimeWorkRequest work1 = new OneTimeWorkRequest.Builder(TestWorker.class)
                 .setInitialState(SUCCEEDED)
-                .setPeriodStartTime(WorkDatabase.getPruneDate() - 1L, TimeUnit.MILLISECONDS)
+                .setPeriodStartTime(getPruneDate() - 1L, TimeUnit.MILLISECONDS)
                 .build();
         OneTimeWorkRequest work2 = new OneTimeWorkRequest.Builder(TestWorker.class)
                 .setInitialState(ENQUEUED)
-                .setPeriodStartTime(WorkDatabase.getPruneDate() - 1L, TimeUnit.MILLISECONDS)
+                .setPeriodStartTime(getPruneDate() - 1L, TimeUnit.MILLISECONDS)
                 .build();
 
         insertWorkSpecAndTags(work0);
@@ -1456,9 +1533,7 @@ public class WorkManagerImplTest {
         insertDependency(work1, work0);
         insertDependency(work2, work1);
 
-        SupportSQLiteOpenHelper openHelper = mDatabase.getOpenHelper();
-        SupportSQLiteDatabase db = openHelper.getWritableDatabase();
-        WorkDatabase.generateCleanupCallback().onOpen(db);
+        PruneWorkRunnable.forExpiredWork(mWorkManagerImpl).run();
 
         WorkSpecDao workSpecDao = mDatabase.workSpecDao();
         assertThat(workSpecDao.getWorkSpec(work0.getStringId()), is(nullValue()));
@@ -1562,6 +1637,11 @@ public class WorkManagerImplTest {
         assertThat(workSpec.workerClassName, is(TestWorker.class.getName()));
     }
 
+    private long getPruneDate() {
+        return System.currentTimeMillis()
+                - mWorkManagerImpl.getConfiguration().getFinishedWorkRetentionMillis();
+    }
+
     private void insertWorkSpecAndTags(WorkRequest work) {
         mDatabase.workSpecDao().insertWorkSpec(work.getWorkSpec());
         for (String tag : work.getTags()) {
@@ -26,6 +26,7 @@ import static androidx.work.State.SUCCEEDED;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.contains;
@@ -34,12 +35,14 @@ import static org.hamcrest.Matchers.greaterThan;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import android.content.Context;
 import android.net.Uri;
 import android.os.Build;
+import android.support.annotation.NonNull;
 import android.support.test.InstrumentationRegistry;
 import android.support.test.filters.LargeTest;
 import android.support.test.filters.SmallTest;
@@ -52,17 +55,20 @@ import androidx.work.DatabaseTest;
 import androidx.work.OneTimeWorkRequest;
 import androidx.work.PeriodicWorkRequest;
 import androidx.work.Worker;
+import androidx.work.WorkerFactory;
 import androidx.work.impl.model.Dependency;
 import androidx.work.impl.model.DependencyDao;
 import androidx.work.impl.model.WorkSpec;
 import androidx.work.impl.model.WorkSpecDao;
 import androidx.work.impl.utils.taskexecutor.InstantTaskExecutorRule;
+import androidx.work.worker.AsyncTestWorker;
 import androidx.work.worker.ChainedArgumentWorker;
 import androidx.work.worker.EchoingWorker;
 import androidx.work.worker.ExceptionWorker;
 import androidx.work.worker.FailureWorker;
 import androidx.work.worker.InfiniteTestWorker;
 import androidx.work.worker.InterruptionAwareWorker;
+import androidx.work.worker.NeverEndingAsyncWorker;
 import androidx.work.worker.RetryWorker;
 import androidx.work.worker.SleepTestWorker;
 import androidx.work.worker.TestWorker;
@@ -76,8 +82,10 @@ import org.mockito.ArgumentCaptor;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(AndroidJUnit4.class)
 public class WorkerWrapperTest extends DatabaseTest {
@@ -114,6 +122,37 @@ public class WorkerWrapperTest extends DatabaseTest {
         assertThat(mWorkSpecDao.getState(work.getStringId()), is(SUCCEEDED));
     }
 
+    @Test
+    @SmallTest
+    public void testAsyncWorker_success() {
+        OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(AsyncTestWorker.class).build();
+        insertWork(work);
+        new WorkerWrapper.Builder(mContext, mConfiguration, mDatabase, work.getStringId())
+                .withListener(mMockListener)
+                .build()
+                .run();
+        verify(mMockListener, timeout(5000L)).onExecuted(work.getStringId(), true, false);
+        assertThat(mWorkSpecDao.getState(work.getStringId()), is(SUCCEEDED));
+    }
+
+    @Test
+    @SmallTest
+    public void testAsyncWorker_doesNotBlockAndIsInterrupted() {
+        OneTimeWorkRequest work =
+                new OneTimeWorkRequest.Builder(NeverEndingAsyncWorker.class).build();
+        insertWork(work);
+        WorkerWrapper workerWrapper =
+                new WorkerWrapper.Builder(mContext, mConfiguration, mDatabase, work.getStringId())
+                        .withListener(mMockListener)
+                        .build();
+        // returns while the work is still in flight
+        workerWrapper.run();
+        assertThat(mWorkSpecDao.getState(work.getStringId()), is(RUNNING));
+
+        workerWrapper.interrupt(false);
+        verify(mMockListener, timeout(5000L)).onExecuted(work.getStringId(), false, true);
+    }
+
     @Test
     @SmallTest
     public void testRunAttemptCountIncremented_successfulExecution() {
@@ -684,6 +723,67 @@ public class WorkerWrapperTest extends DatabaseTest {
                 arrayContaining(runtimeExtras.triggeredContentUris));
     }
 
+    @Test
+    @SmallTest
+    public void testFromClassName_unknownClass_returnsNull() {
+        Worker worker = WorkerWrapper.workerFromClassName(
+                mContext,
+                "androidx.work.worker.DoesNotExistWorker",
+                UUID.randomUUID(),
+                new Extras(Data.EMPTY, Collections.<String>emptyList(), null, 1));
+
+        assertThat(worker, is(nullValue()));
+    }
+
+    @Test
+    @SmallTest
+    public void testWorkerFactory_createsWorker() {
+        final AtomicInteger createdWorkers = new AtomicInteger();
+        Configuration configuration = new Configuration.Builder()
+                .setWorkerFactory(new WorkerFactory() {
+                    @Override
+                    public Worker createWorker(
+                            @NonNull Context appContext,
+                            @NonNull String workerClassName) {
+                        createdWorkers.incrementAndGet();
+                        return new TestWorker();
+                    }
+                })
+                .build();
+        OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(TestWorker.class).build();
+        insertWork(work);
+        new WorkerWrapper.Builder(mContext, configuration, mDatabase, work.getStringId())
+                .withListener(mMockListener)
+                .build()
+                .run();
+        assertThat(createdWorkers.get(), is(1));
+        verify(mMockListener).onExecuted(work.getStringId(), true, false);
+        assertThat(mWorkSpecDao.getState(work.getStringId()), is(SUCCEEDED));
+    }
+
+    @Test
+    @SmallTest
+    public void testWorkerFactory_returnsNull_fallsBackToDefaultFactory() {
+        Configuration configuration = new Configuration.Builder()
+                .setWorkerFactory(new WorkerFactory() {
+                    @Override
+                    public Worker createWorker(
+                            @NonNull Context appContext,
+                            @NonNull String workerClassName) {
+                        return null;
+                    }
+                })
+                .build();
+        OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(TestWorker.class).build();
+        insertWork(work);
+        new WorkerWrapper.Builder(mContext, configuration, mDatabase, work.getStringId())
+                .withListener(mMockListener)
+                .build()
+                .run();
+        verify(mMockListener).onExecuted(work.getStringId(), true, false);
+        assertThat(mWorkSpecDao.getState(work.getStringId()), is(SUCCEEDED));
+    }
+
     @Test
     @SmallTest
     public void testSuccess_withPendingScheduledWork() {
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.util.Log;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Worker} that does not block a thread while it waits for its work to complete.  The
+ * {@link #startWork(ResultCallback)} method is called on a background thread and is expected to
+ * start the work and return right away, for example after issuing a network request.  The Worker
+ * reports its {@link Result} through the given {@link ResultCallback} once the work completes.
+ * <p>
+ * Use this class for work that mostly waits on I/O, so that a small
+ * {@link Configuration#getExecutor() Executor} can keep many Workers in flight.
+ */
+public abstract class AsyncWorker extends Worker {
+
+    private static final String TAG = "AsyncWorker";
+
+    /**
+     * Receives the {@link Result} of an {@link AsyncWorker}.
+     */
+    public interface ResultCallback {
+        /**
+         * Reports the result of the work.  This can be called from any thread; only the first call
+         * is taken into account.
+         *
+         * @param result The result of the work
+         */
+        void onResult(@NonNull Result result);
+    }
+
+    /**
+     * Override this method to start your background processing.  This method must not block; it
+     * is expected to start the work and to return.  {@link ResultCallback#onResult(Result)} has
+     * to be called once the work is done, including when it stopped because of
+     * {@link #onStopped(boolean)}.
+     * <p>
+     * Output {@link Data} has to be set with {@link #setOutputData(Data)} before reporting the
+     * result.
+     *
+     * @param callback The callback to report the result of the work to
+     */
+    @WorkerThread
+    public abstract void startWork(@NonNull ResultCallback callback);
+
+    /**
+     * Starts the work and blocks until it reports its result.
+     * <p>
+     * WorkManager does not call this method for an AsyncWorker; it allows an AsyncWorker to be
+     * run wherever a {@link Worker} is run synchronously.
+     *
+     * @return The result reported by {@link #startWork(ResultCallback)}
+     */
+    @WorkerThread
+    @Override
+    public final @NonNull Result doWork() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Result> result = new AtomicReference<>();
+        startWork(new ResultCallback() {
+            @Override
+            public void onResult(@NonNull Result workResult) {
+                if (result.compareAndSet(null, workResult)) {
+                    latch.countDown();
+                }
+            }
+        });
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Log.e(TAG, "Interrupted while waiting for the result of the work", e);
+            Thread.currentThread().interrupt();
+            return Result.RETRY;
+        }
+        return result.get();
+    }
+}
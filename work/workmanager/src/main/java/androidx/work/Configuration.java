@@ -26,6 +26,7 @@ import androidx.work.impl.utils.IdGenerator;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration for {@link WorkManager}.
@@ -38,10 +39,18 @@ public final class Configuration {
      */
     public static final int MIN_SCHEDULER_LIMIT = 20;
 
+    /**
+     * The default amount of time finished work is kept in the database after its
+     * {@link OneTimeWorkRequest.Builder#keepResultsForAtLeast(long, TimeUnit)} duration expires.
+     */
+    public static final long DEFAULT_FINISHED_WORK_RETENTION_MILLIS = TimeUnit.DAYS.toMillis(7);
+
     private final Executor mExecutor;
     private final int mMinJobSchedulerId;
     private final int mMaxJobSchedulerId;
     private final int mMaxSchedulerLimit;
+    private final long mFinishedWorkRetentionMillis;
+    private final WorkerFactory mWorkerFactory;
 
     private Configuration(@NonNull Configuration.Builder builder) {
         if (builder.mExecutor == null) {
@@ -52,6 +61,12 @@ public final class Configuration {
         mMinJobSchedulerId = builder.mMinJobSchedulerId;
         mMaxJobSchedulerId = builder.mMaxJobSchedulerId;
         mMaxSchedulerLimit = builder.mMaxSchedulerLimit;
+        mFinishedWorkRetentionMillis = builder.mFinishedWorkRetentionMillis;
+        if (builder.mWorkerFactory == null) {
+            mWorkerFactory = WorkerFactory.getDefaultWorkerFactory();
+        } else {
+            mWorkerFactory = builder.mWorkerFactory;
+        }
     }
 
     /**
@@ -61,6 +76,13 @@ public final class Configuration {
         return mExecutor;
     }
 
+    /**
+     * @return The {@link WorkerFactory} used by {@link WorkManager} to create {@link Worker}s.
+     */
+    public @NonNull WorkerFactory getWorkerFactory() {
+        return mWorkerFactory;
+    }
+
     /**
      * @return The first valid id (inclusive) used by {@link WorkManager} when
      * creating new instances of {@link android.app.job.JobInfo}s.
@@ -103,6 +125,15 @@ public final class Configuration {
         }
     }
 
+    /**
+     * @return The amount of time, in milliseconds, finished work is kept in the database after its
+     * {@link OneTimeWorkRequest.Builder#keepResultsForAtLeast(long, TimeUnit)} duration expires.
+     * Older finished work is pruned in the background.
+     */
+    public long getFinishedWorkRetentionMillis() {
+        return mFinishedWorkRetentionMillis;
+    }
+
     private @NonNull Executor createDefaultExecutor() {
         return Executors.newFixedThreadPool(
                 // This value is the same as the core pool size for AsyncTask#THREAD_POOL_EXECUTOR.
@@ -117,7 +148,9 @@ public final class Configuration {
         int mMinJobSchedulerId = IdGenerator.INITIAL_ID;
         int mMaxJobSchedulerId = Integer.MAX_VALUE;
         int mMaxSchedulerLimit = MIN_SCHEDULER_LIMIT;
+        long mFinishedWorkRetentionMillis = DEFAULT_FINISHED_WORK_RETENTION_MILLIS;
         Executor mExecutor;
+        WorkerFactory mWorkerFactory;
 
         /**
          * Specifies a custom {@link Executor} for WorkManager.
@@ -130,6 +163,18 @@ public final class Configuration {
             return this;
         }
 
+        /**
+         * Specifies a custom {@link WorkerFactory} for WorkManager.  When the factory returns
+         * {@code null}, the {@link Worker} is instantiated through its no-argument constructor.
+         *
+         * @param workerFactory A {@link WorkerFactory} for creating {@link Worker}s
+         * @return This {@link Builder} instance
+         */
+        public @NonNull Builder setWorkerFactory(@NonNull WorkerFactory workerFactory) {
+            mWorkerFactory = workerFactory;
+            return this;
+        }
+
         /**
          * Specifies the range of {@link android.app.job.JobInfo} IDs that can be used by
          * {@link WorkManager}. {@link WorkManager} needs a range of at least {@code 1000} IDs.
@@ -179,6 +224,28 @@ public final class Configuration {
             return this;
         }
 
+        /**
+         * Specifies how long finished work is kept in the database after its
+         * {@link OneTimeWorkRequest.Builder#keepResultsForAtLeast(long, TimeUnit)} duration
+         * expires.  Older finished work, along with its {@link WorkStatus}, is pruned in the
+         * background.  The default is {@link Configuration#DEFAULT_FINISHED_WORK_RETENTION_MILLIS}.
+         *
+         * @param duration The amount of time to keep finished work
+         * @param timeUnit The {@link TimeUnit} of {@code duration}
+         * @return This {@link Builder} instance
+         * @throws IllegalArgumentException when the duration is negative
+         */
+        public @NonNull Builder setFinishedWorkRetention(
+                long duration,
+                @NonNull TimeUnit timeUnit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException(
+                        "The finished work retention duration cannot be negative.");
+            }
+            mFinishedWorkRetentionMillis = timeUnit.toMillis(duration);
+            return this;
+        }
+
         /**
          * Specifies a custom {@link Executor} for WorkManager.
          *
@@ -22,12 +22,16 @@ import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -44,6 +48,28 @@ public final class Data {
     public static final int MAX_DATA_BYTES = 10 * 1024;    // 10KB
 
     private static final String TAG = "Data";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // The serialized form is MAGIC, VERSION, the number of entries, then for each entry the key,
+    // a TYPE_* tag and the value. Strings are written as their UTF-8 length and bytes.
+    private static final short MAGIC = (short) 0xDA7A;
+    private static final byte VERSION = 1;
+    // MAGIC, VERSION and the number of entries
+    private static final int HEADER_SIZE = 2 + 1 + 4;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_BOOLEAN = 1;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_FLOAT = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_STRING = 6;
+    private static final byte TYPE_BOOLEAN_ARRAY = 7;
+    private static final byte TYPE_INT_ARRAY = 8;
+    private static final byte TYPE_LONG_ARRAY = 9;
+    private static final byte TYPE_FLOAT_ARRAY = 10;
+    private static final byte TYPE_DOUBLE_ARRAY = 11;
+    private static final byte TYPE_STRING_ARRAY = 12;
 
     private Map<String, Object> mValues;
 
@@ -293,37 +319,29 @@ public final class Data {
      */
     @TypeConverter
     public static @NonNull byte[] toByteArray(@NonNull Data data) throws IllegalStateException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ObjectOutputStream objectOutputStream = null;
-        try {
-            objectOutputStream = new ObjectOutputStream(outputStream);
-            objectOutputStream.writeInt(data.size());
-            for (Map.Entry<String, Object> entry : data.mValues.entrySet()) {
-                objectOutputStream.writeUTF(entry.getKey());
-                objectOutputStream.writeObject(entry.getValue());
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (objectOutputStream != null) {
-                try {
-                    objectOutputStream.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-            try {
-                outputStream.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-
-        if (outputStream.size() > MAX_DATA_BYTES) {
+        // The size is computed first, so that the values are written straight into an array of the
+        // right size. The Strings are encoded once, in iteration order, for both passes.
+        List<byte[]> encodedStrings = new ArrayList<>();
+        int size = HEADER_SIZE;
+        for (Map.Entry<String, Object> entry : data.mValues.entrySet()) {
+            size += sizeOfString(entry.getKey(), encodedStrings);
+            size += sizeOf(entry.getValue(), encodedStrings);
+        }
+        if (size > MAX_DATA_BYTES) {
             throw new IllegalStateException(
                     "Data cannot occupy more than " + MAX_DATA_BYTES + "KB when serialized");
         }
-        return outputStream.toByteArray();
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putShort(MAGIC);
+        buffer.put(VERSION);
+        buffer.putInt(data.size());
+        Iterator<byte[]> strings = encodedStrings.iterator();
+        for (Map.Entry<String, Object> entry : data.mValues.entrySet()) {
+            writeString(buffer, strings.next());
+            writeValue(buffer, entry.getValue(), strings);
+        }
+        return buffer.array();
     }
 
     /**
@@ -340,6 +358,29 @@ public final class Data {
                     "Data cannot occupy more than " + MAX_DATA_BYTES + "KB when serialized");
         }
 
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        // Data written before the binary format was introduced starts with the Java serialization
+        // stream header, which can't be mistaken for MAGIC.
+        if (bytes.length < HEADER_SIZE || buffer.getShort() != MAGIC) {
+            return fromLegacyByteArray(bytes);
+        }
+
+        Map<String, Object> map = new HashMap<>();
+        try {
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported Data version " + version);
+            }
+            for (int i = buffer.getInt(); i > 0; i--) {
+                map.put(readString(buffer), readValue(buffer));
+            }
+        } catch (IOException | BufferUnderflowException e) {
+            e.printStackTrace();
+        }
+        return new Data(map);
+    }
+
+    private static Data fromLegacyByteArray(byte[] bytes) {
         Map<String, Object> map = new HashMap<>();
         ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
         ObjectInputStream objectInputStream = null;
@@ -367,6 +408,212 @@ public final class Data {
         return new Data(map);
     }
 
+    private static int sizeOfString(String value, List<byte[]> encodedStrings) {
+        byte[] encoded = value.getBytes(UTF_8);
+        encodedStrings.add(encoded);
+        return 2 + encoded.length;
+    }
+
+    /**
+     * Returns the number of bytes {@link #writeValue} needs for the given value, type included.
+     */
+    private static int sizeOf(Object value, List<byte[]> encodedStrings) {
+        if (value == null) {
+            return 1;
+        } else if (value instanceof Boolean) {
+            return 1 + 1;
+        } else if (value instanceof Integer || value instanceof Float) {
+            return 1 + 4;
+        } else if (value instanceof Long || value instanceof Double) {
+            return 1 + 8;
+        } else if (value instanceof String) {
+            return 1 + sizeOfString((String) value, encodedStrings);
+        } else if (value instanceof Boolean[]) {
+            return 1 + 4 + ((Boolean[]) value).length;
+        } else if (value instanceof Integer[]) {
+            return 1 + 4 + 4 * ((Integer[]) value).length;
+        } else if (value instanceof Float[]) {
+            return 1 + 4 + 4 * ((Float[]) value).length;
+        } else if (value instanceof Long[]) {
+            return 1 + 4 + 8 * ((Long[]) value).length;
+        } else if (value instanceof Double[]) {
+            return 1 + 4 + 8 * ((Double[]) value).length;
+        } else if (value instanceof String[]) {
+            int size = 1 + 4;
+            for (String element : (String[]) value) {
+                size += 1 + (element == null ? 0 : sizeOfString(element, encodedStrings));
+            }
+            return size;
+        } else {
+            throw new IllegalArgumentException("Unsupported value type " + value.getClass());
+        }
+    }
+
+    /**
+     * Writes the type tag of the value followed by the value itself. Arrays are written as their
+     * length followed by the raw elements; a {@code null} element of a boxed array can't be read
+     * back through the typed getters, so it is written as the default value of its type.
+     */
+    private static void writeValue(ByteBuffer buffer, Object value, Iterator<byte[]> strings) {
+        if (value == null) {
+            buffer.put(TYPE_NULL);
+        } else if (value instanceof Boolean) {
+            buffer.put(TYPE_BOOLEAN);
+            buffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+        } else if (value instanceof Integer) {
+            buffer.put(TYPE_INT);
+            buffer.putInt((Integer) value);
+        } else if (value instanceof Long) {
+            buffer.put(TYPE_LONG);
+            buffer.putLong((Long) value);
+        } else if (value instanceof Float) {
+            buffer.put(TYPE_FLOAT);
+            buffer.putFloat((Float) value);
+        } else if (value instanceof Double) {
+            buffer.put(TYPE_DOUBLE);
+            buffer.putDouble((Double) value);
+        } else if (value instanceof String) {
+            buffer.put(TYPE_STRING);
+            writeString(buffer, strings.next());
+        } else if (value instanceof Boolean[]) {
+            Boolean[] array = (Boolean[]) value;
+            buffer.put(TYPE_BOOLEAN_ARRAY);
+            buffer.putInt(array.length);
+            for (Boolean element : array) {
+                buffer.put(element != null && element ? (byte) 1 : (byte) 0);
+            }
+        } else if (value instanceof Integer[]) {
+            Integer[] array = (Integer[]) value;
+            buffer.put(TYPE_INT_ARRAY);
+            buffer.putInt(array.length);
+            for (Integer element : array) {
+                buffer.putInt(element == null ? 0 : element);
+            }
+        } else if (value instanceof Long[]) {
+            Long[] array = (Long[]) value;
+            buffer.put(TYPE_LONG_ARRAY);
+            buffer.putInt(array.length);
+            for (Long element : array) {
+                buffer.putLong(element == null ? 0L : element);
+            }
+        } else if (value instanceof Float[]) {
+            Float[] array = (Float[]) value;
+            buffer.put(TYPE_FLOAT_ARRAY);
+            buffer.putInt(array.length);
+            for (Float element : array) {
+                buffer.putFloat(element == null ? 0f : element);
+            }
+        } else if (value instanceof Double[]) {
+            Double[] array = (Double[]) value;
+            buffer.put(TYPE_DOUBLE_ARRAY);
+            buffer.putInt(array.length);
+            for (Double element : array) {
+                buffer.putDouble(element == null ? 0d : element);
+            }
+        } else if (value instanceof String[]) {
+            String[] array = (String[]) value;
+            buffer.put(TYPE_STRING_ARRAY);
+            buffer.putInt(array.length);
+            for (String element : array) {
+                if (element == null) {
+                    buffer.put((byte) 0);
+                } else {
+                    buffer.put((byte) 1);
+                    writeString(buffer, strings.next());
+                }
+            }
+        }
+    }
+
+    private static Object readValue(ByteBuffer buffer) throws IOException {
+        byte type = buffer.get();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_BOOLEAN:
+                return buffer.get() != 0;
+            case TYPE_INT:
+                return buffer.getInt();
+            case TYPE_LONG:
+                return buffer.getLong();
+            case TYPE_FLOAT:
+                return buffer.getFloat();
+            case TYPE_DOUBLE:
+                return buffer.getDouble();
+            case TYPE_STRING:
+                return readString(buffer);
+            case TYPE_BOOLEAN_ARRAY: {
+                Boolean[] array = new Boolean[readArrayLength(buffer, 1)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = buffer.get() != 0;
+                }
+                return array;
+            }
+            case TYPE_INT_ARRAY: {
+                Integer[] array = new Integer[readArrayLength(buffer, 4)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = buffer.getInt();
+                }
+                return array;
+            }
+            case TYPE_LONG_ARRAY: {
+                Long[] array = new Long[readArrayLength(buffer, 8)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = buffer.getLong();
+                }
+                return array;
+            }
+            case TYPE_FLOAT_ARRAY: {
+                Float[] array = new Float[readArrayLength(buffer, 4)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = buffer.getFloat();
+                }
+                return array;
+            }
+            case TYPE_DOUBLE_ARRAY: {
+                Double[] array = new Double[readArrayLength(buffer, 8)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = buffer.getDouble();
+                }
+                return array;
+            }
+            case TYPE_STRING_ARRAY: {
+                String[] array = new String[readArrayLength(buffer, 1)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = buffer.get() != 0 ? readString(buffer) : null;
+                }
+                return array;
+            }
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    private static int readArrayLength(ByteBuffer buffer, int elementSize) throws IOException {
+        int length = buffer.getInt();
+        // don't let a corrupt length allocate a huge array
+        if (length < 0 || length > buffer.remaining() / elementSize) {
+            throw new IOException("Invalid array length " + length);
+        }
+        return length;
+    }
+
+    private static void writeString(ByteBuffer buffer, byte[] encoded) {
+        // a String over 64KB would be over MAX_DATA_BYTES
+        buffer.putShort((short) encoded.length);
+        buffer.put(encoded);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.position(), length, UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
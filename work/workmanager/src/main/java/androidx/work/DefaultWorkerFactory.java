@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link WorkerFactory} used when none is specified in the {@link Configuration}.  It looks up
+ * the no-argument constructor of a {@link Worker} class once, and reuses it for every run.
+ */
+final class DefaultWorkerFactory extends WorkerFactory {
+
+    private static final String TAG = "DefaultWorkerFactory";
+
+    // Classes that could not be instantiated are not cached, so that the error is logged again.
+    private final ConcurrentHashMap<String, Constructor<? extends Worker>> mConstructors =
+            new ConcurrentHashMap<>();
+
+    @Override
+    public @Nullable Worker createWorker(
+            @NonNull Context appContext,
+            @NonNull String workerClassName) {
+        try {
+            Constructor<? extends Worker> constructor = mConstructors.get(workerClassName);
+            if (constructor == null) {
+                constructor = Class.forName(workerClassName)
+                        .asSubclass(Worker.class)
+                        .getConstructor();
+                mConstructors.put(workerClassName, constructor);
+            }
+            return constructor.newInstance();
+        } catch (Exception e) {
+            Log.e(TAG, "Trouble instantiating " + workerClassName, e);
+        }
+        return null;
+    }
+}
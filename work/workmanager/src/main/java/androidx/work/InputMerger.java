@@ -20,7 +20,9 @@ import android.support.annotation.NonNull;
 import android.support.annotation.RestrictTo;
 import android.util.Log;
 
+import java.lang.reflect.Constructor;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An abstract class that allows the user to define how to merge a list of inputs to a Worker.
@@ -30,6 +32,10 @@ public abstract class InputMerger {
 
     private static final String TAG = "InputMerger";
 
+    // The constructors are resolved once per class, InputMergers are created for every run.
+    private static final ConcurrentHashMap<String, Constructor<? extends InputMerger>>
+            sConstructors = new ConcurrentHashMap<>();
+
     /**
      * Merges a list of {@link Data} and outputs a single Data object.
      *
@@ -47,11 +53,16 @@ public abstract class InputMerger {
      * @hide
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    @SuppressWarnings("ClassNewInstance")
     public static InputMerger fromClassName(String className) {
         try {
-            Class<?> clazz = Class.forName(className);
-            return (InputMerger) clazz.newInstance();
+            Constructor<? extends InputMerger> constructor = sConstructors.get(className);
+            if (constructor == null) {
+                constructor = Class.forName(className)
+                        .asSubclass(InputMerger.class)
+                        .getConstructor();
+                sConstructors.put(className, constructor);
+            }
+            return constructor.newInstance();
         } catch (Exception e) {
             Log.e(TAG, "Trouble instantiating + " + className, e);
         }
@@ -19,7 +19,6 @@ package androidx.work;
 import android.content.Context;
 import android.net.Network;
 import android.net.Uri;
-import android.support.annotation.Keep;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.RequiresApi;
@@ -37,6 +36,9 @@ import java.util.concurrent.TimeUnit;
  * {@link WorkManager} and the {@link #doWork()} method is called on a background thread.  In case
  * the work is pre-empted for any reason, the same instance of Worker is not reused.  This means
  * that {@link #doWork()} is called exactly once per Worker instance.
+ * <p>
+ * {@link #doWork()} holds a thread of the {@link Configuration#getExecutor() Executor} until it
+ * returns.  Work that mostly waits on I/O can extend {@link AsyncWorker} instead.
  */
 public abstract class Worker {
 
@@ -251,9 +253,10 @@ public abstract class Worker {
         // Do nothing by default.
     }
 
-    @Keep
-    @SuppressWarnings("unused")
-    private void internalInit(
+    /**
+     * Called by {@link WorkerFactory} right after the Worker is created.
+     */
+    final void internalInit(
             @NonNull Context appContext,
             @NonNull UUID id,
             @NonNull Extras extras) {
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+import android.util.Log;
+
+import androidx.work.impl.Extras;
+
+import java.util.UUID;
+
+/**
+ * A factory object that creates {@link Worker} instances.  The factory is invoked every time a
+ * work runs.  You can override the default implementation of this factory by manually
+ * initializing {@link WorkManager} with a {@link Configuration} that specifies a custom
+ * {@link WorkerFactory}, see {@link Configuration.Builder#setWorkerFactory(WorkerFactory)}.
+ * <p>
+ * The default factory instantiates Workers through their public no-argument constructor, and
+ * caches the resolved constructor of each class.
+ */
+public abstract class WorkerFactory {
+
+    private static final String TAG = "WorkerFactory";
+
+    private static final WorkerFactory sDefaultWorkerFactory = new DefaultWorkerFactory();
+
+    /**
+     * Override this method to implement your custom worker-creation logic.  Return {@code null}
+     * to let {@link WorkManager} instantiate the {@link Worker} with the default factory.
+     * <p>
+     * This method is called on a background thread, and must return a new instance every time.
+     *
+     * @param appContext The application {@link Context}
+     * @param workerClassName The fully qualified class name of the {@link Worker} to create
+     * @return A new instance of {@code workerClassName}, or {@code null}
+     */
+    public abstract @Nullable Worker createWorker(
+            @NonNull Context appContext,
+            @NonNull String workerClassName);
+
+    /**
+     * Creates and initializes a {@link Worker}, falling back to the default factory when this
+     * factory returns {@code null}.
+     *
+     * @param appContext The application {@link Context}
+     * @param workerClassName The fully qualified class name of the {@link Worker} to create
+     * @param id The id of the {@link WorkRequest} that created the {@link Worker}
+     * @param extras The {@link Extras} for the {@link Worker}
+     * @return The initialized {@link Worker}, or {@code null} if it could not be created
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public final @Nullable Worker createWorkerWithDefaultFallback(
+            @NonNull Context appContext,
+            @NonNull String workerClassName,
+            @NonNull UUID id,
+            @NonNull Extras extras) {
+        Worker worker = null;
+        try {
+            worker = createWorker(appContext, workerClassName);
+        } catch (Exception e) {
+            Log.e(TAG, "Trouble creating " + workerClassName, e);
+        }
+        if (worker == null && this != sDefaultWorkerFactory) {
+            worker = sDefaultWorkerFactory.createWorker(appContext, workerClassName);
+        }
+        if (worker != null) {
+            worker.internalInit(appContext, id, extras);
+        }
+        return worker;
+    }
+
+    /**
+     * @return The default {@link WorkerFactory}
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public static @NonNull WorkerFactory getDefaultWorkerFactory() {
+        return sDefaultWorkerFactory;
+    }
+}
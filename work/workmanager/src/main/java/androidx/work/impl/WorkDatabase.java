@@ -17,9 +17,9 @@
 package androidx.work.impl;
 
 import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_3_4;
+import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_4_5;
 import static androidx.work.impl.WorkDatabaseMigrations.VERSION_2;
 import static androidx.work.impl.WorkDatabaseMigrations.VERSION_3;
-import static androidx.work.impl.model.WorkTypeConverters.StateIds.COMPLETED_STATES;
 import static androidx.work.impl.model.WorkTypeConverters.StateIds.ENQUEUED;
 import static androidx.work.impl.model.WorkTypeConverters.StateIds.RUNNING;
 
@@ -45,8 +45,6 @@ import androidx.work.impl.model.WorkTag;
 import androidx.work.impl.model.WorkTagDao;
 import androidx.work.impl.model.WorkTypeConverters;
 
-import java.util.concurrent.TimeUnit;
-
 /**
  * A Room database for keeping track of work states.
  *
@@ -59,7 +57,7 @@ import java.util.concurrent.TimeUnit;
         WorkTag.class,
         SystemIdInfo.class,
         WorkName.class},
-        version = 4)
+        version = 5)
 @TypeConverters(value = {Data.class, WorkTypeConverters.class})
 public abstract class WorkDatabase extends RoomDatabase {
 
@@ -69,21 +67,6 @@ public abstract class WorkDatabase extends RoomDatabase {
             + " schedule_requested_at=" + WorkSpec.SCHEDULE_NOT_REQUESTED_YET
             + " WHERE state=" + RUNNING;
 
-    // Delete rows in the workspec table that...
-    private static final String PRUNE_SQL_FORMAT_PREFIX = "DELETE FROM workspec WHERE "
-            // are completed...
-            + "state IN " + COMPLETED_STATES + " AND "
-            // and the minimum retention time has expired...
-            + "(period_start_time + minimum_retention_duration) < ";
-    // and all dependents are completed.
-    private static final String PRUNE_SQL_FORMAT_SUFFIX = " AND "
-            + "(SELECT COUNT(*)=0 FROM dependency WHERE "
-            + "    prerequisite_id=id AND "
-            + "    work_spec_id NOT IN "
-            + "        (SELECT id FROM workspec WHERE state IN " + COMPLETED_STATES + "))";
-
-    private static final long PRUNE_THRESHOLD_MILLIS = TimeUnit.DAYS.toMillis(7);
-
     /**
      * Creates an instance of the WorkDatabase.
      *
@@ -106,6 +89,7 @@ public abstract class WorkDatabase extends RoomDatabase {
                 .addMigrations(
                         new WorkDatabaseMigrations.WorkMigration(context, VERSION_2, VERSION_3))
                 .addMigrations(MIGRATION_3_4)
+                .addMigrations(MIGRATION_4_5)
                 .fallbackToDestructiveMigration()
                 .build();
     }
@@ -115,30 +99,13 @@ public abstract class WorkDatabase extends RoomDatabase {
             @Override
             public void onOpen(@NonNull SupportSQLiteDatabase db) {
                 super.onOpen(db);
-                db.beginTransaction();
-                try {
-                    db.execSQL(CLEANUP_SQL);
-
-                    // Prune everything that is completed, has an expired retention time, and has no
-                    // active dependents:
-                    db.execSQL(getPruneSQL());
-
-                    db.setTransactionSuccessful();
-                } finally {
-                    db.endTransaction();
-                }
+                // Finished work with an expired retention time is pruned in the background, see
+                // PruneWorkRunnable.
+                db.execSQL(CLEANUP_SQL);
             }
         };
     }
 
-    private static String getPruneSQL() {
-        return PRUNE_SQL_FORMAT_PREFIX + getPruneDate() + PRUNE_SQL_FORMAT_SUFFIX;
-    }
-
-    static long getPruneDate() {
-        return System.currentTimeMillis() - PRUNE_THRESHOLD_MILLIS;
-    }
-
     /**
      * @return The Data Access Object for {@link WorkSpec}s.
      */
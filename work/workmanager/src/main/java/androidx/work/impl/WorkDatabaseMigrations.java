@@ -44,6 +44,7 @@ public class WorkDatabaseMigrations {
     public static final int VERSION_2 = 2;
     public static final int VERSION_3 = 3;
     public static final int VERSION_4 = 4;
+    public static final int VERSION_5 = 5;
 
     private static final String CREATE_SYSTEM_ID_INFO =
             "CREATE TABLE IF NOT EXISTS `SystemIdInfo` (`work_spec_id` TEXT NOT NULL, `system_id`"
@@ -62,6 +63,9 @@ public class WorkDatabaseMigrations {
 
     private static final String REMOVE_ALARM_INFO = "DROP TABLE IF EXISTS alarmInfo";
 
+    private static final String CREATE_WORK_SPEC_STATE_INDEX =
+            "CREATE INDEX IF NOT EXISTS `index_WorkSpec_state` ON `WorkSpec` (`state`)";
+
     /**
      * Removes the {@code alarmInfo} table and substitutes it for a more general
      * {@code SystemIdInfo} table.
@@ -108,4 +112,14 @@ public class WorkDatabaseMigrations {
             }
         }
     };
+
+    /**
+     * Adds an index on the {@code state} of {@code WorkSpec}s, most queries filter on it.
+     */
+    public static Migration MIGRATION_4_5 = new Migration(VERSION_4, VERSION_5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL(CREATE_WORK_SPEC_STATE_INDEX);
+        }
+    };
 }
@@ -181,6 +181,8 @@ public class WorkManagerImpl extends WorkManager implements SynchronousWorkManag
 
         // Checks for app force stops.
         mTaskExecutor.executeOnBackgroundThread(new ForceStopRunnable(context, this));
+        // Prunes finished work that is past its retention.
+        mTaskExecutor.executeOnBackgroundThread(PruneWorkRunnable.forExpiredWork(this));
     }
 
     /**
@@ -32,21 +32,23 @@ import android.support.annotation.VisibleForTesting;
 import android.support.annotation.WorkerThread;
 import android.util.Log;
 
+import androidx.work.AsyncWorker;
 import androidx.work.Configuration;
 import androidx.work.Data;
 import androidx.work.InputMerger;
 import androidx.work.State;
 import androidx.work.Worker;
+import androidx.work.WorkerFactory;
 import androidx.work.impl.model.DependencyDao;
 import androidx.work.impl.model.WorkSpec;
 import androidx.work.impl.model.WorkSpecDao;
 import androidx.work.impl.model.WorkTagDao;
 import androidx.work.impl.utils.taskexecutor.WorkManagerTaskExecutor;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A runnable that looks up the {@link WorkSpec} from the database for a given id, instantiates
@@ -73,6 +75,9 @@ public class WorkerWrapper implements Runnable {
     private WorkTagDao mWorkTagDao;
 
     private volatile boolean mInterrupted;
+    // set once an AsyncWorker was started, its result is then handled by finishAsyncWork
+    private volatile boolean mAsyncWorkStarted;
+    private final AtomicBoolean mAsyncWorkFinished = new AtomicBoolean(false);
 
     private WorkerWrapper(Builder builder) {
         mAppContext = builder.mAppContext;
@@ -148,7 +153,11 @@ public class WorkerWrapper implements Runnable {
         // Not always creating a worker here, as the WorkerWrapper.Builder can set a worker override
         // in test mode.
         if (mWorker == null) {
-            mWorker = workerFromWorkSpec(mAppContext, mWorkSpec, extras);
+            mWorker = mConfiguration.getWorkerFactory().createWorkerWithDefaultFallback(
+                    mAppContext,
+                    mWorkSpec.workerClassName,
+                    UUID.fromString(mWorkSpec.id),
+                    extras);
         }
 
         if (mWorker == null) {
@@ -164,6 +173,12 @@ public class WorkerWrapper implements Runnable {
                 return;
             }
 
+            if (mWorker instanceof AsyncWorker) {
+                // don't hold this thread while the work is in flight
+                startAsyncWork((AsyncWorker) mWorker);
+                return;
+            }
+
             Worker.Result result;
             try {
                 result = mWorker.doWork();
@@ -175,29 +190,68 @@ public class WorkerWrapper implements Runnable {
                                 mWorkSpecId),
                         e);
             }
+            onWorkFinished(result);
+        } else {
+            notifyIncorrectStatus();
+        }
+    }
 
-            try {
-                mWorkDatabase.beginTransaction();
-                if (!tryCheckForInterruptionAndNotify()) {
-                    State state = mWorkSpecDao.getState(mWorkSpecId);
-                    if (state == null) {
-                        // state can be null here with a REPLACE on beginUniqueWork().
-                        // Treat it as a failure, and rescheduleAndNotify() will
-                        // turn into a no-op. We still need to notify potential observers
-                        // holding on to wake locks on our behalf.
-                        notifyListener(false, false);
-                    } else if (state == RUNNING) {
-                        handleResult(result);
-                    } else if (!state.isFinished()) {
-                        rescheduleAndNotify();
-                    }
-                    mWorkDatabase.setTransactionSuccessful();
+    private void startAsyncWork(AsyncWorker worker) {
+        mAsyncWorkStarted = true;
+        try {
+            worker.startWork(new AsyncWorker.ResultCallback() {
+                @Override
+                public void onResult(@NonNull Worker.Result result) {
+                    finishAsyncWork(result);
+                }
+            });
+        } catch (Exception | Error e) {
+            Log.e(TAG,
+                    String.format(
+                            "Worker %s failed because it threw an exception/error",
+                            mWorkSpecId),
+                    e);
+            finishAsyncWork(Worker.Result.FAILURE);
+        }
+        if (mInterrupted) {
+            // interrupt() may have missed the work while it was being started
+            finishAsyncWork(Worker.Result.FAILURE);
+        }
+    }
+
+    private void finishAsyncWork(final Worker.Result result) {
+        if (!mAsyncWorkFinished.compareAndSet(false, true)) {
+            return;
+        }
+        // The result can be reported on any thread, go back to a background thread to store it.
+        mConfiguration.getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                onWorkFinished(result);
+            }
+        });
+    }
+
+    private void onWorkFinished(Worker.Result result) {
+        try {
+            mWorkDatabase.beginTransaction();
+            if (!tryCheckForInterruptionAndNotify()) {
+                State state = mWorkSpecDao.getState(mWorkSpecId);
+                if (state == null) {
+                    // state can be null here with a REPLACE on beginUniqueWork().
+                    // Treat it as a failure, and rescheduleAndNotify() will
+                    // turn into a no-op. We still need to notify potential observers
+                    // holding on to wake locks on our behalf.
+                    notifyListener(false, false);
+                } else if (state == RUNNING) {
+                    handleResult(result);
+                } else if (!state.isFinished()) {
+                    rescheduleAndNotify();
                 }
-            } finally {
-                mWorkDatabase.endTransaction();
+                mWorkDatabase.setTransactionSuccessful();
             }
-        } else {
-            notifyIncorrectStatus();
+        } finally {
+            mWorkDatabase.endTransaction();
         }
     }
 
@@ -211,6 +265,10 @@ public class WorkerWrapper implements Runnable {
         if (mWorker != null) {
             mWorker.stop(cancelled);
         }
+        if (mAsyncWorkStarted) {
+            // the result of the work is ignored now, let the Processor know right away
+            finishAsyncWork(Worker.Result.FAILURE);
+        }
     }
 
     private void notifyIncorrectStatus() {
@@ -424,7 +482,7 @@ public class WorkerWrapper implements Runnable {
     }
 
     /**
-     * Creates a {@link Worker} reflectively & initializes the worker.
+     * Creates a {@link Worker} with the default {@link WorkerFactory} & initializes the worker.
      *
      * @param context         The application {@link Context}
      * @param workerClassName The fully qualified class name for the {@link Worker}
@@ -435,32 +493,16 @@ public class WorkerWrapper implements Runnable {
      * @hide
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    @SuppressWarnings("ClassNewInstance")
     public static Worker workerFromClassName(
             @NonNull Context context,
             @NonNull String workerClassName,
             @NonNull UUID workSpecId,
             @NonNull Extras extras) {
-        Context appContext = context.getApplicationContext();
-        try {
-            Class<?> clazz = Class.forName(workerClassName);
-            Worker worker = (Worker) clazz.newInstance();
-            Method internalInitMethod = Worker.class.getDeclaredMethod(
-                    "internalInit",
-                    Context.class,
-                    UUID.class,
-                    Extras.class);
-            internalInitMethod.setAccessible(true);
-            internalInitMethod.invoke(
-                    worker,
-                    appContext,
-                    workSpecId,
-                    extras);
-            return worker;
-        } catch (Exception e) {
-            Log.e(TAG, "Trouble instantiating " + workerClassName, e);
-        }
-        return null;
+        return WorkerFactory.getDefaultWorkerFactory().createWorkerWithDefaultFallback(
+                context.getApplicationContext(),
+                workerClassName,
+                workSpecId,
+                extras);
     }
 
     /**
@@ -37,6 +37,14 @@ public interface DependencyDao {
     @Insert(onConflict = IGNORE)
     void insertDependency(Dependency dependency);
 
+    /**
+     * Attempts to insert {@link Dependency}s into the database, reusing a single statement.
+     *
+     * @param dependencies The {@link Dependency}s to insert
+     */
+    @Insert(onConflict = IGNORE)
+    void insertDependencies(List<Dependency> dependencies);
+
     /**
      * Determines if a {@link WorkSpec} has completed all prerequisites.
      *
@@ -38,6 +38,14 @@ public interface WorkNameDao {
     @Insert(onConflict = IGNORE)
     void insert(WorkName workName);
 
+    /**
+     * Inserts {@link WorkName}s into the table, reusing a single statement.
+     *
+     * @param workNames The {@link WorkName}s to insert
+     */
+    @Insert(onConflict = IGNORE)
+    void insertWorkNames(List<WorkName> workNames);
+
     /**
      * Retrieves all {@link WorkSpec} ids in the given named graph.
      *
@@ -51,7 +51,9 @@ import java.util.UUID;
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 @Entity(
-        indices = {@Index(value = {"schedule_requested_at"})}
+        indices = {
+                @Index(value = {"schedule_requested_at"}),
+                @Index(value = {"state"})}
 )
 public class WorkSpec {
     private static final String TAG = "WorkSpec";
@@ -46,6 +46,14 @@ public interface WorkSpecDao {
     @Insert(onConflict = IGNORE)
     void insertWorkSpec(WorkSpec workSpec);
 
+    /**
+     * Attempts to insert {@link WorkSpec}s into the database, reusing a single statement.
+     *
+     * @param workSpecs The WorkSpecs to insert.
+     */
+    @Insert(onConflict = IGNORE)
+    void insertWorkSpecs(List<WorkSpec> workSpecs);
+
     /**
      * Deletes {@link WorkSpec}s from the database.
      *
@@ -70,6 +78,15 @@ public interface WorkSpecDao {
     @Query("SELECT * FROM workspec WHERE id IN (:ids)")
     WorkSpec[] getWorkSpecs(List<String> ids);
 
+    /**
+     * Retrieves the ids and states of the {@link WorkSpec}s with the identifiers.
+     *
+     * @param ids The identifiers of desired {@link WorkSpec}s
+     * @return The ids and states of the {@link WorkSpec}s that exist
+     */
+    @Query("SELECT id, state FROM workspec WHERE id IN (:ids)")
+    List<WorkSpec.IdAndState> getWorkSpecIdAndStates(List<String> ids);
+
     /**
      * Retrieves {@link WorkSpec}s labelled with a given name.
      *
@@ -292,15 +309,40 @@ public interface WorkSpecDao {
     List<WorkSpec> getEligibleWorkForScheduling(int schedulerLimit);
 
     /**
-     * Immediately prunes eligible work from the database meeting the following criteria:
+     * Immediately prunes a batch of eligible work from the database meeting the following
+     * criteria:
      * - Is finished (succeeded, failed, or cancelled)
      * - Has zero unfinished dependents
+     *
+     * @param limit The maximum number of {@link WorkSpec}s to delete
+     * @return The number of {@link WorkSpec}s that were deleted
+     */
+    @Query("DELETE FROM workspec WHERE id IN (SELECT id FROM workspec WHERE "
+            + "state IN " + COMPLETED_STATES
+            + " AND (SELECT COUNT(*)=0 FROM dependency WHERE "
+            + "    prerequisite_id=id AND "
+            + "    work_spec_id NOT IN "
+            + "        (SELECT id FROM workspec WHERE state IN " + COMPLETED_STATES + "))"
+            + " LIMIT :limit)")
+    int pruneFinishedWorkWithZeroDependentsIgnoringKeepForAtLeast(int limit);
+
+    /**
+     * Prunes a batch of eligible work from the database meeting the following criteria:
+     * - Is finished (succeeded, failed, or cancelled)
+     * - Its minimum retention duration expired before the given time
+     * - Has zero unfinished dependents
+     *
+     * @param expiredBefore The time, in milliseconds, before which the retention duration expired
+     * @param limit The maximum number of {@link WorkSpec}s to delete
+     * @return The number of {@link WorkSpec}s that were deleted
      */
-    @Query("DELETE FROM workspec WHERE "
+    @Query("DELETE FROM workspec WHERE id IN (SELECT id FROM workspec WHERE "
             + "state IN " + COMPLETED_STATES
+            + " AND (period_start_time + minimum_retention_duration) < :expiredBefore"
             + " AND (SELECT COUNT(*)=0 FROM dependency WHERE "
             + "    prerequisite_id=id AND "
             + "    work_spec_id NOT IN "
-            + "        (SELECT id FROM workspec WHERE state IN " + COMPLETED_STATES + "))")
-    void pruneFinishedWorkWithZeroDependentsIgnoringKeepForAtLeast();
+            + "        (SELECT id FROM workspec WHERE state IN " + COMPLETED_STATES + "))"
+            + " LIMIT :limit)")
+    int pruneExpiredFinishedWorkWithZeroDependents(long expiredBefore, int limit);
 }
@@ -20,6 +20,9 @@ import static androidx.work.State.CANCELLED;
 import static androidx.work.State.FAILED;
 import static androidx.work.State.SUCCEEDED;
 
+import android.arch.persistence.db.SupportSQLiteStatement;
+import android.os.Build;
+import android.util.Log;
 import android.support.annotation.NonNull;
 import android.support.annotation.RestrictTo;
 import android.support.annotation.WorkerThread;
@@ -32,7 +35,9 @@ import androidx.work.impl.WorkDatabase;
 import androidx.work.impl.WorkManagerImpl;
 import androidx.work.impl.model.DependencyDao;
 import androidx.work.impl.model.WorkSpecDao;
+import androidx.work.impl.model.WorkTypeConverters.StateIds;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -44,8 +49,33 @@ import java.util.UUID;
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public abstract class CancelWorkRunnable implements Runnable {
 
+    private static final String TAG = "CancelWorkRunnable";
+
+    // Cancels the unfinished work in the set made of a WorkSpec and everything that depends on it,
+    // directly or not. The set is a recursive common table expression walking the dependency table.
+    private static final String CANCEL_WORK_AND_DEPENDENTS_SQL =
+            "WITH RECURSIVE dependents(id) AS ("
+                    + "SELECT ? UNION "
+                    + "SELECT work_spec_id FROM dependency, dependents "
+                    + "WHERE prerequisite_id=dependents.id) "
+                    + "UPDATE workspec SET state=" + StateIds.CANCELLED
+                    + " WHERE state NOT IN (" + StateIds.SUCCEEDED + ", " + StateIds.FAILED + ")"
+                    + " AND id IN (SELECT id FROM dependents)";
+
+    // WITH RECURSIVE needs SQLite 3.8.3, which ships with Lollipop.
+    private static final int MIN_RECURSIVE_QUERY_API_LEVEL = 21;
+
+    // Compiled on first use, then reused for every WorkSpec cancelled by this Runnable. Closed by
+    // closeCancelStatement() when the Runnable is done.
+    private SupportSQLiteStatement mCancelStatement;
+
     void cancel(WorkManagerImpl workManagerImpl, String workSpecId) {
-        recursivelyCancelWorkAndDependents(workManagerImpl.getWorkDatabase(), workSpecId);
+        WorkDatabase workDatabase = workManagerImpl.getWorkDatabase();
+        if (Build.VERSION.SDK_INT >= MIN_RECURSIVE_QUERY_API_LEVEL) {
+            cancelWorkAndDependents(workDatabase, workSpecId);
+        } else {
+            recursivelyCancelWorkAndDependents(workDatabase, workSpecId);
+        }
 
         Processor processor = workManagerImpl.getProcessor();
         processor.stopAndCancelWork(workSpecId);
@@ -62,6 +92,26 @@ public abstract class CancelWorkRunnable implements Runnable {
                 workManagerImpl.getSchedulers());
     }
 
+    private void cancelWorkAndDependents(WorkDatabase workDatabase, String workSpecId) {
+        if (mCancelStatement == null) {
+            mCancelStatement = workDatabase.compileStatement(CANCEL_WORK_AND_DEPENDENTS_SQL);
+        }
+        mCancelStatement.bindString(1, workSpecId);
+        mCancelStatement.executeUpdateDelete();
+    }
+
+    void closeCancelStatement() {
+        if (mCancelStatement == null) {
+            return;
+        }
+        try {
+            mCancelStatement.close();
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to close the cancel statement", e);
+        }
+        mCancelStatement = null;
+    }
+
     private void recursivelyCancelWorkAndDependents(WorkDatabase workDatabase, String workSpecId) {
 
         WorkSpecDao workSpecDao = workDatabase.workSpecDao();
@@ -92,7 +142,15 @@ public abstract class CancelWorkRunnable implements Runnable {
             @WorkerThread
             @Override
             public void run() {
-                cancel(workManagerImpl, id.toString());
+                WorkDatabase workDatabase = workManagerImpl.getWorkDatabase();
+                workDatabase.beginTransaction();
+                try {
+                    cancel(workManagerImpl, id.toString());
+                    workDatabase.setTransactionSuccessful();
+                } finally {
+                    closeCancelStatement();
+                    workDatabase.endTransaction();
+                }
                 reschedulePendingWorkers(workManagerImpl);
             }
         };
@@ -122,6 +180,7 @@ public abstract class CancelWorkRunnable implements Runnable {
                     }
                     workDatabase.setTransactionSuccessful();
                 } finally {
+                    closeCancelStatement();
                     workDatabase.endTransaction();
                 }
                 reschedulePendingWorkers(workManagerImpl);
@@ -153,6 +212,7 @@ public abstract class CancelWorkRunnable implements Runnable {
                     }
                     workDatabase.setTransactionSuccessful();
                 } finally {
+                    closeCancelStatement();
                     workDatabase.endTransaction();
                 }
                 reschedulePendingWorkers(workManagerImpl);
@@ -183,6 +243,7 @@ public abstract class CancelWorkRunnable implements Runnable {
                     new Preferences(workManagerImpl.getApplicationContext())
                             .setLastCancelAllTimeMillis(System.currentTimeMillis());
                 } finally {
+                    closeCancelStatement();
                     workDatabase.endTransaction();
                 }
                 // No need to call reschedule pending workers here as we just cancelled everything.
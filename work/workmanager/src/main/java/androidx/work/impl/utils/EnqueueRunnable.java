@@ -51,6 +51,7 @@ import androidx.work.impl.model.WorkTag;
 import androidx.work.impl.workers.ConstraintTrackingWorker;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
@@ -63,6 +64,8 @@ import java.util.Set;
 public class EnqueueRunnable implements Runnable {
 
     private static final String TAG = "EnqueueRunnable";
+    // SQLite limits the number of arguments of a statement to 999.
+    private static final int MAX_IDS_PER_QUERY = 999;
 
     private final WorkContinuationImpl mWorkContinuation;
 
@@ -169,14 +172,15 @@ public class EnqueueRunnable implements Runnable {
             // If there are prerequisites, make sure they actually exist before enqueuing
             // anything.  Prerequisites may not exist if we are using unique tags, because the
             // chain of work could have been wiped out already.
-            for (String id : prerequisiteIds) {
-                WorkSpec prerequisiteWorkSpec = workDatabase.workSpecDao().getWorkSpec(id);
-                if (prerequisiteWorkSpec == null) {
-                    Log.e(TAG, String.format("Prerequisite %s doesn't exist; not enqueuing", id));
-                    return false;
-                }
-
-                State prerequisiteState = prerequisiteWorkSpec.state;
+            List<WorkSpec.IdAndState> prerequisiteStates =
+                    getIdAndStates(workDatabase.workSpecDao(), prerequisiteIds);
+            if (prerequisiteStates.size() != prerequisiteIds.length) {
+                Log.e(TAG, String.format("Prerequisites %s don't all exist; not enqueuing",
+                        TextUtils.join(", ", prerequisiteIds)));
+                return false;
+            }
+            for (WorkSpec.IdAndState prerequisite : prerequisiteStates) {
+                State prerequisiteState = prerequisite.state;
                 hasCompletedAllPrerequisites &= (prerequisiteState == SUCCEEDED);
                 if (prerequisiteState == FAILED) {
                     hasFailedPrerequisites = true;
@@ -236,7 +240,12 @@ public class EnqueueRunnable implements Runnable {
             }
         }
 
+        // Collect the rows, so that each table is written with a single statement.
         boolean needsScheduling = false;
+        List<WorkSpec> workSpecs = new ArrayList<>(workList.size());
+        List<Dependency> dependencies = new ArrayList<>();
+        List<WorkTag> workTags = new ArrayList<>();
+        List<WorkName> workNames = new ArrayList<>();
         for (WorkRequest work : workList) {
             WorkSpec workSpec = work.getWorkSpec();
 
@@ -263,26 +272,46 @@ public class EnqueueRunnable implements Runnable {
                 needsScheduling = true;
             }
 
-            workDatabase.workSpecDao().insertWorkSpec(workSpec);
+            workSpecs.add(workSpec);
 
             if (hasPrerequisite) {
                 for (String prerequisiteId : prerequisiteIds) {
-                    Dependency dep = new Dependency(work.getStringId(), prerequisiteId);
-                    workDatabase.dependencyDao().insertDependency(dep);
+                    dependencies.add(new Dependency(work.getStringId(), prerequisiteId));
                 }
             }
 
             for (String tag : work.getTags()) {
-                workDatabase.workTagDao().insert(new WorkTag(tag, work.getStringId()));
+                workTags.add(new WorkTag(tag, work.getStringId()));
             }
 
             if (isNamed) {
-                workDatabase.workNameDao().insert(new WorkName(name, work.getStringId()));
+                workNames.add(new WorkName(name, work.getStringId()));
             }
         }
+
+        // The WorkSpecs go first, the other rows reference them.
+        workDatabase.workSpecDao().insertWorkSpecs(workSpecs);
+        workDatabase.dependencyDao().insertDependencies(dependencies);
+        workDatabase.workTagDao().insertWorkTags(workTags);
+        workDatabase.workNameDao().insertWorkNames(workNames);
         return needsScheduling;
     }
 
+    /**
+     * Looks up the states of the given {@link WorkSpec}s, a bounded number of ids per query.
+     */
+    private static List<WorkSpec.IdAndState> getIdAndStates(
+            WorkSpecDao workSpecDao,
+            String[] ids) {
+        List<WorkSpec.IdAndState> idAndStates = new ArrayList<>(ids.length);
+        for (int start = 0; start < ids.length; start += MAX_IDS_PER_QUERY) {
+            int end = Math.min(start + MAX_IDS_PER_QUERY, ids.length);
+            idAndStates.addAll(
+                    workSpecDao.getWorkSpecIdAndStates(Arrays.asList(ids).subList(start, end)));
+        }
+        return idAndStates;
+    }
+
     private static void tryDelegateConstrainedWorkSpec(WorkSpec workSpec) {
         // requiresBatteryNotLow and requiresStorageNotLow require API 26 for JobScheduler.
         // Delegate to ConstraintTrackingWorker between API 23-25.
@@ -16,32 +16,93 @@
 
 package androidx.work.impl.utils;
 
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
 import android.support.annotation.RestrictTo;
+import android.support.annotation.VisibleForTesting;
 
 import androidx.work.impl.WorkDatabase;
 import androidx.work.impl.WorkManagerImpl;
 import androidx.work.impl.model.WorkSpecDao;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * A Runnable that prunes work in the background.  Pruned work meets the following criteria:
  * - Is finished (succeeded, failed, or cancelled)
  * - Has zero unfinished dependents
+ * <p>
+ * Work is deleted in batches, each in its own transaction, so that other writers are not blocked
+ * while a large number of finished {@link androidx.work.impl.model.WorkSpec}s is pruned.
  *
  * @hide
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class PruneWorkRunnable implements Runnable {
 
-    private WorkManagerImpl mWorkManagerImpl;
+    @VisibleForTesting
+    static final int PRUNE_BATCH_SIZE = 100;
+
+    // The time the pruning of expired work may take, the rest is pruned the next time.
+    private static final long EXPIRED_WORK_TIME_BUDGET_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final long NO_TIME_BUDGET = -1L;
+
+    private final WorkManagerImpl mWorkManagerImpl;
+    private final boolean mOnlyExpiredWork;
+    private final long mTimeBudgetMillis;
 
+    /**
+     * Creates a {@link PruneWorkRunnable} that prunes all eligible finished work, ignoring the
+     * retention durations.
+     *
+     * @param workManagerImpl The {@link WorkManagerImpl} to use
+     */
     public PruneWorkRunnable(WorkManagerImpl workManagerImpl) {
+        this(workManagerImpl, false, NO_TIME_BUDGET);
+    }
+
+    private PruneWorkRunnable(
+            WorkManagerImpl workManagerImpl,
+            boolean onlyExpiredWork,
+            long timeBudgetMillis) {
         mWorkManagerImpl = workManagerImpl;
+        mOnlyExpiredWork = onlyExpiredWork;
+        mTimeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * Creates a {@link PruneWorkRunnable} that prunes the eligible finished work whose retention
+     * has expired.  It stops after a time budget, the remaining work is pruned by the next run.
+     *
+     * @param workManagerImpl The {@link WorkManagerImpl} to use
+     * @return A {@link PruneWorkRunnable} that prunes expired work
+     * @see androidx.work.Configuration#getFinishedWorkRetentionMillis()
+     */
+    public static PruneWorkRunnable forExpiredWork(@NonNull WorkManagerImpl workManagerImpl) {
+        return new PruneWorkRunnable(workManagerImpl, true, EXPIRED_WORK_TIME_BUDGET_MILLIS);
     }
 
     @Override
     public void run() {
         WorkDatabase workDatabase = mWorkManagerImpl.getWorkDatabase();
         WorkSpecDao workSpecDao = workDatabase.workSpecDao();
-        workSpecDao.pruneFinishedWorkWithZeroDependentsIgnoringKeepForAtLeast();
+        long expiredBefore = System.currentTimeMillis()
+                - mWorkManagerImpl.getConfiguration().getFinishedWorkRetentionMillis();
+        long startTime = SystemClock.elapsedRealtime();
+        int pruned;
+        do {
+            if (mOnlyExpiredWork) {
+                pruned = workSpecDao.pruneExpiredFinishedWorkWithZeroDependents(
+                        expiredBefore, PRUNE_BATCH_SIZE);
+            } else {
+                pruned = workSpecDao.pruneFinishedWorkWithZeroDependentsIgnoringKeepForAtLeast(
+                        PRUNE_BATCH_SIZE);
+            }
+        } while (pruned == PRUNE_BATCH_SIZE && !isOverTimeBudget(startTime));
+    }
+
+    private boolean isOverTimeBudget(long startTime) {
+        return mTimeBudgetMillis != NO_TIME_BUDGET
+                && SystemClock.elapsedRealtime() - startTime >= mTimeBudgetMillis;
     }
 }
@@ -24,9 +24,9 @@ import android.text.TextUtils;
 import android.util.Log;
 
 import androidx.work.Worker;
+import androidx.work.WorkerFactory;
 import androidx.work.impl.WorkDatabase;
 import androidx.work.impl.WorkManagerImpl;
-import androidx.work.impl.WorkerWrapper;
 import androidx.work.impl.constraints.WorkConstraintsCallback;
 import androidx.work.impl.constraints.WorkConstraintsTracker;
 import androidx.work.impl.model.WorkSpec;
@@ -71,7 +71,7 @@ public class ConstraintTrackingWorker extends Worker implements WorkConstraintsC
         }
         // Instantiate the delegated worker. Use the same workSpecId, and the same Data
         // as this Worker's Data are a superset of the delegate's Worker's Data.
-        mDelegate = WorkerWrapper.workerFromClassName(
+        mDelegate = getWorkerFactory().createWorkerWithDefaultFallback(
                 getApplicationContext(),
                 className,
                 getId(),
@@ -138,6 +138,18 @@ public class ConstraintTrackingWorker extends Worker implements WorkConstraintsC
         return WorkManagerImpl.getInstance().getWorkDatabase();
     }
 
+    /**
+     * @return The {@link WorkerFactory} used to create the delegated {@link Worker}.
+     */
+    @VisibleForTesting
+    public WorkerFactory getWorkerFactory() {
+        WorkManagerImpl workManager = WorkManagerImpl.getInstance();
+        if (workManager == null) {
+            return WorkerFactory.getDefaultWorkerFactory();
+        }
+        return workManager.getConfiguration().getWorkerFactory();
+    }
+
     @Override
     public void onAllConstraintsMet(@NonNull List<String> workSpecIds) {
         // WorkConstraintTracker notifies on the main thread. So we don't want to trampoline
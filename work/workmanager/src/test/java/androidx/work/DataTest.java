@@ -24,6 +24,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -86,6 +89,84 @@ public class DataTest {
         assertThat(restoredData.getIntArray(KEY2), is(equalTo(expectedValue2)));
     }
 
+    @Test
+    public void testSerializeAllTypes() {
+        Data data = new Data.Builder()
+                .putBoolean("boolean", true)
+                .putInt("int", 1)
+                .putLong("long", 2L)
+                .putFloat("float", 3f)
+                .putDouble("double", 4d)
+                .putString("String", "five")
+                .putString("null", null)
+                .putBooleanArray("boolean array", new boolean[]{true, false})
+                .putIntArray("int array", new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE})
+                .putLongArray("long array", new long[]{Long.MIN_VALUE, Long.MAX_VALUE})
+                .putFloatArray("float array", new float[]{Float.NaN, -0f})
+                .putDoubleArray("double array", new double[]{Double.MIN_VALUE})
+                .putStringArray("String array", new String[]{"a", null, "\u00e9\u4e2d"})
+                .build();
+
+        byte[] byteArray = Data.toByteArray(data);
+        Data restoredData = Data.fromByteArray(byteArray);
+
+        assertThat(restoredData.size(), is(13));
+        assertThat(restoredData.getBoolean("boolean", false), is(true));
+        assertThat(restoredData.getInt("int", 0), is(1));
+        assertThat(restoredData.getLong("long", 0L), is(2L));
+        assertThat(restoredData.getFloat("float", 0f), is(3f));
+        assertThat(restoredData.getDouble("double", 0d), is(4d));
+        assertThat(restoredData.getString("String"), is("five"));
+        assertThat(restoredData.getKeyValueMap().containsKey("null"), is(true));
+        assertThat(restoredData.getString("null"), is(nullValue()));
+        assertThat(restoredData.getBooleanArray("boolean array"),
+                is(equalTo(new boolean[]{true, false})));
+        assertThat(restoredData.getIntArray("int array"),
+                is(equalTo(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE})));
+        assertThat(restoredData.getLongArray("long array"),
+                is(equalTo(new long[]{Long.MIN_VALUE, Long.MAX_VALUE})));
+        assertThat(restoredData.getFloatArray("float array"),
+                is(equalTo(new float[]{Float.NaN, -0f})));
+        assertThat(restoredData.getDoubleArray("double array"),
+                is(equalTo(new double[]{Double.MIN_VALUE})));
+        assertThat(restoredData.getStringArray("String array"),
+                is(equalTo(new String[]{"a", null, "\u00e9\u4e2d"})));
+    }
+
+    @Test
+    public void testDeserializeLegacyFormat() throws IOException {
+        Data data = new Data.Builder()
+                .putInt(KEY1, 1)
+                .putIntArray(KEY2, new int[]{1, 2, 3})
+                .build();
+
+        // The format used before the binary format was introduced.
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeInt(data.size());
+        for (Map.Entry<String, Object> entry : data.getKeyValueMap().entrySet()) {
+            objectOutputStream.writeUTF(entry.getKey());
+            objectOutputStream.writeObject(entry.getValue());
+        }
+        objectOutputStream.close();
+        Data restoredData = Data.fromByteArray(outputStream.toByteArray());
+
+        assertThat(restoredData.size(), is(2));
+        assertThat(restoredData.getInt(KEY1, 0), is(1));
+        assertThat(restoredData.getIntArray(KEY2), is(equalTo(new int[]{1, 2, 3})));
+    }
+
+    @Test
+    public void testSerializedArraysAreRaw() {
+        int[] payload = new int[1000];
+        Data data = new Data.Builder().putIntArray(KEY1, payload).build();
+
+        byte[] byteArray = Data.toByteArray(data);
+
+        // header, count, key, type, length and four bytes per element
+        assertThat(byteArray.length, is(3 + 4 + 2 + KEY1.length() + 1 + 4 + 4 * payload.length));
+    }
+
     @Test
     public void testSerializePastMaxSize() {
         int[] payload = new int[Data.MAX_DATA_BYTES + 1];